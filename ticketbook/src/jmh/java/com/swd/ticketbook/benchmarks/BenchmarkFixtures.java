@@ -0,0 +1,131 @@
+package com.swd.ticketbook.benchmarks;
+
+import com.swd.ticketbook.entities.*;
+import com.swd.ticketbook.enums.BookingStatus;
+import com.swd.ticketbook.enums.EventStatus;
+import com.swd.ticketbook.enums.UserRole;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory entity graphs and service wiring for the hot-path benchmarks
+ * Services are built without Spring: repositories are replaced by proxies that
+ * answer only the finder each benchmark needs, so no database is involved.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static User organizer() {
+        User user = new User("Saigon Live Entertainment", "organizer@ticketbook.vn", "x", UserRole.VERIFIED_ORGANIZER);
+        user.setUserId(7L);
+        return user;
+    }
+
+    static Event event(User organizer) {
+        Event event = new Event(organizer, "Mùa Thu Hà Nội Concert 2026",
+            LocalDateTime.now().plusDays(30), LocalDateTime.now().plusDays(30).plusHours(4));
+        event.setEventId(42L);
+        event.setDescription("An evening of Vietnamese classics with full orchestra. ".repeat(8));
+        event.setEventType("CONCERT");
+        event.setLocation("Hanoi");
+        event.setVenueName("Hanoi Opera House");
+        event.setPosterImage("https://cdn.ticketbook.vn/posters/42.jpg");
+        event.setStatus(EventStatus.ACTIVE);
+        event.setRefundAllowed(true);
+        event.setMaxTicketQuantity(10);
+        event.setCreatedAt(LocalDateTime.now());
+        return event;
+    }
+
+    static List<TicketType> ticketTypes(Event event, int count) {
+        List<TicketType> types = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TicketType type = new TicketType(event, "Zone " + (char) ('A' + i),
+                new BigDecimal(450_000 + 150_000 * i), 1_000);
+            type.setTicketTypeId(100L + i);
+            type.setDescription("Seated zone " + (char) ('A' + i));
+            types.add(type);
+        }
+        return types;
+    }
+
+    static Order order(User customer, Event event, BookingStatus status, int quantity, BigDecimal amount) {
+        Order order = new Order(customer, event);
+        order.setOrderId(9_001L);
+        order.setBookingStatus(status);
+        order.setTotalQuantity(quantity);
+        order.setTotalAmount(amount);
+        order.setRecipientName("Nguyễn Văn An");
+        order.setRecipientPhone("0901234567");
+        order.setRecipientEmail("an.nguyen@example.com");
+        order.setRecipientAddress("12 Tràng Tiền, Hoàn Kiếm, Hà Nội");
+        return order;
+    }
+
+    static List<Ticket> tickets(Order order, List<TicketType> types, int count) {
+        List<Ticket> tickets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Ticket ticket = new Ticket(order, types.get(i % types.size()), "TKT-9001-" + Integer.toHexString(0x1000_0000 + i));
+            ticket.setTicketId(50_000L + i);
+            tickets.add(ticket);
+        }
+        return tickets;
+    }
+
+    /**
+     * Repository stub answering the given methods by name; anything else fails loudly
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, Map<String, Object> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (answers.containsKey(method.getName())) {
+                return answers.get(method.getName());
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+        });
+    }
+
+    /**
+     * Set an @Autowired field
+     */
+    static void inject(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot inject " + fieldName + " into " + target.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Handle to a private service method, bound to the service instance
+     */
+    static MethodHandle privateMethod(Object target, String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(target.getClass(), MethodHandles.lookup());
+            return lookup.findVirtual(target.getClass(), name, MethodType.methodType(returnType, parameterTypes))
+                .bindTo(target);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot access " + target.getClass().getSimpleName() + "." + name, e);
+        }
+    }
+}
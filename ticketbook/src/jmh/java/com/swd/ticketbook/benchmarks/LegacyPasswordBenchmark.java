@@ -0,0 +1,42 @@
+package com.swd.ticketbook.benchmarks;
+
+import com.swd.ticketbook.utils.PasswordEncoderUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PasswordEncoderUtil (legacy MD5 format, FR1)
+ * Still on the login path for accounts that have not been migrated yet;
+ * PasswordHashingBenchmark covers the current algorithms.
+ *
+ * Run: ./gradlew jmh -PjmhIncludes=LegacyPasswordBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class LegacyPasswordBenchmark {
+
+    @Param({"Ticketbook2024", "a-much-longer-passphrase-with-7-words-2026"})
+    public String password;
+
+    private String storedHash;
+
+    @Setup
+    public void setUp() {
+        storedHash = PasswordEncoderUtil.encode(password);
+    }
+
+    @Benchmark
+    public String encode() {
+        return PasswordEncoderUtil.encode(password);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return PasswordEncoderUtil.matches(password, storedHash);
+    }
+}
@@ -0,0 +1,106 @@
+package com.swd.ticketbook.benchmarks;
+
+import com.swd.ticketbook.entities.*;
+import com.swd.ticketbook.enums.BookingStatus;
+import com.swd.ticketbook.repositories.TicketRepository;
+import com.swd.ticketbook.services.OrderService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order creation arithmetic and QR code assignment (UC-02.1, FR6)
+ * totalAsOrderService mirrors the loop in OrderService.createOrder; the other
+ * variants are candidates for replacing it.
+ *
+ * Run: ./gradlew jmh -PjmhIncludes=OrderPricingBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class OrderPricingBenchmark {
+
+    // Line items per order
+    @Param({"1", "4", "10"})
+    public int items;
+
+    private BigDecimal[] prices;
+    private int[] quantities;
+    private Order order;
+    private List<Ticket> tickets;
+    private MethodHandle generateQRCode;
+    private MethodHandle assignUniqueQRCodes;
+
+    @Setup
+    public void setUp() {
+        User organizer = BenchmarkFixtures.organizer();
+        Event event = BenchmarkFixtures.event(organizer);
+        List<TicketType> types = BenchmarkFixtures.ticketTypes(event, items);
+
+        prices = new BigDecimal[items];
+        quantities = new int[items];
+        for (int i = 0; i < items; i++) {
+            prices[i] = types.get(i).getPrice();
+            quantities[i] = 1 + i % 4;
+        }
+
+        order = BenchmarkFixtures.order(organizer, event, BookingStatus.CONFIRMED, items, BigDecimal.ZERO);
+        tickets = BenchmarkFixtures.tickets(order, types, items);
+
+        // No QR code collisions: every candidate is accepted on the first round
+        OrderService orderService = new OrderService();
+        BenchmarkFixtures.inject(orderService, "ticketRepository",
+            BenchmarkFixtures.repository(TicketRepository.class, Map.of("findExistingQrCodes", Set.of())));
+        generateQRCode = BenchmarkFixtures.privateMethod(orderService, "generateQRCode", String.class, Order.class);
+        assignUniqueQRCodes = BenchmarkFixtures.privateMethod(orderService, "assignUniqueQRCodes", void.class,
+            Order.class, List.class);
+    }
+
+    @Benchmark
+    public BigDecimal totalAsOrderService() {
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (int i = 0; i < prices.length; i++) {
+            BigDecimal itemAmount = prices[i].multiply(new BigDecimal(quantities[i]));
+            totalAmount = totalAmount.add(itemAmount);
+        }
+        return totalAmount;
+    }
+
+    @Benchmark
+    public BigDecimal totalWithValueOf() {
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (int i = 0; i < prices.length; i++) {
+            totalAmount = totalAmount.add(prices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        return totalAmount;
+    }
+
+    // VND has no minor unit: whole-dong long arithmetic, converted once
+    @Benchmark
+    public BigDecimal totalInWholeDong() {
+        long total = 0;
+        for (int i = 0; i < prices.length; i++) {
+            total = Math.addExact(total, Math.multiplyExact(prices[i].longValueExact(), quantities[i]));
+        }
+        return BigDecimal.valueOf(total);
+    }
+
+    @Benchmark
+    public String generateQRCode() throws Throwable {
+        return (String) generateQRCode.invokeExact(order);
+    }
+
+    @Benchmark
+    public List<Ticket> assignUniqueQRCodes() throws Throwable {
+        assignUniqueQRCodes.invokeExact(order, tickets);
+        return tickets;
+    }
+}
@@ -0,0 +1,64 @@
+package com.swd.ticketbook.benchmarks;
+
+import com.swd.ticketbook.utils.PasswordEncoderUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost-parameter harness for password verification (FR1)
+ * Pick the highest cost whose verify time keeps login within the latency budget,
+ * then set it in ticketbook.security.password.* properties.
+ *
+ * Run: ./gradlew jmh -PjmhIncludes=PasswordHashingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "Ticketbook2024";
+
+    /**
+     * Algorithm and cost, e.g. "bcrypt:10", "argon2:19456:2", "pbkdf2:310000", "md5"
+     */
+    @Param({"md5", "bcrypt:10", "bcrypt:12", "argon2:19456:2", "argon2:47104:1", "pbkdf2:310000", "pbkdf2:600000"})
+    public String config;
+
+    private PasswordEncoder encoder;
+    private String storedHash;
+
+    @Setup
+    public void setUp() {
+        String[] parts = config.split(":");
+        encoder = switch (parts[0]) {
+            case "bcrypt" -> new BCryptPasswordEncoder(Integer.parseInt(parts[1]));
+            case "argon2" -> new Argon2PasswordEncoder(16, 32, 1,
+                Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+            case "pbkdf2" -> new Pbkdf2PasswordEncoder("", 16, Integer.parseInt(parts[1]),
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+            case "md5" -> null;
+            default -> throw new IllegalArgumentException("Unknown config: " + config);
+        };
+        storedHash = encoder != null ? encoder.encode(PASSWORD) : PasswordEncoderUtil.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return encoder != null
+            ? encoder.matches(PASSWORD, storedHash)
+            : PasswordEncoderUtil.matches(PASSWORD, storedHash);
+    }
+
+    @Benchmark
+    public boolean passwordStrengthCheck() {
+        return PasswordEncoderUtil.isPasswordStrong(PASSWORD);
+    }
+}
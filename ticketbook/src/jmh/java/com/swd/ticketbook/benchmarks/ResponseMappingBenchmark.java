@@ -0,0 +1,99 @@
+package com.swd.ticketbook.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swd.ticketbook.dto.ApiResponse;
+import com.swd.ticketbook.dto.event.PublicEventResponse;
+import com.swd.ticketbook.dto.order.OrderResponse;
+import com.swd.ticketbook.entities.*;
+import com.swd.ticketbook.enums.BookingStatus;
+import com.swd.ticketbook.repositories.TicketRepository;
+import com.swd.ticketbook.repositories.TicketTypeRepository;
+import com.swd.ticketbook.repositories.TicketTypeShardRepository;
+import com.swd.ticketbook.services.EventService;
+import com.swd.ticketbook.services.InventoryService;
+import com.swd.ticketbook.services.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.invoke.MethodHandle;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping and JSON serialization of the most requested responses
+ * (UC-02.1, UC-02.2, public event details)
+ * Repositories are stubbed, so only mapping and serialization are measured.
+ *
+ * Run: ./gradlew jmh -PjmhIncludes=ResponseMappingBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    // PENDING_PAYMENT maps the countdown only; CONFIRMED also maps the tickets
+    @Param({"PENDING_PAYMENT", "CONFIRMED"})
+    public BookingStatus status;
+
+    @Param({"4"})
+    public int ticketTypes;
+
+    private Order order;
+    private Event event;
+    private PublicEventResponse publicEvent;
+    private MethodHandle mapToOrderResponse;
+    private MethodHandle mapToPublicEventResponse;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() throws Throwable {
+        User organizer = BenchmarkFixtures.organizer();
+        event = BenchmarkFixtures.event(organizer);
+        List<TicketType> types = BenchmarkFixtures.ticketTypes(event, ticketTypes);
+        order = BenchmarkFixtures.order(organizer, event, status, 4, new BigDecimal("2400000"));
+        order.setReservationExpiresAt(order.getOrderDate().plusMinutes(15));
+        List<Ticket> tickets = BenchmarkFixtures.tickets(order, types, 4);
+
+        OrderService orderService = new OrderService();
+        BenchmarkFixtures.inject(orderService, "ticketRepository",
+            BenchmarkFixtures.repository(TicketRepository.class, Map.of("findByOrder_OrderId", tickets)));
+        mapToOrderResponse = BenchmarkFixtures.privateMethod(orderService, "mapToOrderResponse",
+            OrderResponse.class, Order.class);
+
+        // Unsharded ticket types: availability comes from the entities, no shard query
+        InventoryService inventoryService = new InventoryService();
+        BenchmarkFixtures.inject(inventoryService, "shardRepository",
+            BenchmarkFixtures.repository(TicketTypeShardRepository.class, Map.of()));
+        EventService eventService = new EventService();
+        BenchmarkFixtures.inject(eventService, "inventoryService", inventoryService);
+        BenchmarkFixtures.inject(eventService, "ticketTypeRepository",
+            BenchmarkFixtures.repository(TicketTypeRepository.class, Map.of("findByEvent_EventId", types)));
+        mapToPublicEventResponse = BenchmarkFixtures.privateMethod(eventService, "mapToPublicEventResponse",
+            PublicEventResponse.class, Event.class);
+
+        // Same settings as the application's ObjectMapper (ISO dates, JSR-310 module)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        publicEvent = (PublicEventResponse) mapToPublicEventResponse.invokeExact(event);
+    }
+
+    @Benchmark
+    public OrderResponse mapToOrderResponse() throws Throwable {
+        return (OrderResponse) mapToOrderResponse.invokeExact(order);
+    }
+
+    @Benchmark
+    public PublicEventResponse mapToPublicEventResponse() throws Throwable {
+        return (PublicEventResponse) mapToPublicEventResponse.invokeExact(event);
+    }
+
+    @Benchmark
+    public byte[] serializePublicEventResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(
+            ApiResponse.success(publicEvent, "Event details retrieved successfully"));
+    }
+}
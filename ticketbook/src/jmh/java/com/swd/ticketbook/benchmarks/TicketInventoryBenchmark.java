@@ -0,0 +1,93 @@
+package com.swd.ticketbook.benchmarks;
+
+import com.swd.ticketbook.entities.Event;
+import com.swd.ticketbook.entities.TicketType;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TicketType.reserve/release (FR14, FR16), alone and under contention
+ * The order path reserves through conditional UPDATEs in InventoryService; these
+ * entity methods are the in-memory baseline the database path is compared to.
+ * "contended" runs reservers and releasers on one shared ticket type without a
+ * lock (what a shared cached entity would do), "contendedLocked" with one.
+ *
+ * Run: ./gradlew jmh -PjmhIncludes=TicketInventoryBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class TicketInventoryBenchmark {
+
+    // Large enough that reservers never hit zero during a run
+    private static final int STOCK = 1_000_000_000;
+
+    @State(Scope.Thread)
+    public static class OwnTicketType {
+        TicketType ticketType;
+
+        @Setup
+        public void setUp() {
+            ticketType = newTicketType();
+        }
+    }
+
+    @State(Scope.Group)
+    public static class SharedTicketType {
+        TicketType ticketType;
+
+        @Setup
+        public void setUp() {
+            ticketType = newTicketType();
+        }
+    }
+
+    @Benchmark
+    public int uncontended(OwnTicketType state) {
+        state.ticketType.reserve(2);
+        state.ticketType.release(2);
+        return state.ticketType.getAvailableQuantity();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(2)
+    public void reserve(SharedTicketType state) {
+        state.ticketType.reserve(2);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(2)
+    public void release(SharedTicketType state) {
+        state.ticketType.release(2);
+    }
+
+    @Benchmark
+    @Group("contendedLocked")
+    @GroupThreads(2)
+    public void reserveLocked(SharedTicketType state) {
+        synchronized (state.ticketType) {
+            state.ticketType.reserve(2);
+        }
+    }
+
+    @Benchmark
+    @Group("contendedLocked")
+    @GroupThreads(2)
+    public void releaseLocked(SharedTicketType state) {
+        synchronized (state.ticketType) {
+            state.ticketType.release(2);
+        }
+    }
+
+    private static TicketType newTicketType() {
+        TicketType ticketType = new TicketType(new Event(), "Standard", new BigDecimal("500000"), STOCK);
+        ticketType.setAvailableQuantity(STOCK / 2);
+        return ticketType;
+    }
+}
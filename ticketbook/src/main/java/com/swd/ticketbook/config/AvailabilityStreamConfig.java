@@ -0,0 +1,41 @@
+package com.swd.ticketbook.config;
+
+import com.swd.ticketbook.utils.NamedThreadFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool writing availability updates to SSE clients
+ */
+@Configuration
+public class AvailabilityStreamConfig {
+
+    @Autowired
+    private AvailabilityStreamProperties properties;
+
+    /**
+     * Each subscriber has at most one drain task queued at a time, so the queue
+     * is bounded by the subscriber limit
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor availabilityStreamExecutor(MeterRegistry meterRegistry) {
+        int threads = properties.getSenderThreads();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            threads, threads,
+            60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, properties.getMaxSubscribers())),
+            new NamedThreadFactory("availability-sse-"),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        new ExecutorServiceMetrics(executor, "availability.stream", List.of()).bindTo(meterRegistry);
+        return executor;
+    }
+}
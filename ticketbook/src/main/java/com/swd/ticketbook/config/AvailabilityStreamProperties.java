@@ -0,0 +1,37 @@
+package com.swd.ticketbook.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Live availability stream (SSE) for event pages
+ * Bound from ticketbook.availability-stream.* in application.properties
+ */
+@Component
+@ConfigurationProperties(prefix = "ticketbook.availability-stream")
+@Data
+public class AvailabilityStreamProperties {
+
+    private boolean enabled = true;
+
+    // Changes are coalesced and pushed at most once per interval per event
+    private long debounceMs = 250;
+
+    // Open connections across all events; further subscribers get 503 and fall back to polling
+    private int maxSubscribers = 20_000;
+
+    // Frames queued per client; a client this far behind is disconnected
+    private int clientBufferSize = 8;
+
+    // Comment frames keep proxies from closing idle streams and detect dead clients
+    private long heartbeatMs = 15_000;
+
+    // Clients reconnect (EventSource does so automatically) after this long
+    private Duration connectionTimeout = Duration.ofMinutes(30);
+
+    // Threads writing to client sockets
+    private int senderThreads = 4;
+}
@@ -0,0 +1,66 @@
+package com.swd.ticketbook.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OLTP pool, reporting pool and optional read replica pools behind RoutingDataSource
+ * Both named pools connect with spring.datasource.*; the OLTP pool is tuned by
+ * spring.datasource.hikari.*, the reporting pool by ticketbook.datasource.reporting.hikari.*
+ * (which may also point it elsewhere, e.g. at a replica, with jdbc-url).
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Autowired
+    private ReadReplicaProperties replicaProperties;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource oltpDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("ticketbook.datasource.reporting.hikari")
+    public HikariDataSource reportingDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public RoutingDataSource dataSource(@Qualifier("oltpDataSource") HikariDataSource oltpDataSource,
+                                        @Qualifier("reportingDataSource") HikariDataSource reportingDataSource,
+                                        MeterRegistry meterRegistry) {
+        List<RoutingDataSource.Replica> replicas = new ArrayList<>();
+        if (replicaProperties.isEnabled()) {
+            for (ReadReplicaProperties.Instance instance : replicaProperties.getInstances()) {
+                HikariConfig config = new HikariConfig();
+                config.setPoolName("replica-" + instance.getName());
+                config.setJdbcUrl(instance.getUrl());
+                config.setUsername(instance.getUsername());
+                config.setPassword(instance.getPassword());
+                config.setMaximumPoolSize(instance.getMaximumPoolSize());
+                config.setConnectionTimeout(instance.getConnectionTimeoutMs());
+                config.setReadOnly(true);
+                // Start even if the replica is down; routing falls back to the primary
+                config.setInitializationFailTimeout(-1);
+                config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+                replicas.add(new RoutingDataSource.Replica(instance.getName(), new HikariDataSource(config)));
+            }
+        }
+        return new RoutingDataSource(oltpDataSource, reportingDataSource, replicas, replicaProperties, meterRegistry);
+    }
+}
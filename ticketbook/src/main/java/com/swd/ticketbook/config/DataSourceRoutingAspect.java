@@ -0,0 +1,141 @@
+package com.swd.ticketbook.config;
+
+import com.swd.ticketbook.entities.User;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Method;
+
+/**
+ * Picks the pool for application service methods before the transaction takes its connection
+ * - @ReportingQuery: reporting pool, also for read-only calls made from it
+ * - @Transactional(readOnly = true): a read replica, if any is configured and caught up
+ * - read-write @Transactional: OLTP pool
+ * Ordered ahead of the transaction interceptor. Spring Data's own read-only repository defaults
+ * are not routed. A committed read-write transaction of a signed-in user is remembered for
+ * read-your-writes, on this node and in a short-lived cookie, so the user's next request
+ * on any node also avoids replicas that may not have it yet.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class DataSourceRoutingAspect {
+
+    static final String LAST_WRITE_COOKIE = "TB_LAST_WRITE";
+
+    @Autowired
+    private RoutingDataSource routingDataSource;
+
+    @Around("(@annotation(org.springframework.transaction.annotation.Transactional) " +
+            "|| @within(org.springframework.transaction.annotation.Transactional) " +
+            "|| @annotation(com.swd.ticketbook.config.ReportingQuery) " +
+            "|| @within(com.swd.ticketbook.config.ReportingQuery)) " +
+            "&& within(com.swd.ticketbook..*)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        RoutingDataSource.Route route = resolveRoute(joinPoint);
+        RoutingDataSource.Route previous = RoutingDataSource.route(route);
+        try {
+            Object result = joinPoint.proceed();
+            // Outermost read-write call returned: its transaction has committed
+            if (route == RoutingDataSource.Route.OLTP && !TransactionSynchronizationManager.isActualTransactionActive()) {
+                Long userId = currentUserId();
+                if (userId != null && routingDataSource.hasReplicas()) {
+                    recordWrite(userId);
+                }
+            }
+            return result;
+        } finally {
+            RoutingDataSource.restore(previous);
+        }
+    }
+
+    /**
+     * Signed-in user of the current request, if any
+     */
+    static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getUserId();
+        }
+        return null;
+    }
+
+    /**
+     * Last write time carried by the current request's cookie, if any
+     * Nodes compare it with their own clock: keep read-your-writes-margin above clock skew.
+     */
+    static Long lastWriteFromRequest() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        Cookie[] cookies = attributes.getRequest().getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (LAST_WRITE_COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void recordWrite(Long userId) {
+        long now = System.currentTimeMillis();
+        routingDataSource.recordWrite(userId, now);
+
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            HttpServletResponse response = attributes.getResponse();
+            // One cookie per request, however many writes it commits
+            if (response != null && !response.isCommitted() && request.getAttribute(LAST_WRITE_COOKIE) == null) {
+                request.setAttribute(LAST_WRITE_COOKIE, now);
+                Cookie cookie = new Cookie(LAST_WRITE_COOKIE, Long.toString(now));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge((int) Math.max(1, (routingDataSource.readYourWritesWindowMillis() + 999) / 1000));
+                response.addCookie(cookie);
+            }
+        }
+    }
+
+    private RoutingDataSource.Route resolveRoute(ProceedingJoinPoint joinPoint) {
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        Method method = AopUtils.getMostSpecificMethod(((MethodSignature) joinPoint.getSignature()).getMethod(), targetClass);
+        if (AnnotatedElementUtils.hasAnnotation(method, ReportingQuery.class)
+                || AnnotatedElementUtils.hasAnnotation(targetClass, ReportingQuery.class)) {
+            return RoutingDataSource.Route.REPORTING;
+        }
+        Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(method, Transactional.class);
+        if (transactional == null) {
+            transactional = AnnotatedElementUtils.findMergedAnnotation(targetClass, Transactional.class);
+        }
+        if (transactional == null || !transactional.readOnly()) {
+            return RoutingDataSource.Route.OLTP;
+        }
+        return RoutingDataSource.currentRoute() == RoutingDataSource.Route.REPORTING
+            ? RoutingDataSource.Route.REPORTING
+            : RoutingDataSource.Route.READ_ONLY;
+    }
+}
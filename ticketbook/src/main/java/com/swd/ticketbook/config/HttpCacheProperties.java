@@ -0,0 +1,30 @@
+package com.swd.ticketbook.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * HTTP caching of public catalog responses (CDN / reverse proxy)
+ * Bound from ticketbook.http-cache.* in application.properties
+ */
+@Component
+@ConfigurationProperties(prefix = "ticketbook.http-cache")
+@Data
+public class HttpCacheProperties {
+
+    // Shared caches may serve catalog responses this long without revalidating
+    private Duration catalogMaxAge = Duration.ofSeconds(5);
+
+    // ...and keep serving a stale copy this long while they revalidate in the background
+    private Duration catalogStaleWhileRevalidate = Duration.ofSeconds(30);
+
+    public CacheControl catalogCacheControl() {
+        return CacheControl.maxAge(catalogMaxAge)
+            .cachePublic()
+            .staleWhileRevalidate(catalogStaleWhileRevalidate);
+    }
+}
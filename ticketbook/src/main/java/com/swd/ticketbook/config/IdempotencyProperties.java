@@ -0,0 +1,37 @@
+package com.swd.ticketbook.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Idempotency-Key handling for retried order/payment requests
+ * Bound from ticketbook.idempotency.* in application.properties
+ */
+@Component
+@ConfigurationProperties(prefix = "ticketbook.idempotency")
+@Data
+public class IdempotencyProperties {
+
+    private boolean enabled = true;
+
+    // "METHOD /path/pattern" (Ant-style) requests that honour the Idempotency-Key header
+    private List<String> routes = new ArrayList<>();
+
+    // How long a stored response is replayed for
+    private Duration ttl = Duration.ofHours(24);
+
+    // Heap bounds: stored keys (in total and per user; the oldest completed key is evicted
+    // at either bound), and largest request/response body kept
+    private int maxEntries = 50_000;
+    private int maxEntriesPerUser = 100;
+    private int maxBodyBytes = 64 * 1024;
+    private int maxKeyLength = 255;
+
+    // How long a concurrent duplicate waits for the first request before getting 409
+    private Duration waitTimeout = Duration.ofSeconds(2);
+}
@@ -0,0 +1,36 @@
+package com.swd.ticketbook.config;
+
+import com.swd.ticketbook.utils.NamedThreadFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread for database maintenance jobs
+ */
+@Configuration
+public class MaintenanceConfig {
+
+    /**
+     * Single thread purging expired rows, off the shared scheduler thread
+     * A tick while the previous purge is still running is dropped.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor maintenanceExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            1, 1,
+            60L, TimeUnit.SECONDS,
+            new SynchronousQueue<>(),
+            new NamedThreadFactory("maintenance-"),
+            new ThreadPoolExecutor.DiscardPolicy()
+        );
+        new ExecutorServiceMetrics(executor, "maintenance", List.of()).bindTo(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,117 @@
+package com.swd.ticketbook.config;
+
+import com.swd.ticketbook.utils.NamedThreadFactory;
+import com.swd.ticketbook.utils.PasswordEncoderUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password hashing configuration (FR1)
+ * Stored hashes carry an algorithm prefix ({bcrypt}, {argon2}, {pbkdf2});
+ * unprefixed hashes are legacy MD5 and are upgraded on the next successful login.
+ */
+@Configuration
+public class PasswordHashingConfig {
+
+    @Value("${ticketbook.security.password.algorithm:bcrypt}")
+    private String algorithm;
+
+    @Value("${ticketbook.security.password.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${ticketbook.security.password.pbkdf2.iterations:310000}")
+    private int pbkdf2Iterations;
+
+    @Value("${ticketbook.security.password.argon2.memory-kib:19456}")
+    private int argon2MemoryKib;
+
+    @Value("${ticketbook.security.password.argon2.iterations:2}")
+    private int argon2Iterations;
+
+    @Value("${ticketbook.security.password.argon2.parallelism:1}")
+    private int argon2Parallelism;
+
+    @Value("${ticketbook.security.password.verify-threads:0}")
+    private int verifyThreads;
+
+    @Value("${ticketbook.security.password.verify-queue-capacity:64}")
+    private int verifyQueueCapacity;
+
+    /**
+     * Delegating encoder: encodes with the configured algorithm, matches any known prefix
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(bcryptStrength));
+        encoders.put("pbkdf2", new Pbkdf2PasswordEncoder(
+            "", 16, pbkdf2Iterations, Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        encoders.put("argon2", new Argon2PasswordEncoder(
+            16, 32, argon2Parallelism, argon2MemoryKib, argon2Iterations));
+
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("Unsupported password algorithm: " + algorithm);
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(new LegacyMd5PasswordEncoder());
+        return delegating;
+    }
+
+    /**
+     * Dedicated bounded pool for hash verification
+     * A credential-stuffing burst fills the queue and is rejected instead of
+     * pinning every request thread on CPU-bound hashing.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor passwordHashExecutor(MeterRegistry meterRegistry) {
+        int threads = verifyThreads > 0 ? verifyThreads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            threads, threads,
+            60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(verifyQueueCapacity),
+            new NamedThreadFactory("password-hash-"),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        new ExecutorServiceMetrics(executor, "password.hash", List.of()).bindTo(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * Matches legacy unsalted MD5 hashes; never used for encoding
+     */
+    static class LegacyMd5PasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            throw new UnsupportedOperationException("MD5 is only supported for verifying legacy hashes");
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword != null
+                && PasswordEncoderUtil.isLegacyHash(encodedPassword)
+                && PasswordEncoderUtil.matches(rawPassword.toString(), encodedPassword.toLowerCase());
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return true;
+        }
+    }
+}
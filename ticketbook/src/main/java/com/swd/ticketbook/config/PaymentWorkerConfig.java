@@ -0,0 +1,38 @@
+package com.swd.ticketbook.config;
+
+import com.swd.ticketbook.utils.NamedThreadFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker pool for asynchronous payment callback processing (UC-02.1)
+ * Ticket issuance and confirmation emails run here, never on the callback request.
+ */
+@Configuration
+public class PaymentWorkerConfig {
+
+    @Autowired
+    private VNPayProperties properties;
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor paymentCallbackExecutor(MeterRegistry meterRegistry) {
+        int threads = properties.getWorker().getThreads();
+        // Work is leased in batches of batchSize, so the queue never grows beyond one batch
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            threads, threads,
+            60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new NamedThreadFactory("payment-callback-")
+        );
+        new ExecutorServiceMetrics(executor, "payment.callback", List.of()).bindTo(meterRegistry);
+        return executor;
+    }
+}
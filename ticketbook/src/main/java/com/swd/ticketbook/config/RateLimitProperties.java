@@ -0,0 +1,43 @@
+package com.swd.ticketbook.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-route abuse throttling limits for public auth endpoints
+ * Bound from ticketbook.rate-limit.* in application.properties
+ */
+@Component
+@ConfigurationProperties(prefix = "ticketbook.rate-limit")
+@Data
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Upper bound on tracked keys (IP/contact); protects the heap from key spraying
+    private int maxKeys = 100_000;
+
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    @Data
+    public static class Route {
+
+        // Exact request path, e.g. /api/auth/login
+        private String path;
+
+        private String method = "POST";
+
+        // Token bucket per client IP (burst + sustained rate)
+        private int ipCapacity = 20;
+        private int ipRefillPerMinute = 20;
+
+        // Sliding window per contact (email/phone); 0 disables
+        private int contactLimit = 0;
+        private Duration contactWindow = Duration.ofMinutes(15);
+    }
+}
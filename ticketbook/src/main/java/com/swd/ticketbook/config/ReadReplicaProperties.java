@@ -0,0 +1,49 @@
+package com.swd.ticketbook.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas for @Transactional(readOnly = true) service methods
+ * Bound from ticketbook.read-replicas.*; off by default (everything uses spring.datasource)
+ */
+@Component
+@ConfigurationProperties(prefix = "ticketbook.read-replicas")
+@Data
+public class ReadReplicaProperties {
+
+    private boolean enabled = false;
+
+    private List<Instance> instances = new ArrayList<>();
+
+    // Replicas further behind the primary than this get no reads
+    private Duration maxLag = Duration.ofSeconds(2);
+
+    // A user who just committed a write reads from the primary until a replica has had
+    // its measured lag plus this margin to catch up (read-your-writes)
+    private Duration readYourWritesMargin = Duration.ofMillis(500);
+
+    // How often each replica's replay lag is measured
+    private long lagCheckIntervalMs = 1000;
+
+    @Data
+    public static class Instance {
+
+        // Used in pool names and metric tags
+        private String name;
+
+        private String url;
+        private String username;
+        private String password;
+
+        private int maximumPoolSize = 10;
+
+        // Short, so an unreachable replica falls back to the primary quickly
+        private long connectionTimeoutMs = 1000;
+    }
+}
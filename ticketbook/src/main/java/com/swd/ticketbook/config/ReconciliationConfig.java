@@ -0,0 +1,36 @@
+package com.swd.ticketbook.config;
+
+import com.swd.ticketbook.utils.NamedThreadFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread for settlement file reconciliation
+ */
+@Configuration
+public class ReconciliationConfig {
+
+    /**
+     * Single thread reconciling the inbox, off the shared scheduler thread
+     * A trigger while the previous run is still reconciling is dropped.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor reconciliationExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            1, 1,
+            60L, TimeUnit.SECONDS,
+            new SynchronousQueue<>(),
+            new NamedThreadFactory("reconciliation-"),
+            new ThreadPoolExecutor.DiscardPolicy()
+        );
+        new ExecutorServiceMetrics(executor, "reconciliation", List.of()).bindTo(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,31 @@
+package com.swd.ticketbook.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settlement file reconciliation settings
+ * Bound from ticketbook.reconciliation.* in application.properties
+ */
+@Component
+@ConfigurationProperties(prefix = "ticketbook.reconciliation")
+@Data
+public class ReconciliationProperties {
+
+    // Scheduled scan of inboxDir; files can always be reconciled on demand by admins
+    private boolean enabled = false;
+    private String inboxDir = "settlements/inbox";
+    private String processedDir = "settlements/processed";
+    private String reportDir = "settlements/reports";
+
+    // Lines held in memory per run when a file has to be sorted first
+    private int sortChunkLines = 500_000;
+
+    // Payments created this long before/after the file's pay dates can still match
+    private Duration matchGrace = Duration.ofHours(1);
+
+    private long progressLogEvery = 250_000;
+}
@@ -0,0 +1,83 @@
+package com.swd.ticketbook.config;
+
+import com.swd.ticketbook.utils.NamedThreadFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pools for bulk refunds (UC-02.5) and customer notifications
+ */
+@Configuration
+public class RefundJobConfig {
+
+    @Autowired
+    private RefundJobProperties properties;
+
+    @Value("${ticketbook.notifications.threads:2}")
+    private int notificationThreads;
+
+    @Value("${ticketbook.notifications.queue-capacity:10000}")
+    private int notificationQueueCapacity;
+
+    /**
+     * Single thread running bulk refund jobs, off the shared scheduler thread
+     * A poll while the previous run is still working through its jobs is dropped.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor refundJobExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            1, 1,
+            60L, TimeUnit.SECONDS,
+            new SynchronousQueue<>(),
+            new NamedThreadFactory("refund-job-"),
+            new ThreadPoolExecutor.DiscardPolicy()
+        );
+        new ExecutorServiceMetrics(executor, "refund.job", List.of()).bindTo(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * Gateway refund calls; the pool size is the gateway concurrency limit
+     * Batches are submitted whole, so the queue never holds more than one batch.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor refundGatewayExecutor(MeterRegistry meterRegistry) {
+        int threads = properties.getGatewayConcurrency();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            threads, threads,
+            60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new NamedThreadFactory("refund-gateway-")
+        );
+        new ExecutorServiceMetrics(executor, "refund.gateway", List.of()).bindTo(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * Outgoing customer emails, decoupled from the transaction that triggers them
+     * A full queue drops the email (logged) rather than stalling refunds.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor notificationExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            notificationThreads, notificationThreads,
+            60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(notificationQueueCapacity),
+            new NamedThreadFactory("notification-"),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        new ExecutorServiceMetrics(executor, "notification", List.of()).bindTo(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,37 @@
+package com.swd.ticketbook.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bulk refund job settings (event cancellation)
+ * Bound from ticketbook.refund-jobs.* in application.properties
+ */
+@Component
+@ConfigurationProperties(prefix = "ticketbook.refund-jobs")
+@Data
+public class RefundJobProperties {
+
+    // Start a bulk refund automatically when an admin cancels an event
+    private boolean autoStartOnCancel = true;
+
+    // Concurrent gateway refund calls (per node)
+    private int gatewayConcurrency = 8;
+
+    // Orders (gateway calls) per batch; each batch commits in one transaction
+    private int batchOrders = 200;
+
+    // Immediate retries of one gateway call before the batch gives up on it
+    private int callRetries = 3;
+    private Duration callRetryDelay = Duration.ofMillis(500);
+
+    // Batches that still fail are retried later, up to maxAttempts
+    private int maxAttempts = 5;
+    private Duration retryBackoff = Duration.ofSeconds(30);
+
+    private long pollIntervalMs = 2000;
+    private Duration lease = Duration.ofMinutes(5);
+}
@@ -0,0 +1,16 @@
+package com.swd.ticketbook.config;
+
+import java.lang.annotation.*;
+
+/**
+ * Runs a service method's queries on the reporting pool instead of the OLTP pool
+ * For long read-only work (dashboards, balances, reconciliation), so it queues behind its own
+ * small pool and statement timeout and never takes connections from bookings or check-in.
+ * The pool may point at a replica: never use it for reads whose results drive writes.
+ * A call joining a transaction already open on the OLTP pool keeps that connection.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReportingQuery {
+}
@@ -0,0 +1,249 @@
+package com.swd.ticketbook.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource choosing a pool per connection: OLTP (default), reporting, or a read replica
+ * DataSourceRoutingAspect marks the thread before the transaction takes its connection.
+ * A replica is skipped while it is unreachable, lags more than max-lag, or may not yet have
+ * replayed the current user's last write (read-your-writes); with no replica left, reads
+ * use the OLTP pool. The last write is known from this node's own record and from the
+ * request's last-write cookie, which carries it to the other nodes.
+ */
+public class RoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(RoutingDataSource.class);
+
+    /**
+     * Pool chosen for connections taken on the current thread
+     */
+    enum Route {
+        OLTP,
+        READ_ONLY,
+        REPORTING
+    }
+
+    private static final ThreadLocal<Route> ROUTE = new ThreadLocal<>();
+
+    // Replay delay; 0 when the replica has replayed everything it received (idle primary)
+    private static final String LAG_QUERY =
+        "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+        "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+        "ELSE CAST(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 AS BIGINT) END";
+
+    private final HikariDataSource oltp;
+    private final HikariDataSource reporting;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final long readYourWritesMarginMillis;
+    private final MeterRegistry meterRegistry;
+
+    // User ID -> time of the user's last committed write (epoch millis)
+    private final Map<Long, Long> lastWrites = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public RoutingDataSource(HikariDataSource oltp, HikariDataSource reporting, List<Replica> replicas,
+                             ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.oltp = oltp;
+        this.reporting = reporting;
+        this.replicas = replicas;
+        this.maxLagMillis = properties.getMaxLag().toMillis();
+        this.readYourWritesMarginMillis = properties.getReadYourWritesMargin().toMillis();
+        this.meterRegistry = meterRegistry;
+        registerUsage("oltp", oltp);
+        registerUsage("reporting", reporting);
+        for (Replica replica : replicas) {
+            registerUsage("replica-" + replica.name, replica.dataSource);
+            Gauge.builder("ticketbook.datasource.replica.lag", replica,
+                    r -> r.available ? r.lagMillis : Double.NaN)
+                .description("Replay lag of a read replica (NaN while unreachable)")
+                .baseUnit("milliseconds")
+                .tag("replica", replica.name)
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Choose the pool for connections taken on this thread
+     *
+     * @return The previous route, to pass to {@link #restore(Route)}
+     */
+    static Route route(Route route) {
+        Route previous = ROUTE.get();
+        ROUTE.set(route);
+        return previous;
+    }
+
+    static Route currentRoute() {
+        return ROUTE.get();
+    }
+
+    static void restore(Route previous) {
+        if (previous == null) {
+            ROUTE.remove();
+        } else {
+            ROUTE.set(previous);
+        }
+    }
+
+    boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    /**
+     * How long after a write a replica may still miss it; no replica lagging more gets reads
+     */
+    long readYourWritesWindowMillis() {
+        return maxLagMillis + readYourWritesMarginMillis;
+    }
+
+    /**
+     * Remember that a user just committed a write, so their next reads on this node see it
+     */
+    void recordWrite(Long userId, long writtenAt) {
+        if (!replicas.isEmpty()) {
+            lastWrites.merge(userId, writtenAt, Math::max);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Route route = ROUTE.get();
+        if (route == Route.REPORTING) {
+            return reporting.getConnection();
+        }
+        if (route != Route.READ_ONLY || replicas.isEmpty()) {
+            return oltp.getConnection();
+        }
+        return getReadConnection(DataSourceRoutingAspect.currentUserId(), DataSourceRoutingAspect.lastWriteFromRequest());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return oltp.getConnection(username, password);
+    }
+
+    private Connection getReadConnection(Long userId, Long requestLastWrite) throws SQLException {
+        Long lastWrite = userId != null ? lastWrites.get(userId) : null;
+        if (requestLastWrite != null && (lastWrite == null || requestLastWrite > lastWrite)) {
+            lastWrite = requestLastWrite;
+        }
+        long now = System.currentTimeMillis();
+        String reason = "no_replica";
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.available) {
+                reason = "unavailable";
+            } else if (replica.lagMillis > maxLagMillis) {
+                reason = "lagging";
+            } else if (lastWrite != null && now - lastWrite <= replica.lagMillis + readYourWritesMarginMillis) {
+                reason = "read_your_writes";
+            } else {
+                try {
+                    Connection connection = replica.dataSource.getConnection();
+                    countRead("replica", "none");
+                    return connection;
+                } catch (SQLException e) {
+                    markUnavailable(replica, e);
+                    reason = "unavailable";
+                }
+            }
+        }
+        countRead("primary", reason);
+        return oltp.getConnection();
+    }
+
+    /**
+     * Measure each replica's lag, and forget writes every replica has caught up with
+     */
+    @Scheduled(fixedDelayString = "${ticketbook.read-replicas.lag-check-interval-ms:1000}")
+    public void checkReplicas() {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        long maxLag = 0;
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                resultSet.next();
+                replica.lagMillis = Math.max(0, resultSet.getLong(1));
+                if (!replica.available) {
+                    log.info("Read replica {} is reachable again ({} ms behind)", replica.name, replica.lagMillis);
+                }
+                replica.available = true;
+                maxLag = Math.max(maxLag, replica.lagMillis);
+            } catch (SQLException e) {
+                markUnavailable(replica, e);
+            }
+        }
+        long forgetBefore = System.currentTimeMillis() - Math.max(maxLag, maxLagMillis) - readYourWritesMarginMillis;
+        lastWrites.values().removeIf(writtenAt -> writtenAt < forgetBefore);
+    }
+
+    /**
+     * Close the replica pools; the OLTP and reporting pools are beans closed by the context
+     */
+    public void close() {
+        for (Replica replica : replicas) {
+            replica.dataSource.close();
+        }
+    }
+
+    private void markUnavailable(Replica replica, SQLException e) {
+        if (replica.available) {
+            log.warn("Read replica {} is unavailable, its reads go to the primary: {}", replica.name, e.getMessage());
+        }
+        replica.available = false;
+    }
+
+    private void countRead(String target, String fallbackReason) {
+        meterRegistry.counter("ticketbook.datasource.reads", "target", target, "fallback", fallbackReason).increment();
+    }
+
+    private void registerUsage(String pool, HikariDataSource dataSource) {
+        Gauge.builder("ticketbook.datasource.pool.usage", dataSource, RoutingDataSource::usage)
+            .description("Busy connections over the pool's maximum size (1 = saturated, callers queue)")
+            .tag("pool", pool)
+            .register(meterRegistry);
+    }
+
+    // Pools start on their first connection; until then nothing is busy
+    private static double usage(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool != null ? (double) pool.getActiveConnections() / dataSource.getMaximumPoolSize() : 0;
+    }
+
+    /**
+     * One replica pool and its last measured state
+     */
+    public static final class Replica {
+
+        private final String name;
+        private final HikariDataSource dataSource;
+        private volatile boolean available = true;
+        private volatile long lagMillis;
+
+        public Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
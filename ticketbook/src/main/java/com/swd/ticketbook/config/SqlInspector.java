@@ -0,0 +1,234 @@
+package com.swd.ticketbook.config;
+
+import com.swd.ticketbook.utils.StatementScope;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statement counts per HTTP request and per transaction, N+1 call sites and statement budgets
+ * Scopes are opened by SqlInspectorFilter (requests) and SqlInspectorAspect (outermost
+ * @Transactional calls). Repeated statements are analysed once, when the outermost scope
+ * closes, and each N+1 call site is logged with its stack the first time it is seen;
+ * the worst ones are summarised periodically. Meant for the staging and test profiles.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ticketbook.sql-inspector", name = "enabled", havingValue = "true")
+public class SqlInspector {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlInspector.class);
+
+    private static final String APP_PACKAGE = "com.swd.ticketbook.";
+    private static final int MAX_VIOLATIONS = 1000;
+
+    @Autowired
+    private SqlInspectorProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Integer> budgets = new HashMap<>();
+    private final Map<String, Offender> offenders = new ConcurrentHashMap<>();
+    private final List<String> budgetViolations = new CopyOnWriteArrayList<>();
+
+    private DistributionSummary requestStatements;
+    private DistributionSummary transactionStatements;
+    private Counter repeatedCounter;
+
+    @PostConstruct
+    void init() {
+        for (SqlInspectorProperties.Budget budget : properties.getBudgets()) {
+            budgets.put(budget.getEndpoint(), budget.getMaxStatements());
+        }
+        requestStatements = DistributionSummary.builder("ticketbook.sql.statements")
+            .description("SQL statements prepared per scope")
+            .tag("scope", "request")
+            .register(meterRegistry);
+        transactionStatements = DistributionSummary.builder("ticketbook.sql.statements")
+            .description("SQL statements prepared per scope")
+            .tag("scope", "transaction")
+            .register(meterRegistry);
+        repeatedCounter = Counter.builder("ticketbook.sql.repeated")
+            .description("Scopes that ran one statement at least repeat-threshold times (N+1)")
+            .register(meterRegistry);
+        log.info("SQL inspector enabled: N+1 at {} repeats, {} endpoint budgets",
+            properties.getRepeatThreshold(), budgets.size());
+    }
+
+    public StatementScope open() {
+        return StatementScope.open(properties.getRepeatThreshold());
+    }
+
+    /**
+     * Close a request scope and check the endpoint's statement budget
+     *
+     * @param endpoint HTTP method and matched pattern, e.g. "GET /api/events/{id}"
+     */
+    public void closeRequest(StatementScope scope, String endpoint) {
+        scope.close();
+        requestStatements.record(scope.getStatements());
+
+        Integer budget = budgets.get(endpoint);
+        if (budget != null && scope.getStatements() > budget) {
+            String violation = endpoint + ": " + scope.getStatements() + " statements (budget " + budget + ")";
+            log.warn("Statement budget exceeded - {}", violation);
+            if (budgetViolations.size() < MAX_VIOLATIONS) {
+                budgetViolations.add(violation);
+            }
+        }
+        inspect(scope, endpoint);
+    }
+
+    /**
+     * Close the scope of an outermost @Transactional call
+     *
+     * @param method Service method, e.g. "OrderService.createOrder"
+     */
+    public void closeTransaction(StatementScope scope, String method) {
+        scope.close();
+        transactionStatements.record(scope.getStatements());
+        inspect(scope, "transaction " + method);
+    }
+
+    /**
+     * Budget violations recorded so far (integration tests assert this is empty)
+     */
+    public List<String> getBudgetViolations() {
+        return List.copyOf(budgetViolations);
+    }
+
+    /**
+     * N+1 call sites by number of scopes they occurred in, worst first
+     */
+    public List<Offender> getWorstOffenders(int limit) {
+        List<Offender> worst = new ArrayList<>(offenders.values());
+        worst.sort(Comparator.comparingLong(Offender::getOccurrences).reversed());
+        return worst.subList(0, Math.min(limit, worst.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${ticketbook.sql-inspector.report-interval-ms:300000}",
+               initialDelayString = "${ticketbook.sql-inspector.report-interval-ms:300000}")
+    public void logWorstOffenders() {
+        List<Offender> worst = getWorstOffenders(10);
+        if (worst.isEmpty()) {
+            return;
+        }
+        StringBuilder summary = new StringBuilder("Worst N+1 call sites so far:");
+        for (Offender offender : worst) {
+            summary.append(String.format("%n  %6d scopes, up to %4d x  %s  [%s] %s",
+                offender.getOccurrences(), offender.getMaxRepeats(), offender.getSite(),
+                offender.getScope(), offender.getSql()));
+        }
+        log.warn(summary.toString());
+    }
+
+    private void inspect(StatementScope scope, String label) {
+        if (scope.getStatements() > properties.getWarnStatements()) {
+            log.warn("{} prepared {} statements", label, scope.getStatements());
+        }
+        // Nested scopes saw the same statements; analyse repeats once, in the outermost
+        if (StatementScope.isOpen()) {
+            return;
+        }
+        List<StatementScope.Repeat> repeated = scope.getRepeated();
+        if (repeated.isEmpty()) {
+            return;
+        }
+        repeatedCounter.increment();
+        for (StatementScope.Repeat repeat : repeated) {
+            List<StackTraceElement> frames = applicationFrames(repeat.getStack());
+            String site = frames.isEmpty() ? "unknown" : frames.get(0).toString();
+            Offender offender = offenders.computeIfAbsent(site + " " + repeat.getSql(),
+                key -> new Offender(repeat.getSql(), site, label));
+            if (offender.record(repeat.getCount())) {
+                StringBuilder stack = new StringBuilder();
+                for (StackTraceElement frame : frames) {
+                    stack.append(System.lineSeparator()).append("    at ").append(frame);
+                }
+                log.warn("N+1 suspected in {}: {} x {}{}", label, repeat.getCount(), repeat.getSql(), stack);
+            }
+        }
+    }
+
+    private List<StackTraceElement> applicationFrames(StackTraceElement[] stack) {
+        List<StackTraceElement> frames = new ArrayList<>();
+        if (stack == null) {
+            return frames;
+        }
+        for (StackTraceElement frame : stack) {
+            String className = frame.getClassName();
+            if (className.startsWith(APP_PACKAGE)
+                && !className.startsWith(APP_PACKAGE + "config.")
+                && !className.startsWith(APP_PACKAGE + "utils.")
+                && !className.contains("$$")) {
+                frames.add(frame);
+                if (frames.size() == properties.getStackDepth()) {
+                    break;
+                }
+            }
+        }
+        return frames;
+    }
+
+    /**
+     * One N+1 call site: a statement repeated from the same application frame
+     */
+    public static final class Offender {
+
+        private final String sql;
+        private final String site;
+        private final String scope;
+        private final LongAdder occurrences = new LongAdder();
+        private final AtomicInteger maxRepeats = new AtomicInteger();
+
+        private Offender(String sql, String site, String scope) {
+            this.sql = sql;
+            this.site = site;
+            this.scope = scope;
+        }
+
+        // Returns true the first time this call site is seen
+        private boolean record(int repeats) {
+            occurrences.increment();
+            maxRepeats.accumulateAndGet(repeats, Math::max);
+            return occurrences.sum() == 1;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public String getSite() {
+            return site;
+        }
+
+        public String getScope() {
+            return scope;
+        }
+
+        public long getOccurrences() {
+            return occurrences.sum();
+        }
+
+        public int getMaxRepeats() {
+            return maxRepeats.get();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.swd.ticketbook.config;
+
+import com.swd.ticketbook.utils.StatementScope;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Counts the SQL statements of each transaction started by an application @Transactional method
+ * Ordered ahead of the transaction interceptor, so "no transaction active yet" identifies
+ * the call that opens the transaction; calls joining an existing one are not scoped again.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "ticketbook.sql-inspector", name = "enabled", havingValue = "true")
+public class SqlInspectorAspect {
+
+    @Autowired
+    private SqlInspector inspector;
+
+    @Around("(@annotation(org.springframework.transaction.annotation.Transactional) " +
+            "|| @within(org.springframework.transaction.annotation.Transactional)) " +
+            "&& within(com.swd.ticketbook..*)")
+    public Object inspectTransaction(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        StatementScope scope = inspector.open();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            inspector.closeTransaction(scope,
+                ClassUtils.getUserClass(joinPoint.getTarget()).getSimpleName() + "." + joinPoint.getSignature().getName());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.swd.ticketbook.config;
+
+import com.swd.ticketbook.utils.StatementScope;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the SQL statements of each HTTP request, security filters included
+ * Requests are labelled by method and matched pattern, the key of the statement budgets.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(prefix = "ticketbook.sql-inspector", name = "enabled", havingValue = "true")
+public class SqlInspectorFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private SqlInspector inspector;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        StatementScope scope = inspector.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            inspector.closeRequest(scope, request.getMethod() + " " + (pattern != null ? pattern : "(unmapped)"));
+        }
+    }
+}
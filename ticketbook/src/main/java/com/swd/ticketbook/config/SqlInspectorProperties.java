@@ -0,0 +1,44 @@
+package com.swd.ticketbook.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQL statement inspector: statements per HTTP request and per transaction, N+1 detection
+ * Bound from ticketbook.sql-inspector.* (enabled by the staging and test profiles)
+ */
+@Component
+@ConfigurationProperties(prefix = "ticketbook.sql-inspector")
+@Data
+public class SqlInspectorProperties {
+
+    private boolean enabled = false;
+
+    // The same statement this many times in one request or transaction is reported as N+1
+    private int repeatThreshold = 3;
+
+    // Requests and transactions preparing more statements than this are logged
+    private int warnStatements = 50;
+
+    // Application frames logged with each N+1 call site
+    private int stackDepth = 8;
+
+    // How often the worst offenders seen so far are logged
+    private long reportIntervalMs = 300_000;
+
+    // Per-endpoint statement budgets; requests over budget are logged and kept for tests to assert on
+    private List<Budget> budgets = new ArrayList<>();
+
+    @Data
+    public static class Budget {
+
+        // HTTP method and Spring MVC pattern, e.g. "GET /api/events/{id}"
+        private String endpoint;
+
+        private int maxStatements;
+    }
+}
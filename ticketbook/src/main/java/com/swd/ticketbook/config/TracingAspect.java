@@ -0,0 +1,119 @@
+package com.swd.ticketbook.config;
+
+import com.swd.ticketbook.repositories.OrderRepository;
+import com.swd.ticketbook.services.EmailService;
+import com.swd.ticketbook.services.SMSService;
+import com.swd.ticketbook.services.VNPayService;
+import com.swd.ticketbook.utils.StatementCounter;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import jakarta.annotation.PostConstruct;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Spans around every public service method and every repository call
+ * Each span carries db.statement.count, the SQL statements prepared while it was
+ * open. Email, SMS and VNPAY gateway calls are CLIENT spans with peer.service set.
+ * Inside an unsampled trace no span is created at all, so the cost for the
+ * (1 - sampling probability) share of requests is one lookup per call.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "ticketbook.tracing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TracingAspect {
+
+    private static final String REPOSITORY_PACKAGE = OrderRepository.class.getPackageName();
+
+    // VNPayService also signs and verifies locally; only these methods leave the process
+    private static final Set<String> VNPAY_REMOTE_METHODS = Set.of("processRefund", "getTransactionDetails");
+
+    @Autowired
+    private ObjectProvider<Tracer> tracerProvider;
+
+    private Tracer tracer;
+
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        tracer = tracerProvider.getIfAvailable(() -> Tracer.NOOP);
+    }
+
+    @Around("execution(public * com.swd.ticketbook.services..*(..))")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?> type = ClassUtils.getUserClass(joinPoint.getTarget());
+        String method = joinPoint.getSignature().getName();
+        return trace(joinPoint, type.getSimpleName(), method, peerService(type, method));
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryNames.computeIfAbsent(joinPoint.getThis().getClass(), TracingAspect::repositoryName);
+        return trace(joinPoint, repository, joinPoint.getSignature().getName(), null);
+    }
+
+    private Object trace(ProceedingJoinPoint joinPoint, String type, String method, String peer) throws Throwable {
+        if (tracer == Tracer.NOOP) {
+            return joinPoint.proceed();
+        }
+        Span parent = tracer.currentSpan();
+        if (parent != null && !Boolean.TRUE.equals(parent.context().sampled())) {
+            return joinPoint.proceed();
+        }
+
+        Span.Builder builder = tracer.spanBuilder().name(type + "." + method)
+            .tag("code.namespace", type)
+            .tag("code.function", method);
+        if (parent != null) {
+            builder.setParent(parent.context());
+        }
+        if (peer != null) {
+            builder.kind(Span.Kind.CLIENT).remoteServiceName(peer).tag("peer.service", peer);
+        }
+
+        Span span = builder.start();
+        long statementsBefore = StatementCounter.current();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.tag("db.statement.count", StatementCounter.current() - statementsBefore);
+            span.end();
+        }
+    }
+
+    private static String peerService(Class<?> type, String method) {
+        if (type == EmailService.class) {
+            return "email";
+        }
+        if (type == SMSService.class) {
+            return "sms";
+        }
+        if (type == VNPayService.class && VNPAY_REMOTE_METHODS.contains(method)) {
+            return "vnpay";
+        }
+        return null;
+    }
+
+    private static String repositoryName(Class<?> proxyClass) {
+        for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(proxyClass)) {
+            if (type.getPackageName().equals(REPOSITORY_PACKAGE)) {
+                return type.getSimpleName();
+            }
+        }
+        return proxyClass.getSimpleName();
+    }
+}
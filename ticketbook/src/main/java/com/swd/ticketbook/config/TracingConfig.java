@@ -0,0 +1,41 @@
+package com.swd.ticketbook.config;
+
+import com.swd.ticketbook.utils.OtlpJsonFileSpanExporter;
+import com.swd.ticketbook.utils.StatementCounter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Tracing export and per-thread SQL statement counting
+ * Boot's OpenTelemetry support samples (management.tracing.sampling.probability)
+ * and batches spans off the request threads; this adds the local OTLP/JSON
+ * file exporter and the statement counter used for db.statement.count.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Autowired
+    private TracingProperties properties;
+
+    @Bean
+    @ConditionalOnProperty(prefix = "ticketbook.tracing", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SpanExporter otlpJsonFileSpanExporter() {
+        return new OtlpJsonFileSpanExporter(
+            Path.of(properties.getExportDir()),
+            properties.getMaxFileSize().toBytes(),
+            properties.getMaxFiles()
+        );
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+}
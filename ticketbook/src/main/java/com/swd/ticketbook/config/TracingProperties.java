@@ -0,0 +1,29 @@
+package com.swd.ticketbook.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Tracing of service, repository and outbound calls
+ * Bound from ticketbook.tracing.* in application.properties; the sampling
+ * probability itself is management.tracing.sampling.probability.
+ */
+@Component
+@ConfigurationProperties(prefix = "ticketbook.tracing")
+@Data
+public class TracingProperties {
+
+    // Spans around service and repository methods (HTTP server spans come from Boot)
+    private boolean enabled = true;
+
+    // Directory for the OTLP/JSON span files (one JSON line per exported batch)
+    private String exportDir = "logs/traces";
+
+    // A new file is started once the current one reaches this size
+    private DataSize maxFileSize = DataSize.ofMegabytes(64);
+
+    // Oldest span files beyond this count are deleted
+    private int maxFiles = 20;
+}
@@ -0,0 +1,49 @@
+package com.swd.ticketbook.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * VNPAY gateway settings and callback worker tuning
+ * Bound from ticketbook.vnpay.* in application.properties
+ */
+@Component
+@ConfigurationProperties(prefix = "ticketbook.vnpay")
+@Data
+public class VNPayProperties {
+
+    private String version = "2.1.0";
+    private String tmnCode;
+    private String hashSecret;
+
+    // Gateway payment page (the local stub when stub-enabled=true)
+    private String paymentUrl = "https://sandbox.vnpayment.vn/paymentv2/vpcpay.html";
+
+    // Where the browser is sent after payment when the client gives no return URL
+    private String returnUrl = "http://localhost:8080/api/payments/vnpay/return";
+
+    // IPN endpoint the stub gateway notifies
+    private String ipnUrl = "http://localhost:8080/api/payments/vnpay/ipn";
+
+    // Local stub gateway (development/testing only)
+    private boolean stubEnabled = false;
+
+    private Worker worker = new Worker();
+
+    @Data
+    public static class Worker {
+
+        private int threads = 4;
+        private int batchSize = 50;
+        private long pollIntervalMs = 500;
+
+        // A leased callback not finished within this time is picked up again
+        private Duration lease = Duration.ofMinutes(2);
+
+        private int maxAttempts = 5;
+        private Duration retryBackoff = Duration.ofSeconds(10);
+    }
+}
@@ -0,0 +1,43 @@
+package com.swd.ticketbook.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Admission control (virtual waiting room) for order creation
+ * Bound from ticketbook.waiting-room.* in application.properties
+ */
+@Component
+@ConfigurationProperties(prefix = "ticketbook.waiting-room")
+@Data
+public class WaitingRoomProperties {
+
+    // When disabled, POST /api/orders does not require an admission token, even for flash sales
+    private boolean enabled = true;
+
+    // How often the flash-sale events (Event.flashSale) are reloaded from the database
+    private long flashSaleRefreshMs = 10000;
+
+    // Sustained admissions per event, and the burst admitted at once when the queue is quiet
+    private int admitPerMinute = 600;
+    private int admitBurst = 20;
+
+    // How often the scheduler admits the next users
+    private long tickMs = 250;
+
+    // Admitted users must create their order within this window
+    private Duration admissionTtl = Duration.ofMinutes(10);
+
+    // createOrder calls allowed per admission (retries after validation errors)
+    private int maxOrderAttempts = 3;
+
+    // Waiting users that stop polling for this long lose their place
+    private Duration abandonAfter = Duration.ofSeconds(60);
+
+    // Heap bounds: users per event queue, and concurrently queued events (the idlest queue is evicted)
+    private int maxQueueSize = 200_000;
+    private int maxEvents = 1_000;
+}
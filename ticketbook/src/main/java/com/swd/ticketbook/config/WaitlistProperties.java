@@ -0,0 +1,30 @@
+package com.swd.ticketbook.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Waitlist settings for sold-out ticket types
+ * Bound from ticketbook.waitlist.* in application.properties
+ */
+@Component
+@ConfigurationProperties(prefix = "ticketbook.waitlist")
+@Data
+public class WaitlistProperties {
+
+    private boolean enabled = true;
+
+    // How long an offered reservation is held for payment
+    private Duration offerTtl = Duration.ofMinutes(15);
+
+    // Waiters examined per ticket type per allocation pass
+    private int batchSize = 100;
+
+    private long allocateIntervalMs = 500;
+
+    // Full sweep for releases this node did not see (other nodes, restarts)
+    private long sweepIntervalMs = 30000;
+}
@@ -323,6 +323,34 @@ public class AdminController {
         );
     }
 
+    /**
+     * Shard a ticket type's inventory for a hot on-sale
+     * PUT /api/admin/ticket-types/{ticketTypeId}/shards
+     * 
+     * @param ticketTypeId Ticket type ID
+     * @param count Number of shards (1 merges the shards back into one row)
+     * @param admin Current authenticated admin
+     * @return Inventory with per-shard availability
+     */
+    @PutMapping("/ticket-types/{ticketTypeId}/shards")
+    public ResponseEntity<ApiResponse<TicketTypeInventoryResponse>> reshardTicketType(
+            @PathVariable Long ticketTypeId,
+            @RequestParam int count,
+            @CurrentUser User admin) {
+        
+        if (admin == null || admin.getRole() != UserRole.ADMIN) {
+            return ResponseEntity
+                .status(HttpStatus.FORBIDDEN)
+                .body(ApiResponse.error("Access denied. Admin privileges required."));
+        }
+        
+        TicketTypeInventoryResponse inventory = adminService.reshardTicketType(admin.getUserId(), ticketTypeId, count);
+        
+        return ResponseEntity.ok(
+            ApiResponse.success(inventory, "Ticket type inventory resharded successfully")
+        );
+    }
+
     /**
      * UC-04.10: Delete event (soft delete)
      * DELETE /api/admin/events/{eventId}
@@ -616,5 +644,108 @@ public class AdminController {
             ApiResponse.success(withdrawal, message)
         );
     }
-}
 
+    /**
+     * Refund every confirmed ticket of a cancelled event
+     * POST /api/admin/events/{eventId}/refunds
+     * 
+     * @param eventId Cancelled event ID
+     * @param reason Reason recorded on each refund
+     * @param admin Current authenticated admin
+     * @return Bulk refund job (processed in the background)
+     */
+    @PostMapping("/events/{eventId}/refunds")
+    public ResponseEntity<ApiResponse<RefundJobResponse>> startEventRefund(
+            @PathVariable Long eventId,
+            @RequestParam(defaultValue = "Event cancelled") String reason,
+            @CurrentUser User admin) {
+        
+        if (admin == null || admin.getRole() != UserRole.ADMIN) {
+            return ResponseEntity
+                .status(HttpStatus.FORBIDDEN)
+                .body(ApiResponse.error("Access denied. Admin privileges required."));
+        }
+        
+        RefundJobResponse job = adminService.startEventRefund(admin.getUserId(), eventId, reason);
+        
+        return ResponseEntity
+            .status(HttpStatus.ACCEPTED)
+            .body(ApiResponse.success(job, "Bulk refund started"));
+    }
+
+    /**
+     * Bulk refund job progress
+     * GET /api/admin/refund-jobs/{jobId}
+     * 
+     * @param jobId Refund job ID
+     * @param admin Current authenticated admin
+     * @return Job status and ticket counts
+     */
+    @GetMapping("/refund-jobs/{jobId}")
+    public ResponseEntity<ApiResponse<RefundJobResponse>> getRefundJob(
+            @PathVariable Long jobId,
+            @CurrentUser User admin) {
+        
+        if (admin == null || admin.getRole() != UserRole.ADMIN) {
+            return ResponseEntity
+                .status(HttpStatus.FORBIDDEN)
+                .body(ApiResponse.error("Access denied. Admin privileges required."));
+        }
+        
+        return ResponseEntity.ok(
+            ApiResponse.success(adminService.getRefundJob(jobId), "Refund job retrieved successfully")
+        );
+    }
+
+    /**
+     * Retry the tickets a bulk refund job gave up on
+     * POST /api/admin/refund-jobs/{jobId}/resume
+     * 
+     * @param jobId Refund job ID
+     * @param admin Current authenticated admin
+     * @return Job, running again
+     */
+    @PostMapping("/refund-jobs/{jobId}/resume")
+    public ResponseEntity<ApiResponse<RefundJobResponse>> resumeRefundJob(
+            @PathVariable Long jobId,
+            @CurrentUser User admin) {
+        
+        if (admin == null || admin.getRole() != UserRole.ADMIN) {
+            return ResponseEntity
+                .status(HttpStatus.FORBIDDEN)
+                .body(ApiResponse.error("Access denied. Admin privileges required."));
+        }
+        
+        RefundJobResponse job = adminService.resumeRefundJob(admin.getUserId(), jobId);
+        
+        return ResponseEntity
+            .status(HttpStatus.ACCEPTED)
+            .body(ApiResponse.success(job, "Refund job resumed"));
+    }
+
+    /**
+     * Reconcile a VNPAY settlement file from the inbox directory
+     * POST /api/admin/reconciliation?file=vnpay_settlement_20261018.csv
+     * 
+     * @param file File name inside ticketbook.reconciliation.inbox-dir
+     * @param admin Current authenticated admin
+     * @return Summary counts; discrepancies are written to the report file
+     */
+    @PostMapping("/reconciliation")
+    public ResponseEntity<ApiResponse<ReconciliationReport>> reconcileSettlementFile(
+            @RequestParam String file,
+            @CurrentUser User admin) {
+        
+        if (admin == null || admin.getRole() != UserRole.ADMIN) {
+            return ResponseEntity
+                .status(HttpStatus.FORBIDDEN)
+                .body(ApiResponse.error("Access denied. Admin privileges required."));
+        }
+        
+        ReconciliationReport report = adminService.reconcileSettlementFile(admin.getUserId(), file);
+        
+        return ResponseEntity.ok(
+            ApiResponse.success(report, "Settlement file reconciled")
+        );
+    }
+}
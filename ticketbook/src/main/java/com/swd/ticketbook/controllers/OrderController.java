@@ -5,8 +5,12 @@ import com.swd.ticketbook.dto.order.*;
 import com.swd.ticketbook.entities.User;
 import com.swd.ticketbook.security.CurrentUser;
 import com.swd.ticketbook.services.OrderService;
+import com.swd.ticketbook.services.WaitingRoomService;
+import com.swd.ticketbook.utils.ETags;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -28,30 +32,45 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private WaitingRoomService waitingRoomService;
+
+    // Orders are per user: browsers may keep them, but must revalidate every time
+    private static final CacheControl PRIVATE_REVALIDATE = CacheControl.noCache().cachePrivate();
+
     /**
      * UC-02.1: Check for Active Pending Order (FR5)
      * GET /api/orders/pending
+     * Conditional (If-None-Match), so the countdown view can poll cheaply
      * 
      * @param user Current authenticated user
      * @return Active pending order if exists
      */
     @GetMapping("/pending")
-    public ResponseEntity<ApiResponse<OrderResponse>> getActivePendingOrder(@CurrentUser User user) {
+    public ResponseEntity<ApiResponse<OrderResponse>> getActivePendingOrder(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @CurrentUser User user) {
         if (user == null) {
             return ResponseEntity
                 .status(HttpStatus.UNAUTHORIZED)
                 .body(ApiResponse.error("User not authenticated"));
         }
 
+        String etag = orderService.getActivePendingOrderETag(user.getUserId());
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+
         Optional<OrderResponse> pendingOrder = orderService.getActivePendingOrder(user.getUserId());
         
         if (pendingOrder.isPresent()) {
-            return ResponseEntity.ok(
-                ApiResponse.success(
+            return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(PRIVATE_REVALIDATE)
+                .body(ApiResponse.success(
                     pendingOrder.get(), 
                     "You have a pending order. Please complete or cancel it first."
-                )
-            );
+                ));
         } else {
             return ResponseEntity.ok(
                 ApiResponse.success(null, "No pending order found")
@@ -62,14 +81,17 @@ public class OrderController {
     /**
      * UC-02.1: Create Order
      * POST /api/orders
+     * Retries with the same Idempotency-Key replay the first response (IdempotencyFilter)
      * 
      * @param request Order creation request with ticket selection and recipient info
+     * @param queueToken Admitted waiting room token (see WaitingRoomController)
      * @param user Current authenticated user
      * @return Created order with reservation details
      */
     @PostMapping
     public ResponseEntity<ApiResponse<OrderResponse>> createOrder(
             @Valid @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = "X-Queue-Token", required = false) String queueToken,
             @CurrentUser User user) {
         
         if (user == null) {
@@ -78,7 +100,11 @@ public class OrderController {
                 .body(ApiResponse.error("User not authenticated"));
         }
 
+        // Only admitted users reach the database
+        waitingRoomService.checkAdmitted(request.getEventId(), user.getUserId(), queueToken);
+
         OrderResponse order = orderService.createOrder(user.getUserId(), request);
+        waitingRoomService.complete(queueToken);
         
         return ResponseEntity
             .status(HttpStatus.CREATED)
@@ -117,6 +143,7 @@ public class OrderController {
     /**
      * UC-02.1: Confirm Payment (VNPAY Callback)
      * POST /api/orders/{orderId}/confirm
+     * Retries with the same Idempotency-Key replay the first response (IdempotencyFilter)
      * 
      * @param orderId Order ID
      * @param transactionId VNPAY transaction ID
@@ -196,6 +223,7 @@ public class OrderController {
     @GetMapping("/{orderId}")
     public ResponseEntity<ApiResponse<OrderResponse>> getOrderDetails(
             @PathVariable Long orderId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             @CurrentUser User user) {
         
         if (user == null) {
@@ -204,11 +232,17 @@ public class OrderController {
                 .body(ApiResponse.error("User not authenticated"));
         }
 
+        String etag = orderService.getOrderETag(user.getUserId(), orderId);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+
         OrderResponse order = orderService.getOrderDetails(user.getUserId(), orderId);
         
-        return ResponseEntity.ok(
-            ApiResponse.success(order, "Order details retrieved successfully")
-        );
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(PRIVATE_REVALIDATE)
+            .body(ApiResponse.success(order, "Order details retrieved successfully"));
     }
 
     /**
@@ -223,5 +257,11 @@ public class OrderController {
             ApiResponse.success("Order service is running", "OK")
         );
     }
-}
 
+    private <T> ResponseEntity<ApiResponse<T>> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .eTag(etag)
+            .cacheControl(PRIVATE_REVALIDATE)
+            .build();
+    }
+}
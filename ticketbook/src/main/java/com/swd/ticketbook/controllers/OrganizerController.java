@@ -2,6 +2,9 @@ package com.swd.ticketbook.controllers;
 
 import com.swd.ticketbook.dto.ApiResponse;
 import com.swd.ticketbook.dto.admin.OrganizerProfileResponse;
+import com.swd.ticketbook.dto.checkin.CheckInScanResponse;
+import com.swd.ticketbook.dto.checkin.LiveGateResponse;
+import com.swd.ticketbook.dto.checkin.ScanRateResponse;
 import com.swd.ticketbook.dto.organizer.*;
 import com.swd.ticketbook.dto.admin.EventResponse;
 import com.swd.ticketbook.entities.User;
@@ -9,11 +12,13 @@ import com.swd.ticketbook.security.CurrentUser;
 import com.swd.ticketbook.services.*;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -39,6 +44,12 @@ public class OrganizerController {
     @Autowired
     private WithdrawalService withdrawalService;
 
+    @Autowired
+    private CheckInScanService checkInScanService;
+
+    @Autowired
+    private GateStatsService gateStatsService;
+
     // ==================== KYC VERIFICATION ====================
 
     /**
@@ -225,6 +236,78 @@ public class OrganizerController {
         );
     }
 
+    /**
+     * Get gate scans of an event in a time window (FR20)
+     * GET /api/organizer/events/{eventId}/checkin/scans?from=...&to=...
+     */
+    @GetMapping("/events/{eventId}/checkin/scans")
+    public ResponseEntity<ApiResponse<List<CheckInScanResponse>>> getCheckInScans(
+            @PathVariable Long eventId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @CurrentUser User user) {
+        
+        if (user == null) {
+            return ResponseEntity
+                .status(HttpStatus.UNAUTHORIZED)
+                .body(ApiResponse.error("User not authenticated"));
+        }
+        
+        List<CheckInScanResponse> scans = checkInScanService.getScans(user.getUserId(), eventId, from, to);
+        
+        return ResponseEntity.ok(
+            ApiResponse.success(scans, "Check-in scans retrieved successfully")
+        );
+    }
+
+    /**
+     * Get gate scans per minute of an event, by outcome and lane
+     * GET /api/organizer/events/{eventId}/checkin/rate?minutes=60
+     */
+    @GetMapping("/events/{eventId}/checkin/rate")
+    public ResponseEntity<ApiResponse<ScanRateResponse>> getCheckInRate(
+            @PathVariable Long eventId,
+            @RequestParam(defaultValue = "60") int minutes,
+            @CurrentUser User user) {
+        
+        if (user == null) {
+            return ResponseEntity
+                .status(HttpStatus.UNAUTHORIZED)
+                .body(ApiResponse.error("User not authenticated"));
+        }
+        
+        ScanRateResponse rate = checkInScanService.getScanRate(user.getUserId(), eventId, minutes);
+        
+        return ResponseEntity.ok(
+            ApiResponse.success(rate, "Check-in scan rate retrieved successfully")
+        );
+    }
+
+    /**
+     * Get live gate counters of an event (doors-open dashboard, served from memory)
+     * GET /api/organizer/events/{eventId}/checkin/live?minutes=30
+     * Exact on a single node; with several nodes each only adds the scans it handled
+     * itself (see GateStatsService). Event statistics give the exact totals.
+     */
+    @GetMapping("/events/{eventId}/checkin/live")
+    public ResponseEntity<ApiResponse<LiveGateResponse>> getLiveGate(
+            @PathVariable Long eventId,
+            @RequestParam(defaultValue = "30") int minutes,
+            @CurrentUser User user) {
+        
+        if (user == null) {
+            return ResponseEntity
+                .status(HttpStatus.UNAUTHORIZED)
+                .body(ApiResponse.error("User not authenticated"));
+        }
+        
+        LiveGateResponse gate = gateStatsService.getLiveGate(user.getUserId(), eventId, minutes);
+        
+        return ResponseEntity.ok(
+            ApiResponse.success(gate, "Live gate statistics retrieved successfully")
+        );
+    }
+
     /**
      * Get organizer summary
      * GET /api/organizer/summary
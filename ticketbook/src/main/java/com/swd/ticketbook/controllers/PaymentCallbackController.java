@@ -0,0 +1,78 @@
+package com.swd.ticketbook.controllers;
+
+import com.swd.ticketbook.dto.ApiResponse;
+import com.swd.ticketbook.services.PaymentCallbackService;
+import com.swd.ticketbook.services.PaymentCallbackService.IngestResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * REST Controller for VNPAY payment callbacks (UC-02.1)
+ * Callbacks are only verified and stored here; orders are confirmed by PaymentCallbackWorker.
+ * 
+ * Base URL: /api/payments/vnpay
+ */
+@RestController
+@RequestMapping("/api/payments/vnpay")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class PaymentCallbackController {
+
+    @Autowired
+    private PaymentCallbackService callbackService;
+
+    /**
+     * Instant Payment Notification (server-to-server)
+     * GET /api/payments/vnpay/ipn
+     * 
+     * @param params vnp_* query parameters
+     * @return VNPAY acknowledgement ({"RspCode","Message"})
+     */
+    @GetMapping("/ipn")
+    public ResponseEntity<Map<String, String>> ipn(@RequestParam Map<String, String> params) {
+        IngestResult result = callbackService.ingest(params, "IPN");
+
+        // VNPAY retries the IPN until it receives a definitive RspCode
+        Map<String, String> body = new LinkedHashMap<>();
+        switch (result) {
+            case ACCEPTED -> { body.put("RspCode", "00"); body.put("Message", "Confirm Success"); }
+            case DUPLICATE -> { body.put("RspCode", "02"); body.put("Message", "Order already confirmed"); }
+            case INVALID_SIGNATURE -> { body.put("RspCode", "97"); body.put("Message", "Invalid signature"); }
+            case MALFORMED -> { body.put("RspCode", "99"); body.put("Message", "Invalid request"); }
+        }
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Browser redirect after payment
+     * GET /api/payments/vnpay/return
+     * 
+     * @param params vnp_* query parameters
+     * @return Acknowledgement; the order is confirmed asynchronously
+     */
+    @GetMapping("/return")
+    public ResponseEntity<ApiResponse<Map<String, String>>> paymentReturn(@RequestParam Map<String, String> params) {
+        IngestResult result = callbackService.ingest(params, "RETURN");
+
+        if (result == IngestResult.INVALID_SIGNATURE || result == IngestResult.MALFORMED) {
+            return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error("Invalid payment response"));
+        }
+
+        Map<String, String> data = new LinkedHashMap<>();
+        data.put("txnRef", params.get("vnp_TxnRef"));
+        data.put("responseCode", params.get("vnp_ResponseCode"));
+
+        if (!"00".equals(params.get("vnp_ResponseCode"))) {
+            return ResponseEntity.ok(ApiResponse.success(data, "Payment was not completed."));
+        }
+        return ResponseEntity.ok(
+            ApiResponse.success(data, "Payment received. Your order is being confirmed and tickets will be emailed shortly.")
+        );
+    }
+}
@@ -1,11 +1,18 @@
 package com.swd.ticketbook.controllers;
 
+import com.swd.ticketbook.config.HttpCacheProperties;
 import com.swd.ticketbook.dto.ApiResponse;
 import com.swd.ticketbook.dto.event.PublicEventResponse;
+import com.swd.ticketbook.services.AvailabilityBroadcaster;
 import com.swd.ticketbook.services.EventService;
+import com.swd.ticketbook.utils.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -21,6 +28,12 @@ public class PublicEventController {
     @Autowired
     private EventService eventService;
 
+    @Autowired
+    private AvailabilityBroadcaster availabilityBroadcaster;
+
+    @Autowired
+    private HttpCacheProperties httpCacheProperties;
+
     /**
      * Browse all active events
      * GET /api/events
@@ -29,22 +42,48 @@ public class PublicEventController {
     public ResponseEntity<ApiResponse<List<PublicEventResponse>>> browseEvents() {
         List<PublicEventResponse> events = eventService.browsePublicEvents();
         
-        return ResponseEntity.ok(
-            ApiResponse.success(events, "Events retrieved successfully")
-        );
+        return ResponseEntity.ok()
+            .cacheControl(httpCacheProperties.catalogCacheControl())
+            .body(ApiResponse.success(events, "Events retrieved successfully"));
     }
 
     /**
      * Get event details by ID
      * GET /api/events/{eventId}
+     * 
+     * Conditional: a matching If-None-Match is answered 304 from version
+     * counters alone, before the event is loaded.
      */
     @GetMapping("/{eventId}")
-    public ResponseEntity<ApiResponse<PublicEventResponse>> getEventById(@PathVariable Long eventId) {
+    public ResponseEntity<ApiResponse<PublicEventResponse>> getEventById(
+            @PathVariable Long eventId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        
+        String etag = eventService.getPublicEventETag(eventId);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(httpCacheProperties.catalogCacheControl())
+                .build();
+        }
+
         PublicEventResponse event = eventService.getPublicEventById(eventId);
         
-        return ResponseEntity.ok(
-            ApiResponse.success(event, "Event details retrieved successfully")
-        );
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(httpCacheProperties.catalogCacheControl())
+            .body(ApiResponse.success(event, "Event details retrieved successfully"));
     }
-}
 
+    /**
+     * Live ticket availability (Server-Sent Events), replaces polling the event details
+     * GET /api/events/{eventId}/availability/stream
+     * 
+     * Sends the current availability first, then an "availability" event whenever
+     * tickets are reserved or released (coalesced to a few updates per second).
+     */
+    @GetMapping(value = "/{eventId}/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailability(@PathVariable Long eventId) {
+        return availabilityBroadcaster.subscribe(eventId);
+    }
+}
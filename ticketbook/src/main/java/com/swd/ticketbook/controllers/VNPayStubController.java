@@ -0,0 +1,100 @@
+package com.swd.ticketbook.controllers;
+
+import com.swd.ticketbook.config.VNPayProperties;
+import com.swd.ticketbook.services.VNPayService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for the VNPAY sandbox (development and load testing only)
+ * Point ticketbook.vnpay.payment-url at /api/payments/vnpay/stub/pay: the stub
+ * "pays" immediately, fires a signed IPN and redirects the browser to the return URL.
+ * 
+ * Enabled by: ticketbook.vnpay.stub-enabled=true
+ */
+@RestController
+@RequestMapping("/api/payments/vnpay/stub")
+@ConditionalOnProperty(name = "ticketbook.vnpay.stub-enabled", havingValue = "true")
+public class VNPayStubController {
+
+    private static final Logger log = LoggerFactory.getLogger(VNPayStubController.class);
+
+    private static final DateTimeFormatter VNP_DATE = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    @Autowired
+    private VNPayService vnPayService;
+
+    @Autowired
+    private VNPayProperties properties;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    /**
+     * Simulated payment page
+     * GET /api/payments/vnpay/stub/pay
+     * 
+     * @param params Signed payment request built by VNPayService
+     * @param responseCode Result to simulate (00 = success, 24 = cancelled, ...)
+     * @return 302 to the merchant return URL
+     */
+    @GetMapping("/pay")
+    public ResponseEntity<Void> pay(
+            @RequestParam Map<String, String> params,
+            @RequestParam(name = "stubResponseCode", defaultValue = "00") String responseCode) {
+
+        if (!vnPayService.verifySignature(params)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        Map<String, String> result = new TreeMap<>();
+        result.put("vnp_TmnCode", params.get("vnp_TmnCode"));
+        result.put("vnp_TxnRef", params.get("vnp_TxnRef"));
+        result.put("vnp_Amount", params.get("vnp_Amount"));
+        result.put("vnp_OrderInfo", params.get("vnp_OrderInfo"));
+        result.put("vnp_BankCode", "NCB");
+        result.put("vnp_CardType", "ATM");
+        result.put("vnp_PayDate", LocalDateTime.now(ZoneId.of("Asia/Ho_Chi_Minh")).format(VNP_DATE));
+        result.put("vnp_ResponseCode", responseCode);
+        result.put("vnp_TransactionStatus", responseCode);
+        result.put("vnp_TransactionNo", String.valueOf(ThreadLocalRandom.current().nextLong(10_000_000L, 100_000_000L)));
+        Map<String, String> signed = vnPayService.sign(result);
+
+        // The real gateway sends the IPN independently of the browser redirect
+        URI ipn = withQuery(properties.getIpnUrl(), signed);
+        httpClient.sendAsync(HttpRequest.newBuilder(ipn).GET().build(), HttpResponse.BodyHandlers.discarding())
+            .whenComplete((response, error) -> {
+                if (error != null) {
+                    log.warn("Stub IPN for {} failed: {}", signed.get("vnp_TxnRef"), error.getMessage());
+                }
+            });
+
+        String returnUrl = params.getOrDefault("vnp_ReturnUrl", properties.getReturnUrl());
+        return ResponseEntity.status(HttpStatus.FOUND).location(withQuery(returnUrl, signed)).build();
+    }
+
+    private static URI withQuery(String url, Map<String, String> params) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(url);
+        params.forEach(builder::queryParam);
+        return builder.encode().build().toUri();
+    }
+}
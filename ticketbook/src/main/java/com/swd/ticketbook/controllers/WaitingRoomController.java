@@ -0,0 +1,75 @@
+package com.swd.ticketbook.controllers;
+
+import com.swd.ticketbook.dto.ApiResponse;
+import com.swd.ticketbook.dto.order.QueueStatusResponse;
+import com.swd.ticketbook.entities.User;
+import com.swd.ticketbook.security.CurrentUser;
+import com.swd.ticketbook.services.WaitingRoomService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for the order waiting room (admission control for UC-02.1)
+ * 
+ * Base URL: /api/waiting-room
+ */
+@RestController
+@RequestMapping("/api/waiting-room")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class WaitingRoomController {
+
+    @Autowired
+    private WaitingRoomService waitingRoomService;
+
+    /**
+     * Join the waiting room for an event
+     * POST /api/waiting-room/{eventId}/join
+     * 
+     * @param eventId Event ID
+     * @param user Current authenticated user
+     * @return Queue token, position and estimated wait
+     */
+    @PostMapping("/{eventId}/join")
+    public ResponseEntity<ApiResponse<QueueStatusResponse>> join(
+            @PathVariable Long eventId,
+            @CurrentUser User user) {
+        
+        if (user == null) {
+            return ResponseEntity
+                .status(HttpStatus.UNAUTHORIZED)
+                .body(ApiResponse.error("User not authenticated"));
+        }
+
+        QueueStatusResponse status = waitingRoomService.join(eventId, user.getUserId());
+        
+        return ResponseEntity.ok(
+            ApiResponse.success(status, status.isAdmitted()
+                ? "You may now place your order."
+                : "You are in the waiting room.")
+        );
+    }
+
+    /**
+     * Poll waiting room position (served from memory, no session lookup)
+     * GET /api/waiting-room/{eventId}/status
+     * 
+     * @param eventId Event ID
+     * @param queueToken Token returned by join
+     * @return Current position, or admission once it is the user's turn
+     */
+    @GetMapping("/{eventId}/status")
+    public ResponseEntity<ApiResponse<QueueStatusResponse>> getStatus(
+            @PathVariable Long eventId,
+            @RequestHeader("X-Queue-Token") String queueToken) {
+        
+        QueueStatusResponse status = waitingRoomService.getStatus(eventId, queueToken);
+        
+        return ResponseEntity.ok()
+            .header("Retry-After", String.valueOf(status.getPollAfterSeconds()))
+            .body(ApiResponse.success(status, status.isAdmitted()
+                ? "You may now place your order."
+                : "You are in the waiting room."));
+    }
+}
@@ -0,0 +1,94 @@
+package com.swd.ticketbook.controllers;
+
+import com.swd.ticketbook.dto.ApiResponse;
+import com.swd.ticketbook.dto.order.WaitlistEntryResponse;
+import com.swd.ticketbook.entities.User;
+import com.swd.ticketbook.security.CurrentUser;
+import com.swd.ticketbook.services.WaitlistService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for the sold-out ticket waitlist
+ * 
+ * Base URL: /api/waitlist
+ */
+@RestController
+@RequestMapping("/api/waitlist")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class WaitlistController {
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    /**
+     * Join the waitlist of a sold-out ticket type
+     * POST /api/waitlist/{ticketTypeId}/join?quantity=2
+     * 
+     * @param ticketTypeId Ticket type ID
+     * @param quantity Tickets wanted
+     * @param user Current authenticated user
+     * @return Waitlist entry with current position
+     */
+    @PostMapping("/{ticketTypeId}/join")
+    public ResponseEntity<ApiResponse<WaitlistEntryResponse>> join(
+            @PathVariable Long ticketTypeId,
+            @RequestParam(defaultValue = "1") int quantity,
+            @CurrentUser User user) {
+        
+        if (user == null) {
+            return ResponseEntity
+                .status(HttpStatus.UNAUTHORIZED)
+                .body(ApiResponse.error("User not authenticated"));
+        }
+
+        WaitlistEntryResponse entry = waitlistService.join(user.getUserId(), ticketTypeId, quantity);
+        
+        return ResponseEntity.ok(
+            ApiResponse.success(entry, "You are on the waitlist. We will reserve tickets for you when they become available.")
+        );
+    }
+
+    /**
+     * Leave the waitlist
+     * DELETE /api/waitlist/{entryId}
+     */
+    @DeleteMapping("/{entryId}")
+    public ResponseEntity<ApiResponse<Void>> leave(
+            @PathVariable Long entryId,
+            @CurrentUser User user) {
+        
+        if (user == null) {
+            return ResponseEntity
+                .status(HttpStatus.UNAUTHORIZED)
+                .body(ApiResponse.error("User not authenticated"));
+        }
+
+        waitlistService.leave(user.getUserId(), entryId);
+        
+        return ResponseEntity.ok(ApiResponse.success("You have left the waitlist"));
+    }
+
+    /**
+     * Get my waitlist entries
+     * GET /api/waitlist/me
+     */
+    @GetMapping("/me")
+    public ResponseEntity<ApiResponse<List<WaitlistEntryResponse>>> getMyEntries(
+            @CurrentUser User user) {
+        
+        if (user == null) {
+            return ResponseEntity
+                .status(HttpStatus.UNAUTHORIZED)
+                .body(ApiResponse.error("User not authenticated"));
+        }
+
+        return ResponseEntity.ok(
+            ApiResponse.success(waitlistService.getCustomerEntries(user.getUserId()), "Waitlist entries retrieved successfully")
+        );
+    }
+}
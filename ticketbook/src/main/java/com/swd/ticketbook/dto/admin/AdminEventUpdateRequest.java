@@ -35,6 +35,8 @@ public class AdminEventUpdateRequest {
 
     private Boolean refundAllowed;
 
+    private Boolean flashSale;
+
     @Size(max = 500, message = "Poster image path must not exceed 500 characters")
     private String posterImage;
 
@@ -111,6 +113,14 @@ public class AdminEventUpdateRequest {
         this.refundAllowed = refundAllowed;
     }
 
+    public Boolean getFlashSale() {
+        return flashSale;
+    }
+
+    public void setFlashSale(Boolean flashSale) {
+        this.flashSale = flashSale;
+    }
+
     public String getPosterImage() {
         return posterImage;
     }
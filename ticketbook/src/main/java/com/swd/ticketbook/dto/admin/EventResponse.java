@@ -22,6 +22,7 @@ public class EventResponse {
     private Integer maxTicketQuantity;
     private EventStatus status;
     private Boolean refundAllowed;
+    private Boolean flashSale;
     private String posterImage;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -135,6 +136,14 @@ public class EventResponse {
         this.refundAllowed = refundAllowed;
     }
 
+    public Boolean getFlashSale() {
+        return flashSale;
+    }
+
+    public void setFlashSale(Boolean flashSale) {
+        this.flashSale = flashSale;
+    }
+
     public String getPosterImage() {
         return posterImage;
     }
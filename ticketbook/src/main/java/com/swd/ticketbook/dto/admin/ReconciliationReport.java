@@ -0,0 +1,28 @@
+package com.swd.ticketbook.dto.admin;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO summarizing one settlement file reconciliation run (Admin view)
+ * Individual discrepancies are written to reportFile.
+ */
+@Data
+public class ReconciliationReport {
+    private String fileName;
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+    private boolean sortedInput;
+    private long settlementRows;
+    private long paymentsScanned;
+    private long matched;
+    private long amountMismatches;
+    private long statusMismatches;
+    private long orphanedSettlements;
+    private long missingInSettlement;
+    private long duplicateRows;
+    private long malformedRows;
+    private long durationMs;
+    private String reportFile;
+}
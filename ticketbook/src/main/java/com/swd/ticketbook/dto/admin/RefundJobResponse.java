@@ -0,0 +1,23 @@
+package com.swd.ticketbook.dto.admin;
+
+import com.swd.ticketbook.enums.RefundJobStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for bulk refund job progress (Admin view)
+ */
+@Data
+public class RefundJobResponse {
+    private Long jobId;
+    private Long eventId;
+    private RefundJobStatus status;
+    private Integer totalTickets;
+    private Integer refundedTickets;
+    private Integer failedTickets;
+    private Double progressPercent;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
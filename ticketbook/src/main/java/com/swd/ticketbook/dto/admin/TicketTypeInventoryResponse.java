@@ -0,0 +1,18 @@
+package com.swd.ticketbook.dto.admin;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO for ticket type inventory and sharding state (Admin view)
+ */
+@Data
+public class TicketTypeInventoryResponse {
+    private Long ticketTypeId;
+    private String typeName;
+    private Integer ticketQuantity;
+    private Integer availableQuantity; // Sum of shards when sharded
+    private Integer shardCount;
+    private List<Integer> shardAvailability;
+}
@@ -1,6 +1,7 @@
 package com.swd.ticketbook.dto.checkin;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 /**
@@ -11,5 +12,12 @@ public class CheckInRequest {
     
     @NotBlank(message = "QR code is required")
     private String qrCode;
+
+    // Event the gate is admitting; attributes unknown QR codes to it (optional)
+    private Long eventId;
+
+    // Gate lane or scanner device, for per-lane scan rates (optional)
+    @Size(max = 32, message = "Lane ID must be at most 32 characters")
+    private String laneId;
 }
 
@@ -0,0 +1,17 @@
+package com.swd.ticketbook.dto.checkin;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one recorded gate scan (FR20)
+ */
+@Data
+public class CheckInScanResponse {
+    private Long scanId;
+    private Long ticketId;
+    private String outcome;
+    private String laneId;
+    private LocalDateTime scannedAt;
+}
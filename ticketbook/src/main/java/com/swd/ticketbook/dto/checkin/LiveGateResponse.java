@@ -0,0 +1,46 @@
+package com.swd.ticketbook.dto.checkin;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for the live gate dashboard of an event (in-memory counters)
+ */
+@Data
+public class LiveGateResponse {
+    private Long eventId;
+    private LocalDateTime generatedAt;
+    private long checkedIn;
+    private int sold;
+    private double checkInRate; // Percentage of sold tickets
+    private long rejected;
+    private Map<String, Long> rejectedByReason = new LinkedHashMap<>();
+    private List<TicketTypeGate> ticketTypes = new ArrayList<>();
+    private List<MinuteCount> minutes = new ArrayList<>();
+
+    /**
+     * Entries per ticket type
+     */
+    @Data
+    public static class TicketTypeGate {
+        private Long ticketTypeId;
+        private String typeName;
+        private int sold;
+        private long checkedIn;
+    }
+
+    /**
+     * Entries and rejections in one minute (minutes without scans are omitted)
+     */
+    @Data
+    public static class MinuteCount {
+        private LocalDateTime minute;
+        private long granted;
+        private long rejected;
+    }
+}
@@ -0,0 +1,33 @@
+package com.swd.ticketbook.dto.checkin;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for gate scans per minute of an event (organizer dashboard)
+ */
+@Data
+public class ScanRateResponse {
+    private Long eventId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private long totalScans;
+    private long granted;
+    private List<Minute> minutes = new ArrayList<>();
+
+    /**
+     * Scans in one minute, by outcome and by lane (minutes without scans are omitted)
+     */
+    @Data
+    public static class Minute {
+        private LocalDateTime minute;
+        private long scans;
+        private Map<String, Long> byOutcome = new LinkedHashMap<>();
+        private Map<String, Long> byLane = new LinkedHashMap<>();
+    }
+}
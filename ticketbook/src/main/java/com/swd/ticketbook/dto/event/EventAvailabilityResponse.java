@@ -0,0 +1,23 @@
+package com.swd.ticketbook.dto.event;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO for live ticket availability of one event (pushed over SSE)
+ * Deliberately small: only the numbers that change while an event is on sale.
+ */
+@Data
+public class EventAvailabilityResponse {
+    private Long eventId;
+    private Integer availableTickets;
+    private boolean soldOut;
+    private List<TicketTypeAvailability> ticketTypes;
+
+    @Data
+    public static class TicketTypeAvailability {
+        private Long ticketTypeId;
+        private Integer availableQuantity;
+    }
+}
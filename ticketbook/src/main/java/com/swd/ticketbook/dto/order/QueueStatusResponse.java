@@ -0,0 +1,19 @@
+package com.swd.ticketbook.dto.order;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for waiting room position (admission control for UC-02.1)
+ */
+@Data
+public class QueueStatusResponse {
+    private String queueToken;
+    private Long eventId;
+    private boolean admitted;
+    private long position; // Users ahead; 0 once admitted
+    private long estimatedWaitSeconds;
+    private long pollAfterSeconds;
+    private LocalDateTime admissionExpiresAt;
+}
@@ -0,0 +1,22 @@
+package com.swd.ticketbook.dto.order;
+
+import com.swd.ticketbook.enums.WaitlistStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a waitlist entry (sold-out ticket types)
+ */
+@Data
+public class WaitlistEntryResponse {
+    private Long entryId;
+    private Long eventId;
+    private Long ticketTypeId;
+    private Integer quantity;
+    private WaitlistStatus status;
+    private Long position; // Waiters ahead + 1, while waiting
+    private Long orderId; // Reservation to pay, once offered
+    private LocalDateTime offerExpiresAt;
+    private LocalDateTime joinedAt;
+}
@@ -0,0 +1,61 @@
+package com.swd.ticketbook.entities;
+
+import com.swd.ticketbook.enums.CheckInOutcome;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity recording one gate scan attempt (FR20), append-only
+ * Fixed-width rows without foreign keys, written in batches by CheckInScanRecorder;
+ * (event_id, scanned_at) serves per-event time windows and scans-per-minute aggregates.
+ */
+@Entity
+@Table(name = "checkin_scans", indexes = {
+    @Index(name = "idx_checkin_scans_event_time", columnList = "event_id, scanned_at")
+})
+@Data
+@NoArgsConstructor
+public class CheckInScan {
+
+    // Sequence ids so batched inserts stay batched (IDENTITY forces row-by-row inserts)
+    @Id
+    @SequenceGenerator(name = "checkin_scans_seq", sequenceName = "checkin_scans_scan_id_seq", allocationSize = 500)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "checkin_scans_seq")
+    @Column(name = "scan_id")
+    private Long scanId;
+
+    @Column(name = "event_id")
+    private Long eventId; // Null only for unknown QR codes scanned without an event
+
+    @Column(name = "ticket_id")
+    private Long ticketId; // Null for unknown QR codes
+
+    @Column(name = "ticket_type_id")
+    private Long ticketTypeId; // Null for unknown QR codes
+
+    @NotNull
+    @Enumerated(EnumType.ORDINAL)
+    @Column(name = "outcome", nullable = false)
+    private CheckInOutcome outcome;
+
+    @Column(name = "lane_id", length = 32)
+    private String laneId; // Gate lane or scanner device
+
+    @NotNull
+    @Column(name = "scanned_at", nullable = false)
+    private LocalDateTime scannedAt;
+
+    public CheckInScan(Long eventId, Long ticketId, Long ticketTypeId, CheckInOutcome outcome, String laneId,
+                       LocalDateTime scannedAt) {
+        this.eventId = eventId;
+        this.ticketId = ticketId;
+        this.ticketTypeId = ticketTypeId;
+        this.outcome = outcome;
+        this.laneId = laneId;
+        this.scannedAt = scannedAt;
+    }
+}
@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -25,6 +26,11 @@ public class Event {
     @Column(name = "event_id")
     private Long eventId;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version")
+    private Long version;
+
     @NotNull
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "organizer_id", nullable = false)
@@ -75,6 +81,11 @@ public class Event {
     @Column(name = "refund_allowed", nullable = false)
     private Boolean refundAllowed = false;
 
+    // Flash sales admit buyers through the waiting room before they may order
+    @ColumnDefault("false")
+    @Column(name = "flash_sale", nullable = false)
+    private Boolean flashSale = false;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
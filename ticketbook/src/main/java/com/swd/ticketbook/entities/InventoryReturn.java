@@ -0,0 +1,52 @@
+package com.swd.ticketbook.entities;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing tickets waiting to be returned to sale (refunds)
+ * Refund transactions only insert here; InventoryReturnService folds pending
+ * rows into ticket_types in the background, so a burst of refunds never
+ * queues on the ticket type row lock.
+ */
+@Entity
+@Table(name = "inventory_returns")
+@Data
+@NoArgsConstructor
+public class InventoryReturn {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "return_id")
+    private Long returnId;
+
+    @NotNull
+    @Column(name = "ticket_type_id", nullable = false)
+    private Long ticketTypeId;
+
+    @Column(name = "quantity", nullable = false)
+    private int quantity;
+
+    @NotNull
+    @Column(name = "source", nullable = false, length = 30)
+    private String source; // REFUND, BULK_REFUND
+
+    @Column(name = "reference_id")
+    private Long referenceId; // Refund request or refund job ID
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public InventoryReturn(Long ticketTypeId, int quantity, String source, Long referenceId) {
+        this.ticketTypeId = ticketTypeId;
+        this.quantity = quantity;
+        this.source = source;
+        this.referenceId = referenceId;
+        this.createdAt = LocalDateTime.now();
+    }
+}
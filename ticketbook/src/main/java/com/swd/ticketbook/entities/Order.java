@@ -5,10 +5,13 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -26,6 +29,11 @@ public class Order {
     @Column(name = "order_id")
     private Long orderId;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version")
+    private Long version;
+
     @NotNull
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -80,6 +88,10 @@ public class Order {
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Ticket> tickets = new HashSet<>();
 
+    // Reserved quantity per ticket type (empty for orders placed before items were recorded)
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    private List<OrderItem> items = new ArrayList<>();
+
     @OneToOne(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Payment payment;
 
@@ -92,6 +104,13 @@ public class Order {
         this.reservationExpiresAt = LocalDateTime.now().plusMinutes(15);
     }
 
+    /**
+     * Record tickets reserved for one ticket type
+     */
+    public void addItem(TicketType ticketType, int quantity) {
+        items.add(new OrderItem(this, ticketType, quantity));
+    }
+
     /**
      * Check if reservation has expired (FR16)
      */
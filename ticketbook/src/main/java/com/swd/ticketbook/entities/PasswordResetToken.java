@@ -13,7 +13,9 @@ import java.time.LocalDateTime;
  * Tokens expire after 15 minutes.
  */
 @Entity
-@Table(name = "password_reset_tokens")
+@Table(name = "password_reset_tokens", indexes = {
+    @Index(name = "idx_password_reset_tokens_expiry_time", columnList = "expiry_time, token_id")
+})
 @Data
 @NoArgsConstructor
 public class PasswordResetToken {
@@ -13,7 +13,10 @@ import java.time.LocalDateTime;
  * Entity representing a Payment transaction
  */
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+    @Index(name = "idx_payments_vnpay_transaction_id", columnList = "vnpay_transaction_id"),
+    @Index(name = "idx_payments_payment_date", columnList = "payment_date")
+})
 @Data
 @NoArgsConstructor
 public class Payment {
@@ -0,0 +1,88 @@
+package com.swd.ticketbook.entities;
+
+import com.swd.ticketbook.enums.CallbackStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a raw VNPAY callback (IPN or return URL) in the inbox
+ * Written and acknowledged immediately; orders are confirmed later by
+ * PaymentCallbackWorker. One row per vnp_TxnRef (duplicates are dropped).
+ */
+@Entity
+@Table(name = "payment_callbacks", indexes = {
+    @Index(name = "idx_payment_callbacks_status_next_attempt", columnList = "status, next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+public class PaymentCallback {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "callback_id")
+    private Long callbackId;
+
+    @NotNull
+    @Column(name = "txn_ref", nullable = false, unique = true, length = 100)
+    private String txnRef; // vnp_TxnRef: "{orderId}_{timestamp}"
+
+    @NotNull
+    @Column(name = "source", nullable = false, length = 20)
+    private String source; // IPN, RETURN
+
+    @Column(name = "response_code", length = 10)
+    private String responseCode; // vnp_ResponseCode, 00 = success
+
+    @Column(name = "transaction_status", length = 10)
+    private String transactionStatus; // vnp_TransactionStatus
+
+    @Column(name = "transaction_no", length = 100)
+    private String transactionNo; // vnp_TransactionNo (VNPAY side)
+
+    @Column(name = "amount", precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    @NotNull
+    @Column(name = "raw_payload", nullable = false, columnDefinition = "TEXT")
+    private String rawPayload;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private CallbackStatus status = CallbackStatus.RECEIVED;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @NotNull
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    @NotNull
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    /**
+     * Mark callback as handled (order confirmed, or nothing left to do)
+     */
+    public void markProcessed(CallbackStatus outcome, String note) {
+        this.status = outcome;
+        this.lastError = note;
+        this.processedAt = LocalDateTime.now();
+        this.lockedUntil = null;
+    }
+}
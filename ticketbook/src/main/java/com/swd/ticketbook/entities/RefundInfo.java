@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -14,7 +15,9 @@ import java.time.LocalDateTime;
  * Business Rule FR7, FR8
  */
 @Entity
-@Table(name = "refund_info")
+@Table(name = "refund_info", indexes = {
+    @Index(name = "idx_refund_info_job_status", columnList = "refund_job_id, status")
+})
 @Data
 @NoArgsConstructor
 public class RefundInfo {
@@ -59,6 +62,16 @@ public class RefundInfo {
     @Column(name = "processed_date")
     private LocalDateTime processedDate;
 
+    @Column(name = "refund_job_id")
+    private Long refundJobId; // Set when created by a bulk refund job
+
+    @ColumnDefault("0")
+    @Column(name = "gateway_attempts", nullable = false)
+    private int gatewayAttempts;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
     public RefundInfo(Ticket ticket, User user, String reason, BigDecimal refundAmount) {
         this.ticket = ticket;
         this.user = user;
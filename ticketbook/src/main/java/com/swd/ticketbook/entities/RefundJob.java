@@ -0,0 +1,78 @@
+package com.swd.ticketbook.entities;
+
+import com.swd.ticketbook.enums.RefundJobStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a bulk refund of every ticket of a cancelled event
+ * Per-ticket progress lives in refund_info (refund_job_id); this row holds
+ * totals and the worker lease, so a job resumes wherever it stopped.
+ */
+@Entity
+@Table(name = "refund_jobs", indexes = {
+    @Index(name = "idx_refund_jobs_event_status", columnList = "event_id, status")
+})
+@Data
+@NoArgsConstructor
+public class RefundJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "job_id")
+    private Long jobId;
+
+    @NotNull
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @NotNull
+    @Column(name = "created_by", nullable = false)
+    private Long createdBy; // Admin user ID
+
+    @NotNull
+    @Column(name = "reason", nullable = false, length = 1000)
+    private String reason;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private RefundJobStatus status = RefundJobStatus.RUNNING;
+
+    @Column(name = "total_tickets", nullable = false)
+    private int totalTickets;
+
+    @Column(name = "refunded_tickets", nullable = false)
+    private int refundedTickets;
+
+    @Column(name = "failed_tickets", nullable = false)
+    private int failedTickets;
+
+    @Column(name = "locked_by", length = 64)
+    private String lockedBy; // Worker node holding the lease
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public RefundJob(Long eventId, Long createdBy, String reason) {
+        this.eventId = eventId;
+        this.createdBy = createdBy;
+        this.reason = reason;
+        this.status = RefundJobStatus.RUNNING;
+        this.createdAt = LocalDateTime.now();
+    }
+}
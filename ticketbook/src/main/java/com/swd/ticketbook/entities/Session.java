@@ -12,7 +12,9 @@ import java.time.LocalDateTime;
  * Sessions expire after 24 hours of inactivity.
  */
 @Entity
-@Table(name = "sessions")
+@Table(name = "sessions", indexes = {
+    @Index(name = "idx_sessions_expires_at", columnList = "expires_at, session_id")
+})
 @Data
 @NoArgsConstructor
 public class Session {
@@ -80,8 +82,10 @@ public class Session {
 
     /**
      * Invalidate the session
+     * Also expires it so the cleanup job can purge it by expires_at
      */
     public void invalidate() {
         this.isActive = false;
+        this.expiresAt = LocalDateTime.now();
     }
 }
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -23,6 +24,11 @@ public class TicketType {
     @Column(name = "ticket_type_id")
     private Long ticketTypeId;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version")
+    private Long version;
+
     @NotNull
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "event_id", nullable = false)
@@ -36,9 +42,15 @@ public class TicketType {
     @Column(name = "ticket_quantity", nullable = false)
     private Integer ticketQuantity;
 
+    // When shardCount > 1 the live count is the sum of TicketTypeShard rows (see InventoryService)
     @Column(name = "available_quantity", nullable = false)
     private Integer availableQuantity;
 
+    // Opt-in inventory sharding for hot on-sales; 1 = single row
+    @ColumnDefault("1")
+    @Column(name = "shard_count", nullable = false)
+    private Integer shardCount = 1;
+
     @NotNull
     @Column(name = "type_name", nullable = false, length = 255)
     private String typeName;
@@ -60,6 +72,13 @@ public class TicketType {
         this.availableQuantity = ticketQuantity;
     }
 
+    /**
+     * Check if availability is split across TicketTypeShard rows
+     */
+    public boolean isSharded() {
+        return shardCount != null && shardCount > 1;
+    }
+
     /**
      * Check if tickets are available for purchase
      */
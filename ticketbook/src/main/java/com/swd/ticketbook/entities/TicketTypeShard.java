@@ -0,0 +1,55 @@
+package com.swd.ticketbook.entities;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Entity representing one sub-allocation of a sharded TicketType
+ * Buyers reserve from different rows, so a hot ticket type is no longer
+ * serialized on a single row lock. Available tickets = sum of all shards.
+ */
+@Entity
+@Table(name = "ticket_type_shards", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_ticket_type_shards_type_index", columnNames = {"ticket_type_id", "shard_index"})
+})
+@Data
+@NoArgsConstructor
+public class TicketTypeShard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "shard_id")
+    private Long shardId;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version")
+    private Long version;
+
+    @NotNull
+    @Column(name = "ticket_type_id", nullable = false)
+    private Long ticketTypeId;
+
+    @NotNull
+    @Column(name = "shard_index", nullable = false)
+    private Integer shardIndex;
+
+    // Share of the ticket quantity; releases never push availability above it
+    @NotNull
+    @Column(name = "allocated_quantity", nullable = false)
+    private Integer allocatedQuantity;
+
+    @NotNull
+    @Column(name = "available_quantity", nullable = false)
+    private Integer availableQuantity;
+
+    public TicketTypeShard(Long ticketTypeId, int shardIndex, int allocatedQuantity, int availableQuantity) {
+        this.ticketTypeId = ticketTypeId;
+        this.shardIndex = shardIndex;
+        this.allocatedQuantity = allocatedQuantity;
+        this.availableQuantity = availableQuantity;
+    }
+}
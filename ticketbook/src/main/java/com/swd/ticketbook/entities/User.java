@@ -4,7 +4,9 @@ import com.swd.ticketbook.enums.UserRole;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -33,7 +35,7 @@ public class User {
     @Column(name = "contact", unique = true, length = 255)
     private String contact;
 
-    // Password is MD5 hashed (FR1) - Note: MD5 is deprecated, consider BCrypt
+    // Password hash (FR1): "{bcrypt}..."-style prefixed hash, or legacy unprefixed MD5 until next login
     @Column(name = "password", length = 255)
     private String password;
 
@@ -71,11 +73,16 @@ public class User {
     @Column(name = "account_locked_until")
     private LocalDateTime accountLockedUntil;
 
-    // Relationships
+    // Relationships (kept out of toString/equals: the user is the security principal,
+    // read outside any persistence context)
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Set<Session> sessions = new HashSet<>();
 
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private OrganizerProfile organizerProfile;
 
     // Custom constructor
@@ -0,0 +1,43 @@
+package com.swd.ticketbook.entities;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity backing the shared verification code store
+ * Lets multiple app nodes see the same codes (stand-in for an external cache).
+ */
+@Entity
+@Table(name = "verification_codes", indexes = {
+    @Index(name = "idx_verification_codes_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+public class VerificationCode {
+
+    @Id
+    @Column(name = "identifier", length = 255)
+    private String identifier; // Email or phone number
+
+    @NotNull
+    @Column(name = "code", nullable = false, length = 10)
+    private String code;
+
+    @NotNull
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    public VerificationCode(String identifier, String code, LocalDateTime expiresAt) {
+        this.identifier = identifier;
+        this.code = code;
+        this.expiresAt = expiresAt;
+        this.attempts = 0;
+    }
+}
@@ -0,0 +1,85 @@
+package com.swd.ticketbook.entities;
+
+import com.swd.ticketbook.enums.WaitlistStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a customer waiting for a sold-out ticket type
+ * Kept narrow (IDs only, no associations): the identity column is the FIFO
+ * order, and the (ticket_type_id, status, entry_id) index serves the allocator.
+ */
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+    @Index(name = "idx_waitlist_type_status_entry", columnList = "ticket_type_id, status, entry_id"),
+    @Index(name = "idx_waitlist_user", columnList = "user_id")
+})
+@Data
+@NoArgsConstructor
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "entry_id")
+    private Long entryId;
+
+    @NotNull
+    @Column(name = "ticket_type_id", nullable = false)
+    private Long ticketTypeId;
+
+    @NotNull
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @NotNull
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "quantity", nullable = false)
+    private int quantity;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+
+    @NotNull
+    @Column(name = "joined_at", nullable = false)
+    private LocalDateTime joinedAt;
+
+    @Column(name = "order_id")
+    private Long orderId; // Reservation created when offered
+
+    @Column(name = "offered_at")
+    private LocalDateTime offeredAt;
+
+    @Column(name = "offer_expires_at")
+    private LocalDateTime offerExpiresAt;
+
+    public WaitlistEntry(Long ticketTypeId, Long eventId, Long userId, int quantity) {
+        this.ticketTypeId = ticketTypeId;
+        this.eventId = eventId;
+        this.userId = userId;
+        this.quantity = quantity;
+        this.status = WaitlistStatus.WAITING;
+        this.joinedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Offer a time-boxed reservation
+     */
+    public void offer(Long orderId, LocalDateTime expiresAt) {
+        this.status = WaitlistStatus.OFFERED;
+        this.orderId = orderId;
+        this.offeredAt = LocalDateTime.now();
+        this.offerExpiresAt = expiresAt;
+    }
+
+    public boolean isActive() {
+        return status == WaitlistStatus.WAITING || status == WaitlistStatus.OFFERED;
+    }
+}
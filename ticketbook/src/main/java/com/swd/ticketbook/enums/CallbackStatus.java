@@ -0,0 +1,22 @@
+package com.swd.ticketbook.enums;
+
+/**
+ * Enum for payment callback inbox status
+ */
+public enum CallbackStatus {
+    RECEIVED("Received"),
+    PROCESSING("Processing"),
+    PROCESSED("Processed"),
+    REJECTED("Rejected"),
+    FAILED("Failed");
+
+    private final String displayName;
+
+    CallbackStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,32 @@
+package com.swd.ticketbook.enums;
+
+/**
+ * Enum for the outcome of a gate scan (FR6, FR8, FR20)
+ * Stored by ordinal in checkin_scans: append new constants, never reorder.
+ */
+public enum CheckInOutcome {
+    GRANTED("Entry granted"),
+    ALREADY_USED("Already used"),
+    NOT_VALID("Ticket not valid"),
+    TOO_EARLY("Event not started"),
+    EVENT_ENDED("Event ended"),
+    UNKNOWN_TICKET("Unknown QR code"),
+    ERROR("System error");
+
+    private final String displayName;
+
+    CheckInOutcome(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Lower-case name used as metric tag and log field
+     */
+    public String getTag() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,23 @@
+package com.swd.ticketbook.enums;
+
+/**
+ * Enum for discrepancies found by settlement reconciliation
+ */
+public enum ReconciliationIssue {
+    AMOUNT_MISMATCH("Amount mismatch"),
+    STATUS_MISMATCH("Status mismatch"),
+    ORPHANED_SETTLEMENT("Settled without payment record"),
+    MISSING_IN_SETTLEMENT("Paid but not settled"),
+    DUPLICATE_SETTLEMENT("Duplicate settlement row"),
+    MALFORMED_ROW("Malformed settlement row");
+
+    private final String displayName;
+
+    ReconciliationIssue(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
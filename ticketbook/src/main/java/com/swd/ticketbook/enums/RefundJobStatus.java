@@ -0,0 +1,20 @@
+package com.swd.ticketbook.enums;
+
+/**
+ * Enum for event-level bulk refund job status
+ */
+public enum RefundJobStatus {
+    RUNNING("Running"),
+    COMPLETED("Completed"),
+    COMPLETED_WITH_ERRORS("Completed with errors");
+
+    private final String displayName;
+
+    RefundJobStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
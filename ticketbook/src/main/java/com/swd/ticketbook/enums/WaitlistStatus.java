@@ -0,0 +1,22 @@
+package com.swd.ticketbook.enums;
+
+/**
+ * Enum for waitlist entry status
+ */
+public enum WaitlistStatus {
+    WAITING("Waiting"),
+    OFFERED("Offered"),       // Reservation created, waiting for payment
+    FULFILLED("Fulfilled"),   // Reservation paid
+    EXPIRED("Expired"),       // Reservation not paid in time
+    CANCELLED("Cancelled");   // Left the waitlist
+
+    private final String displayName;
+
+    WaitlistStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
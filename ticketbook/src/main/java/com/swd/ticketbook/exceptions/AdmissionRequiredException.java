@@ -0,0 +1,12 @@
+package com.swd.ticketbook.exceptions;
+
+/**
+ * Exception thrown when order creation is attempted without a valid
+ * waiting room admission for the event
+ */
+public class AdmissionRequiredException extends RuntimeException {
+
+    public AdmissionRequiredException(String message) {
+        super(message);
+    }
+}
@@ -3,6 +3,7 @@ package com.swd.ticketbook.exceptions;
 import com.swd.ticketbook.dto.ApiResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -110,6 +111,41 @@ public class GlobalExceptionHandler {
             .body(ApiResponse.error(ex.getMessage()));
     }
 
+    /**
+     * Handle saturated resources (load shedding)
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiResponse<Void>> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        logger.warn("Service unavailable: {}", ex.getMessage());
+        return ResponseEntity
+            .status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header("Retry-After", "1")
+            .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    /**
+     * Handle order attempts without a waiting room admission
+     */
+    @ExceptionHandler(AdmissionRequiredException.class)
+    public ResponseEntity<ApiResponse<Void>> handleAdmissionRequiredException(AdmissionRequiredException ex) {
+        logger.warn("Admission required: {}", ex.getMessage());
+        return ResponseEntity
+            .status(HttpStatus.FORBIDDEN)
+            .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    /**
+     * Handle concurrent updates of the same row (@Version mismatch)
+     * The other request won; the client can reload and retry.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        logger.warn("Concurrent update: {}", ex.getMessage());
+        return ResponseEntity
+            .status(HttpStatus.CONFLICT)
+            .body(ApiResponse.error("This record was changed by another request. Please reload and try again."));
+    }
+
     /**
      * Handle all other exceptions
      */
@@ -0,0 +1,16 @@
+package com.swd.ticketbook.exceptions;
+
+/**
+ * Exception thrown when a request is shed because a bounded resource is saturated
+ * Clients should retry later
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,42 @@
+package com.swd.ticketbook.repositories;
+
+import com.swd.ticketbook.entities.CheckInScan;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for CheckInScan entity (FR20 gate scan store)
+ * All queries are range scans of idx_checkin_scans_event_time.
+ */
+@Repository
+public interface CheckInScanRepository extends JpaRepository<CheckInScan, Long> {
+
+    @Query("SELECT s FROM CheckInScan s WHERE s.eventId = :eventId " +
+           "AND s.scannedAt >= :from AND s.scannedAt < :to ORDER BY s.scannedAt")
+    List<CheckInScan> findInWindow(@Param("eventId") Long eventId,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to,
+                                   Pageable pageable);
+
+    @Query(value = "SELECT date_trunc('minute', s.scanned_at) AS minute, CAST(s.outcome AS INTEGER) AS outcome, " +
+                   "s.lane_id AS laneId, COUNT(*) AS scans " +
+                   "FROM checkin_scans s " +
+                   "WHERE s.event_id = :eventId AND s.scanned_at >= :from AND s.scanned_at < :to " +
+                   "GROUP BY 1, 2, 3 ORDER BY 1", nativeQuery = true)
+    List<ScanMinuteCount> countPerMinute(@Param("eventId") Long eventId,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
+
+    @Query(value = "SELECT CAST(s.outcome AS INTEGER) AS outcome, s.ticket_type_id AS ticketTypeId, COUNT(*) AS scans " +
+                   "FROM checkin_scans s " +
+                   "WHERE s.event_id = :eventId AND s.scanned_at < :before " +
+                   "GROUP BY 1, 2", nativeQuery = true)
+    List<ScanOutcomeCount> countByOutcome(@Param("eventId") Long eventId,
+                                          @Param("before") LocalDateTime before);
+}
@@ -3,9 +3,13 @@ package com.swd.ticketbook.repositories;
 import com.swd.ticketbook.entities.Event;
 import com.swd.ticketbook.enums.EventStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for Event entity
@@ -24,4 +28,24 @@ public interface EventRepository extends JpaRepository<Event, Long> {
         Long organizerId, 
         EventStatus status
     );
+
+    /**
+     * Conditional GET for public event details: changes whenever the event, a
+     * ticket type or an inventory shard changes (versions only grow, and ticket
+     * types are counted so a removed type is noticed). Empty unless ACTIVE.
+     */
+    @Query(value = "SELECT CONCAT(e.event_id, '.', e.version, '.', " +
+                   "  (SELECT CONCAT(COUNT(*), '.', COALESCE(MAX(tt.ticket_type_id), 0), '.', COALESCE(SUM(tt.version), 0)) " +
+                   "   FROM ticket_types tt WHERE tt.event_id = e.event_id), '.', " +
+                   "  (SELECT COALESCE(SUM(s.version), 0) FROM ticket_type_shards s " +
+                   "   JOIN ticket_types tt ON tt.ticket_type_id = s.ticket_type_id WHERE tt.event_id = e.event_id)) " +
+                   "FROM events e WHERE e.event_id = :eventId AND e.status = 'ACTIVE'", nativeQuery = true)
+    Optional<String> findPublicVersionStamp(@Param("eventId") Long eventId);
+
+    /**
+     * Events whose buyers go through the waiting room: flagged flash sales that are on sale and not over
+     */
+    @Query("SELECT e.eventId FROM Event e WHERE e.flashSale = true " +
+           "AND e.status = com.swd.ticketbook.enums.EventStatus.ACTIVE AND e.endDate > :now")
+    List<Long> findFlashSaleEventIds(@Param("now") LocalDateTime now);
 }
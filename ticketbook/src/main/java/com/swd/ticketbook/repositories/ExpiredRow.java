@@ -0,0 +1,13 @@
+package com.swd.ticketbook.repositories;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of an expired row for keyset-paginated cleanup
+ */
+public interface ExpiredRow {
+
+    Long getId();
+
+    LocalDateTime getExpiresAt();
+}
@@ -0,0 +1,29 @@
+package com.swd.ticketbook.repositories;
+
+import com.swd.ticketbook.entities.InventoryReturn;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for InventoryReturn entity
+ */
+@Repository
+public interface InventoryReturnRepository extends JpaRepository<InventoryReturn, Long> {
+
+    /**
+     * Claim and remove the oldest pending returns, summed per ticket type
+     * SKIP LOCKED keeps concurrent drainers (other nodes) off the same rows;
+     * the delete rolls back with the inventory update if anything fails.
+     */
+    @Query(value = "WITH claimed AS (" +
+                   "  DELETE FROM inventory_returns WHERE return_id IN (" +
+                   "    SELECT return_id FROM inventory_returns ORDER BY return_id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+                   "  RETURNING ticket_type_id, quantity) " +
+                   "SELECT ticket_type_id AS ticketTypeId, CAST(SUM(quantity) AS BIGINT) AS quantity " +
+                   "FROM claimed GROUP BY ticket_type_id", nativeQuery = true)
+    List<TicketTypeCount> drainBatch(@Param("limit") int limit);
+}
@@ -0,0 +1,19 @@
+package com.swd.ticketbook.repositories;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of the outstanding bulk refund for one order (one gateway call)
+ */
+public interface OrderRefundRow {
+
+    Long getOrderId();
+
+    BigDecimal getAmount();
+
+    Long getTickets();
+
+    Long getRequestId();
+
+    String getContact();
+}
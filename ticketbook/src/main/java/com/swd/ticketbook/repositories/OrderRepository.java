@@ -3,11 +3,13 @@ package com.swd.ticketbook.repositories;
 import com.swd.ticketbook.entities.Order;
 import com.swd.ticketbook.enums.BookingStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +28,21 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
         @Param("now") LocalDateTime now
     );
     
+    // Conditional GET: changes whenever the order, its tickets or its event change
+    @Query(value = "SELECT CONCAT(o.order_id, '.', o.version, '.', e.version, '.', " +
+                   "  (SELECT CONCAT(COUNT(*), '.', COALESCE(SUM(t.version), 0)) FROM tickets t WHERE t.order_id = o.order_id)) " +
+                   "FROM orders o JOIN events e ON e.event_id = o.event_id " +
+                   "WHERE o.order_id = :orderId AND o.user_id = :userId", nativeQuery = true)
+    Optional<String> findVersionStamp(@Param("orderId") Long orderId, @Param("userId") Long userId);
+
+    @Query(value = "SELECT CONCAT(o.order_id, '.', o.version, '.', e.version, '.', " +
+                   "  (SELECT CONCAT(COUNT(*), '.', COALESCE(SUM(t.version), 0)) FROM tickets t WHERE t.order_id = o.order_id)) " +
+                   "FROM orders o JOIN events e ON e.event_id = o.event_id " +
+                   "WHERE o.user_id = :userId AND o.booking_status = 'PENDING_PAYMENT' " +
+                   "AND o.reservation_expires_at > :now " +
+                   "ORDER BY o.order_id DESC LIMIT 1", nativeQuery = true)
+    Optional<String> findActivePendingVersionStamp(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+    
     // Find all orders by user
     List<Order> findByUser_UserIdOrderByOrderDateDesc(Long userId);
     
@@ -36,13 +53,25 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     );
     
     // Find expired pending orders (for cleanup)
-    @Query("SELECT o FROM Order o WHERE o.bookingStatus = 'PENDING_PAYMENT' " +
+    // Payment is fetched in the same query: the inverse one-to-one cannot be lazy and would cost a SELECT per order
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.payment WHERE o.bookingStatus = 'PENDING_PAYMENT' " +
            "AND o.reservationExpiresAt <= :now")
     List<Order> findExpiredPendingOrders(@Param("now") LocalDateTime now);
+
+    // Pending orders still holding a reservation (metrics gauge)
+    @Query("SELECT COUNT(o) FROM Order o WHERE o.bookingStatus = 'PENDING_PAYMENT' " +
+           "AND o.reservationExpiresAt > :now")
+    long countActivePendingOrders(@Param("now") LocalDateTime now);
     
     // Check if event has any orders (sales started)
     boolean existsByEvent_EventId(Long eventId);
     
     // Find orders by event
     List<Order> findByEvent_EventId(Long eventId);
+    
+    // Bulk refund: fully refunded orders are cancelled
+    @Modifying
+    @Query("UPDATE Order o SET o.bookingStatus = 'CANCELLED', o.version = o.version + 1 " +
+           "WHERE o.orderId IN :orderIds AND o.bookingStatus = 'CONFIRMED'")
+    int cancelRefundedOrders(@Param("orderIds") Collection<Long> orderIds);
 }
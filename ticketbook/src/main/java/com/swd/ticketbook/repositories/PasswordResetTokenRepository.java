@@ -2,13 +2,16 @@ package com.swd.ticketbook.repositories;
 
 import com.swd.ticketbook.entities.PasswordResetToken;
 import com.swd.ticketbook.entities.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -44,11 +47,31 @@ public interface PasswordResetTokenRepository extends JpaRepository<PasswordRese
     void invalidateAllUserTokens(@Param("user") User user);
 
     /**
-     * Delete expired tokens (cleanup job)
+     * Find next batch of expired tokens after the (expiryTime, tokenId) cursor
+     * Keyset order on idx_password_reset_tokens_expiry_time; used tokens go once expired.
+     */
+    @Query("SELECT t.tokenId AS id, t.expiryTime AS expiresAt FROM PasswordResetToken t " +
+           "WHERE t.expiryTime < :now " +
+           "AND (t.expiryTime > :afterExpiresAt OR (t.expiryTime = :afterExpiresAt AND t.tokenId > :afterId)) " +
+           "ORDER BY t.expiryTime, t.tokenId")
+    List<ExpiredRow> findExpiredBatch(@Param("now") LocalDateTime now,
+                                      @Param("afterExpiresAt") LocalDateTime afterExpiresAt,
+                                      @Param("afterId") Long afterId,
+                                      Limit limit);
+
+    /**
+     * Delete one batch of tokens by id (cleanup job)
      */
     @Modifying
-    @Query("DELETE FROM PasswordResetToken t WHERE t.expiryTime < :now OR t.isUsed = true")
-    void deleteExpiredTokens(@Param("now") LocalDateTime now);
+    @Transactional
+    @Query("DELETE FROM PasswordResetToken t WHERE t.tokenId IN :ids")
+    int deleteBatch(@Param("ids") List<Long> ids);
+
+    /**
+     * Oldest expired token still present (cleanup lag)
+     */
+    @Query("SELECT MIN(t.expiryTime) FROM PasswordResetToken t WHERE t.expiryTime < :now")
+    Optional<LocalDateTime> findOldestExpiry(@Param("now") LocalDateTime now);
 
     /**
      * Count active tokens for a user
@@ -0,0 +1,60 @@
+package com.swd.ticketbook.repositories;
+
+import com.swd.ticketbook.entities.PaymentCallback;
+import com.swd.ticketbook.enums.CallbackStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for the payment callback inbox
+ */
+@Repository
+public interface PaymentCallbackRepository extends JpaRepository<PaymentCallback, Long> {
+
+    /**
+     * Store a callback unless its vnp_TxnRef is already in the inbox
+     *
+     * @return 1 if stored, 0 if it was a duplicate
+     */
+    @Modifying
+    @Query(value = "INSERT INTO payment_callbacks (txn_ref, source, response_code, transaction_status, " +
+                   "transaction_no, amount, raw_payload, status, attempts, received_at, next_attempt_at) " +
+                   "VALUES (:txnRef, :source, :responseCode, :transactionStatus, :transactionNo, :amount, " +
+                   ":rawPayload, 'RECEIVED', 0, :now, :now) " +
+                   "ON CONFLICT (txn_ref) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("txnRef") String txnRef,
+                       @Param("source") String source,
+                       @Param("responseCode") String responseCode,
+                       @Param("transactionStatus") String transactionStatus,
+                       @Param("transactionNo") String transactionNo,
+                       @Param("amount") BigDecimal amount,
+                       @Param("rawPayload") String rawPayload,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Lease a batch of due callbacks (new, retrying, or abandoned by a crashed worker)
+     * SKIP LOCKED lets several app nodes drain the inbox without blocking each other.
+     *
+     * @return IDs of the leased callbacks
+     */
+    @Query(value = "UPDATE payment_callbacks SET status = 'PROCESSING', locked_until = :leaseUntil, " +
+                   "attempts = attempts + 1 " +
+                   "WHERE callback_id IN (" +
+                   "  SELECT callback_id FROM payment_callbacks " +
+                   "  WHERE (status = 'RECEIVED' AND next_attempt_at <= :now) " +
+                   "     OR (status = 'PROCESSING' AND locked_until < :now) " +
+                   "  ORDER BY callback_id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING callback_id", nativeQuery = true)
+    List<Long> leaseBatch(@Param("now") LocalDateTime now,
+                          @Param("leaseUntil") LocalDateTime leaseUntil,
+                          @Param("limit") int limit);
+
+    long countByStatus(CallbackStatus status);
+}
@@ -3,11 +3,21 @@ package com.swd.ticketbook.repositories;
 import com.swd.ticketbook.entities.Order;
 import com.swd.ticketbook.entities.Payment;
 import com.swd.ticketbook.enums.PaymentStatus;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
@@ -17,5 +27,33 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByVnpayTransactionId(String transactionId);
     
     List<Payment> findByPaymentStatus(PaymentStatus status);
-}
 
+    /**
+     * Gateway payments in a window, ordered like SettlementFileReader.lineOrder
+     * Streamed through a server-side cursor; must be consumed inside a transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "2000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "SELECT p.payment_id AS paymentId, p.order_id AS orderId, " +
+                   "p.vnpay_transaction_id AS transactionNo, p.amount AS amount, " +
+                   "p.payment_status AS paymentStatus, p.payment_date AS paymentDate " +
+                   "FROM payments p " +
+                   "WHERE p.vnpay_transaction_id IS NOT NULL " +
+                   "AND p.payment_date >= :from AND p.payment_date < :to " +
+                   "ORDER BY p.vnpay_transaction_id COLLATE \"C\"", nativeQuery = true)
+    Stream<SettledPaymentRow> streamForReconciliation(@Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to);
+
+    @Query(value = "SELECT p.payment_id AS paymentId, p.order_id AS orderId, " +
+                   "p.vnpay_transaction_id AS transactionNo, p.amount AS amount, " +
+                   "p.payment_status AS paymentStatus, p.payment_date AS paymentDate " +
+                   "FROM payments p WHERE p.vnpay_transaction_id = :transactionNo", nativeQuery = true)
+    Optional<SettledPaymentRow> findSettledRow(@Param("transactionNo") String transactionNo);
+
+    @Modifying
+    @Query("UPDATE Payment p SET p.paymentStatus = com.swd.ticketbook.enums.PaymentStatus.REFUNDED " +
+           "WHERE p.order.orderId IN :orderIds AND p.paymentStatus = com.swd.ticketbook.enums.PaymentStatus.PAID")
+    int markRefunded(@Param("orderIds") Collection<Long> orderIds);
+}
@@ -3,8 +3,13 @@ package com.swd.ticketbook.repositories;
 import com.swd.ticketbook.entities.RefundInfo;
 import com.swd.ticketbook.enums.RefundStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,4 +42,92 @@ public interface RefundInfoRepository extends JpaRepository<RefundInfo, Long> {
     
     // Find refunds by event (through ticket and order)
     List<RefundInfo> findByTicket_Order_Event_EventId(Long eventId);
+
+    // ==================== BULK REFUND JOBS ====================
+
+    /**
+     * Attach open customer refund requests of an event to a bulk job
+     */
+    @Modifying
+    @Query(value = "UPDATE refund_info SET status = 'APPROVED_PROCESSING', refund_job_id = :jobId, " +
+                   "approved_by = :adminId, admin_notes = :reason, gateway_attempts = 0, next_attempt_at = NULL " +
+                   "WHERE status = 'PENDING_ADMIN_REVIEW' AND ticket_id IN (" +
+                   "  SELECT t.ticket_id FROM tickets t JOIN orders o ON o.order_id = t.order_id " +
+                   "  WHERE o.event_id = :eventId AND t.status = 'CONFIRMED')", nativeQuery = true)
+    int adoptPendingForJob(@Param("jobId") Long jobId,
+                           @Param("adminId") Long adminId,
+                           @Param("eventId") Long eventId,
+                           @Param("reason") String reason);
+
+    /**
+     * Create approved refund rows for every remaining confirmed ticket of an event in one statement
+     * Tickets with an open or completed refund are skipped, so this is safe to repeat.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO refund_info (ticket_id, user_id, reason, status, refund_amount, approved_by, " +
+                   "  admin_notes, request_date, refund_job_id, gateway_attempts) " +
+                   "SELECT t.ticket_id, o.user_id, :reason, 'APPROVED_PROCESSING', tt.price, :adminId, " +
+                   "  :reason, :now, :jobId, 0 " +
+                   "FROM tickets t " +
+                   "JOIN orders o ON o.order_id = t.order_id " +
+                   "JOIN ticket_types tt ON tt.ticket_type_id = t.ticket_type_id " +
+                   "WHERE o.event_id = :eventId AND t.status = 'CONFIRMED' " +
+                   "AND NOT EXISTS (SELECT 1 FROM refund_info r WHERE r.ticket_id = t.ticket_id " +
+                   "  AND r.status IN ('APPROVED_PROCESSING', 'COMPLETED'))", nativeQuery = true)
+    int insertForJob(@Param("jobId") Long jobId,
+                     @Param("adminId") Long adminId,
+                     @Param("eventId") Long eventId,
+                     @Param("reason") String reason,
+                     @Param("now") LocalDateTime now);
+
+    /**
+     * Next orders with refunds due for a gateway call
+     */
+    @Query(value = "SELECT t.order_id FROM refund_info r JOIN tickets t ON t.ticket_id = r.ticket_id " +
+                   "WHERE r.refund_job_id = :jobId AND r.status = 'APPROVED_PROCESSING' " +
+                   "AND r.gateway_attempts < :maxAttempts " +
+                   "AND (r.next_attempt_at IS NULL OR r.next_attempt_at <= :now) " +
+                   "GROUP BY t.order_id ORDER BY t.order_id LIMIT :limit", nativeQuery = true)
+    List<Long> findDueOrderIds(@Param("jobId") Long jobId,
+                               @Param("maxAttempts") int maxAttempts,
+                               @Param("now") LocalDateTime now,
+                               @Param("limit") int limit);
+
+    @Query(value = "SELECT t.order_id AS orderId, SUM(r.refund_amount) AS amount, COUNT(*) AS tickets, " +
+                   "MIN(r.request_id) AS requestId, u.contact AS contact " +
+                   "FROM refund_info r " +
+                   "JOIN tickets t ON t.ticket_id = r.ticket_id " +
+                   "JOIN users u ON u.user_id = r.user_id " +
+                   "WHERE r.refund_job_id = :jobId AND r.status = 'APPROVED_PROCESSING' " +
+                   "AND t.order_id IN (:orderIds) " +
+                   "GROUP BY t.order_id, u.contact", nativeQuery = true)
+    List<OrderRefundRow> findOrderRefunds(@Param("jobId") Long jobId,
+                                          @Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query(value = "UPDATE refund_info SET status = 'COMPLETED', processed_date = :now " +
+                   "WHERE refund_job_id = :jobId AND status = 'APPROVED_PROCESSING' " +
+                   "AND ticket_id IN (SELECT ticket_id FROM tickets WHERE order_id IN (:orderIds))",
+           nativeQuery = true)
+    int completeForOrders(@Param("jobId") Long jobId,
+                          @Param("orderIds") Collection<Long> orderIds,
+                          @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "UPDATE refund_info SET gateway_attempts = gateway_attempts + 1, next_attempt_at = :nextAttemptAt " +
+                   "WHERE refund_job_id = :jobId AND status = 'APPROVED_PROCESSING' " +
+                   "AND ticket_id IN (SELECT ticket_id FROM tickets WHERE order_id IN (:orderIds))",
+           nativeQuery = true)
+    int recordGatewayFailure(@Param("jobId") Long jobId,
+                             @Param("orderIds") Collection<Long> orderIds,
+                             @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    long countByRefundJobIdAndStatusAndGatewayAttemptsLessThan(Long refundJobId, RefundStatus status, int attempts);
+
+    long countByRefundJobIdAndStatus(Long refundJobId, RefundStatus status);
+
+    @Modifying
+    @Query("UPDATE RefundInfo r SET r.gatewayAttempts = 0, r.nextAttemptAt = NULL " +
+           "WHERE r.refundJobId = :jobId AND r.status = com.swd.ticketbook.enums.RefundStatus.APPROVED_PROCESSING")
+    int resetFailed(@Param("jobId") Long jobId);
 }
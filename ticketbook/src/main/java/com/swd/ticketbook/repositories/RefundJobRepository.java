@@ -0,0 +1,45 @@
+package com.swd.ticketbook.repositories;
+
+import com.swd.ticketbook.entities.RefundJob;
+import com.swd.ticketbook.enums.RefundJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for RefundJob entity
+ */
+@Repository
+public interface RefundJobRepository extends JpaRepository<RefundJob, Long> {
+
+    Optional<RefundJob> findFirstByEventIdAndStatus(Long eventId, RefundJobStatus status);
+
+    @Query("SELECT j.jobId FROM RefundJob j WHERE j.status = :status ORDER BY j.jobId")
+    List<Long> findIdsByStatus(@Param("status") RefundJobStatus status);
+
+    /**
+     * Take (or extend) the worker lease on a running job; 0 if another node holds it
+     */
+    @Modifying
+    @Query("UPDATE RefundJob j SET j.lockedBy = :worker, j.lockedUntil = :leaseUntil " +
+           "WHERE j.jobId = :jobId AND j.status = com.swd.ticketbook.enums.RefundJobStatus.RUNNING " +
+           "AND (j.lockedUntil IS NULL OR j.lockedUntil < :now OR j.lockedBy = :worker)")
+    int lease(@Param("jobId") Long jobId,
+              @Param("worker") String worker,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE RefundJob j SET j.refundedTickets = j.refundedTickets + :tickets WHERE j.jobId = :jobId")
+    int addRefunded(@Param("jobId") Long jobId, @Param("tickets") int tickets);
+
+    @Modifying
+    @Query("UPDATE RefundJob j SET j.lastError = :error WHERE j.jobId = :jobId")
+    int setLastError(@Param("jobId") Long jobId, @Param("error") String error);
+}
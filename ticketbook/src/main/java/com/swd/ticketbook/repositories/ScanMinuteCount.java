@@ -0,0 +1,17 @@
+package com.swd.ticketbook.repositories;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of gate scans per minute, outcome and lane
+ */
+public interface ScanMinuteCount {
+
+    LocalDateTime getMinute();
+
+    Integer getOutcome();
+
+    String getLaneId();
+
+    Long getScans();
+}
@@ -0,0 +1,13 @@
+package com.swd.ticketbook.repositories;
+
+/**
+ * Projection of gate scans per outcome and ticket type
+ */
+public interface ScanOutcomeCount {
+
+    Integer getOutcome();
+
+    Long getTicketTypeId();
+
+    Long getScans();
+}
@@ -2,11 +2,13 @@ package com.swd.ticketbook.repositories;
 
 import com.swd.ticketbook.entities.Session;
 import com.swd.ticketbook.entities.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -42,15 +44,35 @@ public interface SessionRepository extends JpaRepository<Session, Long> {
      * Used during password change (UC-01.7) or account deletion
      */
     @Modifying
-    @Query("UPDATE Session s SET s.isActive = false WHERE s.user = :user")
+    @Query("UPDATE Session s SET s.isActive = false, s.expiresAt = CURRENT_TIMESTAMP WHERE s.user = :user AND s.isActive = true")
     void invalidateAllUserSessions(@Param("user") User user);
 
     /**
-     * Delete expired sessions (cleanup job)
+     * Find next batch of expired sessions after the (expiresAt, sessionId) cursor
+     * Keyset order on idx_sessions_expires_at; invalidated sessions are expired at logout.
+     */
+    @Query("SELECT s.sessionId AS id, s.expiresAt AS expiresAt FROM Session s " +
+           "WHERE s.expiresAt < :now " +
+           "AND (s.expiresAt > :afterExpiresAt OR (s.expiresAt = :afterExpiresAt AND s.sessionId > :afterId)) " +
+           "ORDER BY s.expiresAt, s.sessionId")
+    List<ExpiredRow> findExpiredBatch(@Param("now") LocalDateTime now,
+                                      @Param("afterExpiresAt") LocalDateTime afterExpiresAt,
+                                      @Param("afterId") Long afterId,
+                                      Limit limit);
+
+    /**
+     * Delete one batch of sessions by id (cleanup job)
      */
     @Modifying
-    @Query("DELETE FROM Session s WHERE s.expiresAt < :now OR s.isActive = false")
-    void deleteExpiredSessions(@Param("now") LocalDateTime now);
+    @Transactional
+    @Query("DELETE FROM Session s WHERE s.sessionId IN :ids")
+    int deleteBatch(@Param("ids") List<Long> ids);
+
+    /**
+     * Oldest expired session still present (cleanup lag)
+     */
+    @Query("SELECT MIN(s.expiresAt) FROM Session s WHERE s.expiresAt < :now")
+    Optional<LocalDateTime> findOldestExpiry(@Param("now") LocalDateTime now);
 
     /**
      * Count active sessions for a user
@@ -59,8 +81,9 @@ public interface SessionRepository extends JpaRepository<Session, Long> {
 
     /**
      * Find session by token and check if valid
+     * Fetches the user as well: the authentication filter reads it after the transaction ends.
      */
-    @Query("SELECT s FROM Session s WHERE s.sessionToken = :token AND s.isActive = true AND s.expiresAt > :now")
+    @Query("SELECT s FROM Session s JOIN FETCH s.user WHERE s.sessionToken = :token AND s.isActive = true AND s.expiresAt > :now")
     Optional<Session> findValidSession(@Param("token") String token, @Param("now") LocalDateTime now);
 }
 
@@ -0,0 +1,22 @@
+package com.swd.ticketbook.repositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a gateway payment for settlement reconciliation
+ */
+public interface SettledPaymentRow {
+
+    Long getPaymentId();
+
+    Long getOrderId();
+
+    String getTransactionNo();
+
+    BigDecimal getAmount();
+
+    String getPaymentStatus();
+
+    LocalDateTime getPaymentDate();
+}
@@ -0,0 +1,14 @@
+package com.swd.ticketbook.repositories;
+
+/**
+ * Projection of one inventory shard's current level
+ * Scalar read, so it always reflects bulk updates made earlier in the transaction.
+ */
+public interface ShardLevel {
+
+    Integer getShardIndex();
+
+    Integer getAllocatedQuantity();
+
+    Integer getAvailableQuantity();
+}
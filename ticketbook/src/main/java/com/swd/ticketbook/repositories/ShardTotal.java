@@ -0,0 +1,11 @@
+package com.swd.ticketbook.repositories;
+
+/**
+ * Projection of the summed availability of a sharded ticket type
+ */
+public interface ShardTotal {
+
+    Long getTicketTypeId();
+
+    Long getAvailable();
+}
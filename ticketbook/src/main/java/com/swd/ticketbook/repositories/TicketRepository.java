@@ -1,11 +1,17 @@
 package com.swd.ticketbook.repositories;
 
 import com.swd.ticketbook.entities.Ticket;
+import com.swd.ticketbook.enums.TicketStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Repository for Ticket entity
@@ -19,6 +25,10 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     // Check if QR code exists (for uniqueness validation)
     boolean existsByQrCode(String qrCode);
     
+    // FR6: Check a whole batch of candidate QR codes in one query
+    @Query("SELECT t.qrCode FROM Ticket t WHERE t.qrCode IN :qrCodes")
+    Set<String> findExistingQrCodes(@Param("qrCodes") Collection<String> qrCodes);
+    
     // Find tickets by order
     List<Ticket> findByOrder_OrderId(Long orderId);
     
@@ -27,4 +37,24 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     
     // Find tickets by event (through order)
     List<Ticket> findByOrder_Event_EventId(Long eventId);
+    
+    // Tickets of an event in one status, counted in the database
+    long countByOrder_Event_EventIdAndStatus(Long eventId, TicketStatus status);
+    
+    // Bulk refund: tickets per type about to be refunded, for the inventory return
+    @Query(value = "SELECT t.ticket_type_id AS ticketTypeId, COUNT(*) AS quantity FROM tickets t " +
+                   "JOIN refund_info r ON r.ticket_id = t.ticket_id " +
+                   "WHERE r.refund_job_id = :jobId AND r.status = 'APPROVED_PROCESSING' " +
+                   "AND t.status = 'CONFIRMED' AND t.order_id IN (:orderIds) " +
+                   "GROUP BY t.ticket_type_id", nativeQuery = true)
+    List<TicketTypeCount> countRefundableByType(@Param("jobId") Long jobId,
+                                                @Param("orderIds") Collection<Long> orderIds);
+    
+    // FR8: Invalidate the tickets of a bulk refund batch in one statement
+    @Modifying
+    @Query(value = "UPDATE tickets SET status = 'REFUNDED', version = version + 1 " +
+                   "WHERE order_id IN (:orderIds) AND status = 'CONFIRMED' AND ticket_id IN (" +
+                   "  SELECT r.ticket_id FROM refund_info r " +
+                   "  WHERE r.refund_job_id = :jobId AND r.status = 'APPROVED_PROCESSING')", nativeQuery = true)
+    int refundForJob(@Param("jobId") Long jobId, @Param("orderIds") Collection<Long> orderIds);
 }
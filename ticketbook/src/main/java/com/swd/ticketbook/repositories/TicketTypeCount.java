@@ -0,0 +1,11 @@
+package com.swd.ticketbook.repositories;
+
+/**
+ * Projection of a ticket count per ticket type
+ */
+public interface TicketTypeCount {
+
+    Long getTicketTypeId();
+
+    Long getQuantity();
+}
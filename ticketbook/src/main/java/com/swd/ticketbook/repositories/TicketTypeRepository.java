@@ -1,10 +1,16 @@
 package com.swd.ticketbook.repositories;
 
 import com.swd.ticketbook.entities.TicketType;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for TicketType entity
@@ -13,4 +19,34 @@ import java.util.List;
 public interface TicketTypeRepository extends JpaRepository<TicketType, Long> {
     
     List<TicketType> findByEvent_EventId(Long eventId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM TicketType t WHERE t.ticketTypeId = :ticketTypeId")
+    Optional<TicketType> findByIdForUpdate(@Param("ticketTypeId") Long ticketTypeId);
+
+    // Atomic conditional decrement (unsharded ticket types); returns 0 when sold out or
+    // resharded meanwhile (available_quantity is then a snapshot, the shards hold the stock)
+    @Modifying
+    @Query("UPDATE TicketType t SET t.availableQuantity = t.availableQuantity - :quantity, t.version = t.version + 1 " +
+           "WHERE t.ticketTypeId = :ticketTypeId AND t.shardCount = 1 AND t.availableQuantity >= :quantity")
+    int tryReserve(@Param("ticketTypeId") Long ticketTypeId, @Param("quantity") int quantity);
+
+    // Atomic increment capped at the ticket quantity (unsharded ticket types); returns 0 when sharded
+    @Modifying
+    @Query("UPDATE TicketType t SET t.availableQuantity = LEAST(t.availableQuantity + :quantity, t.ticketQuantity), " +
+           "t.version = t.version + 1 " +
+           "WHERE t.ticketTypeId = :ticketTypeId AND t.shardCount = 1")
+    int release(@Param("ticketTypeId") Long ticketTypeId, @Param("quantity") int quantity);
+
+    // Committed shard count, bypassing the persistence context's possibly stale entity
+    @Query("SELECT t.shardCount FROM TicketType t WHERE t.ticketTypeId = :ticketTypeId")
+    int findShardCount(@Param("ticketTypeId") Long ticketTypeId);
+
+    // Committed availability of an unsharded ticket type
+    @Query("SELECT t.availableQuantity FROM TicketType t WHERE t.ticketTypeId = :ticketTypeId")
+    int findAvailableQuantity(@Param("ticketTypeId") Long ticketTypeId);
+
+    // Sharded ticket types of events on sale: the hot inventory reported by the metrics gauge
+    @Query("SELECT t FROM TicketType t WHERE t.shardCount > 1 AND t.event.status = 'ACTIVE'")
+    List<TicketType> findShardedOnSale();
 }
@@ -0,0 +1,56 @@
+package com.swd.ticketbook.repositories;
+
+import com.swd.ticketbook.entities.TicketTypeShard;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for TicketTypeShard entity
+ */
+@Repository
+public interface TicketTypeShardRepository extends JpaRepository<TicketTypeShard, Long> {
+
+    @Query("SELECT s.shardIndex AS shardIndex, s.allocatedQuantity AS allocatedQuantity, " +
+           "s.availableQuantity AS availableQuantity " +
+           "FROM TicketTypeShard s WHERE s.ticketTypeId = :ticketTypeId ORDER BY s.shardIndex")
+    List<ShardLevel> findLevels(@Param("ticketTypeId") Long ticketTypeId);
+
+    // Locks every shard of a ticket type (resharding)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM TicketTypeShard s WHERE s.ticketTypeId = :ticketTypeId ORDER BY s.shardIndex")
+    List<TicketTypeShard> findAllForUpdate(@Param("ticketTypeId") Long ticketTypeId);
+
+    // Atomic conditional decrement; returns 0 when the shard cannot cover the quantity
+    @Modifying
+    @Query("UPDATE TicketTypeShard s SET s.availableQuantity = s.availableQuantity - :quantity, s.version = s.version + 1 " +
+           "WHERE s.ticketTypeId = :ticketTypeId AND s.shardIndex = :shardIndex " +
+           "AND s.availableQuantity >= :quantity")
+    int tryReserve(@Param("ticketTypeId") Long ticketTypeId,
+                   @Param("shardIndex") int shardIndex,
+                   @Param("quantity") int quantity);
+
+    // Atomic increment; returns 0 when it would exceed the shard allocation
+    @Modifying
+    @Query("UPDATE TicketTypeShard s SET s.availableQuantity = s.availableQuantity + :quantity, s.version = s.version + 1 " +
+           "WHERE s.ticketTypeId = :ticketTypeId AND s.shardIndex = :shardIndex " +
+           "AND s.availableQuantity + :quantity <= s.allocatedQuantity")
+    int tryRelease(@Param("ticketTypeId") Long ticketTypeId,
+                   @Param("shardIndex") int shardIndex,
+                   @Param("quantity") int quantity);
+
+    @Query("SELECT s.ticketTypeId AS ticketTypeId, SUM(s.availableQuantity) AS available " +
+           "FROM TicketTypeShard s WHERE s.ticketTypeId IN :ticketTypeIds GROUP BY s.ticketTypeId")
+    List<ShardTotal> sumAvailable(@Param("ticketTypeIds") Collection<Long> ticketTypeIds);
+
+    @Modifying
+    @Query("DELETE FROM TicketTypeShard s WHERE s.ticketTypeId = :ticketTypeId")
+    int deleteByTicketTypeId(@Param("ticketTypeId") Long ticketTypeId);
+}
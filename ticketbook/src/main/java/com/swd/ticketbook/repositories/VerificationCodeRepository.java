@@ -0,0 +1,72 @@
+package com.swd.ticketbook.repositories;
+
+import com.swd.ticketbook.entities.VerificationCode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository for VerificationCode entity (shared verification code store)
+ */
+@Repository
+public interface VerificationCodeRepository extends JpaRepository<VerificationCode, String> {
+
+    /**
+     * Store or replace a code in one statement (no check-then-insert race between nodes)
+     *
+     * @return true if a new row was inserted, false if an existing code was replaced
+     */
+    // xmax is 0 only on a freshly inserted row version
+    @Query(value = "INSERT INTO verification_codes (identifier, code, expires_at, attempts) " +
+                   "VALUES (:identifier, :code, :expiresAt, 0) " +
+                   "ON CONFLICT (identifier) DO UPDATE " +
+                   "SET code = EXCLUDED.code, expires_at = EXCLUDED.expires_at, attempts = 0 " +
+                   "RETURNING (xmax = 0)", nativeQuery = true)
+    boolean upsert(@Param("identifier") String identifier,
+                   @Param("code") String code,
+                   @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Replace an existing code only (store full)
+     */
+    @Modifying
+    @Query("UPDATE VerificationCode v SET v.code = :code, v.expiresAt = :expiresAt, v.attempts = 0 " +
+           "WHERE v.identifier = :identifier")
+    int replace(@Param("identifier") String identifier,
+                @Param("code") String code,
+                @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Delete the codes closest to expiry (store full)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM verification_codes WHERE identifier IN " +
+                   "(SELECT identifier FROM verification_codes ORDER BY expires_at LIMIT :limit)", nativeQuery = true)
+    int deleteOldest(@Param("limit") int limit);
+
+    /**
+     * Atomically count one verification attempt and return the new total
+     */
+    @Query(value = "UPDATE verification_codes SET attempts = attempts + 1 " +
+                   "WHERE identifier = :identifier RETURNING attempts", nativeQuery = true)
+    Optional<Integer> incrementAttempts(@Param("identifier") String identifier);
+
+    /**
+     * Delete a code, returning rows affected (0 if another node consumed it first)
+     */
+    @Modifying
+    @Query("DELETE FROM VerificationCode v WHERE v.identifier = :identifier")
+    int deleteByIdentifier(@Param("identifier") String identifier);
+
+    /**
+     * Delete expired codes (cleanup job)
+     */
+    @Modifying
+    @Query("DELETE FROM VerificationCode v WHERE v.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
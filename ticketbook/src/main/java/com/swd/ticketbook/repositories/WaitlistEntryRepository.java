@@ -0,0 +1,68 @@
+package com.swd.ticketbook.repositories;
+
+import com.swd.ticketbook.entities.WaitlistEntry;
+import com.swd.ticketbook.enums.WaitlistStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for WaitlistEntry entity
+ */
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    Optional<WaitlistEntry> findFirstByTicketTypeIdAndUserIdAndStatusIn(Long ticketTypeId, Long userId,
+                                                                        Collection<WaitlistStatus> statuses);
+
+    List<WaitlistEntry> findByUserIdOrderByJoinedAtDesc(Long userId);
+
+    // Waiters ahead of an entry (FIFO by entry ID)
+    long countByTicketTypeIdAndStatusAndEntryIdLessThan(Long ticketTypeId, WaitlistStatus status, Long entryId);
+
+    long countByTicketTypeIdAndStatus(Long ticketTypeId, WaitlistStatus status);
+
+    @Query("SELECT w.entryId FROM WaitlistEntry w " +
+           "WHERE w.ticketTypeId = :ticketTypeId AND w.status = com.swd.ticketbook.enums.WaitlistStatus.WAITING " +
+           "ORDER BY w.entryId")
+    List<Long> findNextWaiting(@Param("ticketTypeId") Long ticketTypeId, Limit limit);
+
+    /**
+     * Lock a waiting entry for an offer
+     * SKIP LOCKED: an entry another node is offering right now is passed over, and once
+     * that offer commits the entry is no longer WAITING, so it is offered only once.
+     */
+    @Query(value = "SELECT * FROM waitlist_entries WHERE entry_id = :entryId AND status = 'WAITING' " +
+                   "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<WaitlistEntry> lockWaiting(@Param("entryId") Long entryId);
+
+    /**
+     * Cancel an entry unless it was offered in the meantime
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = com.swd.ticketbook.enums.WaitlistStatus.CANCELLED " +
+           "WHERE w.entryId = :entryId AND w.status = com.swd.ticketbook.enums.WaitlistStatus.WAITING")
+    int cancelIfWaiting(@Param("entryId") Long entryId);
+
+    @Query("SELECT DISTINCT w.ticketTypeId FROM WaitlistEntry w " +
+           "WHERE w.status = com.swd.ticketbook.enums.WaitlistStatus.WAITING")
+    List<Long> findTicketTypesWithWaiters();
+
+    /**
+     * Close offers whose reservation was paid or has lapsed
+     */
+    @Modifying
+    @Query(value = "UPDATE waitlist_entries SET status = :newStatus " +
+                   "WHERE status = 'OFFERED' AND order_id IN (" +
+                   "  SELECT o.order_id FROM orders o WHERE o.booking_status IN (:bookingStatuses))",
+           nativeQuery = true)
+    int closeOffers(@Param("newStatus") String newStatus,
+                    @Param("bookingStatuses") Collection<String> bookingStatuses);
+}
@@ -0,0 +1,195 @@
+package com.swd.ticketbook.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swd.ticketbook.config.IdempotencyProperties;
+import com.swd.ticketbook.dto.ApiResponse;
+import com.swd.ticketbook.entities.User;
+import com.swd.ticketbook.services.IdempotencyService;
+import com.swd.ticketbook.services.IdempotencyService.Claim;
+import com.swd.ticketbook.services.IdempotencyService.StoredResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Idempotency-Key support for retried order creation and payment confirmation
+ * Runs after SessionAuthenticationFilter (keys are scoped per user) and answers
+ * retries from IdempotencyService before the controller, inventory or database run.
+ * Only successful (2xx) responses are stored: a rejected request changed nothing,
+ * so its retry simply runs again.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Autowired
+    private IdempotencyProperties properties;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // [method, path pattern]
+    private final List<String[]> routes = new ArrayList<>();
+
+    @PostConstruct
+    void parseRoutes() {
+        for (String route : properties.getRoutes()) {
+            String[] parts = route.trim().split("\\s+", 2);
+            routes.add(new String[] {parts[0].toUpperCase(Locale.ROOT), parts[1]});
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!properties.isEnabled() || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        for (String[] route : routes) {
+            if (route[0].equals(request.getMethod()) && pathMatcher.match(route[1], request.getRequestURI())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Long userId = currentUserId();
+        if (userId == null) {
+            // Anonymous calls are rejected further down the chain; never let them take keys
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > properties.getMaxKeyLength()) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST, "Invalid " + HEADER + " header");
+            return;
+        }
+
+        CachedBodyRequestWrapper wrapped = new CachedBodyRequestWrapper(request, properties.getMaxBodyBytes());
+        if (wrapped.isTruncated()) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            return;
+        }
+
+        Claim claim = idempotencyService.claim("user:" + userId, key, fingerprint(wrapped));
+        count(claim.getOutcome());
+        switch (claim.getOutcome()) {
+            case REPLAY -> {
+                replay(response, claim.getResponse());
+                return;
+            }
+            case MISMATCH -> {
+                writeError(response, 422, HEADER + " was already used for a different request");
+                return;
+            }
+            case IN_PROGRESS -> {
+                response.setHeader("Retry-After", "1");
+                writeError(response, HttpServletResponse.SC_CONFLICT, "A request with this " + HEADER + " is still being processed");
+                return;
+            }
+            case FULL -> {
+                response.setHeader("Retry-After", "1");
+                writeError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many requests in progress. Please try again shortly.");
+                return;
+            }
+            case EXECUTE -> {
+                // Run the request below
+            }
+        }
+
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(wrapped, captured);
+
+            byte[] body = captured.getContentAsByteArray();
+            int status = captured.getStatus();
+            if (status >= 200 && status < 300 && body.length <= properties.getMaxBodyBytes()) {
+                idempotencyService.complete(claim, new StoredResponse(status, captured.getContentType(), body));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                idempotencyService.abandon(claim);
+            }
+            captured.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Keys are per user
+     */
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getUserId();
+        }
+        return null;
+    }
+
+    private byte[] fingerprint(CachedBodyRequestWrapper request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + ' ' + request.getRequestURI() + '?' + request.getQueryString() + '\n')
+                .getBytes(StandardCharsets.UTF_8));
+            digest.update(request.getBody());
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void replay(HttpServletResponse response, StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json;charset=UTF-8");
+        response.getWriter().write(objectMapper.writeValueAsString(ApiResponse.error(message)));
+    }
+
+    private void count(Claim.Outcome outcome) {
+        meterRegistry.counter("ticketbook.idempotency.requests", "outcome", outcome.name().toLowerCase(Locale.ROOT))
+            .increment();
+    }
+}
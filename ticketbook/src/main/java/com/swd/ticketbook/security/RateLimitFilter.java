@@ -0,0 +1,124 @@
+package com.swd.ticketbook.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swd.ticketbook.config.RateLimitProperties;
+import com.swd.ticketbook.dto.ApiResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Abuse throttling filter for public auth endpoints
+ * Runs before SessionAuthenticationFilter and answers throttled requests
+ * with 429 without touching the database (FR12 lockout still applies behind it).
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final int MAX_INSPECTED_BODY_BYTES = 16 * 1024;
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // "METHOD path" -> route name
+    private final Map<String, String> routeIndex = new HashMap<>();
+
+    @PostConstruct
+    void indexRoutes() {
+        properties.getRoutes().forEach((name, route) ->
+            routeIndex.put(route.getMethod().toUpperCase(Locale.ROOT) + " " + route.getPath(), name));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || routeIndex.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String routeName = routeIndex.get(request.getMethod() + " " + request.getRequestURI());
+        if (routeName == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        RateLimitProperties.Route route = properties.getRoutes().get(routeName);
+
+        // Per-IP token bucket; the remote address honours X-Forwarded-For only from trusted
+        // proxies (server.forward-headers-strategy), so clients cannot pick their own key
+        long wait = rateLimiter.acquireForIp(routeName, route, request.getRemoteAddr());
+        if (wait > 0) {
+            writeTooManyRequests(response, wait);
+            return;
+        }
+
+        // Per-contact sliding window (needs the JSON body)
+        if (route.getContactLimit() > 0) {
+            CachedBodyRequestWrapper wrapped = new CachedBodyRequestWrapper(request, MAX_INSPECTED_BODY_BYTES);
+            if (wrapped.isTruncated()) {
+                response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+                return;
+            }
+            wait = rateLimiter.acquireForContact(routeName, route, extractContact(wrapped.getBody()));
+            if (wait > 0) {
+                writeTooManyRequests(response, wait);
+                return;
+            }
+            request = wrapped;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Extract email/phone from the request body; null if absent or unparsable
+     */
+    private String extractContact(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode json = objectMapper.readTree(body);
+            JsonNode contact = json.hasNonNull("email") ? json.get("email") : json.get("phone");
+            return contact != null && contact.isTextual()
+                ? contact.asText().trim().toLowerCase(Locale.ROOT)
+                : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void writeTooManyRequests(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+
+        response.setStatus(429);
+        response.setContentType("application/json;charset=UTF-8");
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+
+        ApiResponse<Void> apiResponse = ApiResponse.error(
+            "Too many requests. Please try again in " + retryAfterSeconds + " seconds."
+        );
+        response.getWriter().write(objectMapper.writeValueAsString(apiResponse));
+    }
+}
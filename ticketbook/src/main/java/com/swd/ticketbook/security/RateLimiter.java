@@ -0,0 +1,156 @@
+package com.swd.ticketbook.security;
+
+import com.swd.ticketbook.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory registry of rate limit buckets keyed by route + IP and route + contact
+ * Entirely in-process: rejected requests never reach the database.
+ * At max-keys, new keys make room by evicting idle keys, then the least recently used
+ * ones; a sprayed key space resets other clients' limits instead of locking them out.
+ */
+@Component
+public class RateLimiter {
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, TokenBucket> ipBuckets = new ConcurrentHashMap<>();
+    private final Map<String, SlidingWindowCounter> contactWindows = new ConcurrentHashMap<>();
+
+    // One thread evicts at a time; others insert meanwhile and may briefly overshoot max-keys
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private Counter evicted;
+
+    @PostConstruct
+    void registerMeters() {
+        Gauge.builder("ticketbook.ratelimit.keys", ipBuckets, Map::size)
+            .tag("key", "ip")
+            .register(meterRegistry);
+        Gauge.builder("ticketbook.ratelimit.keys", contactWindows, Map::size)
+            .tag("key", "contact")
+            .register(meterRegistry);
+        evicted = Counter.builder("ticketbook.ratelimit.evicted")
+            .description("Keys evicted before going idle to stay within max-keys")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Take one token for the client IP on this route
+     *
+     * @return 0 if allowed, otherwise nanoseconds to wait
+     */
+    public long acquireForIp(String routeName, RateLimitProperties.Route route, String ip) {
+        long now = System.nanoTime();
+        String key = routeName + '|' + ip;
+        TokenBucket bucket = ipBuckets.get(key);
+        if (bucket == null) {
+            makeRoom();
+            bucket = ipBuckets.computeIfAbsent(key,
+                k -> new TokenBucket(route.getIpCapacity(), route.getIpRefillPerMinute(), now));
+        }
+        long wait = bucket.tryAcquire(now);
+        return wait > 0 ? reject(routeName, "ip", wait) : 0;
+    }
+
+    /**
+     * Count one attempt for the contact (email/phone) on this route
+     *
+     * @return 0 if allowed, otherwise nanoseconds to wait
+     */
+    public long acquireForContact(String routeName, RateLimitProperties.Route route, String contact) {
+        if (route.getContactLimit() <= 0 || contact == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        String key = routeName + '|' + contact;
+        SlidingWindowCounter counter = contactWindows.get(key);
+        if (counter == null) {
+            makeRoom();
+            counter = contactWindows.computeIfAbsent(key,
+                k -> new SlidingWindowCounter(route.getContactWindow().toNanos(), now));
+        }
+        long wait = counter.tryIncrement(route.getContactLimit(), now);
+        return wait > 0 ? reject(routeName, "contact", wait) : 0;
+    }
+
+    /**
+     * Evict buckets that have fully refilled and windows with no recent hits
+     */
+    @Scheduled(fixedRate = 30000)
+    public void evictIdle() {
+        long now = System.nanoTime();
+        ipBuckets.values().removeIf(bucket -> bucket.isIdle(now));
+        contactWindows.values().removeIf(counter -> counter.isIdle(now));
+    }
+
+    /**
+     * At max-keys, drop idle keys and then the least recently used tenth of the keys,
+     * so the scan is paid once per many inserts rather than on each
+     */
+    private void makeRoom() {
+        int maxKeys = properties.getMaxKeys();
+        if (size() < maxKeys || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            if (size() < maxKeys) {
+                return;
+            }
+            evictIdle();
+            int excess = size() - maxKeys + Math.max(1, maxKeys / 10);
+            if (excess <= 0) {
+                return;
+            }
+            List<Candidate> candidates = new ArrayList<>(size());
+            ipBuckets.forEach((key, bucket) -> candidates.add(new Candidate(ipBuckets, key, bucket.lastUsedNanos())));
+            contactWindows.forEach((key, counter) -> candidates.add(new Candidate(contactWindows, key, counter.lastUsedNanos())));
+            // Compare as differences: nanoTime values may wrap
+            long now = System.nanoTime();
+            candidates.sort(Comparator.comparingLong(candidate -> candidate.lastUsedNanos - now));
+            int removed = 0;
+            for (int i = 0; i < Math.min(excess, candidates.size()); i++) {
+                Candidate candidate = candidates.get(i);
+                if (candidate.map.remove(candidate.key) != null) {
+                    removed++;
+                }
+            }
+            evicted.increment(removed);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    int size() {
+        return ipBuckets.size() + contactWindows.size();
+    }
+
+    private long reject(String routeName, String keyType, long waitNanos) {
+        Counter.builder("ticketbook.ratelimit.rejected")
+            .tag("route", routeName)
+            .tag("key", keyType)
+            .register(meterRegistry)
+            .increment();
+        return waitNanos;
+    }
+
+    private record Candidate(Map<String, ?> map, String key, long lastUsedNanos) {
+    }
+}
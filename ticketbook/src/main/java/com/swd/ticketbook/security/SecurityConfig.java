@@ -1,8 +1,10 @@
 package com.swd.ticketbook.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -29,6 +31,12 @@ public class SecurityConfig {
     @Autowired
     private SessionAuthenticationFilter sessionAuthenticationFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private IdempotencyFilter idempotencyFilter;
+
     @Autowired
     private AuthenticationEntryPointImpl authenticationEntryPoint;
 
@@ -65,16 +73,28 @@ public class SecurityConfig {
                 .requestMatchers(
                     "/api/events",
                     "/api/events/{id}",
+                    "/api/events/{id}/availability/stream",
                     "/api/events/search",
                     "/api/events/category/{categoryId}"
                 ).permitAll()
                 
+                // Public endpoints - Waiting room polling (authorized by queue token)
+                .requestMatchers(HttpMethod.GET, "/api/waiting-room/{eventId}/status").permitAll()
+                
+                // Public endpoints - Payment gateway callbacks (authorized by vnp_SecureHash)
+                .requestMatchers("/api/payments/vnpay/**").permitAll()
+                
+                // Probes and Prometheus scrape: served only on management.server.port, never on the public port
+                .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
+                
                 // Customer endpoints
                 .requestMatchers(
                     "/api/auth/profile",
                     "/api/auth/change-password",
                     "/api/auth/logout",
                     "/api/orders/**",
+                    "/api/waiting-room/**",
+                    "/api/waitlist/**",
                     "/api/tickets/**",
                     "/api/support/**",
                     "/api/refunds/**"
@@ -101,6 +121,12 @@ public class SecurityConfig {
         
         // Add session authentication filter
         http.addFilterBefore(sessionAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+
+        // Throttle auth endpoints before any session lookup hits the database
+        http.addFilterBefore(rateLimitFilter, SessionAuthenticationFilter.class);
+
+        // Replay retried order/payment requests once the user is known
+        http.addFilterAfter(idempotencyFilter, SessionAuthenticationFilter.class);
         
         return http.build();
     }
@@ -131,7 +157,7 @@ public class SecurityConfig {
         configuration.setAllowCredentials(true);
         
         // Expose Authorization header
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "Retry-After", IdempotencyFilter.REPLAYED_HEADER));
         
         // Max age for preflight requests
         configuration.setMaxAge(3600L);
@@ -73,6 +73,16 @@ public class SessionAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Waiting room polling is answered from memory; skip the session lookup
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "GET".equals(request.getMethod())
+            && request.getRequestURI().startsWith("/api/waiting-room/")
+            && request.getRequestURI().endsWith("/status");
+    }
+
     /**
      * Extract session token from Authorization header
      * Format: "Bearer {token}" or just "{token}"
@@ -0,0 +1,72 @@
+package com.swd.ticketbook.security;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free sliding-window counter
+ * Approximates a true sliding window by weighting the previous fixed window
+ * by how much of it still overlaps the current one.
+ */
+public class SlidingWindowCounter {
+
+    private final long windowNanos;
+    private final AtomicReference<Window> state;
+    private volatile long lastUsedNanos;
+
+    public SlidingWindowCounter(long windowNanos, long nowNanos) {
+        this.windowNanos = windowNanos;
+        this.state = new AtomicReference<>(new Window(nowNanos, 0, 0));
+        this.lastUsedNanos = nowNanos;
+    }
+
+    /**
+     * Count one hit if the estimated count in the sliding window is below the limit
+     *
+     * @return 0 if counted, otherwise nanoseconds until the current window rolls over
+     */
+    public long tryIncrement(int limit, long nowNanos) {
+        lastUsedNanos = nowNanos;
+        while (true) {
+            Window current = state.get();
+            Window rolled = current.roll(nowNanos, windowNanos);
+            long elapsed = nowNanos - rolled.start;
+            double previousWeight = 1.0 - (double) elapsed / windowNanos;
+            double estimate = rolled.previous * previousWeight + rolled.count;
+            if (estimate >= limit) {
+                if (rolled != current) {
+                    state.compareAndSet(current, rolled);
+                }
+                return Math.max(1, rolled.start + windowNanos - nowNanos);
+            }
+            if (state.compareAndSet(current, new Window(rolled.start, rolled.count + 1, rolled.previous))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Counter has seen no hits for two full windows and can be evicted
+     */
+    public boolean isIdle(long nowNanos) {
+        return nowNanos - state.get().start >= 2 * windowNanos;
+    }
+
+    /**
+     * Time of the last increment attempt, counted or not
+     */
+    public long lastUsedNanos() {
+        return lastUsedNanos;
+    }
+
+    private record Window(long start, long count, long previous) {
+
+        Window roll(long nowNanos, long windowNanos) {
+            long elapsedWindows = (nowNanos - start) / windowNanos;
+            if (elapsedWindows <= 0) {
+                return this;
+            }
+            long newStart = start + elapsedWindows * windowNanos;
+            return new Window(newStart, 0, elapsedWindows == 1 ? count : 0);
+        }
+    }
+}
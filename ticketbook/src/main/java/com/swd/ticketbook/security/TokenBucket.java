@@ -0,0 +1,62 @@
+package com.swd.ticketbook.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket implemented as a generic cell rate algorithm (GCRA)
+ * The whole bucket state is a single "theoretical arrival time" updated by CAS,
+ * so acquiring a token never blocks and never allocates.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival;
+    private volatile long lastUsedNanos;
+
+    /**
+     * @param capacity Maximum burst size (tokens)
+     * @param refillPerMinute Sustained rate (tokens per minute)
+     * @param nowNanos Current monotonic time
+     */
+    public TokenBucket(int capacity, int refillPerMinute, long nowNanos) {
+        this.emissionIntervalNanos = 60_000_000_000L / Math.max(1, refillPerMinute);
+        this.burstToleranceNanos = emissionIntervalNanos * Math.max(0, capacity - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+        this.lastUsedNanos = nowNanos;
+    }
+
+    /**
+     * Try to take one token
+     *
+     * @return 0 if acquired, otherwise nanoseconds until a token is available
+     */
+    public long tryAcquire(long nowNanos) {
+        lastUsedNanos = nowNanos;
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long base = Math.max(tat, nowNanos);
+            long waitNanos = base - burstToleranceNanos - nowNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(tat, base + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Bucket is idle (completely refilled) and can be evicted
+     */
+    public boolean isIdle(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+
+    /**
+     * Time of the last acquire attempt, allowed or not
+     */
+    public long lastUsedNanos() {
+        return lastUsedNanos;
+    }
+}
@@ -1,5 +1,6 @@
 package com.swd.ticketbook.services;
 
+import com.swd.ticketbook.config.RefundJobProperties;
 import com.swd.ticketbook.dto.admin.*;
 import com.swd.ticketbook.dto.auth.UserResponse;
 import com.swd.ticketbook.dto.refund.RefundResponse;
@@ -36,6 +37,18 @@ public class AdminService {
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private BulkRefundService bulkRefundService;
+
+    @Autowired
+    private RefundJobProperties refundJobProperties;
+
     @Autowired
     private OrganizerProfileRepository organizerProfileRepository;
 
@@ -48,6 +61,9 @@ public class AdminService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private InventoryReturnService inventoryReturnService;
+
     @Autowired
     private VNPayService vnPayService;
 
@@ -63,6 +79,7 @@ public class AdminService {
      * UC-04.1: View all users
      * FR17, FR18: Admin can view all user accounts
      */
+    @Transactional(readOnly = true)
     public List<UserResponse> getAllUsers() {
         List<User> users = userRepository.findAll();
         
@@ -78,6 +95,7 @@ public class AdminService {
      * UC-04.1: View users with filters
      * FR17, FR18: Admin can filter users
      */
+    @Transactional(readOnly = true)
     public List<UserResponse> getUsersByFilters(UserRole role, Boolean isDeleted, String search) {
         List<User> users = userRepository.findAll();
         
@@ -114,6 +132,7 @@ public class AdminService {
      * UC-04.2: View user details
      * FR17: Admin can view detailed user information
      */
+    @Transactional(readOnly = true)
     public UserResponse getUserById(Long userId) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new ResourceNotFoundException("User not found"));
@@ -212,6 +231,7 @@ public class AdminService {
      * UC-04.6: View all events
      * FR17, FR18: Admin can view all events
      */
+    @Transactional(readOnly = true)
     public List<EventResponse> getAllEvents() {
         List<Event> events = eventRepository.findAll();
         
@@ -226,6 +246,7 @@ public class AdminService {
      * UC-04.6: View events with filters
      * FR17, FR18: Admin can filter events
      */
+    @Transactional(readOnly = true)
     public List<EventResponse> getEventsByStatus(EventStatus status) {
         List<Event> events;
         
@@ -246,6 +267,7 @@ public class AdminService {
      * UC-04.7: View event details
      * FR17: Admin can view detailed event information
      */
+    @Transactional(readOnly = true)
     public EventResponse getEventById(Long eventId) {
         Event event = eventRepository.findById(eventId)
             .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
@@ -306,6 +328,10 @@ public class AdminService {
             event.setRefundAllowed(request.getRefundAllowed());
         }
         
+        if (request.getFlashSale() != null) {
+            event.setFlashSale(request.getFlashSale());
+        }
+        
         if (request.getPosterImage() != null) {
             event.setPosterImage(request.getPosterImage());
         }
@@ -376,6 +402,7 @@ public class AdminService {
         Event event = eventRepository.findById(eventId)
             .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
         
+        EventStatus previousStatus = event.getStatus();
         event.setStatus(newStatus);
         event.setUpdatedAt(LocalDateTime.now());
         event = eventRepository.save(event);
@@ -384,9 +411,75 @@ public class AdminService {
         log.info("Admin changed event status - Admin ID: {}, Event ID: {}, New Status: {}", 
                  adminId, eventId, newStatus);
         
+        if (newStatus == EventStatus.CANCELLED && previousStatus != EventStatus.CANCELLED) {
+            startCancellationRefunds(adminId, eventId);
+        }
+        
         return mapToEventResponse(event);
     }
 
+    /**
+     * Split a ticket type's inventory into shards for a hot on-sale (1 = merge back)
+     */
+    public TicketTypeInventoryResponse reshardTicketType(Long adminId, Long ticketTypeId, int shardCount) {
+        TicketType ticketType = inventoryService.reshard(ticketTypeId, shardCount);
+
+        // FR20: Log admin action
+        log.info("Admin resharded ticket type - Admin ID: {}, Ticket Type ID: {}, Shards: {}",
+                 adminId, ticketTypeId, shardCount);
+
+        TicketTypeInventoryResponse response = new TicketTypeInventoryResponse();
+        response.setTicketTypeId(ticketType.getTicketTypeId());
+        response.setTypeName(ticketType.getTypeName());
+        response.setTicketQuantity(ticketType.getTicketQuantity());
+        response.setAvailableQuantity(ticketType.getAvailableQuantity());
+        response.setShardCount(ticketType.getShardCount());
+        response.setShardAvailability(inventoryService.getShardAvailability(ticketTypeId));
+        return response;
+    }
+
+    /**
+     * Refund every ticket holder of a cancelled event in one background job
+     */
+    public RefundJobResponse startEventRefund(Long adminId, Long eventId, String reason) {
+        RefundJobResponse job = bulkRefundService.startEventRefund(adminId, eventId, reason);
+
+        // FR20: Log admin action
+        log.info("Admin started bulk refund - Admin ID: {}, Event ID: {}, Job ID: {}, Tickets: {}",
+                 adminId, eventId, job.getJobId(), job.getTotalTickets());
+        return job;
+    }
+
+    public RefundJobResponse getRefundJob(Long jobId) {
+        return bulkRefundService.getJob(jobId);
+    }
+
+    public RefundJobResponse resumeRefundJob(Long adminId, Long jobId) {
+        RefundJobResponse job = bulkRefundService.resume(jobId);
+
+        // FR20: Log admin action
+        log.info("Admin resumed bulk refund - Admin ID: {}, Job ID: {}", adminId, jobId);
+        return job;
+    }
+
+    private void startCancellationRefunds(Long adminId, Long eventId) {
+        if (refundJobProperties.isAutoStartOnCancel()) {
+            startEventRefund(adminId, eventId, "Event cancelled");
+        }
+    }
+
+    /**
+     * Reconcile a settlement file from the inbox on demand (FR7)
+     */
+    public ReconciliationReport reconcileSettlementFile(Long adminId, String fileName) {
+        ReconciliationReport report = reconciliationService.reconcile(reconciliationService.resolveInboxFile(fileName));
+
+        // FR20: Log admin action
+        log.info("Admin reconciled settlement file - Admin ID: {}, File: {}, Discrepancies: {}",
+                 adminId, fileName, report.getSettlementRows() - report.getMatched());
+        return report;
+    }
+
     /**
      * UC-04.10: Soft delete event
      * FR19, FR23: Admin soft deletes event
@@ -403,6 +496,8 @@ public class AdminService {
         
         // FR20: Log admin action
         log.info("Admin deleted event - Admin ID: {}, Event ID: {}", adminId, eventId);
+        
+        startCancellationRefunds(adminId, eventId);
     }
 
     // ==================== KYC VERIFICATION ====================
@@ -411,6 +506,7 @@ public class AdminService {
      * View all pending KYC verifications
      * FR26: Admin reviews KYC requests
      */
+    @Transactional(readOnly = true)
     public List<OrganizerProfileResponse> getPendingKycVerifications() {
         List<OrganizerProfile> profiles = organizerProfileRepository.findPendingKycVerifications();
         
@@ -425,6 +521,7 @@ public class AdminService {
      * View KYC verification details
      * FR26: Admin reviews KYC details
      */
+    @Transactional(readOnly = true)
     public OrganizerProfileResponse getKycVerificationById(Long organizerId) {
         OrganizerProfile profile = organizerProfileRepository.findById(organizerId)
             .orElseThrow(() -> new ResourceNotFoundException("Organizer profile not found"));
@@ -497,6 +594,7 @@ public class AdminService {
      * View all pending refund requests
      * FR7: Admin reviews refund requests
      */
+    @Transactional(readOnly = true)
     public List<RefundResponse> getPendingRefunds() {
         List<RefundInfo> refunds = refundRepository.findByStatus(RefundStatus.PENDING_ADMIN_REVIEW);
         
@@ -547,6 +645,9 @@ public class AdminService {
                     ticket.refund();
                     ticketRepository.save(ticket);
                     
+                    // FR14: Seat goes back on sale (applied asynchronously)
+                    inventoryReturnService.enqueue(ticket.getTicketType().getTicketTypeId(), 1, "REFUND", refund.getRequestId());
+                    
                     refundRepository.save(refund);
                     
                     // Send confirmation to customer
@@ -593,6 +694,7 @@ public class AdminService {
     /**
      * Get pending event update requests
      */
+    @Transactional(readOnly = true)
     public List<com.swd.ticketbook.dto.organizer.EventUpdateRequestResponse> getPendingUpdateRequests() {
         List<com.swd.ticketbook.entities.EventUpdateRequest> requests = updateRequestRepository
             .findByStatus("PENDING_REVIEW");
@@ -681,6 +783,7 @@ public class AdminService {
     /**
      * Get pending withdrawal requests
      */
+    @Transactional(readOnly = true)
     public List<com.swd.ticketbook.dto.organizer.WithdrawalResponse> getPendingWithdrawals() {
         List<com.swd.ticketbook.entities.WithdrawalRequest> requests = withdrawalRequestRepository
             .findPendingWithdrawals();
@@ -788,6 +891,7 @@ public class AdminService {
         response.setMaxTicketQuantity(event.getMaxTicketQuantity());
         response.setStatus(event.getStatus());
         response.setRefundAllowed(event.getRefundAllowed());
+        response.setFlashSale(event.getFlashSale());
         response.setPosterImage(event.getPosterImage());
         response.setCreatedAt(event.getCreatedAt());
         response.setUpdatedAt(event.getUpdatedAt());
@@ -42,6 +42,9 @@ public class AuthService {
     @Autowired
     private PasswordResetTokenRepository resetTokenRepository;
 
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
     /**
      * UC-01.1: Register Account with Email/Phone
      * Business Rules: FR1, FR9, FR10, FR11
@@ -75,8 +78,8 @@ public class AuthService {
             throw new IllegalArgumentException("Invalid or expired verification code");
         }
 
-        // FR1: Encode password with MD5
-        String encodedPassword = PasswordEncoderUtil.encode(request.getPassword());
+        // FR1: Hash password with the configured algorithm
+        String encodedPassword = passwordHashingService.encode(request.getPassword());
 
         // FR11: Create user with CUSTOMER role
         User user = new User(request.getFullName(), contact, encodedPassword, UserRole.CUSTOMER);
@@ -152,13 +155,19 @@ public class AuthService {
             throw new IllegalArgumentException("Account temporarily locked. Please reset your password or try again in 30 minutes");
         }
 
-        // FR1: Verify password using MD5 hash comparison
-        if (!PasswordEncoderUtil.matches(request.getPassword(), user.getPassword())) {
+        // FR1: Verify password (legacy MD5 or salted hash)
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
             user.incrementFailedLoginAttempts();
             userRepository.save(user);
             throw new IllegalArgumentException("Invalid contact or password");
         }
 
+        // FR1: Transparently migrate legacy/weaker hashes
+        String upgradedHash = passwordHashingService.rehashIfNeeded(request.getPassword(), user.getPassword());
+        if (upgradedHash != null) {
+            user.setPassword(upgradedHash);
+        }
+
         // Reset failed attempts on successful login
         user.resetFailedLoginAttempts();
         user.setLastLogin(LocalDateTime.now());
@@ -246,8 +255,8 @@ public class AuthService {
         PasswordResetToken token = tokenOpt.get();
         User user = token.getUser();
 
-        // FR1: Encode new password with MD5
-        String encodedPassword = PasswordEncoderUtil.encode(request.getNewPassword());
+        // FR1: Hash new password with the configured algorithm
+        String encodedPassword = passwordHashingService.encode(request.getNewPassword());
         user.setPassword(encodedPassword);
 
         // Mark token as used
@@ -277,6 +286,7 @@ public class AuthService {
      * @param userId User ID
      * @return User response
      */
+    @Transactional(readOnly = true)
     public UserResponse viewProfile(Long userId) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new IllegalArgumentException("User not found"));
@@ -346,7 +356,7 @@ public class AuthService {
         }
 
         // Verify password
-        if (!PasswordEncoderUtil.matches(password, user.getPassword())) {
+        if (!passwordHashingService.matches(password, user.getPassword())) {
             throw new IllegalArgumentException("Incorrect password. Deletion cancelled.");
         }
 
@@ -389,7 +399,7 @@ public class AuthService {
         }
 
         // Verify current password (FR1)
-        if (!PasswordEncoderUtil.matches(request.getCurrentPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getCurrentPassword(), user.getPassword())) {
             throw new IllegalArgumentException("Current password is incorrect. Please try again.");
         }
 
@@ -403,8 +413,8 @@ public class AuthService {
             throw new IllegalArgumentException("New password must be different from your current password");
         }
 
-        // FR1: Encode new password with MD5
-        String encodedPassword = PasswordEncoderUtil.encode(request.getNewPassword());
+        // FR1: Hash new password with the configured algorithm
+        String encodedPassword = passwordHashingService.encode(request.getNewPassword());
         user.setPassword(encodedPassword);
         userRepository.save(user);
 
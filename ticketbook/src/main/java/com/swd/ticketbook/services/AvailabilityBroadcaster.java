@@ -0,0 +1,300 @@
+package com.swd.ticketbook.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swd.ticketbook.config.AvailabilityStreamProperties;
+import com.swd.ticketbook.dto.event.EventAvailabilityResponse;
+import com.swd.ticketbook.exceptions.ResourceNotFoundException;
+import com.swd.ticketbook.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live availability stream for event pages (SSE)
+ * Reservations and releases only mark their event as changed; every debounce
+ * interval each changed event is read once, serialized once, and the same frame
+ * is queued to all of its subscribers. Each client has a small bounded buffer
+ * drained by a shared sender pool; a client that falls behind is disconnected
+ * (EventSource reconnects and starts again from a fresh snapshot).
+ */
+@Service
+public class AvailabilityBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityBroadcaster.class);
+
+    private static final String EVENT_NAME = "availability";
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private AvailabilityStreamProperties properties;
+
+    @Autowired
+    @Qualifier("availabilityStreamExecutor")
+    private ThreadPoolExecutor senderExecutor;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Set<Long> changedEvents = ConcurrentHashMap.newKeySet();
+    // Last payload pushed per event, so no-op changes are not re-sent
+    private final Map<Long, String> lastPayloads = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private Counter pushedCounter;
+    private Counter evictedCounter;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    void registerMeters() {
+        Gauge.builder("ticketbook.availability.subscribers", subscriberCount, AtomicInteger::get)
+            .description("Open availability streams")
+            .register(meterRegistry);
+        Gauge.builder("ticketbook.availability.events", subscribers, Map::size)
+            .description("Events with at least one open availability stream")
+            .register(meterRegistry);
+        pushedCounter = Counter.builder("ticketbook.availability.pushed")
+            .description("Availability frames queued to clients")
+            .register(meterRegistry);
+        evictedCounter = Counter.builder("ticketbook.availability.evicted")
+            .description("Clients disconnected because their buffer was full")
+            .register(meterRegistry);
+        rejectedCounter = Counter.builder("ticketbook.availability.rejected")
+            .description("Subscriptions refused because the connection limit was reached")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream for an event; the current availability is sent immediately
+     *
+     * @throws ResourceNotFoundException if the event is not publicly visible
+     * @throws ServiceUnavailableException if the connection limit is reached
+     */
+    public SseEmitter subscribe(Long eventId) {
+        if (!properties.isEnabled()) {
+            throw new ServiceUnavailableException("Live availability is disabled. Please refresh the event page instead.");
+        }
+        if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException("Too many live connections right now. Please refresh the event page instead.");
+        }
+
+        SseEmitter emitter = new SseEmitter(properties.getConnectionTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(eventId, emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.compute(eventId, (id, set) -> {
+            Set<Subscriber> result = set != null ? set : ConcurrentHashMap.newKeySet();
+            result.add(subscriber);
+            return result;
+        });
+
+        // Registered before the snapshot is read, so a change committed in between is flushed here too
+        String payload;
+        try {
+            payload = serialize(eventService.getEventAvailability(eventId));
+        } catch (RuntimeException e) {
+            subscriber.close();
+            throw e;
+        }
+        subscriber.push(build(payload));
+        String last = lastPayloads.putIfAbsent(eventId, payload);
+        if (last != null && !last.equals(payload)) {
+            // A flush may have queued a newer frame ahead of this snapshot: resend the current state
+            lastPayloads.remove(eventId);
+            markChanged(eventId);
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryReserved(InventoryReservedEvent event) {
+        markChanged(event.eventId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryReleased(InventoryReleasedEvent event) {
+        markChanged(event.eventId());
+    }
+
+    /**
+     * Push coalesced changes: at most one frame per event per interval
+     */
+    @Scheduled(fixedDelayString = "${ticketbook.availability-stream.debounce-ms:250}")
+    public void flush() {
+        if (changedEvents.isEmpty()) {
+            return;
+        }
+        for (Long eventId : List.copyOf(changedEvents)) {
+            changedEvents.remove(eventId);
+            Set<Subscriber> targets = subscribers.get(eventId);
+            if (targets == null || targets.isEmpty()) {
+                continue;
+            }
+            try {
+                String payload = serialize(eventService.getEventAvailability(eventId));
+                if (payload.equals(lastPayloads.put(eventId, payload))) {
+                    // Reserved and released again within the interval: nothing to send
+                    continue;
+                }
+                Set<DataWithMediaType> frame = build(payload);
+                targets.forEach(subscriber -> subscriber.push(frame));
+                pushedCounter.increment(targets.size());
+            } catch (ResourceNotFoundException e) {
+                // Cancelled or unpublished: end the streams, clients stop reconnecting on 404
+                targets.forEach(Subscriber::complete);
+            } catch (Exception e) {
+                log.error("Availability push for event {} failed", eventId, e);
+            }
+        }
+    }
+
+    /**
+     * Keep idle streams open through proxies and detect closed connections
+     */
+    @Scheduled(fixedRateString = "${ticketbook.availability-stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        subscribers.values().forEach(targets -> targets.forEach(subscriber -> subscriber.push(ping)));
+    }
+
+    private void markChanged(Long eventId) {
+        if (eventId != null && subscribers.containsKey(eventId)) {
+            changedEvents.add(eventId);
+        }
+    }
+
+    private String serialize(EventAvailabilityResponse snapshot) {
+        try {
+            return objectMapper.writeValueAsString(snapshot);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize availability for event " + snapshot.getEventId(), e);
+        }
+    }
+
+    private Set<DataWithMediaType> build(String payload) {
+        return SseEmitter.event()
+            .id(String.valueOf(sequence.incrementAndGet()))
+            .name(EVENT_NAME)
+            .data(payload)
+            .build();
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.eventId, (id, set) -> {
+            set.remove(subscriber);
+            if (set.isEmpty()) {
+                lastPayloads.remove(id);
+                return null;
+            }
+            return set;
+        });
+        subscriberCount.decrementAndGet();
+    }
+
+    private final class Subscriber {
+        final Long eventId;
+        final SseEmitter emitter;
+        final Queue<Set<DataWithMediaType>> buffer;
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(Long eventId, SseEmitter emitter) {
+            this.eventId = eventId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(Math.max(1, properties.getClientBufferSize()));
+        }
+
+        void push(Set<DataWithMediaType> frame) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(frame)) {
+                evictedCounter.increment();
+                complete();
+                return;
+            }
+            schedule();
+        }
+
+        void schedule() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                senderExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                complete();
+            }
+        }
+
+        void drain() {
+            try {
+                Set<DataWithMediaType> frame;
+                while (!closed.get() && (frame = buffer.poll()) != null) {
+                    emitter.send(frame);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the container reports completion as well
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (!closed.get() && !buffer.isEmpty()) {
+                schedule();
+            }
+        }
+
+        void complete() {
+            if (close()) {
+                emitter.complete();
+            }
+        }
+
+        boolean close() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            buffer.clear();
+            remove(this);
+            return true;
+        }
+    }
+}
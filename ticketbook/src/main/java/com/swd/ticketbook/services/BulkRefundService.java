@@ -0,0 +1,229 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.config.RefundJobProperties;
+import com.swd.ticketbook.dto.admin.RefundJobResponse;
+import com.swd.ticketbook.entities.Event;
+import com.swd.ticketbook.entities.RefundJob;
+import com.swd.ticketbook.enums.EventStatus;
+import com.swd.ticketbook.enums.RefundJobStatus;
+import com.swd.ticketbook.enums.RefundStatus;
+import com.swd.ticketbook.exceptions.BusinessRuleViolationException;
+import com.swd.ticketbook.exceptions.ResourceNotFoundException;
+import com.swd.ticketbook.repositories.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Service for event-level bulk refunds (UC-02.5, FR7, FR8)
+ * Refund rows for every confirmed ticket are created set-based in one
+ * transaction; RefundJobRunner then refunds order by order through the gateway
+ * and commits each batch here. All progress is in the database, so a job
+ * resumes after a restart without refunding anything twice.
+ */
+@Service
+public class BulkRefundService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkRefundService.class);
+
+    @Autowired
+    private RefundJobRepository jobRepository;
+
+    @Autowired
+    private RefundInfoRepository refundRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private InventoryReturnService inventoryReturnService;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private RefundJobProperties properties;
+
+    /**
+     * Start refunding every confirmed ticket of a cancelled event
+     * Returns the running job if one already exists for the event.
+     *
+     * @param adminId Admin starting the job
+     * @param eventId Cancelled event
+     * @param reason Reason recorded on each refund
+     */
+    @Transactional
+    public RefundJobResponse startEventRefund(Long adminId, Long eventId, String reason) {
+        Event event = eventRepository.findById(eventId)
+            .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
+        if (event.getStatus() != EventStatus.CANCELLED) {
+            throw new BusinessRuleViolationException("Bulk refunds are only available for cancelled events");
+        }
+
+        RefundJob running = jobRepository.findFirstByEventIdAndStatus(eventId, RefundJobStatus.RUNNING).orElse(null);
+        if (running != null) {
+            return mapToResponse(running);
+        }
+
+        RefundJob job = jobRepository.save(new RefundJob(eventId, adminId, reason));
+        int adopted = refundRepository.adoptPendingForJob(job.getJobId(), adminId, eventId, reason);
+        int created = refundRepository.insertForJob(job.getJobId(), adminId, eventId, reason, LocalDateTime.now());
+        job.setTotalTickets(adopted + created);
+        if (job.getTotalTickets() == 0) {
+            job.setStatus(RefundJobStatus.COMPLETED);
+            job.setCompletedAt(LocalDateTime.now());
+        }
+
+        log.info("Bulk refund job {} started for event {}: {} tickets ({} open requests adopted)",
+                 job.getJobId(), eventId, job.getTotalTickets(), adopted);
+        return mapToResponse(jobRepository.save(job));
+    }
+
+    /**
+     * Retry the tickets a job gave up on (gateway failures past maxAttempts)
+     */
+    @Transactional
+    public RefundJobResponse resume(Long jobId) {
+        RefundJob job = jobRepository.findById(jobId)
+            .orElseThrow(() -> new ResourceNotFoundException("Refund job not found"));
+        if (job.getStatus() == RefundJobStatus.COMPLETED) {
+            throw new BusinessRuleViolationException("Refund job is already complete");
+        }
+
+        refundRepository.resetFailed(jobId);
+        job.setFailedTickets(0);
+        job.setStatus(RefundJobStatus.RUNNING);
+        job.setCompletedAt(null);
+        return mapToResponse(jobRepository.save(job));
+    }
+
+    public RefundJobResponse getJob(Long jobId) {
+        return jobRepository.findById(jobId)
+            .map(this::mapToResponse)
+            .orElseThrow(() -> new ResourceNotFoundException("Refund job not found"));
+    }
+
+    // ==================== RUNNER STEPS ====================
+
+    public List<Long> findRunningJobIds() {
+        return jobRepository.findIdsByStatus(RefundJobStatus.RUNNING);
+    }
+
+    /**
+     * Take or renew the lease on a job for this worker node
+     */
+    @Transactional
+    public boolean lease(Long jobId, String worker) {
+        LocalDateTime now = LocalDateTime.now();
+        return jobRepository.lease(jobId, worker, now, now.plus(properties.getLease())) == 1;
+    }
+
+    /**
+     * Outstanding refunds of the next due orders, one entry per gateway call
+     * Read on the OLTP pool: a replica that has not replayed the last applyBatch
+     * would hand out orders that were just refunded.
+     */
+    @Transactional
+    public List<OrderRefundRow> nextBatch(Long jobId) {
+        List<Long> orderIds = refundRepository.findDueOrderIds(
+            jobId, properties.getMaxAttempts(), LocalDateTime.now(), properties.getBatchOrders());
+        return orderIds.isEmpty() ? List.of() : refundRepository.findOrderRefunds(jobId, orderIds);
+    }
+
+    /**
+     * Commit one batch of gateway results
+     * Tickets, refunds, payments and orders are updated set-based, inventory is
+     * queued for return per ticket type, and customers are notified after commit.
+     */
+    @Transactional
+    public void applyBatch(Long jobId, List<OrderRefundRow> refunded, Collection<Long> failedOrderIds, String lastError) {
+        if (!refunded.isEmpty()) {
+            List<Long> orderIds = refunded.stream().map(OrderRefundRow::getOrderId).toList();
+
+            releaseInventory(jobId, orderIds);
+            ticketRepository.refundForJob(jobId, orderIds);
+            int completed = refundRepository.completeForOrders(jobId, orderIds, LocalDateTime.now());
+            paymentRepository.markRefunded(orderIds);
+            orderRepository.cancelRefundedOrders(orderIds);
+            jobRepository.addRefunded(jobId, completed);
+
+            for (OrderRefundRow row : refunded) {
+                notificationDispatcher.dispatch("refund completed #" + row.getRequestId(),
+                    () -> emailService.sendRefundCompleted(row.getContact(), row.getRequestId(), row.getAmount()));
+            }
+        }
+
+        if (!failedOrderIds.isEmpty()) {
+            // Linear backoff on the attempt count; the rows stay APPROVED_PROCESSING
+            LocalDateTime next = LocalDateTime.now().plus(properties.getRetryBackoff());
+            refundRepository.recordGatewayFailure(jobId, failedOrderIds, next);
+            jobRepository.setLastError(jobId,
+                lastError != null && lastError.length() > 1000 ? lastError.substring(0, 1000) : lastError);
+        }
+    }
+
+    /**
+     * Close the job once nothing is left to try
+     *
+     * @return true if the job finished
+     */
+    @Transactional
+    public boolean finishIfDone(Long jobId) {
+        if (refundRepository.countByRefundJobIdAndStatusAndGatewayAttemptsLessThan(
+                jobId, RefundStatus.APPROVED_PROCESSING, properties.getMaxAttempts()) > 0) {
+            return false;
+        }
+        RefundJob job = jobRepository.findById(jobId).orElseThrow();
+        int failed = (int) refundRepository.countByRefundJobIdAndStatus(jobId, RefundStatus.APPROVED_PROCESSING);
+        job.setFailedTickets(failed);
+        job.setStatus(failed == 0 ? RefundJobStatus.COMPLETED : RefundJobStatus.COMPLETED_WITH_ERRORS);
+        job.setCompletedAt(LocalDateTime.now());
+        job.setLockedBy(null);
+        job.setLockedUntil(null);
+        jobRepository.save(job);
+
+        log.info("Bulk refund job {} for event {} finished: {} refunded, {} failed",
+                 jobId, job.getEventId(), job.getRefundedTickets(), failed);
+        return true;
+    }
+
+    private void releaseInventory(Long jobId, List<Long> orderIds) {
+        for (TicketTypeCount count : ticketRepository.countRefundableByType(jobId, orderIds)) {
+            inventoryReturnService.enqueue(count.getTicketTypeId(), count.getQuantity().intValue(), "BULK_REFUND", jobId);
+        }
+    }
+
+    private RefundJobResponse mapToResponse(RefundJob job) {
+        RefundJobResponse response = new RefundJobResponse();
+        response.setJobId(job.getJobId());
+        response.setEventId(job.getEventId());
+        response.setStatus(job.getStatus());
+        response.setTotalTickets(job.getTotalTickets());
+        response.setRefundedTickets(job.getRefundedTickets());
+        response.setFailedTickets(job.getFailedTickets());
+        response.setProgressPercent(job.getTotalTickets() == 0 ? 100.0
+            : Math.round(job.getRefundedTickets() * 1000.0 / job.getTotalTickets()) / 10.0);
+        response.setLastError(job.getLastError());
+        response.setCreatedAt(job.getCreatedAt());
+        response.setCompletedAt(job.getCompletedAt());
+        return response;
+    }
+}
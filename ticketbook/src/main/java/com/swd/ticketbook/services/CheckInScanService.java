@@ -0,0 +1,217 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.dto.checkin.CheckInScanResponse;
+import com.swd.ticketbook.dto.checkin.ScanRateResponse;
+import com.swd.ticketbook.entities.CheckInScan;
+import com.swd.ticketbook.entities.Event;
+import com.swd.ticketbook.enums.CheckInOutcome;
+import com.swd.ticketbook.exceptions.BusinessRuleViolationException;
+import com.swd.ticketbook.exceptions.ResourceNotFoundException;
+import com.swd.ticketbook.repositories.CheckInScanRepository;
+import com.swd.ticketbook.repositories.EventRepository;
+import com.swd.ticketbook.repositories.ScanMinuteCount;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Append-only store of gate scan attempts (FR20)
+ * Check-in only enqueues a scan; a background flush inserts queued scans in
+ * JDBC batches, one short transaction per batch. Organizers read it back as
+ * per-event time windows and scans-per-minute aggregates.
+ */
+@Service
+public class CheckInScanService {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckInScanService.class);
+
+    @Autowired
+    private CheckInScanRepository scanRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${ticketbook.checkin.scans.queue-capacity:100000}")
+    private int queueCapacity;
+
+    @Value("${ticketbook.checkin.scans.batch-size:500}")
+    private int batchSize;
+
+    @Value("${ticketbook.checkin.scans.max-window-rows:10000}")
+    private int maxWindowRows;
+
+    @Value("${ticketbook.checkin.scans.max-rate-window-minutes:1440}")
+    private int maxRateWindowMinutes;
+
+    private BlockingQueue<CheckInScan> queue;
+
+    private Counter writtenCounter;
+    private Counter droppedCounter;
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("ticketbook.checkin.scans.queued", queue, BlockingQueue::size)
+            .description("Gate scans waiting to be written")
+            .register(meterRegistry);
+        writtenCounter = Counter.builder("ticketbook.checkin.scans.written")
+            .description("Gate scans written to the scan store")
+            .register(meterRegistry);
+        droppedCounter = Counter.builder("ticketbook.checkin.scans.dropped")
+            .description("Gate scans lost because the queue was full or a batch failed (still in the check-in log)")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queue a scan attempt; never blocks the gate
+     *
+     * @param eventId Event of the ticket, or the gate's event for unknown QR codes
+     * @param ticketId Null for unknown QR codes
+     * @param ticketTypeId Null for unknown QR codes
+     * @param laneId Gate lane or scanner device, may be null
+     */
+    public void record(Long eventId, Long ticketId, Long ticketTypeId, CheckInOutcome outcome, String laneId,
+                       LocalDateTime scannedAt) {
+        if (!queue.offer(new CheckInScan(eventId, ticketId, ticketTypeId, outcome, laneId, scannedAt))) {
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * Write queued scans until the queue is empty
+     * Runs every second by default
+     */
+    @Scheduled(fixedDelayString = "${ticketbook.checkin.scans.flush-interval-ms:1000}")
+    public void flush() {
+        List<CheckInScan> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                    scanRepository.saveAll(batch);
+                });
+                writtenCounter.increment(batch.size());
+            } catch (Exception e) {
+                droppedCounter.increment(batch.size());
+                log.error("Failed to write {} gate scans; they remain in the check-in log only", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Scans of an event in [from, to), oldest first, capped at max-window-rows
+     * FR17: Only the event's organizer can read its gate scans
+     */
+    public List<CheckInScanResponse> getScans(Long organizerId, Long eventId, LocalDateTime from, LocalDateTime to) {
+        verifyOrganizer(organizerId, eventId);
+        verifyWindow(from, to);
+
+        return scanRepository.findInWindow(eventId, from, to, PageRequest.of(0, maxWindowRows)).stream()
+            .map(this::mapToScanResponse)
+            .toList();
+    }
+
+    /**
+     * Scans per minute of an event over the last given minutes, by outcome and lane
+     */
+    public ScanRateResponse getScanRate(Long organizerId, Long eventId, int minutes) {
+        verifyOrganizer(organizerId, eventId);
+        if (minutes < 1 || minutes > maxRateWindowMinutes) {
+            throw new BusinessRuleViolationException(
+                "Scan rate window must be between 1 and " + maxRateWindowMinutes + " minutes");
+        }
+
+        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = to.minusMinutes(minutes);
+
+        ScanRateResponse response = new ScanRateResponse();
+        response.setEventId(eventId);
+        response.setFrom(from);
+        response.setTo(to);
+
+        // Rows arrive ordered by minute, one per (minute, outcome, lane)
+        ScanRateResponse.Minute current = null;
+        for (ScanMinuteCount row : scanRepository.countPerMinute(eventId, from, to)) {
+            if (current == null || !current.getMinute().equals(row.getMinute())) {
+                current = new ScanRateResponse.Minute();
+                current.setMinute(row.getMinute());
+                response.getMinutes().add(current);
+            }
+            long scans = row.getScans();
+            CheckInOutcome outcome = CheckInOutcome.values()[row.getOutcome()];
+            current.setScans(current.getScans() + scans);
+            current.getByOutcome().merge(outcome.getTag(), scans, Long::sum);
+            current.getByLane().merge(row.getLaneId() != null ? row.getLaneId() : "unknown", scans, Long::sum);
+
+            response.setTotalScans(response.getTotalScans() + scans);
+            if (outcome == CheckInOutcome.GRANTED) {
+                response.setGranted(response.getGranted() + scans);
+            }
+        }
+        return response;
+    }
+
+    private void verifyOrganizer(Long organizerId, Long eventId) {
+        Event event = eventRepository.findById(eventId)
+            .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
+
+        if (!event.getOrganizer().getUserId().equals(organizerId)) {
+            throw new BusinessRuleViolationException("You do not have permission to view this event's check-in scans");
+        }
+    }
+
+    private void verifyWindow(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BusinessRuleViolationException("Window start must be before its end");
+        }
+        if (Duration.between(from, to).toMinutes() > maxRateWindowMinutes) {
+            throw new BusinessRuleViolationException(
+                "Scan window must not exceed " + maxRateWindowMinutes + " minutes");
+        }
+    }
+
+    private CheckInScanResponse mapToScanResponse(CheckInScan scan) {
+        CheckInScanResponse response = new CheckInScanResponse();
+        response.setScanId(scan.getScanId());
+        response.setTicketId(scan.getTicketId());
+        response.setOutcome(scan.getOutcome().getTag());
+        response.setLaneId(scan.getLaneId());
+        response.setScannedAt(scan.getScannedAt());
+        return response;
+    }
+}
@@ -4,14 +4,20 @@ import com.swd.ticketbook.dto.checkin.CheckInRequest;
 import com.swd.ticketbook.dto.checkin.CheckInResponse;
 import com.swd.ticketbook.entities.Event;
 import com.swd.ticketbook.entities.Ticket;
+import com.swd.ticketbook.enums.CheckInOutcome;
 import com.swd.ticketbook.enums.TicketStatus;
 import com.swd.ticketbook.exceptions.ResourceNotFoundException;
 import com.swd.ticketbook.repositories.TicketRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -25,9 +31,21 @@ public class CheckInService {
 
     private static final Logger log = LoggerFactory.getLogger(CheckInService.class);
 
+    // FR20 audit trail; the prod profile writes it to its own append-only file
+    private static final Logger checkInLog = LoggerFactory.getLogger("ticketbook.checkin");
+
     @Autowired
     private TicketRepository ticketRepository;
 
+    @Autowired
+    private CheckInScanService scanService;
+
+    @Autowired
+    private GateStatsService gateStatsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     /**
      * UC-02.3: Check-in with QR Code
      * FR6: Validate unique QR code and single-use
@@ -36,6 +54,13 @@ public class CheckInService {
      */
     @Transactional
     public CheckInResponse checkIn(CheckInRequest request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CheckInResponse response = doCheckIn(request);
+        sample.stop(meterRegistry.timer("ticketbook.checkin", "result", response.isSuccess() ? "granted" : "denied"));
+        return response;
+    }
+
+    private CheckInResponse doCheckIn(CheckInRequest request) {
         CheckInResponse response = new CheckInResponse();
         
         try {
@@ -50,7 +75,8 @@ public class CheckInService {
                 response.setMessage(reason);
                 
                 // FR20: Log failed check-in
-                logCheckInAttempt(ticket, false, reason);
+                logCheckInAttempt(request, ticket,
+                    ticket.getStatus() == TicketStatus.USED ? CheckInOutcome.ALREADY_USED : CheckInOutcome.NOT_VALID, reason);
                 return response;
             }
 
@@ -63,7 +89,7 @@ public class CheckInService {
                 response.setMessage(message);
                 
                 // FR20: Log duplicate check-in attempt
-                logCheckInAttempt(ticket, false, "Duplicate entry attempt");
+                logCheckInAttempt(request, ticket, CheckInOutcome.ALREADY_USED, "Duplicate entry attempt");
                 return response;
             }
 
@@ -78,7 +104,7 @@ public class CheckInService {
                 response.setMessage(message);
                 
                 // FR20: Log early check-in attempt
-                logCheckInAttempt(ticket, false, "Event not started");
+                logCheckInAttempt(request, ticket, CheckInOutcome.TOO_EARLY, "Event not started");
                 return response;
             }
 
@@ -89,7 +115,7 @@ public class CheckInService {
                 response.setMessage(message);
                 
                 // FR20: Log late check-in attempt
-                logCheckInAttempt(ticket, false, "Event already ended");
+                logCheckInAttempt(request, ticket, CheckInOutcome.EVENT_ENDED, "Event already ended");
                 return response;
             }
 
@@ -108,7 +134,7 @@ public class CheckInService {
             response.setCheckInDateTime(ticket.getCheckInDateTime());
 
             // FR20: Log successful check-in
-            logCheckInAttempt(ticket, true, "Entry granted");
+            logCheckInAttempt(request, ticket, CheckInOutcome.GRANTED, "Entry granted");
 
             return response;
 
@@ -117,7 +143,7 @@ public class CheckInService {
             response.setMessage("✗ Invalid Ticket - Not Recognized");
             
             // FR20: Log invalid QR code attempt
-            log.warn("Check-in failed: Invalid QR code - {}", request.getQrCode());
+            logCheckInAttempt(request, null, CheckInOutcome.UNKNOWN_TICKET, "Invalid QR code");
             
             return response;
         } catch (Exception e) {
@@ -126,11 +152,20 @@ public class CheckInService {
             
             // FR20: Log system error
             log.error("Check-in system error for QR: {}", request.getQrCode(), e);
+            logCheckInAttempt(request, null, CheckInOutcome.ERROR, e.getClass().getSimpleName());
             
             return response;
         }
     }
 
+    /**
+     * Count a check-in attempt by outcome (fixed set of values, no ticket or event IDs)
+     */
+    private void countOutcome(CheckInOutcome outcome) {
+        meterRegistry.counter("ticketbook.checkin.outcomes", "outcome", outcome.getTag()).increment();
+    }
+
+
     /**
      * Get rejection reason based on ticket status (FR8)
      */
@@ -145,30 +180,66 @@ public class CheckInService {
     }
 
     /**
-     * FR20: Log check-in attempt for audit trail
+     * FR20: Record check-in attempt for audit trail and count its outcome
+     * A granted entry is only recorded once its transaction completes, with the final outcome.
      */
-    private void logCheckInAttempt(Ticket ticket, boolean success, String reason) {
-        String logMessage = String.format(
-            "Check-in %s - Ticket: %d, QR: %s, Customer: %s, Event: %s, Reason: %s, Time: %s",
-            success ? "SUCCESS" : "FAILED",
-            ticket.getTicketId(),
-            ticket.getQrCode(),
-            ticket.getOrder().getUser().getFullName(),
-            ticket.getOrder().getEvent().getName(),
-            reason,
-            LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
-        );
-        
-        if (success) {
-            log.info(logMessage);
+    private void logCheckInAttempt(CheckInRequest request, Ticket ticket, CheckInOutcome outcome, String reason) {
+        Long ticketId = ticket != null ? ticket.getTicketId() : null;
+        Long ticketTypeId = ticket != null ? ticket.getTicketType().getTicketTypeId() : null;
+        Long eventId = ticket != null ? ticket.getOrder().getEvent().getEventId() : request.getEventId();
+        LocalDateTime scannedAt = LocalDateTime.now();
+
+        if (outcome == CheckInOutcome.GRANTED && TransactionSynchronizationManager.isSynchronizationActive()) {
+            // The same ticket scanned at two lanes at once: one commit fails on the ticket version
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        recordAttempt(request, eventId, ticketId, ticketTypeId, CheckInOutcome.GRANTED, reason, scannedAt);
+                    } else {
+                        recordAttempt(request, eventId, ticketId, ticketTypeId, CheckInOutcome.ERROR,
+                            "Check-in rolled back", scannedAt);
+                    }
+                }
+            });
         } else {
-            log.warn(logMessage);
+            recordAttempt(request, eventId, ticketId, ticketTypeId, outcome, reason, scannedAt);
+        }
+    }
+
+    /**
+     * The attempt goes to the outcome counter, the scan store, the live gate counters and one
+     * structured line to the check-in log, IDs only; event and ticket type IDs come from proxies,
+     * so nothing extra is loaded.
+     */
+    private void recordAttempt(CheckInRequest request, Long eventId, Long ticketId, Long ticketTypeId,
+                               CheckInOutcome outcome, String reason, LocalDateTime scannedAt) {
+        countOutcome(outcome);
+        scanService.record(eventId, ticketId, ticketTypeId, outcome, request.getLaneId(), scannedAt);
+        gateStatsService.record(eventId, ticketTypeId, outcome, scannedAt);
+
+        if (!checkInLog.isInfoEnabled()) {
+            return;
+        }
+        LoggingEventBuilder entry = checkInLog.atInfo()
+            .addKeyValue("checkin.outcome", outcome.getTag())
+            .addKeyValue("checkin.qr", request.getQrCode());
+        if (ticketId != null) {
+            entry = entry.addKeyValue("ticket.id", ticketId);
+        }
+        if (eventId != null) {
+            entry = entry.addKeyValue("event.id", eventId);
+        }
+        if (request.getLaneId() != null) {
+            entry = entry.addKeyValue("checkin.lane", request.getLaneId());
         }
+        entry.log("Check-in {} - {}", outcome.getTag(), reason);
     }
 
     /**
      * Get ticket details by QR code (for scanner preview)
      */
+    @Transactional(readOnly = true)
     public CheckInResponse getTicketDetails(String qrCode) {
         CheckInResponse response = new CheckInResponse();
         
@@ -0,0 +1,88 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.repositories.VerificationCodeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared verification code store backed by the verification_codes table
+ * Lets several app nodes verify codes issued by any of them.
+ * The size bound uses a node-local row count: exact after each cleanup sweep,
+ * then advanced by this node's own inserts and removals until the next one.
+ * When full, the code closest to expiry is deleted to make room.
+ */
+@Component
+@ConditionalOnProperty(name = "ticketbook.verification.store", havingValue = "database")
+public class DatabaseVerificationCodeStore implements VerificationCodeStore {
+
+    @Autowired
+    private VerificationCodeRepository verificationCodeRepository;
+
+    @Value("${ticketbook.verification.max-entries:100000}")
+    private int maxEntries;
+
+    private final AtomicLong size = new AtomicLong();
+
+    @Override
+    @Transactional
+    public int put(String identifier, String code, LocalDateTime expiresAt) {
+        int evicted = 0;
+        if (size.get() >= maxEntries) {
+            // Full: a resend for a pending code needs no room
+            if (verificationCodeRepository.replace(identifier, code, expiresAt) > 0) {
+                return 0;
+            }
+            evicted = verificationCodeRepository.deleteOldest(1);
+            size.addAndGet(-evicted);
+        }
+        if (verificationCodeRepository.upsert(identifier, code, expiresAt)) {
+            size.incrementAndGet();
+        }
+        return evicted;
+    }
+
+    @Override
+    public Optional<StoredCode> get(String identifier) {
+        return verificationCodeRepository.findById(identifier)
+            .map(v -> new StoredCode(v.getCode(), v.getExpiresAt()));
+    }
+
+    @Override
+    @Transactional
+    public int incrementAttempts(String identifier) {
+        return verificationCodeRepository.incrementAttempts(identifier).orElse(-1);
+    }
+
+    @Override
+    @Transactional
+    public boolean remove(String identifier) {
+        if (verificationCodeRepository.deleteByIdentifier(identifier) > 0) {
+            size.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Delete expired codes and resync the row count (includes other nodes' codes)
+     */
+    @Override
+    @Transactional
+    public int removeExpired(LocalDateTime now) {
+        int removed = verificationCodeRepository.deleteExpired(now);
+        size.set(verificationCodeRepository.count());
+        return removed;
+    }
+
+    @Override
+    public long size() {
+        return size.get();
+    }
+}
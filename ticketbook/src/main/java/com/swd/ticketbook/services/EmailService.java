@@ -4,6 +4,8 @@ import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.LocalDateTime;
+
 /**
  * Service for sending emails
  * Used for verification codes, password reset, and notifications
@@ -192,6 +194,33 @@ public class EmailService {
         sendEmail(email, subject, message);
     }
 
+    /**
+     * Send waitlist offer: tickets were reserved for a waiting customer
+     * 
+     * @param email Customer email
+     * @param orderId Reserved order ID
+     * @param eventName Event name
+     * @param quantity Tickets reserved
+     * @param expiresAt Reservation expiry
+     */
+    public void sendWaitlistOffer(String email, Long orderId, String eventName, int quantity,
+                                  LocalDateTime expiresAt) {
+        logger.info("Sending waitlist offer to: {} for order: {}", email, orderId);
+        
+        String subject = "Ticket Book - Tickets Reserved For You #" + orderId;
+        String message = String.format(
+            "Good news! Tickets you were waiting for are now reserved for you.\n\n" +
+            "Order ID: %d\n" +
+            "Event: %s\n" +
+            "Tickets: %d\n" +
+            "Pay before: %s\n\n" +
+            "After that time the tickets are offered to the next person on the waitlist.",
+            orderId, eventName, quantity, expiresAt.toString()
+        );
+        
+        sendEmail(email, subject, message);
+    }
+
     /**
      * Send refund rejected notification (UC-02.5)
      * 
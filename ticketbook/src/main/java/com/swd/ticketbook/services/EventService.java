@@ -1,6 +1,7 @@
 package com.swd.ticketbook.services;
 
 import com.swd.ticketbook.dto.admin.EventResponse;
+import com.swd.ticketbook.dto.event.EventAvailabilityResponse;
 import com.swd.ticketbook.dto.event.PublicEventResponse;
 import com.swd.ticketbook.dto.organizer.*;
 import com.swd.ticketbook.entities.*;
@@ -9,6 +10,7 @@ import com.swd.ticketbook.enums.UserRole;
 import com.swd.ticketbook.exceptions.BusinessRuleViolationException;
 import com.swd.ticketbook.exceptions.ResourceNotFoundException;
 import com.swd.ticketbook.repositories.*;
+import com.swd.ticketbook.utils.ETags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,6 +21,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -36,6 +39,9 @@ public class EventService {
     @Autowired
     private TicketTypeRepository ticketTypeRepository;
 
+    @Autowired
+    private InventoryService inventoryService;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -148,6 +154,7 @@ public class EventService {
     /**
      * Get organizer's events
      */
+    @Transactional(readOnly = true)
     public List<EventResponse> getOrganizerEvents(Long organizerId) {
         List<Event> events = eventRepository.findByOrganizer_UserIdOrderByCreatedAtDesc(organizerId);
         return events.stream()
@@ -158,6 +165,7 @@ public class EventService {
     /**
      * Get event by ID (organizer view)
      */
+    @Transactional(readOnly = true)
     public EventResponse getEventById(Long organizerId, Long eventId) {
         Event event = eventRepository.findById(eventId)
             .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
@@ -173,6 +181,7 @@ public class EventService {
     /**
      * Get public event details (for customers)
      */
+    @Transactional(readOnly = true)
     public PublicEventResponse getPublicEventById(Long eventId) {
         Event event = eventRepository.findById(eventId)
             .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
@@ -185,9 +194,51 @@ public class EventService {
         return mapToPublicEventResponse(event);
     }
 
+    /**
+     * ETag of the public event details, from version counters only (no entity loading)
+     *
+     * @return Weak ETag, or null if the event is not publicly visible
+     */
+    public String getPublicEventETag(Long eventId) {
+        return ETags.weak(eventRepository.findPublicVersionStamp(eventId).orElse(null));
+    }
+
+    /**
+     * Current ticket availability of a public event (live availability stream)
+     * Two small queries: the ticket types and, if sharded, their shard totals.
+     */
+    @Transactional(readOnly = true)
+    public EventAvailabilityResponse getEventAvailability(Long eventId) {
+        Event event = eventRepository.findById(eventId)
+            .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
+        if (event.getStatus() != EventStatus.ACTIVE) {
+            throw new ResourceNotFoundException("Event not found or not available");
+        }
+
+        List<TicketType> ticketTypes = ticketTypeRepository.findByEvent_EventId(eventId);
+        Map<Long, Integer> available = inventoryService.getAvailable(ticketTypes);
+
+        List<EventAvailabilityResponse.TicketTypeAvailability> types = new ArrayList<>();
+        for (TicketType tt : ticketTypes) {
+            EventAvailabilityResponse.TicketTypeAvailability info = new EventAvailabilityResponse.TicketTypeAvailability();
+            info.setTicketTypeId(tt.getTicketTypeId());
+            info.setAvailableQuantity(available.get(tt.getTicketTypeId()));
+            types.add(info);
+        }
+        int availableTickets = available.values().stream().mapToInt(Integer::intValue).sum();
+
+        EventAvailabilityResponse response = new EventAvailabilityResponse();
+        response.setEventId(eventId);
+        response.setAvailableTickets(availableTickets);
+        response.setSoldOut(availableTickets == 0);
+        response.setTicketTypes(types);
+        return response;
+    }
+
     /**
      * Browse public events
      */
+    @Transactional(readOnly = true)
     public List<PublicEventResponse> browsePublicEvents() {
         List<Event> events = eventRepository.findByStatusOrderByStartDateAsc(EventStatus.ACTIVE);
         return events.stream()
@@ -268,6 +319,7 @@ public class EventService {
     /**
      * Get organizer's update requests
      */
+    @Transactional(readOnly = true)
     public List<EventUpdateRequestResponse> getOrganizerUpdateRequests(Long organizerId) {
         List<EventUpdateRequest> requests = updateRequestRepository.findByOrganizer_UserIdOrderByRequestedAtDesc(organizerId);
         return requests.stream()
@@ -316,7 +368,9 @@ public class EventService {
         // Calculate total and available tickets
         List<TicketType> ticketTypes = ticketTypeRepository.findByEvent_EventId(event.getEventId());
         int totalTickets = ticketTypes.stream().mapToInt(TicketType::getTicketQuantity).sum();
-        int availableTickets = ticketTypes.stream().mapToInt(TicketType::getAvailableQuantity).sum();
+        // Sharded ticket types report the sum of their shards
+        Map<Long, Integer> available = inventoryService.getAvailable(ticketTypes);
+        int availableTickets = available.values().stream().mapToInt(Integer::intValue).sum();
         
         response.setTotalTickets(totalTickets);
         response.setAvailableTickets(availableTickets);
@@ -329,7 +383,7 @@ public class EventService {
             ttInfo.setTypeName(tt.getTypeName());
             ttInfo.setDescription(tt.getDescription());
             ttInfo.setPrice(tt.getPrice());
-            ttInfo.setAvailableQuantity(tt.getAvailableQuantity());
+            ttInfo.setAvailableQuantity(available.get(tt.getTicketTypeId()));
             publicTicketTypes.add(ttInfo);
         }
         response.setTicketTypes(publicTicketTypes);
@@ -0,0 +1,184 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.repositories.ExpiredRow;
+import com.swd.ticketbook.repositories.PasswordResetTokenRepository;
+import com.swd.ticketbook.repositories.SessionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Maintenance job purging expired sessions and password reset tokens
+ * Deletes in small keyset-ordered batches (one short transaction each) with
+ * pauses in between, so a large backlog never becomes one table-locking DELETE.
+ * Runs on the maintenance thread, so the pauses never hold up the shared scheduler.
+ */
+@Service
+public class ExpiredDataCleanupService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiredDataCleanupService.class);
+
+    // Cursor start: before any real expiry timestamp
+    private static final LocalDateTime CURSOR_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private PasswordResetTokenRepository resetTokenRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("maintenanceExecutor")
+    private ThreadPoolExecutor executor;
+
+    @Value("${ticketbook.maintenance.batch-size:500}")
+    private int batchSize;
+
+    @Value("${ticketbook.maintenance.batch-pause-ms:50}")
+    private long batchPauseMillis;
+
+    @Value("${ticketbook.maintenance.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    private final AtomicLong sessionLagSeconds = new AtomicLong();
+    private final AtomicLong tokenLagSeconds = new AtomicLong();
+
+    @PostConstruct
+    void registerMeters() {
+        Gauge.builder("ticketbook.maintenance.lag", sessionLagSeconds, AtomicLong::get)
+            .tag("table", "sessions")
+            .baseUnit("seconds")
+            .description("Age of the oldest expired row not yet purged")
+            .register(meterRegistry);
+        Gauge.builder("ticketbook.maintenance.lag", tokenLagSeconds, AtomicLong::get)
+            .tag("table", "password_reset_tokens")
+            .baseUnit("seconds")
+            .description("Age of the oldest expired row not yet purged")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Start a purge on the maintenance thread unless one is still running
+     * Runs every 5 minutes by default
+     */
+    @Scheduled(fixedDelayString = "${ticketbook.maintenance.cleanup-interval-ms:300000}",
+               initialDelayString = "${ticketbook.maintenance.initial-delay-ms:60000}")
+    public void schedulePurge() {
+        executor.execute(this::purgeExpired);
+    }
+
+    /**
+     * Purge expired rows
+     */
+    public void purgeExpired() {
+        purgeExpiredSessions();
+        purgeExpiredResetTokens();
+    }
+
+    /**
+     * Purge expired and invalidated sessions
+     *
+     * @return Rows deleted
+     */
+    public int purgeExpiredSessions() {
+        return purge("sessions",
+            (now, cursor) -> sessionRepository.findExpiredBatch(now, cursor.expiresAt, cursor.id, Limit.of(batchSize)),
+            sessionRepository::deleteBatch,
+            sessionRepository::findOldestExpiry,
+            sessionLagSeconds);
+    }
+
+    /**
+     * Purge expired (used or unused) password reset tokens
+     *
+     * @return Rows deleted
+     */
+    public int purgeExpiredResetTokens() {
+        return purge("password_reset_tokens",
+            (now, cursor) -> resetTokenRepository.findExpiredBatch(now, cursor.expiresAt, cursor.id, Limit.of(batchSize)),
+            resetTokenRepository::deleteBatch,
+            resetTokenRepository::findOldestExpiry,
+            tokenLagSeconds);
+    }
+
+    private int purge(String table,
+                      BatchFinder finder,
+                      ToIntFunction<List<Long>> deleter,
+                      Function<LocalDateTime, Optional<LocalDateTime>> oldestExpiry,
+                      AtomicLong lagSeconds) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        LocalDateTime now = LocalDateTime.now();
+        Cursor cursor = new Cursor(CURSOR_START, 0L);
+        int deleted = 0;
+        int batches = 0;
+
+        try {
+            while (batches < maxBatchesPerRun) {
+                List<ExpiredRow> rows = finder.find(now, cursor);
+                if (rows.isEmpty()) {
+                    break;
+                }
+
+                deleted += deleter.applyAsInt(rows.stream().map(ExpiredRow::getId).toList());
+                batches++;
+
+                ExpiredRow last = rows.get(rows.size() - 1);
+                cursor = new Cursor(last.getExpiresAt(), last.getId());
+
+                if (rows.size() < batchSize) {
+                    break;
+                }
+                Thread.sleep(batchPauseMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Cleanup of {} failed after {} rows", table, deleted, e);
+        } finally {
+            sample.stop(meterRegistry.timer("ticketbook.maintenance.run", "table", table));
+            Counter.builder("ticketbook.maintenance.deleted")
+                .tag("table", table)
+                .register(meterRegistry)
+                .increment(deleted);
+        }
+
+        lagSeconds.set(oldestExpiry.apply(LocalDateTime.now())
+            .map(oldest -> Duration.between(oldest, LocalDateTime.now()).getSeconds())
+            .orElse(0L));
+
+        if (deleted > 0) {
+            log.info("Cleanup purged {} rows from {} in {} batches", deleted, table, batches);
+        }
+        return deleted;
+    }
+
+    @FunctionalInterface
+    private interface BatchFinder {
+        List<ExpiredRow> find(LocalDateTime now, Cursor cursor);
+    }
+
+    private record Cursor(LocalDateTime expiresAt, Long id) {
+    }
+}
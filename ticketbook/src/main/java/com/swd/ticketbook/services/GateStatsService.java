@@ -0,0 +1,261 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.dto.checkin.LiveGateResponse;
+import com.swd.ticketbook.entities.Event;
+import com.swd.ticketbook.entities.TicketType;
+import com.swd.ticketbook.enums.CheckInOutcome;
+import com.swd.ticketbook.exceptions.BusinessRuleViolationException;
+import com.swd.ticketbook.exceptions.ResourceNotFoundException;
+import com.swd.ticketbook.repositories.CheckInScanRepository;
+import com.swd.ticketbook.repositories.EventRepository;
+import com.swd.ticketbook.repositories.ScanMinuteCount;
+import com.swd.ticketbook.repositories.ScanOutcomeCount;
+import com.swd.ticketbook.repositories.TicketTypeRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live per-event gate counters for the organizer dashboard (UC-03.3, FR20)
+ * CheckInService adds every scan to in-memory adders, so dashboards polling
+ * through doors-open never query the tickets table. A node only counts scans
+ * made since it started tracking an event; everything before that is read
+ * once, on the first dashboard read, from the scan store (checkin_scans).
+ * The counters are therefore exact on a single node only: with several nodes,
+ * each adds just its own scans to its baseline. Event statistics
+ * (StatisticsService) count the database and are exact on any node.
+ */
+@Service
+public class GateStatsService {
+
+    private static final CheckInOutcome[] OUTCOMES = CheckInOutcome.values();
+
+    @Autowired
+    private CheckInScanRepository scanRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ticketbook.checkin.live.retained-minutes:180}")
+    private int retainedMinutes;
+
+    @Value("${ticketbook.checkin.live.idle-minutes:360}")
+    private int idleMinutes;
+
+    private final Map<Long, EventGate> gates = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registerMeters() {
+        Gauge.builder("ticketbook.checkin.live.events", gates, Map::size)
+            .description("Events with live gate counters on this node")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Count a scan; called by CheckInService, never touches the database
+     *
+     * @param eventId Null for unknown QR codes scanned without an event (not counted)
+     * @param ticketTypeId Null for unknown QR codes
+     * @param scannedAt Same timestamp as the scan's row in the scan store
+     */
+    public void record(Long eventId, Long ticketTypeId, CheckInOutcome outcome, LocalDateTime scannedAt) {
+        if (eventId != null) {
+            gates.computeIfAbsent(eventId, id -> new EventGate()).record(ticketTypeId, outcome, scannedAt);
+        }
+    }
+
+    /**
+     * Live gate dashboard: entries, rejections by reason, entries per ticket type
+     * and per minute over the last given minutes
+     * FR17: Only the event's organizer can view it
+     */
+    public LiveGateResponse getLiveGate(Long organizerId, Long eventId, int minutes) {
+        Event event = eventRepository.findById(eventId)
+            .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
+        if (!event.getOrganizer().getUserId().equals(organizerId)) {
+            throw new BusinessRuleViolationException("You do not have permission to view this event's gate statistics");
+        }
+        if (minutes < 1 || minutes > retainedMinutes) {
+            throw new BusinessRuleViolationException("Minutes must be between 1 and " + retainedMinutes);
+        }
+
+        EventGate gate = gateWithBaseline(eventId);
+        Baseline baseline = gate.baseline;
+        LiveGateResponse response = new LiveGateResponse();
+        response.setEventId(eventId);
+        response.setGeneratedAt(LocalDateTime.now());
+
+        for (CheckInOutcome outcome : OUTCOMES) {
+            long count = baseline.byOutcome[outcome.ordinal()] + gate.byOutcome[outcome.ordinal()].sum();
+            if (outcome == CheckInOutcome.GRANTED) {
+                response.setCheckedIn(count);
+            } else if (count > 0) {
+                response.getRejectedByReason().put(outcome.getTag(), count);
+                response.setRejected(response.getRejected() + count);
+            }
+        }
+
+        List<TicketType> ticketTypes = ticketTypeRepository.findByEvent_EventId(eventId);
+        Map<Long, Integer> available = inventoryService.getAvailable(ticketTypes);
+        for (TicketType ticketType : ticketTypes) {
+            Long ticketTypeId = ticketType.getTicketTypeId();
+            LongAdder granted = gate.grantedByTicketType.get(ticketTypeId);
+            LiveGateResponse.TicketTypeGate typeGate = new LiveGateResponse.TicketTypeGate();
+            typeGate.setTicketTypeId(ticketTypeId);
+            typeGate.setTypeName(ticketType.getTypeName());
+            typeGate.setSold(ticketType.getTicketQuantity() - available.get(ticketTypeId));
+            typeGate.setCheckedIn(baseline.grantedByTicketType.getOrDefault(ticketTypeId, 0L)
+                + (granted != null ? granted.sum() : 0));
+            response.getTicketTypes().add(typeGate);
+            response.setSold(response.getSold() + typeGate.getSold());
+        }
+        if (response.getSold() > 0) {
+            double rate = response.getCheckedIn() * 100.0 / response.getSold();
+            response.setCheckInRate(Math.round(rate * 100.0) / 100.0);
+        }
+
+        LocalDateTime from = response.getGeneratedAt().truncatedTo(ChronoUnit.MINUTES).minusMinutes(minutes - 1);
+        Map<LocalDateTime, LiveGateResponse.MinuteCount> byMinute = new TreeMap<>();
+        for (Map.Entry<LocalDateTime, long[]> entry : baseline.byMinute.tailMap(from, true).entrySet()) {
+            LiveGateResponse.MinuteCount count = byMinute.computeIfAbsent(entry.getKey(), this::newMinuteCount);
+            count.setGranted(count.getGranted() + entry.getValue()[0]);
+            count.setRejected(count.getRejected() + entry.getValue()[1]);
+        }
+        for (Map.Entry<LocalDateTime, MinuteAdders> entry : gate.byMinute.tailMap(from, true).entrySet()) {
+            LiveGateResponse.MinuteCount count = byMinute.computeIfAbsent(entry.getKey(), this::newMinuteCount);
+            count.setGranted(count.getGranted() + entry.getValue().granted.sum());
+            count.setRejected(count.getRejected() + entry.getValue().rejected.sum());
+        }
+        response.getMinutes().addAll(byMinute.values());
+        return response;
+    }
+
+    /**
+     * Drop minutes past the retained window, and events without scans for idle-minutes
+     * (they are rebuilt from the scan store if scanned or viewed again)
+     */
+    @Scheduled(fixedDelayString = "${ticketbook.checkin.live.prune-interval-ms:60000}")
+    public void prune() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime oldestMinute = now.truncatedTo(ChronoUnit.MINUTES).minusMinutes(retainedMinutes);
+        LocalDateTime idleBefore = now.minusMinutes(idleMinutes);
+        gates.values().removeIf(gate -> gate.lastActivity.isBefore(idleBefore));
+        for (EventGate gate : gates.values()) {
+            gate.byMinute.headMap(oldestMinute).clear();
+        }
+    }
+
+    private EventGate gateWithBaseline(Long eventId) {
+        EventGate gate = gates.computeIfAbsent(eventId, id -> new EventGate());
+        if (gate.baseline == null) {
+            synchronized (gate) {
+                if (gate.baseline == null) {
+                    gate.baseline = loadBaseline(eventId, gate.since);
+                }
+            }
+        }
+        gate.lastActivity = LocalDateTime.now();
+        return gate;
+    }
+
+    // Scans written before this node started counting; queued scans not yet flushed are missed
+    private Baseline loadBaseline(Long eventId, LocalDateTime before) {
+        Baseline baseline = new Baseline();
+        for (ScanOutcomeCount row : scanRepository.countByOutcome(eventId, before)) {
+            baseline.byOutcome[row.getOutcome()] += row.getScans();
+            if (row.getOutcome() == CheckInOutcome.GRANTED.ordinal() && row.getTicketTypeId() != null) {
+                baseline.grantedByTicketType.merge(row.getTicketTypeId(), row.getScans(), Long::sum);
+            }
+        }
+        LocalDateTime from = before.truncatedTo(ChronoUnit.MINUTES).minusMinutes(retainedMinutes);
+        for (ScanMinuteCount row : scanRepository.countPerMinute(eventId, from, before)) {
+            long[] counts = baseline.byMinute.computeIfAbsent(row.getMinute(), minute -> new long[2]);
+            counts[row.getOutcome() == CheckInOutcome.GRANTED.ordinal() ? 0 : 1] += row.getScans();
+        }
+        return baseline;
+    }
+
+    private LiveGateResponse.MinuteCount newMinuteCount(LocalDateTime minute) {
+        LiveGateResponse.MinuteCount count = new LiveGateResponse.MinuteCount();
+        count.setMinute(minute);
+        return count;
+    }
+
+    /**
+     * Counters of one event since this node started tracking it
+     */
+    private static final class EventGate {
+
+        private final LocalDateTime since = LocalDateTime.now();
+        private final LongAdder[] byOutcome = new LongAdder[OUTCOMES.length];
+        private final Map<Long, LongAdder> grantedByTicketType = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListMap<LocalDateTime, MinuteAdders> byMinute = new ConcurrentSkipListMap<>();
+        private volatile LocalDateTime lastActivity = since;
+        private volatile Baseline baseline;
+
+        private EventGate() {
+            for (int i = 0; i < byOutcome.length; i++) {
+                byOutcome[i] = new LongAdder();
+            }
+        }
+
+        private void record(Long ticketTypeId, CheckInOutcome outcome, LocalDateTime scannedAt) {
+            // Scanned before this gate existed: already in the scan store, i.e. in the baseline
+            if (scannedAt.isBefore(since)) {
+                return;
+            }
+            byOutcome[outcome.ordinal()].increment();
+            MinuteAdders minute = byMinute.computeIfAbsent(scannedAt.truncatedTo(ChronoUnit.MINUTES),
+                key -> new MinuteAdders());
+            if (outcome == CheckInOutcome.GRANTED) {
+                minute.granted.increment();
+                if (ticketTypeId != null) {
+                    grantedByTicketType.computeIfAbsent(ticketTypeId, key -> new LongAdder()).increment();
+                }
+            } else {
+                minute.rejected.increment();
+            }
+            lastActivity = scannedAt;
+        }
+    }
+
+    private static final class MinuteAdders {
+
+        private final LongAdder granted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+    }
+
+    /**
+     * Scan store totals from before an EventGate existed, read once
+     */
+    private static final class Baseline {
+
+        private final long[] byOutcome = new long[OUTCOMES.length];
+        private final Map<Long, Long> grantedByTicketType = new HashMap<>();
+        private final NavigableMap<LocalDateTime, long[]> byMinute = new TreeMap<>();
+    }
+}
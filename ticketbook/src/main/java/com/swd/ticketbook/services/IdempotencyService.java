@@ -0,0 +1,271 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.config.IdempotencyProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * In-memory store of Idempotency-Key results
+ * Maps a user's key to the SHA-256 of the original request and its stored response.
+ * The first request claims the key; concurrent duplicates wait on the same
+ * future instead of running the service again, later retries replay in O(1).
+ * Each user keeps at most max-entries-per-user keys and the store max-entries; at
+ * either bound the oldest completed key is evicted, so one client's throwaway keys
+ * only ever push out its own history. Expired keys are dropped by a scheduled sweep.
+ */
+@Service
+public class IdempotencyService {
+
+    @Autowired
+    private IdempotencyProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Object lock = new Object();
+
+    // Scoped key -> entry, oldest first (the TTL is fixed, so also expiry order); guarded by lock
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    // Scope (user) -> its scoped keys, oldest first; guarded by lock
+    private final Map<String, LinkedHashSet<String>> keysByScope = new HashMap<>();
+
+    private Counter evictedCounter;
+
+    @PostConstruct
+    void registerMeters() {
+        Gauge.builder("ticketbook.idempotency.keys", this, IdempotencyService::size)
+            .description("Idempotency keys currently stored")
+            .register(meterRegistry);
+        evictedCounter = Counter.builder("ticketbook.idempotency.evicted")
+            .description("Completed idempotency keys evicted before their TTL to stay within bounds")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Claim a key or find its previous result
+     *
+     * @param scope Owner of the key (one user)
+     * @param key Idempotency-Key header value
+     * @param fingerprint SHA-256 of the request
+     * @return Outcome telling the caller to execute, replay, or reject
+     */
+    public Claim claim(String scope, String key, byte[] fingerprint) {
+        String scopedKey = scope + '|' + key;
+
+        // A duplicate that waited for an abandoned attempt may claim once more
+        for (int attempt = 0; attempt < 2; attempt++) {
+            long now = System.nanoTime();
+            Entry existing;
+            synchronized (lock) {
+                existing = entries.get(scopedKey);
+                if (existing != null && existing.isExpired(now)) {
+                    remove(existing);
+                    existing = null;
+                }
+                if (existing == null) {
+                    if (!makeRoom(scope)) {
+                        return Claim.full();
+                    }
+                    Entry fresh = new Entry(scope, scopedKey, fingerprint, now + properties.getTtl().toNanos());
+                    entries.put(scopedKey, fresh);
+                    keysByScope.computeIfAbsent(scope, s -> new LinkedHashSet<>()).add(scopedKey);
+                    return Claim.execute(fresh);
+                }
+            }
+
+            if (!MessageDigest.isEqual(existing.fingerprint, fingerprint)) {
+                return Claim.mismatch();
+            }
+
+            StoredResponse stored;
+            try {
+                stored = existing.result.get(properties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                return Claim.inProgress();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Claim.inProgress();
+            } catch (ExecutionException e) {
+                stored = null;
+            }
+            if (stored != null) {
+                return Claim.replay(stored);
+            }
+        }
+        return Claim.inProgress();
+    }
+
+    /**
+     * Store the response of a claimed key and wake up waiting duplicates
+     */
+    public void complete(Claim claim, StoredResponse response) {
+        claim.entry.result.complete(response);
+    }
+
+    /**
+     * Give up a claimed key (transient failure, or a response not worth replaying)
+     * so a retry runs the request again
+     */
+    public void abandon(Claim claim) {
+        synchronized (lock) {
+            remove(claim.entry);
+        }
+        claim.entry.result.complete(null);
+    }
+
+    /**
+     * Drop expired keys
+     * Runs every minute
+     */
+    @Scheduled(fixedRate = 60000)
+    public void removeExpired() {
+        long now = System.nanoTime();
+        synchronized (lock) {
+            Iterator<Entry> oldestFirst = entries.values().iterator();
+            while (oldestFirst.hasNext()) {
+                Entry entry = oldestFirst.next();
+                if (!entry.isExpired(now)) {
+                    break;
+                }
+                oldestFirst.remove();
+                removeFromScope(entry);
+            }
+        }
+    }
+
+    int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    // Keeps both bounds; false only when every key in the way is still in progress
+    private boolean makeRoom(String scope) {
+        LinkedHashSet<String> own = keysByScope.get(scope);
+        if (own != null && own.size() >= properties.getMaxEntriesPerUser() && !evictOldestCompleted(own)) {
+            return false;
+        }
+        return entries.size() < properties.getMaxEntries() || evictOldestCompleted(entries.keySet());
+    }
+
+    // Skips in-progress keys, so the scan is bounded by requests in flight
+    private boolean evictOldestCompleted(Collection<String> scopedKeys) {
+        Entry victim = null;
+        for (String scopedKey : scopedKeys) {
+            Entry entry = entries.get(scopedKey);
+            if (entry.result.isDone()) {
+                victim = entry;
+                break;
+            }
+        }
+        if (victim == null) {
+            return false;
+        }
+        remove(victim);
+        evictedCounter.increment();
+        return true;
+    }
+
+    private void remove(Entry entry) {
+        if (entries.remove(entry.scopedKey, entry)) {
+            removeFromScope(entry);
+        }
+    }
+
+    private void removeFromScope(Entry entry) {
+        LinkedHashSet<String> own = keysByScope.get(entry.scope);
+        if (own != null && own.remove(entry.scopedKey) && own.isEmpty()) {
+            keysByScope.remove(entry.scope);
+        }
+    }
+
+    /**
+     * Response replayed for a key
+     */
+    public record StoredResponse(int status, String contentType, byte[] body) {
+    }
+
+    /**
+     * Result of claiming a key
+     */
+    public static final class Claim {
+
+        // FULL: the user (or the store) is at its bound with every key still in progress
+        public enum Outcome { EXECUTE, REPLAY, MISMATCH, IN_PROGRESS, FULL }
+
+        private final Outcome outcome;
+        private final Entry entry;
+        private final StoredResponse response;
+
+        private Claim(Outcome outcome, Entry entry, StoredResponse response) {
+            this.outcome = outcome;
+            this.entry = entry;
+            this.response = response;
+        }
+
+        static Claim execute(Entry entry) {
+            return new Claim(Outcome.EXECUTE, entry, null);
+        }
+
+        static Claim replay(StoredResponse response) {
+            return new Claim(Outcome.REPLAY, null, response);
+        }
+
+        static Claim mismatch() {
+            return new Claim(Outcome.MISMATCH, null, null);
+        }
+
+        static Claim inProgress() {
+            return new Claim(Outcome.IN_PROGRESS, null, null);
+        }
+
+        static Claim full() {
+            return new Claim(Outcome.FULL, null, null);
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public StoredResponse getResponse() {
+            return response;
+        }
+    }
+
+    private static final class Entry {
+        final String scope;
+        final String scopedKey;
+        final byte[] fingerprint;
+        final long expiresAtNanos;
+        final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+
+        Entry(String scope, String scopedKey, byte[] fingerprint, long expiresAtNanos) {
+            this.scope = scope;
+            this.scopedKey = scopedKey;
+            this.fingerprint = fingerprint;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos > 0;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.swd.ticketbook.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single-node verification code store
+ * Expiring LRU: codes share one TTL, so insertion order is expiry order. A
+ * resent code moves to the tail, a sweep only walks the expired head, and a
+ * full store evicts its oldest code rather than refusing new ones.
+ */
+@Component
+@ConditionalOnProperty(name = "ticketbook.verification.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryVerificationCodeStore implements VerificationCodeStore {
+
+    // Insertion ordered, oldest first; guarded by this
+    private final LinkedHashMap<String, Entry> codes = new LinkedHashMap<>();
+
+    @Value("${ticketbook.verification.max-entries:100000}")
+    private int maxEntries;
+
+    @Override
+    public synchronized int put(String identifier, String code, LocalDateTime expiresAt) {
+        codes.remove(identifier);
+        int evicted = 0;
+        if (codes.size() >= maxEntries) {
+            removeExpired(LocalDateTime.now());
+            Iterator<Entry> oldest = codes.values().iterator();
+            while (codes.size() >= maxEntries && oldest.hasNext()) {
+                oldest.next();
+                oldest.remove();
+                evicted++;
+            }
+        }
+        codes.put(identifier, new Entry(code, expiresAt));
+        return evicted;
+    }
+
+    @Override
+    public synchronized Optional<StoredCode> get(String identifier) {
+        Entry entry = codes.get(identifier);
+        return entry == null ? Optional.empty() : Optional.of(new StoredCode(entry.code, entry.expiresAt));
+    }
+
+    @Override
+    public int incrementAttempts(String identifier) {
+        Entry entry;
+        synchronized (this) {
+            entry = codes.get(identifier);
+        }
+        return entry == null ? -1 : entry.attempts.incrementAndGet();
+    }
+
+    @Override
+    public synchronized boolean remove(String identifier) {
+        return codes.remove(identifier) != null;
+    }
+
+    @Override
+    public synchronized int removeExpired(LocalDateTime now) {
+        int removed = 0;
+        Iterator<Entry> oldest = codes.values().iterator();
+        while (oldest.hasNext() && now.isAfter(oldest.next().expiresAt)) {
+            oldest.remove();
+            removed++;
+        }
+        return removed;
+    }
+
+    @Override
+    public synchronized long size() {
+        return codes.size();
+    }
+
+    private static final class Entry {
+        final String code;
+        final LocalDateTime expiresAt;
+        final AtomicInteger attempts = new AtomicInteger();
+
+        Entry(String code, LocalDateTime expiresAt) {
+            this.code = code;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.swd.ticketbook.services;
+
+/**
+ * Published by InventoryService whenever tickets go back on sale
+ * (expired or cancelled orders, refunds). Listeners should use
+ * {@code @TransactionalEventListener} so they only see committed inventory.
+ */
+public record InventoryReleasedEvent(Long ticketTypeId, Long eventId, int quantity) {
+}
@@ -0,0 +1,9 @@
+package com.swd.ticketbook.services;
+
+/**
+ * Published by InventoryService whenever tickets are taken off sale by a
+ * reservation. Listeners should use {@code @TransactionalEventListener} so a
+ * rolled-back order is never seen.
+ */
+public record InventoryReservedEvent(Long ticketTypeId, Long eventId, int quantity) {
+}
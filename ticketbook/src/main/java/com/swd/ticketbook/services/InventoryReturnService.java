@@ -0,0 +1,119 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.entities.InventoryReturn;
+import com.swd.ticketbook.entities.TicketType;
+import com.swd.ticketbook.repositories.InventoryReturnRepository;
+import com.swd.ticketbook.repositories.TicketTypeCount;
+import com.swd.ticketbook.repositories.TicketTypeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service returning refunded tickets to sale (FR8, FR14)
+ * Refunds record a pending return in their own transaction (insert only, no
+ * lock on the ticket type); a background drain sums pending returns per
+ * ticket type and applies each sum as one atomic increment.
+ */
+@Service
+public class InventoryReturnService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryReturnService.class);
+
+    @Autowired
+    private InventoryReturnRepository returnRepository;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ticketbook.inventory.returns.batch-size:1000}")
+    private int batchSize;
+
+    private Counter returnedCounter;
+
+    @PostConstruct
+    void registerMeters() {
+        Gauge.builder("ticketbook.inventory.returns.pending", returnRepository, InventoryReturnRepository::count)
+            .description("Refunded tickets not yet back on sale (rows)")
+            .register(meterRegistry);
+        returnedCounter = Counter.builder("ticketbook.inventory.returns.applied")
+            .description("Tickets returned to sale")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queue tickets to go back on sale; joins the caller's refund transaction
+     *
+     * @param source REFUND or BULK_REFUND
+     * @param referenceId Refund request or job ID
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(Long ticketTypeId, int quantity, String source, Long referenceId) {
+        if (quantity > 0) {
+            returnRepository.save(new InventoryReturn(ticketTypeId, quantity, source, referenceId));
+        }
+    }
+
+    /**
+     * Apply pending returns until none are left
+     * Runs every second by default; each batch is one short transaction
+     */
+    @Scheduled(fixedDelayString = "${ticketbook.inventory.returns.drain-interval-ms:1000}")
+    public void drain() {
+        try {
+            Integer applied;
+            do {
+                applied = transactionTemplate.execute(status -> drainBatch());
+            } while (applied != null && applied > 0);
+        } catch (Exception e) {
+            log.error("Inventory return drain failed, pending returns are retried", e);
+        }
+    }
+
+    private int drainBatch() {
+        List<TicketTypeCount> sums = returnRepository.drainBatch(batchSize);
+        if (sums.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, TicketType> ticketTypes = ticketTypeRepository.findAllById(
+                sums.stream().map(TicketTypeCount::getTicketTypeId).toList()).stream()
+            .collect(Collectors.toMap(TicketType::getTicketTypeId, Function.identity()));
+
+        int tickets = 0;
+        for (TicketTypeCount sum : sums) {
+            TicketType ticketType = ticketTypes.get(sum.getTicketTypeId());
+            if (ticketType == null) {
+                continue; // Ticket type deleted since the refund
+            }
+            inventoryService.release(ticketType, sum.getQuantity().intValue());
+            tickets += sum.getQuantity().intValue();
+        }
+        returnedCounter.increment(tickets);
+        return tickets > 0 ? tickets : sums.size();
+    }
+}
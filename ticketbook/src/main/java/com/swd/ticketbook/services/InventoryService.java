@@ -0,0 +1,299 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.entities.TicketType;
+import com.swd.ticketbook.entities.TicketTypeShard;
+import com.swd.ticketbook.exceptions.BusinessRuleViolationException;
+import com.swd.ticketbook.exceptions.ResourceNotFoundException;
+import com.swd.ticketbook.repositories.ShardLevel;
+import com.swd.ticketbook.repositories.ShardTotal;
+import com.swd.ticketbook.repositories.TicketTypeRepository;
+import com.swd.ticketbook.repositories.TicketTypeShardRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service for ticket inventory (FR14, FR16)
+ * Reservations are atomic conditional updates, never read-modify-write.
+ * Hot ticket types can be split into shards: each buyer starts on the shard
+ * picked by hashing their user ID, so concurrent buyers lock different rows.
+ */
+@Service
+public class InventoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryService.class);
+
+    public static final int MAX_SHARDS = 64;
+
+    // Reshards seen by one reserve/release before giving up (each needs a committed reshard)
+    private static final int MAX_LAYOUT_ATTEMPTS = 3;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private TicketTypeShardRepository shardRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter unshardedRejectCounter;
+    private Counter shardedRejectCounter;
+    private MultiGauge hotInventoryGauge;
+
+    @PostConstruct
+    void registerMeters() {
+        unshardedRejectCounter = Counter.builder("ticketbook.inventory.reserve.rejected")
+            .description("Reservations refused because not enough tickets were left")
+            .tag("sharded", "false")
+            .register(meterRegistry);
+        shardedRejectCounter = Counter.builder("ticketbook.inventory.reserve.rejected")
+            .description("Reservations refused because not enough tickets were left")
+            .tag("sharded", "true")
+            .register(meterRegistry);
+        hotInventoryGauge = MultiGauge.builder("ticketbook.inventory.available")
+            .description("Tickets left per sharded ticket type of an event on sale")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Reserve tickets for a buyer; must run inside the order transaction so a
+     * failed multi-item order rolls back every shard it already took from.
+     * Publishes an InventoryReservedEvent for listeners such as the availability stream.
+     * The ticket type's shard count may be stale (resharded after it was loaded): a
+     * refused reservation re-reads it and retries on the current layout.
+     *
+     * @throws BusinessRuleViolationException if not enough tickets are left
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(TicketType ticketType, Long userId, int quantity) {
+        Long ticketTypeId = ticketType.getTicketTypeId();
+        eventPublisher.publishEvent(
+            new InventoryReservedEvent(ticketTypeId, ticketType.getEvent().getEventId(), quantity));
+
+        int shards = ticketType.getShardCount();
+        int remaining = quantity;
+        for (int attempt = 0; attempt < MAX_LAYOUT_ATTEMPTS; attempt++) {
+            // Only what is still missing: shards taken from before a reshard stay taken
+            if (shards > 1) {
+                remaining -= reserveFromShards(ticketTypeId, userId, shards, remaining);
+            } else if (ticketTypeRepository.tryReserve(ticketTypeId, remaining) == 1) {
+                remaining = 0;
+            }
+            if (remaining == 0) {
+                return;
+            }
+            int current = ticketTypeRepository.findShardCount(ticketTypeId);
+            if (current == shards) {
+                (shards > 1 ? shardedRejectCounter : unshardedRejectCounter).increment();
+                int left = shards > 1 ? 0 : ticketTypeRepository.findAvailableQuantity(ticketTypeId);
+                throw soldOut(ticketType, quantity - remaining + left);
+            }
+            shards = current;
+        }
+        throw new BusinessRuleViolationException(
+            "Tickets for " + ticketType.getTypeName() + " are being redistributed, please try again");
+    }
+
+    /**
+     * Return tickets to inventory (order expired/cancelled, refund)
+     * Never raises availability above the ticket quantity. Publishes an
+     * InventoryReleasedEvent for listeners such as the waitlist.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(TicketType ticketType, int quantity) {
+        if (quantity <= 0) {
+            return;
+        }
+        Long ticketTypeId = ticketType.getTicketTypeId();
+        eventPublisher.publishEvent(
+            new InventoryReleasedEvent(ticketTypeId, ticketType.getEvent().getEventId(), quantity));
+
+        int shards = ticketType.getShardCount();
+        int remaining = quantity;
+        for (int attempt = 0; attempt < MAX_LAYOUT_ATTEMPTS && remaining > 0; attempt++) {
+            if (shards > 1) {
+                remaining -= releaseToShards(ticketTypeId, remaining);
+            } else if (ticketTypeRepository.release(ticketTypeId, remaining) == 1) {
+                return;
+            }
+            int current = ticketTypeRepository.findShardCount(ticketTypeId);
+            if (current == shards) {
+                // Shards full up to their allocation: nothing more to return
+                break;
+            }
+            shards = current;
+        }
+        if (remaining > 0) {
+            log.warn("Ticket type {}: {} released ticket(s) did not fit back into inventory", ticketTypeId, remaining);
+        }
+    }
+
+    // Whole quantity from one shard (home first, then its neighbours); when nearly sold
+    // out, whatever each shard has left. Returns the number of tickets taken.
+    private int reserveFromShards(Long ticketTypeId, Long userId, int shards, int quantity) {
+        int home = homeShard(userId, shards);
+        for (int i = 0; i < shards; i++) {
+            if (shardRepository.tryReserve(ticketTypeId, (home + i) % shards, quantity) == 1) {
+                return quantity;
+            }
+        }
+
+        List<ShardLevel> levels = shardRepository.findLevels(ticketTypeId);
+        int remaining = quantity;
+        for (int i = 0; i < levels.size() && remaining > 0; i++) {
+            ShardLevel shard = levels.get((home + i) % levels.size());
+            int take = Math.min(shard.getAvailableQuantity(), remaining);
+            if (take > 0 && shardRepository.tryReserve(ticketTypeId, shard.getShardIndex(), take) == 1) {
+                remaining -= take;
+            }
+        }
+        return quantity - remaining;
+    }
+
+    // Returns the number of tickets put back (shards never exceed their allocation)
+    private int releaseToShards(Long ticketTypeId, int quantity) {
+        int remaining = quantity;
+        for (ShardLevel shard : shardRepository.findLevels(ticketTypeId)) {
+            int room = Math.min(shard.getAllocatedQuantity() - shard.getAvailableQuantity(), remaining);
+            if (room > 0 && shardRepository.tryRelease(ticketTypeId, shard.getShardIndex(), room) == 1) {
+                remaining -= room;
+            }
+            if (remaining == 0) {
+                break;
+            }
+        }
+        return quantity - remaining;
+    }
+
+    /**
+     * Tickets currently available for one ticket type
+     */
+    public int getAvailable(TicketType ticketType) {
+        return getAvailable(List.of(ticketType)).get(ticketType.getTicketTypeId());
+    }
+
+    /**
+     * Tickets currently available per ticket type ID (one query for all sharded types)
+     */
+    public Map<Long, Integer> getAvailable(Collection<TicketType> ticketTypes) {
+        Map<Long, Integer> available = new HashMap<>();
+        List<Long> sharded = new ArrayList<>();
+        for (TicketType ticketType : ticketTypes) {
+            if (ticketType.isSharded()) {
+                sharded.add(ticketType.getTicketTypeId());
+                available.put(ticketType.getTicketTypeId(), 0);
+            } else {
+                available.put(ticketType.getTicketTypeId(), ticketType.getAvailableQuantity());
+            }
+        }
+        if (!sharded.isEmpty()) {
+            for (ShardTotal total : shardRepository.sumAvailable(sharded)) {
+                available.put(total.getTicketTypeId(), total.getAvailable().intValue());
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Refresh the per-ticket-type availability gauge
+     * Only sharded types are reported: resharding is how a type is marked hot,
+     * which keeps the ticket_type tag down to a handful of values.
+     */
+    @Scheduled(fixedDelayString = "${ticketbook.metrics.hot-inventory-refresh-ms:15000}")
+    @Transactional(readOnly = true)
+    public void refreshHotInventoryGauge() {
+        List<TicketType> hot = ticketTypeRepository.findShardedOnSale();
+        Map<Long, Integer> available = getAvailable(hot);
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : available.entrySet()) {
+            rows.add(MultiGauge.Row.of(Tags.of("ticket_type", entry.getKey().toString()), entry.getValue()));
+        }
+        hotInventoryGauge.register(rows, true);
+    }
+
+    /**
+     * Split (or merge back) a ticket type's remaining inventory into shards
+     * Locks the ticket type and all existing shards while redistributing.
+     *
+     * @param shardCount Number of shards; 1 returns to a single row
+     * @return Updated ticket type
+     */
+    @Transactional
+    public TicketType reshard(Long ticketTypeId, int shardCount) {
+        if (shardCount < 1 || shardCount > MAX_SHARDS) {
+            throw new BusinessRuleViolationException("Shard count must be between 1 and " + MAX_SHARDS);
+        }
+
+        TicketType ticketType = ticketTypeRepository.findByIdForUpdate(ticketTypeId)
+            .orElseThrow(() -> new ResourceNotFoundException("Ticket type not found"));
+
+        int available = ticketType.getAvailableQuantity();
+        if (ticketType.isSharded()) {
+            available = shardRepository.findAllForUpdate(ticketTypeId).stream()
+                .mapToInt(TicketTypeShard::getAvailableQuantity)
+                .sum();
+            shardRepository.deleteByTicketTypeId(ticketTypeId);
+        }
+
+        if (shardCount > 1) {
+            // Even split; remainders go to the lowest shards, so available <= allocated per shard
+            int total = ticketType.getTicketQuantity();
+            List<TicketTypeShard> shards = new ArrayList<>(shardCount);
+            for (int i = 0; i < shardCount; i++) {
+                shards.add(new TicketTypeShard(ticketTypeId, i,
+                    share(total, shardCount, i), share(available, shardCount, i)));
+            }
+            shardRepository.saveAll(shards);
+        }
+
+        ticketType.setAvailableQuantity(available);
+        ticketType.setShardCount(shardCount);
+        log.info("Ticket type {} resharded into {} shard(s), {} tickets available", ticketTypeId, shardCount, available);
+        return ticketTypeRepository.save(ticketType);
+    }
+
+    /**
+     * Current per-shard availability (index order); empty for unsharded types
+     */
+    public List<Integer> getShardAvailability(Long ticketTypeId) {
+        return shardRepository.findLevels(ticketTypeId).stream()
+            .map(ShardLevel::getAvailableQuantity)
+            .toList();
+    }
+
+    private int homeShard(Long userId, int shards) {
+        // Fibonacci hashing spreads sequential user IDs evenly across shards
+        long mixed = (userId != null ? userId : 0L) * 0x9E3779B97F4A7C15L;
+        return Math.floorMod(Long.hashCode(mixed), shards);
+    }
+
+    private static int share(int total, int parts, int index) {
+        return total / parts + (index < total % parts ? 1 : 0);
+    }
+
+    private static BusinessRuleViolationException soldOut(TicketType ticketType, int available) {
+        return new BusinessRuleViolationException(
+            "Only " + available + " tickets available for " + ticketType.getTypeName()
+        );
+    }
+}
@@ -0,0 +1,80 @@
+package com.swd.ticketbook.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Queue for customer notifications
+ * Emails are handed to a bounded pool after the surrounding transaction
+ * commits, so bulk operations never wait on (or roll back because of) mail delivery.
+ */
+@Service
+public class NotificationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    @Autowired
+    @Qualifier("notificationExecutor")
+    private ThreadPoolExecutor executor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter droppedCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    void registerMeters() {
+        droppedCounter = Counter.builder("ticketbook.notifications.dropped")
+            .description("Notifications rejected because the queue was full")
+            .register(meterRegistry);
+        failedCounter = Counter.builder("ticketbook.notifications.failed")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Send a notification asynchronously (after commit when inside a transaction)
+     *
+     * @param description For logs, e.g. "refund completed #42"
+     * @param send The actual EmailService call
+     */
+    public void dispatch(String description, Runnable send) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(description, send);
+                }
+            });
+        } else {
+            submit(description, send);
+        }
+    }
+
+    private void submit(String description, Runnable send) {
+        try {
+            executor.execute(() -> {
+                try {
+                    send.run();
+                } catch (Exception e) {
+                    failedCounter.increment();
+                    log.warn("Notification failed ({}): {}", description, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            droppedCounter.increment();
+            log.warn("Notification queue full, dropped: {}", description);
+        }
+    }
+}
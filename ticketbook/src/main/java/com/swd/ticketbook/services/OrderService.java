@@ -7,6 +7,12 @@ import com.swd.ticketbook.enums.EventStatus;
 import com.swd.ticketbook.exceptions.BusinessRuleViolationException;
 import com.swd.ticketbook.exceptions.ResourceNotFoundException;
 import com.swd.ticketbook.repositories.*;
+import com.swd.ticketbook.utils.ETags;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -16,9 +22,13 @@ import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Service for Order operations (UC-02.1, UC-02.2)
@@ -42,16 +52,38 @@ public class OrderService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private InventoryService inventoryService;
+
     @Autowired
     private VNPayService vnPayService;
 
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter expiredCounter;
+
+    // Refreshed on a schedule, so a scrape never queries the database
+    private final AtomicLong pendingOrders = new AtomicLong();
+
+    @PostConstruct
+    void registerMeters() {
+        Gauge.builder("ticketbook.orders.pending", pendingOrders, AtomicLong::get)
+            .description("Pending orders still holding a reservation")
+            .register(meterRegistry);
+        expiredCounter = Counter.builder("ticketbook.orders.expired")
+            .description("Pending orders expired by the cleanup job")
+            .register(meterRegistry);
+    }
+
     /**
      * UC-02.1: Check if customer has pending order (FR5)
      * Customer can only have ONE active pending order across ALL events
      */
+    @Transactional(readOnly = true)
     public Optional<OrderResponse> getActivePendingOrder(Long userId) {
         Optional<Order> pendingOrder = orderRepository.findActivePendingOrderByUserId(
             userId, 
@@ -70,6 +102,21 @@ public class OrderService {
      */
     @Transactional
     public OrderResponse createOrder(Long userId, CreateOrderRequest request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            OrderResponse response = doCreateOrder(userId, request);
+            outcome = "created";
+            return response;
+        } catch (BusinessRuleViolationException | ResourceNotFoundException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("ticketbook.orders.create", "outcome", outcome));
+        }
+    }
+
+    private OrderResponse doCreateOrder(Long userId, CreateOrderRequest request) {
         // FR5: Check for existing pending order
         Optional<Order> existingPending = orderRepository.findActivePendingOrderByUserId(
             userId, 
@@ -123,17 +170,9 @@ public class OrderService {
                 );
             }
 
-            // Check availability
-            if (item.getQuantity() > ticketType.getAvailableQuantity()) {
-                throw new BusinessRuleViolationException(
-                    "Only " + ticketType.getAvailableQuantity() + " tickets available for " 
-                    + ticketType.getTypeName()
-                );
-            }
-
-            // Reserve tickets (FR16)
-            ticketType.reserve(item.getQuantity());
-            ticketTypeRepository.save(ticketType);
+            // Check availability and reserve tickets atomically (FR16)
+            inventoryService.reserve(ticketType, userId, item.getQuantity());
+            order.addItem(ticketType, item.getQuantity());
 
             // Calculate amount
             BigDecimal itemAmount = ticketType.getPrice().multiply(new BigDecimal(item.getQuantity()));
@@ -201,6 +240,21 @@ public class OrderService {
      */
     @Transactional
     public OrderResponse confirmPayment(Long orderId, String transactionId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            OrderResponse response = doConfirmPayment(orderId);
+            outcome = "confirmed";
+            return response;
+        } catch (BusinessRuleViolationException | ResourceNotFoundException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("ticketbook.orders.confirm", "outcome", outcome));
+        }
+    }
+
+    private OrderResponse doConfirmPayment(Long orderId) {
         Order order = orderRepository.findById(orderId)
             .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
 
@@ -234,50 +288,76 @@ public class OrderService {
 
     /**
      * FR6: Generate unique QR codes for each ticket
+     * Tickets are saved together so the batching profile can group the inserts
      */
     private List<Ticket> generateTicketsForOrder(Order order) {
         List<Ticket> tickets = new ArrayList<>();
 
-        // Get ticket types and quantities from the order
-        Event event = order.getEvent();
-        List<TicketType> ticketTypes = ticketTypeRepository.findByEvent_EventId(event.getEventId());
-
-        // Generate tickets based on order quantity
-        // Note: This is simplified - in real implementation, you'd track which ticket types were ordered
-        int totalGenerated = 0;
-        for (TicketType ticketType : ticketTypes) {
-            if (totalGenerated >= order.getTotalQuantity()) {
-                break;
+        for (OrderItem item : order.getItems()) {
+            for (int i = 0; i < item.getQuantity(); i++) {
+                tickets.add(new Ticket(order, item.getTicketType(), null));
             }
+        }
 
-            int quantityForType = Math.min(
-                ticketType.getTicketQuantity() - ticketType.getAvailableQuantity(),
-                order.getTotalQuantity() - totalGenerated
-            );
+        if (order.getItems().isEmpty()) {
+            // Orders placed before items were recorded: spread over the types that sold
+            Event event = order.getEvent();
+            List<TicketType> ticketTypes = ticketTypeRepository.findByEvent_EventId(event.getEventId());
+            Map<Long, Integer> available = inventoryService.getAvailable(ticketTypes);
+            int totalGenerated = 0;
+            for (TicketType ticketType : ticketTypes) {
+                if (totalGenerated >= order.getTotalQuantity()) {
+                    break;
+                }
+
+                int quantityForType = Math.min(
+                    ticketType.getTicketQuantity() - available.get(ticketType.getTicketTypeId()),
+                    order.getTotalQuantity() - totalGenerated
+                );
 
-            for (int i = 0; i < quantityForType; i++) {
-                // FR6: Generate unique QR code
-                String qrCode = generateUniqueQRCode(order, ticketType);
-                
-                Ticket ticket = new Ticket(order, ticketType, qrCode);
-                tickets.add(ticketRepository.save(ticket));
-                totalGenerated++;
+                for (int i = 0; i < quantityForType; i++) {
+                    tickets.add(new Ticket(order, ticketType, null));
+                    totalGenerated++;
+                }
             }
         }
 
-        return tickets;
+        // FR6: Assign unique QR codes
+        assignUniqueQRCodes(order, tickets);
+
+        return ticketRepository.saveAll(tickets);
     }
 
     /**
-     * FR6: Generate unique QR code
+     * FR6: Assign unique QR codes to new tickets
+     * Checks all candidates in one query instead of one query per ticket
      */
-    private String generateUniqueQRCode(Order order, TicketType ticketType) {
-        String qrCode;
-        do {
-            qrCode = "TKT-" + order.getOrderId() + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        } while (ticketRepository.existsByQrCode(qrCode));
-        
-        return qrCode;
+    private void assignUniqueQRCodes(Order order, List<Ticket> tickets) {
+        Set<String> used = new HashSet<>();
+        List<Ticket> pending = tickets;
+        while (!pending.isEmpty()) {
+            Set<String> candidates = new HashSet<>();
+            for (Ticket ticket : pending) {
+                String qrCode;
+                do {
+                    qrCode = generateQRCode(order);
+                } while (!used.add(qrCode));
+                candidates.add(qrCode);
+                ticket.setQrCode(qrCode);
+            }
+
+            Set<String> taken = ticketRepository.findExistingQrCodes(candidates);
+            pending = pending.stream()
+                .filter(ticket -> taken.contains(ticket.getQrCode()))
+                .toList();
+        }
+    }
+
+    /**
+     * FR6: Generate QR code candidate
+     */
+    private String generateQRCode(Order order) {
+        return "TKT-" + order.getOrderId() + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
 
     /**
@@ -316,22 +396,29 @@ public class OrderService {
      * Release reserved tickets back to available inventory
      */
     private void releaseTicketsForOrder(Order order) {
+        if (!order.getItems().isEmpty()) {
+            for (OrderItem item : order.getItems()) {
+                inventoryService.release(item.getTicketType(), item.getQuantity());
+            }
+            return;
+        }
+
+        // Orders placed before items were recorded (simplified logic)
         List<TicketType> ticketTypes = ticketTypeRepository.findByEvent_EventId(
             order.getEvent().getEventId()
         );
 
-        // Release tickets (simplified logic)
+        Map<Long, Integer> available = inventoryService.getAvailable(ticketTypes);
         int totalToRelease = order.getTotalQuantity();
         for (TicketType ticketType : ticketTypes) {
             if (totalToRelease <= 0) break;
             
             int releaseQuantity = Math.min(
                 totalToRelease,
-                ticketType.getTicketQuantity() - ticketType.getAvailableQuantity()
+                ticketType.getTicketQuantity() - available.get(ticketType.getTicketTypeId())
             );
             
-            ticketType.release(releaseQuantity);
-            ticketTypeRepository.save(ticketType);
+            inventoryService.release(ticketType, releaseQuantity);
             totalToRelease -= releaseQuantity;
         }
     }
@@ -340,6 +427,7 @@ public class OrderService {
      * UC-02.2: View Purchased Tickets
      * Get all orders for a customer
      */
+    @Transactional(readOnly = true)
     public List<OrderResponse> getCustomerOrders(Long userId) {
         List<Order> orders = orderRepository.findByUser_UserIdOrderByOrderDateDesc(userId);
         return orders.stream()
@@ -347,9 +435,26 @@ public class OrderService {
             .toList();
     }
 
+    /**
+     * ETag of an order owned by the user, from version counters only (no entity loading)
+     *
+     * @return Weak ETag, or null if the order does not exist or belongs to someone else
+     */
+    public String getOrderETag(Long userId, Long orderId) {
+        return ETags.weak(orderRepository.findVersionStamp(orderId, userId).orElse(null));
+    }
+
+    /**
+     * ETag of the user's active pending order (FR5), null if there is none
+     */
+    public String getActivePendingOrderETag(Long userId) {
+        return ETags.weak(orderRepository.findActivePendingVersionStamp(userId, LocalDateTime.now()).orElse(null));
+    }
+
     /**
      * UC-02.2: Get Order Details with Tickets
      */
+    @Transactional(readOnly = true)
     public OrderResponse getOrderDetails(Long userId, Long orderId) {
         Order order = orderRepository.findById(orderId)
             .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
@@ -369,15 +474,33 @@ public class OrderService {
     @Scheduled(fixedRate = 60000) // Every 60 seconds
     @Transactional
     public void cleanupExpiredOrders() {
-        List<Order> expiredOrders = orderRepository.findExpiredPendingOrders(LocalDateTime.now());
-        
-        for (Order order : expiredOrders) {
-            order.expire();
-            orderRepository.save(order);
-            releaseTicketsForOrder(order);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            List<Order> expiredOrders = orderRepository.findExpiredPendingOrders(LocalDateTime.now());
+
+            for (Order order : expiredOrders) {
+                order.expire();
+                orderRepository.save(order);
+                releaseTicketsForOrder(order);
+            }
+            expiredCounter.increment(expiredOrders.size());
+        } finally {
+            sample.stop(meterRegistry.timer("ticketbook.orders.expiry.run"));
         }
     }
 
+    /**
+     * Pending orders whose reservation has not expired yet (metrics gauge)
+     */
+    /**
+     * Refresh the pending-orders gauge
+     */
+    @Scheduled(fixedDelayString = "${ticketbook.metrics.backlog-refresh-ms:15000}")
+    @Transactional(readOnly = true)
+    public void refreshPendingOrdersGauge() {
+        pendingOrders.set(orderRepository.countActivePendingOrders(LocalDateTime.now()));
+    }
+
     /**
      * Map Order entity to OrderResponse DTO
      */
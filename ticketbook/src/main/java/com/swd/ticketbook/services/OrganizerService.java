@@ -120,6 +120,7 @@ public class OrganizerService {
     /**
      * Get user's organizer profile
      */
+    @Transactional(readOnly = true)
     public OrganizerProfileResponse getOrganizerProfile(Long userId) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new ResourceNotFoundException("User not found"));
@@ -0,0 +1,157 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Service for password hashing and verification (FR1)
+ * Runs every hash computation on a dedicated bounded executor and
+ * transparently migrates legacy MD5 hashes on successful login.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    @Qualifier("passwordHashExecutor")
+    private ThreadPoolExecutor executor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ticketbook.security.password.verify-timeout-ms:2000}")
+    private long timeoutMillis;
+
+    private Timer verifyMatchTimer;
+    private Timer verifyMismatchTimer;
+    private Timer encodeTimer;
+    private Counter rejectedCounter;
+    private Counter rehashCounter;
+
+    @PostConstruct
+    void registerMeters() {
+        verifyMatchTimer = Timer.builder("ticketbook.password.verify")
+            .tag("outcome", "match")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        verifyMismatchTimer = Timer.builder("ticketbook.password.verify")
+            .tag("outcome", "mismatch")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        encodeTimer = Timer.builder("ticketbook.password.encode")
+            .register(meterRegistry);
+        rejectedCounter = Counter.builder("ticketbook.password.rejected")
+            .description("Hash operations shed because the hashing pool was saturated")
+            .register(meterRegistry);
+        rehashCounter = Counter.builder("ticketbook.password.rehash")
+            .description("Stored hashes upgraded to the current algorithm on login")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Hash a plain text password with the configured algorithm
+     *
+     * @param rawPassword Plain text password
+     * @return Prefixed password hash, e.g. {bcrypt}$2a$10$...
+     */
+    public String encode(String rawPassword) {
+        return submit(() -> {
+            long start = System.nanoTime();
+            try {
+                return passwordEncoder.encode(rawPassword);
+            } finally {
+                encodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    /**
+     * Verify a plain text password against a stored hash (any supported algorithm)
+     *
+     * @param rawPassword Plain text password
+     * @param storedHash Hash from the database (may be legacy MD5)
+     * @return true if password matches
+     */
+    public boolean matches(String rawPassword, String storedHash) {
+        if (rawPassword == null || storedHash == null || storedHash.isBlank()) {
+            return false;
+        }
+        return submit(() -> {
+            long start = System.nanoTime();
+            boolean matched = passwordEncoder.matches(rawPassword, storedHash);
+            (matched ? verifyMatchTimer : verifyMismatchTimer)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return matched;
+        });
+    }
+
+    /**
+     * Check if a stored hash should be re-encoded (legacy MD5 or weaker cost)
+     */
+    public boolean needsRehash(String storedHash) {
+        return storedHash != null && !storedHash.isBlank() && passwordEncoder.upgradeEncoding(storedHash);
+    }
+
+    /**
+     * Re-encode a verified password if its stored hash is outdated
+     * Call only after matches() succeeded.
+     *
+     * @return New hash, or null if no upgrade is needed
+     */
+    public String rehashIfNeeded(String rawPassword, String storedHash) {
+        if (!needsRehash(storedHash)) {
+            return null;
+        }
+        rehashCounter.increment();
+        return encode(rawPassword);
+    }
+
+    /**
+     * Run a hash operation on the bounded pool, shedding load when it is saturated
+     */
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException("Too many login attempts in progress. Please try again shortly.");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException("Too many login attempts in progress. Please try again shortly.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Password verification interrupted", e);
+        } catch (ExecutionException e) {
+            log.error("Password hashing failed", e.getCause());
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
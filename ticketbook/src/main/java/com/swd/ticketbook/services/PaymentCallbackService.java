@@ -0,0 +1,226 @@
+package com.swd.ticketbook.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swd.ticketbook.config.VNPayProperties;
+import com.swd.ticketbook.entities.Order;
+import com.swd.ticketbook.entities.Payment;
+import com.swd.ticketbook.entities.PaymentCallback;
+import com.swd.ticketbook.enums.BookingStatus;
+import com.swd.ticketbook.enums.CallbackStatus;
+import com.swd.ticketbook.repositories.OrderRepository;
+import com.swd.ticketbook.repositories.PaymentCallbackRepository;
+import com.swd.ticketbook.repositories.PaymentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service for the VNPAY callback inbox (UC-02.1)
+ * Ingestion only verifies the signature and inserts one row, so the gateway
+ * is acknowledged in milliseconds; PaymentCallbackWorker confirms orders and
+ * issues tickets afterwards. Callbacks are deduplicated by vnp_TxnRef.
+ */
+@Service
+public class PaymentCallbackService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentCallbackService.class);
+
+    @Autowired
+    private PaymentCallbackRepository callbackRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private VNPayService vnPayService;
+
+    @Autowired
+    private VNPayProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public enum IngestResult { ACCEPTED, DUPLICATE, INVALID_SIGNATURE, MALFORMED }
+
+    // Refreshed on a schedule, so a scrape never queries the database
+    private final AtomicLong pendingCallbacks = new AtomicLong();
+
+    @PostConstruct
+    void registerMeters() {
+        Gauge.builder("ticketbook.payment.callbacks.pending", pendingCallbacks, AtomicLong::get)
+            .description("Stored callbacks waiting for a worker (outbox depth)")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Refresh the callback backlog gauge
+     */
+    @Scheduled(fixedDelayString = "${ticketbook.metrics.backlog-refresh-ms:15000}")
+    @Transactional(readOnly = true)
+    public void refreshPendingCallbacksGauge() {
+        pendingCallbacks.set(callbackRepository.countByStatus(CallbackStatus.RECEIVED));
+    }
+
+    /**
+     * Verify and store a gateway callback
+     *
+     * @param params Query parameters sent by VNPAY
+     * @param source IPN or RETURN
+     * @return Ingestion result (the caller acknowledges accordingly)
+     */
+    @Transactional
+    public IngestResult ingest(Map<String, String> params, String source) {
+        IngestResult result = doIngest(params, source);
+        meterRegistry.counter("ticketbook.payment.callbacks", "source", source, "result", result.name().toLowerCase())
+            .increment();
+        return result;
+    }
+
+    private IngestResult doIngest(Map<String, String> params, String source) {
+        if (!vnPayService.verifySignature(params)) {
+            log.warn("Rejected VNPAY {} callback with invalid signature, TxnRef: {}", source, params.get("vnp_TxnRef"));
+            return IngestResult.INVALID_SIGNATURE;
+        }
+
+        String txnRef = params.get("vnp_TxnRef");
+        if (txnRef == null || txnRef.isBlank() || txnRef.length() > 100) {
+            return IngestResult.MALFORMED;
+        }
+
+        BigDecimal amount;
+        String rawPayload;
+        try {
+            amount = params.get("vnp_Amount") != null ? new BigDecimal(params.get("vnp_Amount")).movePointLeft(2) : null;
+            rawPayload = objectMapper.writeValueAsString(new TreeMap<>(params));
+        } catch (NumberFormatException | JsonProcessingException e) {
+            return IngestResult.MALFORMED;
+        }
+
+        int inserted = callbackRepository.insertIfAbsent(
+            txnRef,
+            source,
+            params.get("vnp_ResponseCode"),
+            params.get("vnp_TransactionStatus"),
+            params.get("vnp_TransactionNo"),
+            amount,
+            rawPayload,
+            LocalDateTime.now()
+        );
+        return inserted == 1 ? IngestResult.ACCEPTED : IngestResult.DUPLICATE;
+    }
+
+    /**
+     * Lease the next batch of callbacks for this worker
+     */
+    @Transactional
+    public List<Long> leaseBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        return callbackRepository.leaseBatch(now, now.plus(properties.getWorker().getLease()),
+            properties.getWorker().getBatchSize());
+    }
+
+    /**
+     * Confirm the order behind a leased callback and issue its tickets
+     * Runs in its own transaction per callback.
+     */
+    @Transactional
+    public void process(Long callbackId) {
+        PaymentCallback callback = callbackRepository.findById(callbackId).orElse(null);
+        if (callback == null || callback.getStatus() != CallbackStatus.PROCESSING) {
+            return;
+        }
+
+        Long orderId = vnPayService.parseOrderId(callback.getTxnRef());
+        Optional<Order> orderOpt = orderId != null ? orderRepository.findById(orderId) : Optional.empty();
+        if (orderOpt.isEmpty()) {
+            callback.markProcessed(CallbackStatus.REJECTED, "Order not found");
+            return;
+        }
+        Order order = orderOpt.get();
+
+        if (!"00".equals(callback.getResponseCode())
+            || (callback.getTransactionStatus() != null && !"00".equals(callback.getTransactionStatus()))) {
+            callback.markProcessed(CallbackStatus.REJECTED, "Payment not successful, response code " + callback.getResponseCode());
+            return;
+        }
+        if (callback.getAmount() == null || callback.getAmount().compareTo(order.getTotalAmount()) != 0) {
+            log.warn("VNPAY amount mismatch for order {}: paid {}, expected {}",
+                     orderId, callback.getAmount(), order.getTotalAmount());
+            callback.markProcessed(CallbackStatus.REJECTED, "Amount mismatch");
+            return;
+        }
+        if (order.getBookingStatus() == BookingStatus.CONFIRMED || order.getBookingStatus() == BookingStatus.COMPLETED) {
+            callback.markProcessed(CallbackStatus.PROCESSED, "Order already confirmed");
+            return;
+        }
+        if (order.getBookingStatus() != BookingStatus.PENDING_PAYMENT || order.isExpired()) {
+            // Paid after the reservation lapsed: needs a manual refund
+            log.error("VNPAY payment {} received for order {} in status {} (expired: {}); refund required",
+                      callback.getTransactionNo(), orderId, order.getBookingStatus(), order.isExpired());
+            callback.markProcessed(CallbackStatus.REJECTED, "Order no longer payable; refund required");
+            return;
+        }
+
+        // FR6: confirms the order, issues tickets and sends the confirmation email
+        orderService.confirmPayment(orderId, callback.getTransactionNo());
+
+        Payment payment = paymentRepository.findByOrder(order).orElseGet(() -> new Payment(order, callback.getAmount()));
+        payment.markAsPaid(callback.getTransactionNo());
+        paymentRepository.save(payment);
+
+        callback.markProcessed(CallbackStatus.PROCESSED, null);
+        log.info("Order {} confirmed from VNPAY {} callback {}", orderId, callback.getSource(), callback.getTxnRef());
+    }
+
+    /**
+     * Record a failed processing attempt
+     * Transient failures are retried with linear backoff until maxAttempts.
+     *
+     * @param permanent true if retrying cannot help (business rule violation)
+     */
+    @Transactional
+    public void recordFailure(Long callbackId, String error, boolean permanent) {
+        callbackRepository.findById(callbackId).ifPresent(callback -> {
+            String note = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+            if (permanent) {
+                callback.markProcessed(CallbackStatus.REJECTED, note);
+                return;
+            }
+            if (callback.getAttempts() >= properties.getWorker().getMaxAttempts()) {
+                callback.markProcessed(CallbackStatus.FAILED, note);
+                log.error("VNPAY callback {} failed permanently after {} attempts: {}",
+                          callback.getTxnRef(), callback.getAttempts(), error);
+                return;
+            }
+            callback.setStatus(CallbackStatus.RECEIVED);
+            callback.setLockedUntil(null);
+            callback.setLastError(note);
+            callback.setNextAttemptAt(LocalDateTime.now()
+                .plus(properties.getWorker().getRetryBackoff().multipliedBy(callback.getAttempts())));
+        });
+    }
+}
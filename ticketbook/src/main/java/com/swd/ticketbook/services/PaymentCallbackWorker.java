@@ -0,0 +1,78 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.exceptions.BusinessRuleViolationException;
+import com.swd.ticketbook.exceptions.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Background worker draining the payment callback inbox
+ * Leases batches with SKIP LOCKED (safe on several nodes) and processes each
+ * callback in its own transaction on the payment callback pool.
+ */
+@Service
+public class PaymentCallbackWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentCallbackWorker.class);
+
+    @Autowired
+    private PaymentCallbackService callbackService;
+
+    @Autowired
+    @Qualifier("paymentCallbackExecutor")
+    private ThreadPoolExecutor executor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Drain due callbacks
+     * Fixed delay so a slow batch never overlaps the next poll
+     */
+    @Scheduled(fixedDelayString = "${ticketbook.vnpay.worker.poll-interval-ms:500}")
+    public void drain() {
+        try {
+            List<Long> batch;
+            while (!(batch = callbackService.leaseBatch()).isEmpty()) {
+                List<Callable<Void>> tasks = batch.stream()
+                    .<Callable<Void>>map(id -> () -> {
+                        processOne(id);
+                        return null;
+                    })
+                    .toList();
+                executor.invokeAll(tasks);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Payment callback drain failed", e);
+        }
+    }
+
+    private void processOne(Long callbackId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "processed";
+        try {
+            callbackService.process(callbackId);
+        } catch (BusinessRuleViolationException | ResourceNotFoundException e) {
+            outcome = "rejected";
+            callbackService.recordFailure(callbackId, e.getMessage(), true);
+        } catch (Exception e) {
+            outcome = "retry";
+            log.warn("Payment callback {} failed, will retry: {}", callbackId, e.getMessage());
+            callbackService.recordFailure(callbackId, e.getMessage(), false);
+        } finally {
+            sample.stop(meterRegistry.timer("ticketbook.payment.callback.processing", "outcome", outcome));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.config.ReconciliationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.stream.Stream;
+
+/**
+ * Nightly job reconciling settlement files dropped into the inbox directory
+ * Each file is reconciled in its own transaction and moved to processedDir afterwards.
+ * Files run on the reconciliation thread; the scheduler only hands them over.
+ */
+@Service
+public class ReconciliationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconciliationJob.class);
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private ReconciliationProperties properties;
+
+    @Autowired
+    @Qualifier("reconciliationExecutor")
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Start reconciling the inbox on the reconciliation thread
+     * Runs daily at 02:30 by default; a large file takes minutes, which must not
+     * hold up the scheduler thread shared by every other @Scheduled task.
+     */
+    @Scheduled(cron = "${ticketbook.reconciliation.cron:0 30 2 * * *}")
+    public void trigger() {
+        if (properties.isEnabled()) {
+            executor.execute(this::reconcileInbox);
+        }
+    }
+
+    /**
+     * Reconcile every *.csv file waiting in the inbox (oldest name first)
+     */
+    void reconcileInbox() {
+        Path inbox = Paths.get(properties.getInboxDir());
+        if (!Files.isDirectory(inbox)) {
+            return;
+        }
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(inbox)) {
+            files = listing
+                .filter(path -> path.getFileName().toString().endsWith(".csv"))
+                .sorted()
+                .toList();
+        } catch (IOException e) {
+            log.error("Cannot list settlement inbox {}", inbox, e);
+            return;
+        }
+
+        for (Path file : files) {
+            try {
+                reconciliationService.reconcile(file);
+                Path processed = Files.createDirectories(Paths.get(properties.getProcessedDir()));
+                Files.move(file, processed.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            } catch (Exception e) {
+                // Left in the inbox, retried on the next run
+                log.error("Reconciliation of settlement file {} failed", file.getFileName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.config.ReconciliationProperties;
+import com.swd.ticketbook.config.ReportingQuery;
+import com.swd.ticketbook.dto.admin.ReconciliationReport;
+import com.swd.ticketbook.enums.PaymentStatus;
+import com.swd.ticketbook.enums.ReconciliationIssue;
+import com.swd.ticketbook.exceptions.BusinessRuleViolationException;
+import com.swd.ticketbook.exceptions.ResourceNotFoundException;
+import com.swd.ticketbook.repositories.PaymentRepository;
+import com.swd.ticketbook.repositories.SettledPaymentRow;
+import com.swd.ticketbook.utils.ExternalLineSorter;
+import com.swd.ticketbook.utils.SettlementFileReader;
+import com.swd.ticketbook.utils.SettlementFileReader.Row;
+import com.swd.ticketbook.utils.SortedMerge;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Service for reconciling payments against VNPAY settlement files (FR7)
+ * Settlement rows and payments are both streamed in transaction-number order
+ * and compared in one sorted-merge pass, so memory stays constant no matter how
+ * many transactions a file holds. Unsorted files are external-sorted first.
+ */
+@Service
+public class ReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconciliationService.class);
+
+    private static final String REPORT_HEADER =
+        "issue,transaction_no,txn_ref,order_id,payment_id,settled_amount,recorded_amount,payment_status,line";
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private VNPayService vnPayService;
+
+    @Autowired
+    private ReconciliationProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Progress of the run in flight (bytes of the settlement file consumed)
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong bytesTotal = new AtomicLong();
+
+    private Counter matchedCounter;
+    private final Map<ReconciliationIssue, Counter> issueCounters = new EnumMap<>(ReconciliationIssue.class);
+
+    @PostConstruct
+    void registerMeters() {
+        Gauge.builder("ticketbook.reconciliation.progress", this,
+                service -> service.bytesTotal.get() == 0 ? 0 : (double) service.bytesRead.get() / service.bytesTotal.get())
+            .description("Fraction of the current settlement file processed")
+            .register(meterRegistry);
+        matchedCounter = Counter.builder("ticketbook.reconciliation.rows")
+            .tag("result", "matched")
+            .register(meterRegistry);
+        for (ReconciliationIssue issue : ReconciliationIssue.values()) {
+            issueCounters.put(issue, Counter.builder("ticketbook.reconciliation.rows")
+                .tag("result", issue.name().toLowerCase())
+                .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Resolve a settlement file name inside the inbox directory
+     *
+     * @throws ResourceNotFoundException if the file does not exist
+     */
+    public Path resolveInboxFile(String fileName) {
+        Path inbox = Paths.get(properties.getInboxDir()).toAbsolutePath().normalize();
+        Path file = inbox.resolve(fileName).normalize();
+        if (!file.getParent().equals(inbox)) {
+            throw new BusinessRuleViolationException("Settlement file must be a plain file name in the inbox");
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("Settlement file not found: " + fileName);
+        }
+        return file;
+    }
+
+    /**
+     * Reconcile one settlement file
+     * Discrepancies are written to {reportDir}/{file}.discrepancies.csv
+     *
+     * @param file Settlement CSV (see SettlementFileReader for the format)
+     * @return Summary counts
+     */
+    @Transactional(readOnly = true)
+    @ReportingQuery
+    public ReconciliationReport reconcile(Path file) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long started = System.nanoTime();
+        try {
+            Path reportDir = Files.createDirectories(Paths.get(properties.getReportDir()));
+            ReconciliationReport report = new ReconciliationReport();
+            report.setFileName(file.getFileName().toString());
+
+            Scan scan = scan(file);
+            report.setSortedInput(scan.sorted);
+            if (scan.rows == 0) {
+                throw new BusinessRuleViolationException("Settlement file has no valid rows: " + report.getFileName());
+            }
+
+            // Payments are matched against the calendar days the file covers
+            LocalDateTime windowStart = scan.minPayDate.toLocalDate().atStartOfDay();
+            LocalDateTime windowEnd = scan.maxPayDate.toLocalDate().plusDays(1).atStartOfDay();
+            report.setWindowStart(windowStart);
+            report.setWindowEnd(windowEnd);
+
+            Path sorted = file;
+            if (!scan.sorted) {
+                sorted = reportDir.resolve(report.getFileName() + ".sorted.tmp");
+                log.info("Settlement file {} is not ordered by transaction_no; sorting {} rows externally",
+                         report.getFileName(), scan.rows);
+                ExternalLineSorter.sort(file, sorted, SettlementFileReader.lineOrder(scan.header),
+                                        properties.getSortChunkLines(), reportDir);
+            }
+
+            Path reportFile = reportDir.resolve(report.getFileName() + ".discrepancies.csv");
+            report.setReportFile(reportFile.toString());
+            try {
+                merge(sorted, reportFile, report, windowStart, windowEnd);
+            } finally {
+                if (sorted != file) {
+                    Files.deleteIfExists(sorted);
+                }
+            }
+
+            report.setDurationMs((System.nanoTime() - started) / 1_000_000);
+            log.info("Reconciled {}: {} settlement rows, {} payments, {} matched, {} amount / {} status mismatches, " +
+                     "{} orphaned, {} missing, {} duplicate, {} malformed in {} ms",
+                     report.getFileName(), report.getSettlementRows(), report.getPaymentsScanned(), report.getMatched(),
+                     report.getAmountMismatches(), report.getStatusMismatches(), report.getOrphanedSettlements(),
+                     report.getMissingInSettlement(), report.getDuplicateRows(), report.getMalformedRows(),
+                     report.getDurationMs());
+            return report;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reconciliation of " + file.getFileName() + " failed", e);
+        } finally {
+            bytesRead.set(0);
+            bytesTotal.set(0);
+            sample.stop(meterRegistry.timer("ticketbook.reconciliation.run"));
+        }
+    }
+
+    private void merge(Path sortedFile, Path reportFile, ReconciliationReport report,
+                       LocalDateTime windowStart, LocalDateTime windowEnd) throws IOException {
+        bytesTotal.set(Files.size(sortedFile));
+        LocalDateTime from = windowStart.minus(properties.getMatchGrace());
+        LocalDateTime to = windowEnd.plus(properties.getMatchGrace());
+
+        try (BufferedWriter out = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8);
+             SettlementFileReader reader = new SettlementFileReader(sortedFile, (line, raw) -> {
+                 report.setMalformedRows(report.getMalformedRows() + 1);
+                 issueCounters.get(ReconciliationIssue.MALFORMED_ROW).increment();
+                 writeLine(out, ReconciliationIssue.MALFORMED_ROW.name() + ",,,,,,,," + line);
+             });
+             Stream<SettledPaymentRow> payments = paymentRepository.streamForReconciliation(from, to)) {
+
+            out.write(REPORT_HEADER);
+            out.newLine();
+            ReportWriter writer = new ReportWriter(out, report);
+
+            SortedMerge.merge(
+                new DistinctRows(reader, writer), Row::transactionNo,
+                payments.iterator(), SettledPaymentRow::getTransactionNo,
+                new SortedMerge.Handler<>() {
+                    @Override
+                    public void matched(Row row, SettledPaymentRow payment) {
+                        report.setPaymentsScanned(report.getPaymentsScanned() + 1);
+                        compare(row, payment, writer);
+                    }
+
+                    @Override
+                    public void leftOnly(Row row) {
+                        // Paid outside the window (e.g. settled days later), else unknown to us
+                        Optional<SettledPaymentRow> payment = paymentRepository.findSettledRow(row.transactionNo());
+                        if (payment.isPresent()) {
+                            compare(row, payment.get(), writer);
+                        } else {
+                            writer.write(ReconciliationIssue.ORPHANED_SETTLEMENT, row, null);
+                        }
+                    }
+
+                    @Override
+                    public void rightOnly(SettledPaymentRow payment) {
+                        report.setPaymentsScanned(report.getPaymentsScanned() + 1);
+                        boolean inWindow = !payment.getPaymentDate().isBefore(windowStart)
+                            && payment.getPaymentDate().isBefore(windowEnd);
+                        if (inWindow && isCaptured(payment)) {
+                            writer.write(ReconciliationIssue.MISSING_IN_SETTLEMENT, null, payment);
+                        }
+                    }
+                });
+            bytesRead.set(bytesTotal.get());
+        }
+    }
+
+    private void compare(Row row, SettledPaymentRow payment, ReportWriter writer) {
+        boolean settled = "00".equals(row.responseCode());
+        if (settled != isCaptured(payment)) {
+            writer.write(ReconciliationIssue.STATUS_MISMATCH, row, payment);
+        } else if (settled && row.amount().compareTo(payment.getAmount()) != 0) {
+            writer.write(ReconciliationIssue.AMOUNT_MISMATCH, row, payment);
+        } else {
+            writer.report.setMatched(writer.report.getMatched() + 1);
+            matchedCounter.increment();
+        }
+    }
+
+    private static boolean isCaptured(SettledPaymentRow payment) {
+        // Refunds are settled separately; the original capture still appears in the file
+        return PaymentStatus.PAID.name().equals(payment.getPaymentStatus())
+            || PaymentStatus.REFUNDED.name().equals(payment.getPaymentStatus());
+    }
+
+    /**
+     * First pass: ordering check and pay date range, no rows retained
+     */
+    private Scan scan(Path file) throws IOException {
+        Scan scan = new Scan();
+        try (SettlementFileReader reader = new SettlementFileReader(file, null)) {
+            scan.header = reader.getHeader();
+            String previous = null;
+            while (reader.hasNext()) {
+                Row row = reader.next();
+                scan.rows++;
+                if (previous != null && row.transactionNo().compareTo(previous) < 0) {
+                    scan.sorted = false;
+                }
+                previous = row.transactionNo();
+                if (scan.minPayDate == null || row.payDate().isBefore(scan.minPayDate)) {
+                    scan.minPayDate = row.payDate();
+                }
+                if (scan.maxPayDate == null || row.payDate().isAfter(scan.maxPayDate)) {
+                    scan.maxPayDate = row.payDate();
+                }
+            }
+        }
+        return scan;
+    }
+
+    private static void writeLine(BufferedWriter out, String line) {
+        try {
+            out.write(line);
+            out.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class Scan {
+        String header;
+        long rows;
+        boolean sorted = true;
+        LocalDateTime minPayDate;
+        LocalDateTime maxPayDate;
+    }
+
+    /**
+     * Writes discrepancies and keeps the report counts in step
+     */
+    private class ReportWriter {
+        final BufferedWriter out;
+        final ReconciliationReport report;
+
+        ReportWriter(BufferedWriter out, ReconciliationReport report) {
+            this.out = out;
+            this.report = report;
+        }
+
+        void write(ReconciliationIssue issue, Row row, SettledPaymentRow payment) {
+            switch (issue) {
+                case AMOUNT_MISMATCH -> report.setAmountMismatches(report.getAmountMismatches() + 1);
+                case STATUS_MISMATCH -> report.setStatusMismatches(report.getStatusMismatches() + 1);
+                case ORPHANED_SETTLEMENT -> report.setOrphanedSettlements(report.getOrphanedSettlements() + 1);
+                case MISSING_IN_SETTLEMENT -> report.setMissingInSettlement(report.getMissingInSettlement() + 1);
+                case DUPLICATE_SETTLEMENT -> report.setDuplicateRows(report.getDuplicateRows() + 1);
+                case MALFORMED_ROW -> report.setMalformedRows(report.getMalformedRows() + 1);
+            }
+            issueCounters.get(issue).increment();
+
+            Long orderId = payment != null ? payment.getOrderId()
+                : row != null ? vnPayService.parseOrderId(row.txnRef()) : null;
+            writeLine(out, String.join(",",
+                issue.name(),
+                row != null ? row.transactionNo() : payment.getTransactionNo(),
+                row != null ? row.txnRef() : "",
+                orderId != null ? orderId.toString() : "",
+                payment != null ? payment.getPaymentId().toString() : "",
+                row != null ? row.amount().toPlainString() : "",
+                payment != null ? payment.getAmount().toPlainString() : "",
+                payment != null ? payment.getPaymentStatus() : "",
+                row != null ? String.valueOf(row.line()) : ""));
+        }
+    }
+
+    /**
+     * Settlement rows with repeated transaction numbers removed (reported as duplicates)
+     * Also drives the row count and progress metrics.
+     */
+    private class DistinctRows implements Iterator<Row> {
+        private final SettlementFileReader reader;
+        private final ReportWriter writer;
+        private Row next;
+        private String lastKey;
+
+        DistinctRows(SettlementFileReader reader, ReportWriter writer) {
+            this.reader = reader;
+            this.writer = writer;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && reader.hasNext()) {
+                Row row = reader.next();
+                long rows = writer.report.getSettlementRows() + 1;
+                writer.report.setSettlementRows(rows);
+                if (rows % properties.getProgressLogEvery() == 0) {
+                    bytesRead.set(reader.getBytesRead());
+                    log.info("Reconciling {}: {} rows, {}% of file", writer.report.getFileName(), rows,
+                             bytesRead.get() * 100 / Math.max(1, bytesTotal.get()));
+                }
+                if (row.transactionNo().equals(lastKey)) {
+                    writer.write(ReconciliationIssue.DUPLICATE_SETTLEMENT, row, null);
+                    continue;
+                }
+                lastKey = row.transactionNo();
+                next = row;
+            }
+            return next != null;
+        }
+
+        @Override
+        public Row next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Row row = next;
+            next = null;
+            return row;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.config.RefundJobProperties;
+import com.swd.ticketbook.repositories.OrderRefundRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Background worker driving bulk refund jobs
+ * Each batch fans out one gateway call per order on the refund gateway pool
+ * (bounded parallelism, immediate retries), then commits all results at once.
+ * Jobs are leased per node, so several instances never refund the same job.
+ * Jobs run on their own thread; the scheduler only hands them over.
+ */
+@Service
+public class RefundJobRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RefundJobRunner.class);
+
+    private final String workerId = UUID.randomUUID().toString();
+
+    @Autowired
+    private BulkRefundService bulkRefundService;
+
+    @Autowired
+    private VNPayService vnPayService;
+
+    @Autowired
+    private RefundJobProperties properties;
+
+    @Autowired
+    @Qualifier("refundGatewayExecutor")
+    private ThreadPoolExecutor executor;
+
+    @Autowired
+    @Qualifier("refundJobExecutor")
+    private ThreadPoolExecutor jobExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter refundedCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    void registerMeters() {
+        refundedCounter = Counter.builder("ticketbook.refund.jobs.orders")
+            .tag("result", "refunded")
+            .register(meterRegistry);
+        failedCounter = Counter.builder("ticketbook.refund.jobs.orders")
+            .tag("result", "failed")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Start a run on the job thread unless one is still going
+     * A job of tens of thousands of tickets takes minutes, which must not hold up
+     * the scheduler thread shared by every other @Scheduled task.
+     */
+    @Scheduled(fixedDelayString = "${ticketbook.refund-jobs.poll-interval-ms:2000}")
+    public void poll() {
+        jobExecutor.execute(this::run);
+    }
+
+    /**
+     * Work through every running job this node can lease
+     */
+    void run() {
+        for (Long jobId : bulkRefundService.findRunningJobIds()) {
+            try {
+                runJob(jobId);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Bulk refund job {} failed, will resume on the next run", jobId, e);
+            }
+        }
+    }
+
+    private void runJob(Long jobId) throws InterruptedException {
+        while (bulkRefundService.lease(jobId, workerId)) {
+            List<OrderRefundRow> batch = bulkRefundService.nextBatch(jobId);
+            if (batch.isEmpty()) {
+                // Done, or only rows waiting for their retry backoff
+                bulkRefundService.finishIfDone(jobId);
+                return;
+            }
+
+            List<Future<Boolean>> calls = new ArrayList<>(batch.size());
+            for (OrderRefundRow row : batch) {
+                calls.add(executor.submit(refundCall(jobId, row)));
+            }
+
+            List<OrderRefundRow> refunded = new ArrayList<>(batch.size());
+            List<Long> failed = new ArrayList<>();
+            String lastError = null;
+            for (int i = 0; i < batch.size(); i++) {
+                try {
+                    if (calls.get(i).get()) {
+                        refunded.add(batch.get(i));
+                        continue;
+                    }
+                    lastError = "Gateway declined refund for order " + batch.get(i).getOrderId();
+                } catch (ExecutionException e) {
+                    lastError = "Order " + batch.get(i).getOrderId() + ": " + e.getCause().getMessage();
+                }
+                failed.add(batch.get(i).getOrderId());
+            }
+
+            bulkRefundService.applyBatch(jobId, refunded, failed, lastError);
+            refundedCounter.increment(refunded.size());
+            failedCounter.increment(failed.size());
+        }
+    }
+
+    /**
+     * One gateway refund per order with immediate retries
+     * The request ID is stable per job and order, so a retry after a crash
+     * between the gateway call and the commit is recognised as a duplicate.
+     */
+    private Callable<Boolean> refundCall(Long jobId, OrderRefundRow row) {
+        String requestId = "bulk-" + jobId + "-" + row.getOrderId();
+        return () -> {
+            Exception lastFailure = null;
+            for (int attempt = 1; attempt <= properties.getCallRetries(); attempt++) {
+                try {
+                    if (vnPayService.processRefund(row.getOrderId().toString(), row.getAmount(), requestId)) {
+                        return true;
+                    }
+                } catch (Exception e) {
+                    lastFailure = e;
+                }
+                if (attempt < properties.getCallRetries()) {
+                    Thread.sleep(properties.getCallRetryDelay().toMillis() * attempt);
+                }
+            }
+            if (lastFailure != null) {
+                throw lastFailure;
+            }
+            return false;
+        };
+    }
+}
@@ -46,6 +46,9 @@ public class RefundService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private InventoryReturnService inventoryReturnService;
+
     /**
      * UC-02.5: Submit Refund Request
      * FR7: Check event refund policy
@@ -130,6 +133,7 @@ public class RefundService {
     /**
      * UC-02.5: Get Customer's Refund Requests
      */
+    @Transactional(readOnly = true)
     public List<RefundResponse> getCustomerRefundRequests(Long userId) {
         List<RefundInfo> refunds = refundRepository.findByUser_UserIdOrderByRequestDateDesc(userId);
         return refunds.stream()
@@ -140,6 +144,7 @@ public class RefundService {
     /**
      * UC-02.5: Get Refund Request Details
      */
+    @Transactional(readOnly = true)
     public RefundResponse getRefundDetails(Long userId, Long requestId) {
         RefundInfo refund = refundRepository.findById(requestId)
             .orElseThrow(() -> new ResourceNotFoundException("Refund request not found"));
@@ -185,6 +190,9 @@ public class RefundService {
                 Ticket ticket = refund.getTicket();
                 ticket.refund();
                 ticketRepository.save(ticket);
+                
+                // FR14: Seat goes back on sale (applied asynchronously)
+                inventoryReturnService.enqueue(ticket.getTicketType().getTicketTypeId(), 1, "REFUND", refund.getRequestId());
 
                 refundRepository.save(refund);
 
@@ -242,6 +250,7 @@ public class RefundService {
     /**
      * Admin: Get All Pending Refund Requests
      */
+    @Transactional(readOnly = true)
     public List<RefundResponse> getPendingRefundRequests() {
         List<RefundInfo> refunds = refundRepository.findByStatusOrderByRequestDateAsc(
             RefundStatus.PENDING_ADMIN_REVIEW
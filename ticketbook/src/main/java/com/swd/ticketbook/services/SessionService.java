@@ -3,6 +3,8 @@ package com.swd.ticketbook.services;
 import com.swd.ticketbook.entities.Session;
 import com.swd.ticketbook.entities.User;
 import com.swd.ticketbook.repositories.SessionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -23,6 +25,9 @@ public class SessionService {
     @Autowired
     private SessionRepository sessionRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     /**
      * Create a new session for user
      * Session expires after 24 hours
@@ -53,6 +58,7 @@ public class SessionService {
      */
     @Transactional
     public Optional<User> validateSession(String sessionToken) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         Optional<Session> sessionOpt = sessionRepository.findValidSession(
             sessionToken, 
             LocalDateTime.now()
@@ -62,9 +68,11 @@ public class SessionService {
             Session session = sessionOpt.get();
             session.updateActivity();
             sessionRepository.save(session);
+            sample.stop(meterRegistry.timer("ticketbook.session.validate", "outcome", "valid"));
             return Optional.of(session.getUser());
         }
         
+        sample.stop(meterRegistry.timer("ticketbook.session.validate", "outcome", "invalid"));
         return Optional.empty();
     }
 
@@ -113,15 +121,6 @@ public class SessionService {
         return sessionRepository.findActiveSessionsByUser(user, LocalDateTime.now());
     }
 
-    /**
-     * Clean up expired sessions
-     * Should be called periodically by a scheduled task
-     */
-    @Transactional
-    public void cleanupExpiredSessions() {
-        sessionRepository.deleteExpiredSessions(LocalDateTime.now());
-    }
-
     /**
      * Generate a unique session token
      */
@@ -1,5 +1,6 @@
 package com.swd.ticketbook.services;
 
+import com.swd.ticketbook.config.ReportingQuery;
 import com.swd.ticketbook.dto.organizer.EventStatisticsResponse;
 import com.swd.ticketbook.entities.*;
 import com.swd.ticketbook.enums.BookingStatus;
@@ -11,6 +12,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -34,6 +36,9 @@ public class StatisticsService {
     @Autowired
     private TicketTypeRepository ticketTypeRepository;
 
+    @Autowired
+    private InventoryService inventoryService;
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -47,6 +52,8 @@ public class StatisticsService {
      * UC-03.3: Get event statistics
      * FR17, FR26: Only Verified Organizer can view their event stats
      */
+    @Transactional(readOnly = true)
+    @ReportingQuery
     public EventStatisticsResponse getEventStatistics(Long organizerId, Long eventId) {
         // Get event
         Event event = eventRepository.findById(eventId)
@@ -68,8 +75,9 @@ public class StatisticsService {
         int totalTickets = ticketTypes.stream()
             .mapToInt(TicketType::getTicketQuantity)
             .sum();
-        int availableTickets = ticketTypes.stream()
-            .mapToInt(TicketType::getAvailableQuantity)
+        Map<Long, Integer> available = inventoryService.getAvailable(ticketTypes);
+        int availableTickets = available.values().stream()
+            .mapToInt(Integer::intValue)
             .sum();
         int soldTickets = totalTickets - availableTickets;
 
@@ -93,11 +101,8 @@ public class StatisticsService {
         stats.setPlatformFee(platformFee);
         stats.setNetRevenue(netRevenue);
 
-        // Check-in statistics
-        List<Ticket> tickets = ticketRepository.findByOrder_Event_EventId(eventId);
-        long checkedInCount = tickets.stream()
-            .filter(t -> t.getStatus() == TicketStatus.USED)
-            .count();
+        // Check-in statistics: committed check-ins on any node (live gate counters are per node)
+        long checkedInCount = ticketRepository.countByOrder_Event_EventIdAndStatus(eventId, TicketStatus.USED);
 
         stats.setTotalCheckedIn((int) checkedInCount);
         if (soldTickets > 0) {
@@ -114,8 +119,8 @@ public class StatisticsService {
             ttSales.setTypeName(tt.getTypeName());
             ttSales.setPrice(tt.getPrice());
             ttSales.setTotalQuantity(tt.getTicketQuantity());
-            ttSales.setAvailable(tt.getAvailableQuantity());
-            ttSales.setSold(tt.getTicketQuantity() - tt.getAvailableQuantity());
+            ttSales.setAvailable(available.get(tt.getTicketTypeId()));
+            ttSales.setSold(tt.getTicketQuantity() - available.get(tt.getTicketTypeId()));
             
             BigDecimal typeRevenue = tt.getPrice()
                 .multiply(new BigDecimal(ttSales.getSold()))
@@ -164,6 +169,8 @@ public class StatisticsService {
     /**
      * Get summary statistics for all organizer's events
      */
+    @Transactional(readOnly = true)
+    @ReportingQuery
     public Map<String, Object> getOrganizerSummary(Long organizerId) {
         List<Event> events = eventRepository.findByOrganizer_UserIdOrderByCreatedAtDesc(organizerId);
 
@@ -188,8 +195,9 @@ public class StatisticsService {
             );
 
             List<TicketType> ticketTypes = ticketTypeRepository.findByEvent_EventId(event.getEventId());
+            Map<Long, Integer> available = inventoryService.getAvailable(ticketTypes);
             totalTicketsSold += ticketTypes.stream()
-                .mapToInt(tt -> tt.getTicketQuantity() - tt.getAvailableQuantity())
+                .mapToInt(tt -> tt.getTicketQuantity() - available.get(tt.getTicketTypeId()))
                 .sum();
         }
 
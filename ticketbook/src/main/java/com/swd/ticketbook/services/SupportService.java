@@ -131,6 +131,7 @@ public class SupportService {
     /**
      * UC-02.4: View Customer's Support Requests
      */
+    @Transactional(readOnly = true)
     public List<SupportResponse> getCustomerSupportRequests(Long userId) {
         List<SupportTicket> tickets = supportRepository.findByUser_UserIdOrderByCreatedAtDesc(userId);
         return tickets.stream()
@@ -141,6 +142,7 @@ public class SupportService {
     /**
      * UC-02.4: View Support Request Details
      */
+    @Transactional(readOnly = true)
     public SupportResponse getSupportRequestDetails(Long userId, Long ticketId) {
         SupportTicket ticket = supportRepository.findById(ticketId)
             .orElseThrow(() -> new ResourceNotFoundException("Support ticket not found"));
@@ -156,6 +158,7 @@ public class SupportService {
     /**
      * Organizer: View Support Requests for Their Events
      */
+    @Transactional(readOnly = true)
     public List<SupportResponse> getOrganizerSupportRequests(Long organizerId) {
         List<SupportTicket> tickets = supportRepository.findByEvent_Organizer_UserIdOrderByCreatedAtAsc(organizerId);
         return tickets.stream()
@@ -1,17 +1,62 @@
 package com.swd.ticketbook.services;
 
+import com.swd.ticketbook.config.VNPayProperties;
+import com.swd.ticketbook.utils.HmacSigner;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
 
 /**
  * Service for VNPAY payment integration
  * Handles payment requests and responses
+ * Signatures are HMAC-SHA512 over the sorted, URL-encoded vnp_* fields.
  */
 @Service
 public class VNPayService {
 
+    private static final Logger log = LoggerFactory.getLogger(VNPayService.class);
+
+    private static final DateTimeFormatter VNP_DATE = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final ZoneId VNP_ZONE = ZoneId.of("Asia/Ho_Chi_Minh");
+
+    // Only accepted together with stub-enabled=true
+    private static final String DEV_SECRET = "dev-secret-change-me";
+
+    @Autowired
+    private VNPayProperties properties;
+
+    private HmacSigner signer;
+
+    /**
+     * Build the signer; refuses to start without a real secret unless the local stub
+     * gateway is on, since anyone knowing the key can forge IPNs that confirm orders
+     */
+    @PostConstruct
+    void initSigner() {
+        String secret = properties.getHashSecret();
+        if (secret == null || secret.isBlank() || DEV_SECRET.equals(secret)) {
+            if (!properties.isStubEnabled()) {
+                throw new IllegalStateException(
+                    "ticketbook.vnpay.hash-secret (VNPAY_HASH_SECRET) must be set to the merchant's hash secret");
+            }
+            log.warn("VNPAY stub gateway: signing with the development hash secret");
+            secret = DEV_SECRET;
+        }
+        signer = new HmacSigner("HmacSHA512", secret);
+    }
+
     /**
      * Create VNPAY payment URL (UC-02.1)
      * 
@@ -22,37 +67,54 @@ public class VNPayService {
      * @return VNPAY payment URL
      */
     public String createPaymentUrl(String orderId, BigDecimal amount, String orderInfo, String returnUrl) {
-        // TODO: Implement VNPAY payment URL creation
-        // Reference: VNPAY API documentation
-        
-        /*
-        try {
-            Map<String, String> vnpayParams = new HashMap<>();
-            vnpayParams.put("vnp_Version", "2.1.0");
-            vnpayParams.put("vnp_Command", "pay");
-            vnpayParams.put("vnp_TmnCode", vnpayConfig.getTmnCode());
-            vnpayParams.put("vnp_Amount", String.valueOf(amount.multiply(new BigDecimal(100)).longValue()));
-            vnpayParams.put("vnp_CurrCode", "VND");
-            vnpayParams.put("vnp_TxnRef", String.valueOf(orderId));
-            vnpayParams.put("vnp_OrderInfo", orderInfo);
-            vnpayParams.put("vnp_OrderType", "other");
-            vnpayParams.put("vnp_Locale", "vn");
-            vnpayParams.put("vnp_ReturnUrl", returnUrl);
-            vnpayParams.put("vnp_IpAddr", "127.0.0.1");
-            vnpayParams.put("vnp_CreateDate", new SimpleDateFormat("yyyyMMddHHmmss").format(new Date()));
-            
-            // Build query string and create secure hash
-            String queryString = buildQueryString(vnpayParams);
-            String secureHash = createSecureHash(queryString);
-            
-            return vnpayConfig.getPaymentUrl() + "?" + queryString + "&vnp_SecureHash=" + secureHash;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to create VNPAY payment URL", e);
-        }
-        */
-        
-        // Mock implementation for development
-        return "https://sandbox.vnpayment.vn/paymentv2/vpcpay.html?orderId=" + orderId + "&amount=" + amount;
+        LocalDateTime now = LocalDateTime.now(VNP_ZONE);
+
+        Map<String, String> vnpayParams = new TreeMap<>();
+        vnpayParams.put("vnp_Version", properties.getVersion());
+        vnpayParams.put("vnp_Command", "pay");
+        vnpayParams.put("vnp_TmnCode", properties.getTmnCode());
+        vnpayParams.put("vnp_Amount", String.valueOf(amount.movePointRight(2).longValueExact()));
+        vnpayParams.put("vnp_CurrCode", "VND");
+        // One TxnRef per payment attempt; the callback inbox deduplicates on it
+        vnpayParams.put("vnp_TxnRef", orderId + "_" + System.currentTimeMillis());
+        vnpayParams.put("vnp_OrderInfo", orderInfo);
+        vnpayParams.put("vnp_OrderType", "other");
+        vnpayParams.put("vnp_Locale", "vn");
+        vnpayParams.put("vnp_ReturnUrl", returnUrl != null && !returnUrl.isBlank() ? returnUrl : properties.getReturnUrl());
+        vnpayParams.put("vnp_IpAddr", "127.0.0.1");
+        vnpayParams.put("vnp_CreateDate", now.format(VNP_DATE));
+        vnpayParams.put("vnp_ExpireDate", now.plusMinutes(15).format(VNP_DATE));
+
+        String query = buildQuery(vnpayParams);
+        return properties.getPaymentUrl() + "?" + query + "&vnp_SecureHash=" + signer.sign(query);
+    }
+
+    /**
+     * Sign callback/result parameters (used by the stub gateway)
+     *
+     * @return Parameters plus vnp_SecureHash
+     */
+    public Map<String, String> sign(Map<String, String> params) {
+        Map<String, String> signed = new TreeMap<>(params);
+        signed.remove("vnp_SecureHash");
+        signed.remove("vnp_SecureHashType");
+        signed.put("vnp_SecureHash", signer.sign(buildQuery(signed)));
+        return signed;
+    }
+
+    /**
+     * Verify vnp_SecureHash of gateway parameters
+     * Only vnp_* fields are signed; anything else is ignored.
+     */
+    public boolean verifySignature(Map<String, String> params) {
+        Map<String, String> fields = new TreeMap<>();
+        params.forEach((name, value) -> {
+            if (name.startsWith("vnp_") && !name.equals("vnp_SecureHash") && !name.equals("vnp_SecureHashType")
+                && value != null && !value.isEmpty()) {
+                fields.put(name, value);
+            }
+        });
+        return signer.verify(buildQuery(fields), params.get("vnp_SecureHash"));
     }
 
     /**
@@ -62,32 +124,43 @@ public class VNPayService {
      * @return true if payment successful
      */
     public boolean validatePaymentResponse(Map<String, String> params) {
-        // TODO: Implement VNPAY response validation
-        // Verify secure hash and response code
-        
-        /*
+        return verifySignature(params) && "00".equals(params.get("vnp_ResponseCode"));
+    }
+
+    /**
+     * Extract the order ID from a vnp_TxnRef ("{orderId}_{timestamp}")
+     *
+     * @return Order ID, or null if the reference is malformed
+     */
+    public Long parseOrderId(String txnRef) {
+        if (txnRef == null) {
+            return null;
+        }
+        int separator = txnRef.indexOf('_');
         try {
-            String secureHash = params.get("vnp_SecureHash");
-            params.remove("vnp_SecureHash");
-            params.remove("vnp_SecureHashType");
-            
-            String queryString = buildQueryString(params);
-            String calculatedHash = createSecureHash(queryString);
-            
-            if (!secureHash.equals(calculatedHash)) {
-                return false;
-            }
-            
-            String responseCode = params.get("vnp_ResponseCode");
-            return "00".equals(responseCode); // 00 = success
-        } catch (Exception e) {
-            return false;
+            return Long.valueOf(separator > 0 ? txnRef.substring(0, separator) : txnRef);
+        } catch (NumberFormatException e) {
+            return null;
         }
-        */
-        
-        // Mock implementation
-        String responseCode = params.get("vnp_ResponseCode");
-        return "00".equals(responseCode);
+    }
+
+    /**
+     * Sorted name=value pairs, URL-encoded as in the VNPAY 2.1.0 reference code
+     */
+    private String buildQuery(Map<String, String> sortedParams) {
+        StringBuilder query = new StringBuilder();
+        sortedParams.forEach((name, value) -> {
+            if (value == null || value.isEmpty()) {
+                return;
+            }
+            if (!query.isEmpty()) {
+                query.append('&');
+            }
+            query.append(URLEncoder.encode(name, StandardCharsets.US_ASCII))
+                .append('=')
+                .append(URLEncoder.encode(value, StandardCharsets.US_ASCII));
+        });
+        return query.toString();
     }
 
     /**
@@ -98,13 +171,27 @@ public class VNPayService {
      * @return true if refund successful, false otherwise
      */
     public boolean processRefund(String orderId, BigDecimal amount) {
+        return processRefund(orderId, amount, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Process refund through VNPAY with a caller-chosen vnp_RequestId
+     * Retrying with the same request ID lets the gateway reject the duplicate
+     * instead of refunding twice.
+     * 
+     * @param orderId Original order ID
+     * @param amount Refund amount
+     * @param requestId Stable request ID for this refund
+     * @return true if refund successful, false otherwise
+     */
+    public boolean processRefund(String orderId, BigDecimal amount, String requestId) {
         // TODO: Implement VNPAY refund API call
         // Reference: VNPAY refund API documentation
         
         /*
         try {
             Map<String, String> refundParams = new HashMap<>();
-            refundParams.put("vnp_RequestId", UUID.randomUUID().toString());
+            refundParams.put("vnp_RequestId", requestId);
             refundParams.put("vnp_Version", "2.1.0");
             refundParams.put("vnp_Command", "refund");
             refundParams.put("vnp_TmnCode", vnpayConfig.getTmnCode());
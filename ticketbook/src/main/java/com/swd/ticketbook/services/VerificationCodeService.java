@@ -1,10 +1,18 @@
 package com.swd.ticketbook.services;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.SecureRandom;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 /**
  * Service for managing verification codes
@@ -16,12 +24,31 @@ public class VerificationCodeService {
 
     private static final int CODE_EXPIRY_MINUTES = 5;
     private static final int MAX_ATTEMPTS = 3;
-    
+
     private final SecureRandom random = new SecureRandom();
-    
-    // In-memory storage for verification codes
-    // TODO: Consider using Redis for production
-    private final Map<String, VerificationData> verificationCodes = new ConcurrentHashMap<>();
+
+    // Size-bounded, expiring storage (in-memory or shared, see VerificationCodeStore)
+    @Autowired
+    private VerificationCodeStore verificationCodes;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter evictionCounter;
+    private Counter displacedCounter;
+
+    @PostConstruct
+    void registerMeters() {
+        Gauge.builder("ticketbook.verification.codes", verificationCodes, VerificationCodeStore::size)
+            .description("Verification codes currently stored")
+            .register(meterRegistry);
+        evictionCounter = Counter.builder("ticketbook.verification.evictions")
+            .description("Expired verification codes removed")
+            .register(meterRegistry);
+        displacedCounter = Counter.builder("ticketbook.verification.displaced")
+            .description("Pending verification codes evicted early because the store was full")
+            .register(meterRegistry);
+    }
 
     /**
      * Generate a 6-digit verification code
@@ -33,49 +60,52 @@ public class VerificationCodeService {
 
     /**
      * Store verification code for email/phone
-     * 
+     *
      * @param identifier Email or phone number
      * @return Generated verification code
      */
     public String createVerificationCode(String identifier) {
         String code = generateCode();
-        VerificationData data = new VerificationData(code, LocalDateTime.now().plusMinutes(CODE_EXPIRY_MINUTES));
-        verificationCodes.put(identifier, data);
+        int displaced = verificationCodes.put(identifier, code, LocalDateTime.now().plusMinutes(CODE_EXPIRY_MINUTES));
+        if (displaced > 0) {
+            displacedCounter.increment(displaced);
+        }
         return code;
     }
 
     /**
      * Verify code for email/phone
-     * 
+     *
      * @param identifier Email or phone number
      * @param code Code to verify
      * @return true if code is valid
      */
     public boolean verifyCode(String identifier, String code) {
-        VerificationData data = verificationCodes.get(identifier);
-        
-        if (data == null) {
+        Optional<VerificationCodeStore.StoredCode> data = verificationCodes.get(identifier);
+
+        if (data.isEmpty() || code == null) {
             return false;
         }
 
         // Check if expired
-        if (LocalDateTime.now().isAfter(data.expiryTime)) {
-            verificationCodes.remove(identifier);
+        if (data.get().isExpired(LocalDateTime.now())) {
+            if (verificationCodes.remove(identifier)) {
+                evictionCounter.increment();
+            }
             return false;
         }
 
-        // Check attempts
-        if (data.attempts >= MAX_ATTEMPTS) {
+        // Check attempts (atomic: concurrent guesses cannot exceed MAX_ATTEMPTS)
+        int attempts = verificationCodes.incrementAttempts(identifier);
+        if (attempts < 0 || attempts > MAX_ATTEMPTS) {
             verificationCodes.remove(identifier);
             return false;
         }
 
-        data.attempts++;
-
-        // Verify code
-        if (data.code.equals(code)) {
-            verificationCodes.remove(identifier);
-            return true;
+        // Verify code; only the caller that removes it wins (single use)
+        if (MessageDigest.isEqual(data.get().code().getBytes(StandardCharsets.UTF_8),
+                                  code.getBytes(StandardCharsets.UTF_8))) {
+            return verificationCodes.remove(identifier);
         }
 
         return false;
@@ -85,16 +115,18 @@ public class VerificationCodeService {
      * Check if verification code exists and is valid
      */
     public boolean hasValidCode(String identifier) {
-        VerificationData data = verificationCodes.get(identifier);
-        if (data == null) {
+        Optional<VerificationCodeStore.StoredCode> data = verificationCodes.get(identifier);
+        if (data.isEmpty()) {
             return false;
         }
-        
-        if (LocalDateTime.now().isAfter(data.expiryTime)) {
-            verificationCodes.remove(identifier);
+
+        if (data.get().isExpired(LocalDateTime.now())) {
+            if (verificationCodes.remove(identifier)) {
+                evictionCounter.increment();
+            }
             return false;
         }
-        
+
         return true;
     }
 
@@ -106,28 +138,12 @@ public class VerificationCodeService {
     }
 
     /**
-     * Clean up expired codes (should be called periodically)
+     * Clean up expired codes
+     * Runs every 30 seconds
      */
+    @Scheduled(fixedRate = 30000)
     public void cleanupExpiredCodes() {
-        LocalDateTime now = LocalDateTime.now();
-        verificationCodes.entrySet().removeIf(entry -> 
-            now.isAfter(entry.getValue().expiryTime)
-        );
-    }
-
-    /**
-     * Inner class to store verification data
-     */
-    private static class VerificationData {
-        String code;
-        LocalDateTime expiryTime;
-        int attempts;
-
-        VerificationData(String code, LocalDateTime expiryTime) {
-            this.code = code;
-            this.expiryTime = expiryTime;
-            this.attempts = 0;
-        }
+        int removed = verificationCodes.removeExpired(LocalDateTime.now());
+        evictionCounter.increment(removed);
     }
 }
-
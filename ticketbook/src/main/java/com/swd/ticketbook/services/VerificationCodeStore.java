@@ -0,0 +1,61 @@
+package com.swd.ticketbook.services;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Backend for verification codes
+ * Implementations must be size-bounded and count attempts atomically.
+ * Selected with ticketbook.verification.store=memory|database
+ */
+public interface VerificationCodeStore {
+
+    /**
+     * Store (or replace) the code for an identifier
+     * A full store evicts the codes closest to expiry to make room.
+     *
+     * @return Number of unexpired codes evicted to make room
+     */
+    int put(String identifier, String code, LocalDateTime expiresAt);
+
+    /**
+     * Get the stored code and its expiry
+     */
+    Optional<StoredCode> get(String identifier);
+
+    /**
+     * Atomically count one attempt
+     *
+     * @return Attempts after increment, or -1 if no code is stored
+     */
+    int incrementAttempts(String identifier);
+
+    /**
+     * Remove a code
+     *
+     * @return true if this call removed it (guards against double use)
+     */
+    boolean remove(String identifier);
+
+    /**
+     * Remove all codes expired before now
+     *
+     * @return Number of codes removed
+     */
+    int removeExpired(LocalDateTime now);
+
+    /**
+     * Number of stored codes
+     */
+    long size();
+
+    /**
+     * Snapshot of a stored code
+     */
+    record StoredCode(String code, LocalDateTime expiresAt) {
+
+        public boolean isExpired(LocalDateTime now) {
+            return now.isAfter(expiresAt);
+        }
+    }
+}
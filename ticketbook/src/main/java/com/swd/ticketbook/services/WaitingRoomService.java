@@ -0,0 +1,372 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.config.WaitingRoomProperties;
+import com.swd.ticketbook.dto.order.QueueStatusResponse;
+import com.swd.ticketbook.exceptions.AdmissionRequiredException;
+import com.swd.ticketbook.exceptions.ResourceNotFoundException;
+import com.swd.ticketbook.exceptions.ServiceUnavailableException;
+import com.swd.ticketbook.repositories.EventRepository;
+import com.swd.ticketbook.security.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Virtual waiting room in front of order creation (UC-02.1)
+ * Every user gets a FIFO position token per event; a scheduler admits users at
+ * a fixed rate per event, and only admitted tokens may call createOrder. Joining
+ * and polling are answered from memory, so the order path sees at most
+ * admitPerMinute x maxOrderAttempts requests per event regardless of crowd size.
+ *
+ * Only events flagged as flash sales queue; other events order directly. Queues
+ * and admissions live in this node's memory, so with several nodes the load
+ * balancer must pin each client to one node (session affinity) for join, status
+ * and POST /api/orders, and admitPerMinute applies per node.
+ */
+@Service
+public class WaitingRoomService {
+
+    @Autowired
+    private WaitingRoomProperties properties;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final Map<Long, EventQueue> queues = new ConcurrentHashMap<>();
+    private final Map<String, Entry> entriesByToken = new ConcurrentHashMap<>();
+
+    // Refreshed from the database on a schedule; null until first loaded
+    private volatile Set<Long> flashSaleEvents;
+
+    private Counter admittedCounter;
+    private Counter abandonedCounter;
+    private Counter rejectedCounter;
+    private Counter evictedCounter;
+
+    @PostConstruct
+    void registerMeters() {
+        Gauge.builder("ticketbook.waitingroom.users", entriesByToken, Map::size)
+            .description("Users holding a waiting room token (waiting or admitted)")
+            .register(meterRegistry);
+        Gauge.builder("ticketbook.waitingroom.events", queues, Map::size)
+            .description("Events with an active waiting room")
+            .register(meterRegistry);
+        admittedCounter = Counter.builder("ticketbook.waitingroom.admitted")
+            .register(meterRegistry);
+        abandonedCounter = Counter.builder("ticketbook.waitingroom.abandoned")
+            .description("Waiting users dropped because they stopped polling")
+            .register(meterRegistry);
+        rejectedCounter = Counter.builder("ticketbook.waitingroom.rejected")
+            .description("Joins refused because the queue was full")
+            .register(meterRegistry);
+        evictedCounter = Counter.builder("ticketbook.waitingroom.evicted")
+            .description("Event queues dropped to make room or because the flash sale ended")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Join the waiting room for an event
+     * Idempotent per user: joining again returns the existing position.
+     * Only flash-sale events that are on sale have a waiting room.
+     *
+     * @param eventId Event ID
+     * @param userId Current user ID
+     * @return Position, ETA and token to poll with
+     */
+    public QueueStatusResponse join(Long eventId, Long userId) {
+        if (!isFlashSale(eventId)) {
+            throw new ResourceNotFoundException("This event has no waiting room. Please order directly.");
+        }
+        long now = System.nanoTime();
+        while (true) {
+            EventQueue existing = queues.get(eventId);
+            if (existing == null && queues.size() >= properties.getMaxEvents()) {
+                evictIdlestQueue();
+            }
+            EventQueue queue = existing != null ? existing : queues.computeIfAbsent(eventId, id -> new EventQueue(now));
+
+            Entry entry = queue.byUser.get(userId);
+            if (entry == null) {
+                if (queue.byUser.size() >= properties.getMaxQueueSize()) {
+                    rejectedCounter.increment();
+                    throw new ServiceUnavailableException("The waiting room for this event is full. Please try again shortly.");
+                }
+                synchronized (queue) {
+                    if (queue.closed) {
+                        // Evicted as idle in the meantime; join its replacement
+                        continue;
+                    }
+                    entry = queue.byUser.computeIfAbsent(userId, id -> {
+                        Entry created = new Entry(newToken(), eventId, id, queue.nextSeq.incrementAndGet(), now);
+                        entriesByToken.put(created.token, created);
+                        queue.waiting.add(created);
+                        return created;
+                    });
+                }
+                queue.lastJoinNanos = now;
+                // Quiet events admit straight away while the bucket has burst left
+                admit(queue, now);
+            }
+
+            entry.lastSeenNanos = now;
+            return toStatus(queue, entry);
+        }
+    }
+
+    /**
+     * Poll the current position for a token
+     * Never touches the database.
+     */
+    public QueueStatusResponse getStatus(Long eventId, String token) {
+        Entry entry = token != null ? entriesByToken.get(token) : null;
+        EventQueue queue = queues.get(eventId);
+        if (entry == null || queue == null || !entry.eventId.equals(eventId)) {
+            throw new ResourceNotFoundException("Queue token not found or expired. Please join the waiting room again.");
+        }
+        entry.lastSeenNanos = System.nanoTime();
+        return toStatus(queue, entry);
+    }
+
+    /**
+     * Gate for createOrder on flash-sale events: the token must be admitted, unexpired,
+     * owned by the user and within its attempt budget. Each call uses one attempt.
+     *
+     * @throws AdmissionRequiredException if the user may not create an order yet
+     */
+    public void checkAdmitted(Long eventId, Long userId, String token) {
+        if (!properties.isEnabled() || !isFlashSale(eventId)) {
+            return;
+        }
+        Entry entry = token != null ? entriesByToken.get(token) : null;
+        if (entry == null || !entry.eventId.equals(eventId) || !entry.userId.equals(userId)) {
+            throw new AdmissionRequiredException("Please join the waiting room for this event before ordering.");
+        }
+        if (!entry.isAdmitted()) {
+            throw new AdmissionRequiredException("You are still in the waiting room. Please wait for your turn.");
+        }
+        if (entry.isAdmissionExpired(System.nanoTime(), properties.getAdmissionTtl().toNanos())
+            || entry.orderAttempts.incrementAndGet() > properties.getMaxOrderAttempts()) {
+            remove(entry);
+            throw new AdmissionRequiredException("Your admission has expired. Please join the waiting room again.");
+        }
+    }
+
+    /**
+     * Release the admission once the order was created (single use)
+     */
+    public void complete(String token) {
+        if (token == null) {
+            return;
+        }
+        Entry entry = entriesByToken.get(token);
+        if (entry != null) {
+            remove(entry);
+        }
+    }
+
+    /**
+     * Admit the next users of every event queue at the configured rate
+     */
+    @Scheduled(fixedRateString = "${ticketbook.waiting-room.tick-ms:250}")
+    public void admitNext() {
+        long now = System.nanoTime();
+        for (EventQueue queue : queues.values()) {
+            admit(queue, now);
+        }
+    }
+
+    /**
+     * Reload the flash-sale events and drop the queues of events that left the list
+     */
+    @Scheduled(fixedDelayString = "${ticketbook.waiting-room.flash-sale-refresh-ms:10000}")
+    public void refreshFlashSales() {
+        Set<Long> events = Set.copyOf(eventRepository.findFlashSaleEventIds(LocalDateTime.now()));
+        flashSaleEvents = events;
+        queues.forEach((eventId, queue) -> {
+            if (!events.contains(eventId)) {
+                close(eventId, queue);
+            }
+        });
+    }
+
+    /**
+     * Drop expired admissions and idle queues
+     * Runs every 10 seconds
+     */
+    @Scheduled(fixedRate = 10000)
+    public void evictExpired() {
+        long now = System.nanoTime();
+        long ttl = properties.getAdmissionTtl().toNanos();
+        long abandon = properties.getAbandonAfter().toNanos();
+
+        for (Entry entry : entriesByToken.values()) {
+            if (entry.isAdmissionExpired(now, ttl)) {
+                remove(entry);
+            } else if (!entry.isAdmitted() && now - entry.lastSeenNanos > abandon && remove(entry)) {
+                abandonedCounter.increment();
+            }
+        }
+        queues.forEach((eventId, queue) -> {
+            synchronized (queue) {
+                if (queue.byUser.isEmpty() && queue.admissions.isIdle(now)) {
+                    queue.closed = true;
+                    queues.remove(eventId, queue);
+                }
+            }
+        });
+    }
+
+    private boolean isFlashSale(Long eventId) {
+        Set<Long> events = flashSaleEvents;
+        if (events == null) {
+            refreshFlashSales();
+            events = flashSaleEvents;
+        }
+        return events.contains(eventId);
+    }
+
+    /**
+     * Make room for a new event queue: empty queues go first, then the one joined least recently
+     */
+    private void evictIdlestQueue() {
+        queues.entrySet().stream()
+            .min(Comparator.comparing((Map.Entry<Long, EventQueue> e) -> !e.getValue().byUser.isEmpty())
+                .thenComparingLong(e -> e.getValue().lastJoinNanos))
+            .ifPresent(e -> close(e.getKey(), e.getValue()));
+    }
+
+    private void close(Long eventId, EventQueue queue) {
+        synchronized (queue) {
+            if (queue.closed) {
+                return;
+            }
+            queue.closed = true;
+            queues.remove(eventId, queue);
+            queue.byUser.values().forEach(entry -> entriesByToken.remove(entry.token, entry));
+        }
+        evictedCounter.increment();
+    }
+
+    private void admit(EventQueue queue, long now) {
+        long abandon = properties.getAbandonAfter().toNanos();
+        synchronized (queue) {
+            Entry next;
+            while ((next = queue.waiting.peek()) != null) {
+                // Skip users that left (or were removed) without spending an admission
+                if (!queue.byUser.containsKey(next.userId) || now - next.lastSeenNanos > abandon) {
+                    queue.waiting.poll();
+                    if (remove(next)) {
+                        abandonedCounter.increment();
+                    }
+                    continue;
+                }
+                if (queue.admissions.tryAcquire(now) > 0) {
+                    break;
+                }
+                queue.waiting.poll();
+                next.admittedAtNanos = now;
+                next.admissionExpiresAt = LocalDateTime.now().plus(properties.getAdmissionTtl());
+                queue.admittedSeq.set(next.seq);
+                admittedCounter.increment();
+            }
+        }
+    }
+
+    private boolean remove(Entry entry) {
+        EventQueue queue = queues.get(entry.eventId);
+        if (queue != null) {
+            // Still-waiting entries stay in the FIFO and are skipped when reached
+            queue.byUser.remove(entry.userId, entry);
+        }
+        return entriesByToken.remove(entry.token, entry);
+    }
+
+    private QueueStatusResponse toStatus(EventQueue queue, Entry entry) {
+        QueueStatusResponse status = new QueueStatusResponse();
+        status.setQueueToken(entry.token);
+        status.setEventId(entry.eventId);
+        status.setAdmitted(entry.isAdmitted());
+
+        if (entry.isAdmitted()) {
+            status.setAdmissionExpiresAt(entry.admissionExpiresAt);
+            return status;
+        }
+
+        // Upper bound: users that already left still count until they are skipped
+        long position = Math.max(1, entry.seq - queue.admittedSeq.get());
+        long etaSeconds = position * 60 / Math.max(1, properties.getAdmitPerMinute());
+        status.setPosition(position);
+        status.setEstimatedWaitSeconds(etaSeconds);
+        status.setPollAfterSeconds(Math.clamp(etaSeconds / 2, 2, 30));
+        return status;
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private class EventQueue {
+        final AtomicLong nextSeq = new AtomicLong();
+        final AtomicLong admittedSeq = new AtomicLong();
+        final Queue<Entry> waiting = new ConcurrentLinkedQueue<>();
+        final Map<Long, Entry> byUser = new ConcurrentHashMap<>();
+        final TokenBucket admissions;
+        volatile long lastJoinNanos;
+        boolean closed;
+
+        EventQueue(long now) {
+            this.admissions = new TokenBucket(properties.getAdmitBurst(), properties.getAdmitPerMinute(), now);
+            this.lastJoinNanos = now;
+        }
+    }
+
+    private static class Entry {
+        final String token;
+        final Long eventId;
+        final Long userId;
+        final long seq;
+        final AtomicInteger orderAttempts = new AtomicInteger();
+        volatile long lastSeenNanos;
+        volatile long admittedAtNanos;
+        volatile LocalDateTime admissionExpiresAt;
+
+        Entry(String token, Long eventId, Long userId, long seq, long now) {
+            this.token = token;
+            this.eventId = eventId;
+            this.userId = userId;
+            this.seq = seq;
+            this.lastSeenNanos = now;
+        }
+
+        boolean isAdmitted() {
+            return admissionExpiresAt != null;
+        }
+
+        boolean isAdmissionExpired(long now, long ttlNanos) {
+            return isAdmitted() && now - admittedAtNanos > ttlNanos;
+        }
+    }
+}
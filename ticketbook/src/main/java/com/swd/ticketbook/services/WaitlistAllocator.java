@@ -0,0 +1,123 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.config.WaitlistProperties;
+import com.swd.ticketbook.exceptions.BusinessRuleViolationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Allocates released tickets to the waitlist (FR14, FR16)
+ * Releases only mark their ticket type as dirty; the scheduled pass then walks
+ * each dirty type's waiters in FIFO order, one short transaction per offer, until
+ * the type is sold out again. A periodic sweep picks up releases made on other
+ * nodes and closes offers whose order was paid or lapsed.
+ */
+@Service
+public class WaitlistAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistAllocator.class);
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private WaitlistProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Set<Long> dirtyTicketTypes = ConcurrentHashMap.newKeySet();
+
+    private Counter offeredCounter;
+
+    @PostConstruct
+    void registerMeters() {
+        offeredCounter = Counter.builder("ticketbook.waitlist.offered")
+            .description("Reservations created for waitlisted customers")
+            .register(meterRegistry);
+        Gauge.builder("ticketbook.waitlist.pending_types", dirtyTicketTypes, Set::size)
+            .description("Ticket types with released inventory awaiting allocation")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Only committed releases count: a rolled-back release frees nothing
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryReleased(InventoryReleasedEvent event) {
+        if (properties.isEnabled()) {
+            dirtyTicketTypes.add(event.ticketTypeId());
+        }
+    }
+
+    /**
+     * Offer released tickets to the next waiters
+     */
+    @Scheduled(fixedDelayString = "${ticketbook.waitlist.allocate-interval-ms:500}")
+    public void allocate() {
+        if (!properties.isEnabled() || dirtyTicketTypes.isEmpty()) {
+            return;
+        }
+        for (Long ticketTypeId : List.copyOf(dirtyTicketTypes)) {
+            dirtyTicketTypes.remove(ticketTypeId);
+            try {
+                allocate(ticketTypeId);
+            } catch (Exception e) {
+                log.error("Waitlist allocation for ticket type {} failed", ticketTypeId, e);
+            }
+        }
+    }
+
+    /**
+     * Re-check every ticket type with waiters and close settled offers
+     */
+    @Scheduled(fixedDelayString = "${ticketbook.waitlist.sweep-interval-ms:30000}",
+               initialDelayString = "${ticketbook.waitlist.sweep-interval-ms:30000}")
+    public void sweep() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            waitlistService.closeSettledOffers();
+            dirtyTicketTypes.addAll(waitlistService.findTicketTypesWithWaiters());
+        } catch (Exception e) {
+            log.error("Waitlist sweep failed", e);
+        }
+    }
+
+    private void allocate(Long ticketTypeId) {
+        int offered = 0;
+        for (Long entryId : waitlistService.nextWaiting(ticketTypeId)) {
+            WaitlistService.OfferResult result;
+            try {
+                result = waitlistService.offer(entryId);
+            } catch (BusinessRuleViolationException e) {
+                // A direct buyer took the tickets between our check and the reserve
+                break;
+            }
+            if (result == WaitlistService.OfferResult.SOLD_OUT) {
+                break;
+            }
+            if (result == WaitlistService.OfferResult.OFFERED) {
+                offered++;
+            }
+        }
+        if (offered > 0) {
+            offeredCounter.increment(offered);
+            log.info("Offered {} waitlist reservation(s) for ticket type {}", offered, ticketTypeId);
+        }
+    }
+}
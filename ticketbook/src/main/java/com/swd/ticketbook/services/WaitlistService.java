@@ -0,0 +1,236 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.config.WaitlistProperties;
+import com.swd.ticketbook.dto.order.WaitlistEntryResponse;
+import com.swd.ticketbook.entities.Event;
+import com.swd.ticketbook.entities.Order;
+import com.swd.ticketbook.entities.TicketType;
+import com.swd.ticketbook.entities.User;
+import com.swd.ticketbook.entities.WaitlistEntry;
+import com.swd.ticketbook.enums.BookingStatus;
+import com.swd.ticketbook.enums.EventStatus;
+import com.swd.ticketbook.enums.WaitlistStatus;
+import com.swd.ticketbook.exceptions.BusinessRuleViolationException;
+import com.swd.ticketbook.exceptions.ResourceNotFoundException;
+import com.swd.ticketbook.repositories.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service for the sold-out ticket waitlist (UC-02.1, FR5, FR14, FR16)
+ * Customers queue per ticket type instead of polling the event page. When
+ * tickets are released, WaitlistAllocator turns the next waiters' entries into
+ * ordinary pending orders with a time-boxed reservation and emails them.
+ */
+@Service
+public class WaitlistService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistService.class);
+
+    private static final List<WaitlistStatus> ACTIVE = List.of(WaitlistStatus.WAITING, WaitlistStatus.OFFERED);
+
+    public enum OfferResult { OFFERED, SKIPPED, SOLD_OUT }
+
+    @Autowired
+    private WaitlistEntryRepository waitlistRepository;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private WaitlistProperties properties;
+
+    /**
+     * Join the waitlist of a sold-out ticket type
+     * Idempotent: an active entry for the same ticket type is returned as is.
+     */
+    @Transactional
+    public WaitlistEntryResponse join(Long userId, Long ticketTypeId, int quantity) {
+        if (!properties.isEnabled()) {
+            throw new BusinessRuleViolationException("The waitlist is not available");
+        }
+
+        WaitlistEntry existing = waitlistRepository
+            .findFirstByTicketTypeIdAndUserIdAndStatusIn(ticketTypeId, userId, ACTIVE)
+            .orElse(null);
+        if (existing != null) {
+            return mapToResponse(existing);
+        }
+
+        TicketType ticketType = ticketTypeRepository.findById(ticketTypeId)
+            .orElseThrow(() -> new ResourceNotFoundException("Ticket type not found"));
+        Event event = ticketType.getEvent();
+        if (event.getStatus() != EventStatus.ACTIVE || event.hasOccurred()) {
+            throw new BusinessRuleViolationException("Event is not available for booking");
+        }
+
+        // FR14: Same limit as a direct order
+        if (quantity < 1 || (event.getMaxTicketQuantity() != null && quantity > event.getMaxTicketQuantity())) {
+            throw new BusinessRuleViolationException(
+                "Quantity must be between 1 and " + (event.getMaxTicketQuantity() != null ? event.getMaxTicketQuantity() : "the tickets available")
+            );
+        }
+        if (inventoryService.getAvailable(ticketType) >= quantity) {
+            throw new BusinessRuleViolationException("Tickets are still available. Please order them directly.");
+        }
+
+        WaitlistEntry entry = waitlistRepository.save(
+            new WaitlistEntry(ticketTypeId, event.getEventId(), userId, quantity));
+
+        log.info("User {} joined waitlist for ticket type {} ({} tickets)", userId, ticketTypeId, quantity);
+        return mapToResponse(entry);
+    }
+
+    /**
+     * Leave the waitlist; an offered reservation stays valid until it expires
+     */
+    @Transactional
+    public void leave(Long userId, Long entryId) {
+        WaitlistEntry entry = waitlistRepository.findById(entryId)
+            .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found"));
+        if (!entry.getUserId().equals(userId)) {
+            throw new BusinessRuleViolationException("Waitlist entry does not belong to this user");
+        }
+        waitlistRepository.cancelIfWaiting(entryId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryResponse> getCustomerEntries(Long userId) {
+        return waitlistRepository.findByUserIdOrderByJoinedAtDesc(userId).stream()
+            .map(this::mapToResponse)
+            .toList();
+    }
+
+    // ==================== ALLOCATION ====================
+
+    public List<Long> findTicketTypesWithWaiters() {
+        return waitlistRepository.findTicketTypesWithWaiters();
+    }
+
+    public List<Long> nextWaiting(Long ticketTypeId) {
+        return waitlistRepository.findNextWaiting(ticketTypeId, Limit.of(properties.getBatchSize()));
+    }
+
+    /**
+     * Reserve tickets for one waiting entry (own transaction per entry)
+     * The reservation is a normal PENDING_PAYMENT order: the customer pays it
+     * like any other, and if it lapses the expiry job releases the tickets to
+     * the next waiter.
+     *
+     * @return SOLD_OUT once nothing is left, SKIPPED if this waiter cannot take the offer now
+     */
+    @Transactional
+    public OfferResult offer(Long entryId) {
+        // Held until commit: no other node can offer or cancel this entry meanwhile
+        WaitlistEntry entry = waitlistRepository.lockWaiting(entryId).orElse(null);
+        if (entry == null) {
+            return OfferResult.SKIPPED;
+        }
+
+        TicketType ticketType = ticketTypeRepository.findById(entry.getTicketTypeId()).orElse(null);
+        Event event = ticketType != null ? ticketType.getEvent() : null;
+        if (event == null || event.getStatus() != EventStatus.ACTIVE || event.hasOccurred()) {
+            entry.setStatus(WaitlistStatus.CANCELLED);
+            return OfferResult.SKIPPED;
+        }
+
+        int available = inventoryService.getAvailable(ticketType);
+        if (available <= 0) {
+            return OfferResult.SOLD_OUT;
+        }
+        if (available < entry.getQuantity()) {
+            // A smaller request further back may still fit
+            return OfferResult.SKIPPED;
+        }
+
+        // FR5: One pending order per customer; try again on a later pass
+        LocalDateTime now = LocalDateTime.now();
+        if (orderRepository.findActivePendingOrderByUserId(entry.getUserId(), now).isPresent()) {
+            return OfferResult.SKIPPED;
+        }
+        User user = userRepository.findById(entry.getUserId()).orElse(null);
+        if (user == null || Boolean.TRUE.equals(user.getIsDeleted())) {
+            entry.setStatus(WaitlistStatus.CANCELLED);
+            return OfferResult.SKIPPED;
+        }
+
+        // Throws (and rolls back this entry only) if a direct buyer won the race
+        inventoryService.reserve(ticketType, user.getUserId(), entry.getQuantity());
+
+        LocalDateTime expiresAt = now.plus(properties.getOfferTtl());
+        Order order = new Order(user, event);
+        order.setTotalQuantity(entry.getQuantity());
+        order.addItem(ticketType, entry.getQuantity());
+        order.setTotalAmount(ticketType.getPrice().multiply(BigDecimal.valueOf(entry.getQuantity())));
+        order.setReservationExpiresAt(expiresAt);
+        order.setRecipientName(user.getFullName());
+        order.setRecipientEmail(user.getEmail());
+        order.setRecipientPhone(user.isPhone() ? user.getContact() : null);
+        order = orderRepository.save(order);
+
+        entry.offer(order.getOrderId(), expiresAt);
+        waitlistRepository.save(entry);
+
+        Long orderId = order.getOrderId();
+        String email = user.getEmail();
+        if (email != null) {
+            notificationDispatcher.dispatch("waitlist offer #" + orderId,
+                () -> emailService.sendWaitlistOffer(email, orderId, event.getName(), entry.getQuantity(), expiresAt));
+        }
+
+        log.info("Waitlist entry {} offered order {} ({} x ticket type {})",
+                 entryId, orderId, entry.getQuantity(), ticketType.getTicketTypeId());
+        return OfferResult.OFFERED;
+    }
+
+    /**
+     * Mark offers as fulfilled or expired once their order is settled
+     */
+    @Transactional
+    public void closeSettledOffers() {
+        waitlistRepository.closeOffers(WaitlistStatus.FULFILLED.name(),
+            List.of(BookingStatus.CONFIRMED.name(), BookingStatus.COMPLETED.name()));
+        waitlistRepository.closeOffers(WaitlistStatus.EXPIRED.name(),
+            List.of(BookingStatus.EXPIRED.name(), BookingStatus.CANCELLED.name()));
+    }
+
+    private WaitlistEntryResponse mapToResponse(WaitlistEntry entry) {
+        WaitlistEntryResponse response = new WaitlistEntryResponse();
+        response.setEntryId(entry.getEntryId());
+        response.setEventId(entry.getEventId());
+        response.setTicketTypeId(entry.getTicketTypeId());
+        response.setQuantity(entry.getQuantity());
+        response.setStatus(entry.getStatus());
+        response.setOrderId(entry.getOrderId());
+        response.setOfferExpiresAt(entry.getOfferExpiresAt());
+        response.setJoinedAt(entry.getJoinedAt());
+        if (entry.getStatus() == WaitlistStatus.WAITING) {
+            response.setPosition(waitlistRepository.countByTicketTypeIdAndStatusAndEntryIdLessThan(
+                entry.getTicketTypeId(), WaitlistStatus.WAITING, entry.getEntryId()) + 1);
+        }
+        return response;
+    }
+}
@@ -1,5 +1,6 @@
 package com.swd.ticketbook.services;
 
+import com.swd.ticketbook.config.ReportingQuery;
 import com.swd.ticketbook.dto.organizer.WithdrawalResponse;
 import com.swd.ticketbook.entities.*;
 import com.swd.ticketbook.enums.BookingStatus;
@@ -78,7 +79,7 @@ public class WithdrawalService {
         }
 
         // Calculate available balance
-        BigDecimal availableBalance = calculateAvailableBalance(organizerId, request.getEventId());
+        BigDecimal availableBalance = availableBalance(organizerId, request.getEventId());
 
         // Validate withdrawal amount
         if (request.getAmount().compareTo(MINIMUM_WITHDRAWAL) < 0) {
@@ -151,6 +152,7 @@ public class WithdrawalService {
     /**
      * Get withdrawal by ID
      */
+    @Transactional(readOnly = true)
     public WithdrawalResponse getWithdrawalById(Long organizerId, Long requestId) {
         WithdrawalRequest request = withdrawalRequestRepository.findById(requestId)
             .orElseThrow(() -> new ResourceNotFoundException("Withdrawal request not found"));
@@ -163,9 +165,20 @@ public class WithdrawalService {
     }
 
     /**
-     * Calculate available balance for withdrawal
+     * Available balance for the organizer dashboard
+     * Read on the reporting pool, which may point at a replica and trail the primary;
+     * withdrawals check their amount against {@link #availableBalance(Long, Long)} instead.
      */
+    @ReportingQuery
     public BigDecimal calculateAvailableBalance(Long organizerId, Long eventId) {
+        return availableBalance(organizerId, eventId);
+    }
+
+    /**
+     * Calculate available balance for withdrawal
+     * Runs on the caller's connection, so a withdrawal request checks the primary
+     */
+    private BigDecimal availableBalance(Long organizerId, Long eventId) {
         List<Event> events;
         
         if (eventId != null) {
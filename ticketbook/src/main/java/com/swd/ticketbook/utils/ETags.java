@@ -0,0 +1,44 @@
+package com.swd.ticketbook.utils;
+
+/**
+ * Weak entity tags built from database version stamps
+ * A stamp combines the @Version columns of every row a response is built from.
+ * Bulk UPDATEs of those tables bump version as well, so the optimistic lock
+ * columns change whenever the response can, and a stamp is read without
+ * loading any entity. Weak because responses such as OrderResponse.remainingSeconds
+ * are derived from the clock: two bodies with the same tag are equivalent, not identical.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * @param stamp Version stamp (see EventRepository/OrderRepository), or null
+     * @return Weak ETag, or null if there is no stamp
+     */
+    public static String weak(String stamp) {
+        return stamp != null ? "W/\"" + stamp + "\"" : null;
+    }
+
+    /**
+     * If-None-Match evaluation for GET (weak comparison, RFC 9110 section 13.1.2)
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String opaque = opaqueTag(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaqueTag(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
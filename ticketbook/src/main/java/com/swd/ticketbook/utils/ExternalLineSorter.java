@@ -0,0 +1,110 @@
+package com.swd.ticketbook.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * External merge sort for line-oriented files larger than memory
+ * Sorts runs of at most chunkLines in memory, spills each run to a temp file,
+ * then k-way merges the runs. The first line (header) is copied unchanged.
+ */
+public final class ExternalLineSorter {
+
+    private ExternalLineSorter() {
+    }
+
+    /**
+     * Sort the data lines of input into output
+     *
+     * @param comparator Line order
+     * @param chunkLines Lines held in memory per run
+     * @param tempDir Directory for run files (deleted afterwards)
+     */
+    public static void sort(Path input, Path output, Comparator<String> comparator,
+                            int chunkLines, Path tempDir) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        String header;
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            header = reader.readLine();
+            List<String> chunk = new ArrayList<>(Math.min(chunkLines, 1 << 16));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                chunk.add(line);
+                if (chunk.size() >= chunkLines) {
+                    runs.add(writeRun(chunk, comparator, tempDir));
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                runs.add(writeRun(chunk, comparator, tempDir));
+            }
+        }
+
+        try {
+            merge(header, runs, output, comparator);
+        } finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    private static Path writeRun(List<String> chunk, Comparator<String> comparator, Path tempDir) throws IOException {
+        chunk.sort(comparator);
+        Path run = Files.createTempFile(tempDir, "sort-run-", ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(run, StandardCharsets.UTF_8)) {
+            for (String line : chunk) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+        return run;
+    }
+
+    private static void merge(String header, List<Path> runs, Path output, Comparator<String> comparator)
+            throws IOException {
+        PriorityQueue<RunHead> heads = new PriorityQueue<>((a, b) -> comparator.compare(a.line, b.line));
+        List<BufferedReader> readers = new ArrayList<>(runs.size());
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            if (header != null) {
+                writer.write(header);
+                writer.newLine();
+            }
+            for (Path run : runs) {
+                BufferedReader reader = Files.newBufferedReader(run, StandardCharsets.UTF_8);
+                readers.add(reader);
+                String first = reader.readLine();
+                if (first != null) {
+                    heads.add(new RunHead(first, reader));
+                }
+            }
+            RunHead head;
+            while ((head = heads.poll()) != null) {
+                writer.write(head.line);
+                writer.newLine();
+                String following = head.reader.readLine();
+                if (following != null) {
+                    heads.add(new RunHead(following, head.reader));
+                }
+            }
+        } finally {
+            for (BufferedReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    private record RunHead(String line, BufferedReader reader) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.swd.ticketbook.utils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Thread-safe HMAC signer with reusable Mac instances
+ * Mac.getInstance() plus init() costs a provider lookup and key schedule per call;
+ * each thread instead keeps its own initialized Mac, cloned once from a prototype.
+ */
+public class HmacSigner {
+
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * @param algorithm JCA algorithm, e.g. HmacSHA512
+     * @param secret Shared secret
+     */
+    public HmacSigner(String algorithm, String secret) {
+        try {
+            Mac prototype = Mac.getInstance(algorithm);
+            prototype.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), algorithm));
+            this.macs = ThreadLocal.withInitial(() -> {
+                try {
+                    return (Mac) prototype.clone();
+                } catch (CloneNotSupportedException e) {
+                    throw new IllegalStateException(algorithm + " Mac is not cloneable", e);
+                }
+            });
+            // Fail at startup, not on the first callback
+            macs.get();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialize " + algorithm, e);
+        }
+    }
+
+    /**
+     * Sign data
+     *
+     * @return Lowercase hex signature
+     */
+    public String sign(String data) {
+        Mac mac = macs.get();
+        // doFinal resets the Mac, so it is ready for the next call on this thread
+        return HexFormat.of().formatHex(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Verify a hex signature in constant time (case-insensitive)
+     */
+    public boolean verify(String data, String signature) {
+        if (signature == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+            sign(data).getBytes(StandardCharsets.US_ASCII),
+            signature.toLowerCase().getBytes(StandardCharsets.US_ASCII)
+        );
+    }
+}
@@ -0,0 +1,235 @@
+package com.swd.ticketbook.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Span exporter writing OTLP/JSON to local files
+ * Each exported batch becomes one line holding an ExportTraceServiceRequest
+ * (resourceSpans / scopeSpans / spans), the same layout as the OpenTelemetry
+ * Collector file exporter, so the files can be replayed into any OTLP backend.
+ * Files roll over by size and only the newest ones are kept. Called from the
+ * single batch-processor thread, never on a request thread.
+ */
+public class OtlpJsonFileSpanExporter implements SpanExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(OtlpJsonFileSpanExporter.class);
+
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int maxFiles;
+
+    private Writer writer;
+    private long written;
+
+    public OtlpJsonFileSpanExporter(Path directory, long maxFileBytes, int maxFiles) {
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        if (spans.isEmpty()) {
+            return CompletableResultCode.ofSuccess();
+        }
+        try {
+            String line = toJson(spans);
+            if (writer == null || written >= maxFileBytes) {
+                roll();
+            }
+            writer.write(line);
+            writer.write('\n');
+            writer.flush();
+            written += line.length() + 1;
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            log.warn("Could not write {} spans to {}: {}", spans.size(), directory, e.getMessage());
+            closeQuietly();
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        closeQuietly();
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private void roll() throws IOException {
+        closeQuietly();
+        Files.createDirectories(directory);
+        Path file = directory.resolve("spans-" + LocalDateTime.now().format(FILE_STAMP) + ".jsonl");
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        written = 0;
+        deleteOldFiles();
+    }
+
+    private void deleteOldFiles() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                .filter(path -> path.getFileName().toString().startsWith("spans-"))
+                .sorted()
+                .toList();
+        }
+        for (int i = 0; i < files.size() - maxFiles; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private void closeQuietly() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException ignored) {
+                // Nothing left to flush to a file we cannot write
+            }
+            writer = null;
+        }
+    }
+
+    private String toJson(Collection<SpanData> spans) throws IOException {
+        // Spans of one batch share a resource and a handful of scopes
+        Map<Resource, Map<InstrumentationScopeInfo, List<SpanData>>> grouped = new LinkedHashMap<>();
+        for (SpanData span : spans) {
+            grouped.computeIfAbsent(span.getResource(), key -> new LinkedHashMap<>())
+                .computeIfAbsent(span.getInstrumentationScopeInfo(), key -> new ArrayList<>())
+                .add(span);
+        }
+
+        StringWriter out = new StringWriter(256 * spans.size());
+        try (JsonGenerator json = jsonFactory.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("resourceSpans");
+            for (Map.Entry<Resource, Map<InstrumentationScopeInfo, List<SpanData>>> resource : grouped.entrySet()) {
+                json.writeStartObject();
+                json.writeObjectFieldStart("resource");
+                writeAttributes(json, resource.getKey().getAttributes());
+                json.writeEndObject();
+                json.writeArrayFieldStart("scopeSpans");
+                for (Map.Entry<InstrumentationScopeInfo, List<SpanData>> scope : resource.getValue().entrySet()) {
+                    json.writeStartObject();
+                    json.writeObjectFieldStart("scope");
+                    json.writeStringField("name", scope.getKey().getName());
+                    if (scope.getKey().getVersion() != null) {
+                        json.writeStringField("version", scope.getKey().getVersion());
+                    }
+                    json.writeEndObject();
+                    json.writeArrayFieldStart("spans");
+                    for (SpanData span : scope.getValue()) {
+                        writeSpan(json, span);
+                    }
+                    json.writeEndArray();
+                    json.writeEndObject();
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        return out.toString();
+    }
+
+    private void writeSpan(JsonGenerator json, SpanData span) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("traceId", span.getTraceId());
+        json.writeStringField("spanId", span.getSpanId());
+        if (span.getParentSpanContext().isValid()) {
+            json.writeStringField("parentSpanId", span.getParentSpanId());
+        }
+        json.writeStringField("name", span.getName());
+        // OTLP numbers span kinds from 1 (INTERNAL) in the SDK's declaration order
+        json.writeNumberField("kind", span.getKind().ordinal() + 1);
+        // 64-bit integers are strings in OTLP/JSON
+        json.writeStringField("startTimeUnixNano", Long.toString(span.getStartEpochNanos()));
+        json.writeStringField("endTimeUnixNano", Long.toString(span.getEndEpochNanos()));
+        writeAttributes(json, span.getAttributes());
+        if (!span.getEvents().isEmpty()) {
+            json.writeArrayFieldStart("events");
+            for (EventData event : span.getEvents()) {
+                json.writeStartObject();
+                json.writeStringField("timeUnixNano", Long.toString(event.getEpochNanos()));
+                json.writeStringField("name", event.getName());
+                writeAttributes(json, event.getAttributes());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        }
+        json.writeObjectFieldStart("status");
+        json.writeNumberField("code", span.getStatus().getStatusCode().ordinal());
+        if (!span.getStatus().getDescription().isEmpty()) {
+            json.writeStringField("message", span.getStatus().getDescription());
+        }
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    private void writeAttributes(JsonGenerator json, Attributes attributes) throws IOException {
+        json.writeArrayFieldStart("attributes");
+        for (Map.Entry<AttributeKey<?>, Object> attribute : attributes.asMap().entrySet()) {
+            json.writeStartObject();
+            json.writeStringField("key", attribute.getKey().getKey());
+            json.writeFieldName("value");
+            writeValue(json, attribute.getValue());
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+    }
+
+    private void writeValue(JsonGenerator json, Object value) throws IOException {
+        json.writeStartObject();
+        if (value instanceof Boolean bool) {
+            json.writeBooleanField("boolValue", bool);
+        } else if (value instanceof Long number) {
+            json.writeStringField("intValue", Long.toString(number));
+        } else if (value instanceof Double number) {
+            json.writeNumberField("doubleValue", number);
+        } else if (value instanceof List<?> list) {
+            json.writeObjectFieldStart("arrayValue");
+            json.writeArrayFieldStart("values");
+            for (Object element : list) {
+                writeValue(json, element);
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        } else {
+            json.writeStringField("stringValue", String.valueOf(value));
+        }
+        json.writeEndObject();
+    }
+}
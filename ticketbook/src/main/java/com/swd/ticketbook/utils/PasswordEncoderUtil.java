@@ -3,18 +3,23 @@ package com.swd.ticketbook.utils;
 import java.math.BigInteger;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.regex.Pattern;
 
 /**
  * Utility class for password encoding
  * Business Rule FR1: Password Encoding with MD5 hashing
  * 
- * NOTE: MD5 is deprecated and not secure for production use.
- * Consider using BCrypt or Argon2 for better security.
+ * NOTE: MD5 is kept only to verify legacy hashes. New hashes are produced by
+ * PasswordHashingService, which migrates MD5 hashes on the next successful login.
  */
 public class PasswordEncoderUtil {
 
+    // FR10: Compiled once instead of on every strength check
+    private static final Pattern HAS_LETTER = Pattern.compile("[A-Za-z]");
+    private static final Pattern HAS_DIGIT = Pattern.compile("\\d");
+
     /**
-     * Encode password using MD5 hash (FR1)
+     * Encode password using MD5 hash (legacy FR1 format)
      * 
      * @param password Plain text password
      * @return MD5 hashed password
@@ -44,8 +49,29 @@ public class PasswordEncoderUtil {
      * @return true if passwords match, false otherwise
      */
     public static boolean matches(String plainPassword, String hashedPassword) {
+        if (hashedPassword == null) {
+            return false;
+        }
         String hashedInput = encode(plainPassword);
-        return hashedInput.equals(hashedPassword);
+        return MessageDigest.isEqual(hashedInput.getBytes(), hashedPassword.getBytes());
+    }
+
+    /**
+     * Check if a stored hash is in the legacy unsalted MD5 format
+     * 
+     * @param hashedPassword Stored password hash
+     * @return true if hash is 32 hex characters without an algorithm prefix
+     */
+    public static boolean isLegacyHash(String hashedPassword) {
+        if (hashedPassword == null || hashedPassword.length() != 32) {
+            return false;
+        }
+        for (int i = 0; i < hashedPassword.length(); i++) {
+            if (Character.digit(hashedPassword.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -60,8 +86,8 @@ public class PasswordEncoderUtil {
             return false;
         }
         
-        boolean hasLetter = password.matches(".*[A-Za-z].*");
-        boolean hasDigit = password.matches(".*\\d.*");
+        boolean hasLetter = HAS_LETTER.matcher(password).find();
+        boolean hasDigit = HAS_DIGIT.matcher(password).find();
         
         return hasLetter && hasDigit;
     }
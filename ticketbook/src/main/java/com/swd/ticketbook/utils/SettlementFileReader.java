@@ -0,0 +1,190 @@
+package com.swd.ticketbook.utils;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+/**
+ * Streaming reader for VNPAY settlement files (CSV with a header row)
+ *
+ * Required columns, in any order: transaction_no, txn_ref, amount, pay_date
+ * (yyyyMMddHHmmss), response_code. Amounts are in VND, not VNPAY's x100 units.
+ * Reads through a buffered FileChannel, so memory use is independent of file size.
+ */
+public class SettlementFileReader implements Iterator<SettlementFileReader.Row>, Closeable {
+
+    public static final String KEY_COLUMN = "transaction_no";
+
+    private static final String[] REQUIRED = {KEY_COLUMN, "txn_ref", "amount", "pay_date", "response_code"};
+    private static final DateTimeFormatter PAY_DATE = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * One settled transaction
+     */
+    public record Row(long line, String transactionNo, String txnRef, BigDecimal amount,
+                      LocalDateTime payDate, String responseCode) {
+    }
+
+    private final FileChannel channel;
+    private final BufferedReader reader;
+    private final String header;
+    private final int[] columns;
+    private final BiConsumer<Long, String> malformedHandler;
+
+    private long lineNumber = 1;
+    private Row next;
+
+    /**
+     * @param file Settlement file
+     * @param malformedHandler Receives (line number, raw line) of rows that cannot be parsed
+     */
+    public SettlementFileReader(Path file, BiConsumer<Long, String> malformedHandler) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.reader = new BufferedReader(
+            new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.malformedHandler = malformedHandler;
+        try {
+            this.header = reader.readLine();
+            this.columns = columnIndexes(header);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    public String getHeader() {
+        return header;
+    }
+
+    /**
+     * Bytes consumed from the file so far (read-ahead included), for progress reporting
+     */
+    public long getBytesRead() {
+        try {
+            return channel.position();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (next == null) {
+                String line = reader.readLine();
+                if (line == null) {
+                    return false;
+                }
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                next = parse(line, lineNumber);
+                if (next == null && malformedHandler != null) {
+                    malformedHandler.accept(lineNumber, line);
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Row next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Row row = next;
+        next = null;
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+        channel.close();
+    }
+
+    /**
+     * Orders data lines of a file with the given header by transaction number
+     * (String order, matching ORDER BY ... COLLATE "C" for ASCII keys)
+     */
+    public static Comparator<String> lineOrder(String header) {
+        int keyIndex = columnIndexes(header)[0];
+        return Comparator.comparing(line -> field(line, keyIndex));
+    }
+
+    private Row parse(String line, long number) {
+        try {
+            String transactionNo = field(line, columns[0]);
+            String amount = field(line, columns[2]);
+            if (transactionNo.isEmpty() || amount.isEmpty()) {
+                return null;
+            }
+            return new Row(
+                number,
+                transactionNo,
+                field(line, columns[1]),
+                new BigDecimal(amount),
+                LocalDateTime.parse(field(line, columns[3]), PAY_DATE),
+                field(line, columns[4])
+            );
+        } catch (NumberFormatException | DateTimeParseException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private static int[] columnIndexes(String header) {
+        if (header == null) {
+            throw new IllegalArgumentException("Settlement file is empty");
+        }
+        Map<String, Integer> byName = new HashMap<>();
+        String[] names = header.split(",");
+        for (int i = 0; i < names.length; i++) {
+            byName.put(names[i].trim().toLowerCase(), i);
+        }
+        int[] indexes = new int[REQUIRED.length];
+        for (int i = 0; i < REQUIRED.length; i++) {
+            Integer index = byName.get(REQUIRED[i]);
+            if (index == null) {
+                throw new IllegalArgumentException("Settlement file is missing column " + REQUIRED[i]);
+            }
+            indexes[i] = index;
+        }
+        return indexes;
+    }
+
+    /**
+     * The n-th comma separated field, trimmed; settlement fields never contain commas
+     */
+    private static String field(String line, int index) {
+        int start = 0;
+        for (int i = 0; i < index; i++) {
+            start = line.indexOf(',', start) + 1;
+            if (start == 0) {
+                throw new IndexOutOfBoundsException("Missing field " + index);
+            }
+        }
+        int end = line.indexOf(',', start);
+        return (end < 0 ? line.substring(start) : line.substring(start, end)).trim();
+    }
+}
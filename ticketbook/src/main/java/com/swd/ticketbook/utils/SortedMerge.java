@@ -0,0 +1,61 @@
+package com.swd.ticketbook.utils;
+
+import java.util.Iterator;
+import java.util.function.Function;
+
+/**
+ * Sorted-merge join of two key-ordered streams in constant memory
+ * Both sides must be ascending by key; an equal key pairs with at most one
+ * partner. An out-of-order key fails fast instead of producing false mismatches.
+ */
+public final class SortedMerge {
+
+    private SortedMerge() {
+    }
+
+    public interface Handler<L, R> {
+        void matched(L left, R right);
+
+        void leftOnly(L left);
+
+        void rightOnly(R right);
+    }
+
+    public static <L, R> void merge(Iterator<L> left, Function<L, String> leftKey,
+                                    Iterator<R> right, Function<R, String> rightKey,
+                                    Handler<L, R> handler) {
+        L l = left.hasNext() ? left.next() : null;
+        R r = right.hasNext() ? right.next() : null;
+        String lastLeft = null;
+        String lastRight = null;
+
+        while (l != null || r != null) {
+            String lk = l != null ? checkOrder(leftKey.apply(l), lastLeft, "left") : null;
+            String rk = r != null ? checkOrder(rightKey.apply(r), lastRight, "right") : null;
+
+            int cmp = l == null ? 1 : r == null ? -1 : lk.compareTo(rk);
+            if (cmp == 0) {
+                handler.matched(l, r);
+            } else if (cmp < 0) {
+                handler.leftOnly(l);
+            } else {
+                handler.rightOnly(r);
+            }
+            if (cmp <= 0) {
+                lastLeft = lk;
+                l = left.hasNext() ? left.next() : null;
+            }
+            if (cmp >= 0) {
+                lastRight = rk;
+                r = right.hasNext() ? right.next() : null;
+            }
+        }
+    }
+
+    private static String checkOrder(String key, String previous, String side) {
+        if (previous != null && key.compareTo(previous) < 0) {
+            throw new IllegalStateException("Merge input (" + side + ") not ascending at key " + key);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,28 @@
+package com.swd.ticketbook.utils;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector counting the SQL statements prepared on the current thread
+ * Callers read the counter before and after a unit of work and take the difference,
+ * so nested measurements (service span around repository spans) need no reset.
+ * Statements are also handed to any open StatementScope (N+1 detection).
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        StatementScope.record(sql);
+        return sql;
+    }
+
+    /**
+     * Statements prepared on this thread so far
+     */
+    public static long current() {
+        return COUNT.get()[0];
+    }
+}
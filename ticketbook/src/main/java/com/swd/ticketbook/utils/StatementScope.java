@@ -0,0 +1,115 @@
+package com.swd.ticketbook.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL statements prepared on the current thread between open() and close()
+ * Scopes nest (an HTTP request around its transactions) and every open scope
+ * sees every statement. Hibernate SQL carries ? placeholders, so the same SELECT
+ * seen repeatedly is the same query with different parameters: the N+1 shape.
+ * The call stack is captured once per statement, when it reaches the repeat threshold.
+ */
+public final class StatementScope {
+
+    private static final ThreadLocal<ArrayDeque<StatementScope>> OPEN = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final int repeatThreshold;
+    private final Map<String, Repeat> bySql = new HashMap<>();
+    private int statements;
+
+    private StatementScope(int repeatThreshold) {
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    /**
+     * Open a scope on the current thread; close it in a finally block
+     */
+    public static StatementScope open(int repeatThreshold) {
+        StatementScope scope = new StatementScope(repeatThreshold);
+        OPEN.get().push(scope);
+        return scope;
+    }
+
+    /**
+     * Whether any scope is open on the current thread
+     */
+    public static boolean isOpen() {
+        return !OPEN.get().isEmpty();
+    }
+
+    static void record(String sql) {
+        ArrayDeque<StatementScope> open = OPEN.get();
+        if (open.isEmpty()) {
+            return;
+        }
+        // Repeated writes are batching candidates, not N+1 reads; only SELECTs are tracked per text
+        boolean select = sql.regionMatches(true, 0, "select", 0, 6);
+        StackTraceElement[] stack = null;
+        for (StatementScope scope : open) {
+            scope.statements++;
+            if (!select) {
+                continue;
+            }
+            Repeat repeat = scope.bySql.computeIfAbsent(sql, Repeat::new);
+            if (++repeat.count == scope.repeatThreshold) {
+                if (stack == null) {
+                    stack = new Throwable().getStackTrace();
+                }
+                repeat.stack = stack;
+            }
+        }
+    }
+
+    public void close() {
+        OPEN.get().remove(this);
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    /**
+     * Statements run at least repeatThreshold times in this scope, most repeated first
+     */
+    public List<Repeat> getRepeated() {
+        List<Repeat> repeated = new ArrayList<>();
+        for (Repeat repeat : bySql.values()) {
+            if (repeat.count >= repeatThreshold) {
+                repeated.add(repeat);
+            }
+        }
+        repeated.sort(Comparator.comparingInt(Repeat::getCount).reversed());
+        return repeated;
+    }
+
+    /**
+     * One statement text and how often it ran in the scope
+     */
+    public static final class Repeat {
+
+        private final String sql;
+        private int count;
+        private StackTraceElement[] stack;
+
+        private Repeat(String sql) {
+            this.sql = sql;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public StackTraceElement[] getStack() {
+            return stack;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+-- Align identity sequences with the batching profile (allocation size 50).
+-- Run once against an existing database before starting with
+-- spring.profiles.active=batching. Safe to re-run.
+ALTER TABLE tickets ALTER COLUMN ticket_id SET INCREMENT BY 50;
+ALTER TABLE orders ALTER COLUMN order_id SET INCREMENT BY 50;
+ALTER TABLE payments ALTER COLUMN payment_id SET INCREMENT BY 50;
+ALTER TABLE audit_logs ALTER COLUMN log_id SET INCREMENT BY 50;
+ALTER TABLE sessions ALTER COLUMN session_id SET INCREMENT BY 50;
+ALTER TABLE refund_info ALTER COLUMN request_id SET INCREMENT BY 50;
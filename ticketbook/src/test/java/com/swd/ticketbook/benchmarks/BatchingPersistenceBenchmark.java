@@ -0,0 +1,23 @@
+package com.swd.ticketbook.benchmarks;
+
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * "batching" profile: pooled sequence ids plus ordered JDBC batches
+ */
+@ActiveProfiles("batching")
+class BatchingPersistenceBenchmark extends PersistenceBatchingBenchmark {
+
+    @Override
+    String profile() {
+        return "batching";
+    }
+
+    @Override
+    void assertWriteStatements(String scenario, long statements) {
+        // batch_size=50 and allocation size 50: one batch plus at most one sequence call per 50 rows
+        assertThat(statements).as(scenario).isLessThanOrEqualTo(2L * ROWS / 50 + 2);
+    }
+}
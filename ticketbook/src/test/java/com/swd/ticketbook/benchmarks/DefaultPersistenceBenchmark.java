@@ -0,0 +1,19 @@
+package com.swd.ticketbook.benchmarks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Baseline: IDENTITY ids, no JDBC batching (one statement per row)
+ */
+class DefaultPersistenceBenchmark extends PersistenceBatchingBenchmark {
+
+    @Override
+    String profile() {
+        return "default";
+    }
+
+    @Override
+    void assertWriteStatements(String scenario, long statements) {
+        assertThat(statements).as(scenario).isGreaterThanOrEqualTo(ROWS);
+    }
+}
@@ -0,0 +1,200 @@
+package com.swd.ticketbook.benchmarks;
+
+import com.swd.ticketbook.entities.AuditLog;
+import com.swd.ticketbook.entities.Event;
+import com.swd.ticketbook.entities.Order;
+import com.swd.ticketbook.entities.Ticket;
+import com.swd.ticketbook.entities.TicketType;
+import com.swd.ticketbook.entities.User;
+import com.swd.ticketbook.enums.BookingStatus;
+import com.swd.ticketbook.repositories.AuditLogRepository;
+import com.swd.ticketbook.repositories.OrderRepository;
+import com.swd.ticketbook.repositories.TicketRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Statement-count benchmark for the write-heavy persistence paths
+ * Runs ticket issuance, audit writes and the order expiry sweep once per
+ * persistence profile and reports Hibernate statistics, so the default
+ * (IDENTITY, unbatched) and "batching" profiles can be compared side by side.
+ *
+ * Run: ./gradlew persistenceBenchmark
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:ticketbook-bench;MODE=PostgreSQL;NON_KEYWORDS=VALUE,TIMESTAMP,USER;IGNORE_UNKNOWN_SETTINGS=TRUE",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.SQL=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+abstract class PersistenceBatchingBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(PersistenceBatchingBenchmark.class);
+
+    static final int ROWS = 500;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Statistics statistics;
+    private User customer;
+    private Event event;
+    private TicketType ticketType;
+
+    /**
+     * Profile label used in the report
+     */
+    abstract String profile();
+
+    /**
+     * Assert the expected statement count for ROWS writes of one entity
+     */
+    abstract void assertWriteStatements(String scenario, long statements);
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        customer = new User();
+        customer.setFullName("Benchmark Customer");
+        customer.setContact("bench-" + System.nanoTime() + "@ticketbook.local");
+        customer.setRegistrationDate(LocalDateTime.now());
+        entityManager.persist(customer);
+
+        event = new Event();
+        event.setOrganizer(customer);
+        event.setName("Benchmark Event");
+        event.setStartDate(LocalDateTime.now().plusDays(7));
+        event.setEndDate(LocalDateTime.now().plusDays(8));
+        event.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(event);
+
+        ticketType = new TicketType();
+        ticketType.setEvent(event);
+        ticketType.setTypeName("General");
+        ticketType.setPrice(BigDecimal.TEN);
+        ticketType.setTicketQuantity(ROWS);
+        ticketType.setAvailableQuantity(ROWS);
+        entityManager.persist(ticketType);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void ticketIssuance() {
+        Order order = entityManager.persistFlushFind(newOrder(LocalDateTime.now().plusMinutes(15)));
+        TicketType type = entityManager.find(TicketType.class, ticketType.getTicketTypeId());
+
+        List<Ticket> tickets = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Ticket ticket = new Ticket();
+            ticket.setOrder(order);
+            ticket.setTicketType(type);
+            ticket.setQrCode("TKT-" + order.getOrderId() + "-" + i);
+            ticket.setCreatedAt(LocalDateTime.now());
+            tickets.add(ticket);
+        }
+
+        long statements = measure("ticket issuance", () -> ticketRepository.saveAll(tickets));
+        assertWriteStatements("ticket issuance", statements);
+    }
+
+    @Test
+    void auditWrites() {
+        List<AuditLog> entries = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            AuditLog entry = new AuditLog();
+            entry.setUserId(customer.getUserId());
+            entry.setActionType("LOGIN");
+            entry.setEntityType("USER");
+            entry.setEntityId(customer.getUserId());
+            entry.setTimestamp(LocalDateTime.now());
+            entry.setResult("SUCCESS");
+            entries.add(entry);
+        }
+
+        long statements = measure("audit writes", () -> auditLogRepository.saveAll(entries));
+        assertWriteStatements("audit writes", statements);
+    }
+
+    @Test
+    void expirySweep() {
+        for (int i = 0; i < ROWS; i++) {
+            entityManager.persist(newOrder(LocalDateTime.now().minusMinutes(1)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        long statements = measure("expiry sweep", () ->
+            orderRepository.findExpiredPendingOrders(LocalDateTime.now()).forEach(Order::expire));
+        // One SELECT for the sweep plus the UPDATE statements
+        assertWriteStatements("expiry sweep", statements - 1);
+    }
+
+    private Order newOrder(LocalDateTime reservationExpiresAt) {
+        Order order = new Order();
+        order.setUser(entityManager.find(User.class, customer.getUserId()));
+        order.setEvent(entityManager.find(Event.class, event.getEventId()));
+        order.setTotalAmount(BigDecimal.TEN);
+        order.setTotalQuantity(1);
+        order.setOrderDate(LocalDateTime.now());
+        order.setBookingStatus(BookingStatus.PENDING_PAYMENT);
+        order.setReservationExpiresAt(reservationExpiresAt);
+        return order;
+    }
+
+    /**
+     * Run the work, flush it, and report the JDBC statements it cost
+     *
+     * @return Prepared statements executed
+     */
+    private long measure(String scenario, Runnable work) {
+        statistics.clear();
+        long start = System.nanoTime();
+
+        work.run();
+        entityManager.flush();
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        long statements = statistics.getPrepareStatementCount();
+        log.info("[{}] {}: {} rows, {} statements, {} inserts, {} updates, {} ms",
+            profile(), scenario, ROWS, statements,
+            statistics.getEntityInsertCount(), statistics.getEntityUpdateCount(), elapsedMillis);
+        return statements;
+    }
+}
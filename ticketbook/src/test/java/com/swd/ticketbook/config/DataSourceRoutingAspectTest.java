@@ -0,0 +1,156 @@
+package com.swd.ticketbook.config;
+
+import com.swd.ticketbook.entities.User;
+import com.swd.ticketbook.enums.UserRole;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Service calls are routed by their annotations, and committed writes are remembered for read-your-writes
+ */
+class DataSourceRoutingAspectTest {
+
+    private final RoutingDataSource routingDataSource = mock(RoutingDataSource.class);
+    private final DataSourceRoutingAspect aspect = new DataSourceRoutingAspect();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(aspect, "routingDataSource", routingDataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RoutingDataSource.restore(null);
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readWriteTransactionUsesTheOltpPool() throws Throwable {
+        assertEquals(RoutingDataSource.Route.OLTP, routeOf(new Service(), "write"));
+    }
+
+    @Test
+    void readOnlyTransactionUsesAReplica() throws Throwable {
+        assertEquals(RoutingDataSource.Route.READ_ONLY, routeOf(new Service(), "read"));
+        assertEquals(RoutingDataSource.Route.READ_ONLY, routeOf(new ReadOnlyService(), "read"));
+    }
+
+    @Test
+    void reportingQueryUsesTheReportingPool() throws Throwable {
+        assertEquals(RoutingDataSource.Route.REPORTING, routeOf(new Service(), "report"));
+    }
+
+    @Test
+    void readOnlyCallFromAReportingQueryStaysOnTheReportingPool() throws Throwable {
+        RoutingDataSource.route(RoutingDataSource.Route.REPORTING);
+
+        assertEquals(RoutingDataSource.Route.REPORTING, routeOf(new Service(), "read"));
+        assertEquals(RoutingDataSource.Route.REPORTING, RoutingDataSource.currentRoute());
+    }
+
+    @Test
+    void routeIsRestoredAfterTheCall() throws Throwable {
+        routeOf(new Service(), "read");
+
+        assertNull(RoutingDataSource.currentRoute());
+    }
+
+    @Test
+    void committedWriteIsRecordedAndSentAsCookie() throws Throwable {
+        when(routingDataSource.hasReplicas()).thenReturn(true);
+        when(routingDataSource.readYourWritesWindowMillis()).thenReturn(2500L);
+        signIn(7L);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), response));
+
+        routeOf(new Service(), "write");
+        routeOf(new Service(), "write");
+
+        verify(routingDataSource, times(2)).recordWrite(eq(7L), anyLong());
+        assertNotNull(response.getCookie(DataSourceRoutingAspect.LAST_WRITE_COOKIE));
+        assertEquals(3, response.getCookie(DataSourceRoutingAspect.LAST_WRITE_COOKIE).getMaxAge());
+        assertEquals(1, response.getCookies().length);
+    }
+
+    @Test
+    void readsAndAnonymousWritesAreNotRecorded() throws Throwable {
+        when(routingDataSource.hasReplicas()).thenReturn(true);
+
+        routeOf(new Service(), "write");
+        signIn(7L);
+        routeOf(new Service(), "read");
+
+        verify(routingDataSource, never()).recordWrite(anyLong(), anyLong());
+    }
+
+    private RoutingDataSource.Route routeOf(Object target, String methodName) throws Throwable {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(target.getClass().getDeclaredMethod(methodName));
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getTarget()).thenReturn(target);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        AtomicReference<RoutingDataSource.Route> route = new AtomicReference<>();
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            route.set(RoutingDataSource.currentRoute());
+            return null;
+        });
+
+        aspect.route(joinPoint);
+        return route.get();
+    }
+
+    private void signIn(Long userId) {
+        User user = new User("Customer", "customer@example.com", "hash", UserRole.CUSTOMER);
+        user.setUserId(userId);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    static class Service {
+
+        @Transactional
+        public void write() {
+        }
+
+        @Transactional(readOnly = true)
+        public void read() {
+        }
+
+        @ReportingQuery
+        public void report() {
+        }
+    }
+
+    @Transactional(readOnly = true)
+    static class ReadOnlyService {
+
+        public void read() {
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.swd.ticketbook.config;
+
+import com.swd.ticketbook.entities.User;
+import com.swd.ticketbook.enums.UserRole;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Read-only connections go to a caught-up replica, else to the primary with the reason counted
+ */
+class RoutingDataSourceTest {
+
+    private static final Long USER_ID = 7L;
+
+    private final HikariDataSource oltp = mock(HikariDataSource.class);
+    private final HikariDataSource reporting = mock(HikariDataSource.class);
+    private final HikariDataSource replicaPool = mock(HikariDataSource.class);
+    private final Connection oltpConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RoutingDataSource.Replica replica = new RoutingDataSource.Replica("replica-1", replicaPool);
+    private RoutingDataSource dataSource;
+    private RoutingDataSource.Route previous;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(oltp.getConnection()).thenReturn(oltpConnection);
+        when(replicaPool.getConnection()).thenReturn(replicaConnection);
+        dataSource = new RoutingDataSource(oltp, reporting, List.of(replica), new ReadReplicaProperties(), meterRegistry);
+        previous = RoutingDataSource.route(RoutingDataSource.Route.READ_ONLY);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RoutingDataSource.restore(previous);
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void caughtUpReplicaServesReads() throws SQLException {
+        assertSame(replicaConnection, dataSource.getConnection());
+
+        assertEquals(1.0, reads("replica", "none"));
+    }
+
+    @Test
+    void writesAndUnroutedCallsUseThePrimary() throws SQLException {
+        RoutingDataSource.route(RoutingDataSource.Route.OLTP);
+
+        assertSame(oltpConnection, dataSource.getConnection());
+
+        verifyNoInteractions(replicaPool);
+    }
+
+    @Test
+    void unavailableReplicaIsSkipped() throws SQLException {
+        ReflectionTestUtils.setField(replica, "available", false);
+
+        assertSame(oltpConnection, dataSource.getConnection());
+
+        assertEquals(1.0, reads("primary", "unavailable"));
+    }
+
+    @Test
+    void replicaThatFailsToConnectIsMarkedUnavailable() throws SQLException {
+        when(replicaPool.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertSame(oltpConnection, dataSource.getConnection());
+        assertSame(oltpConnection, dataSource.getConnection());
+
+        assertEquals(2.0, reads("primary", "unavailable"));
+        assertFalse((Boolean) ReflectionTestUtils.getField(replica, "available"));
+    }
+
+    @Test
+    void replicaLaggingPastMaxLagIsSkipped() throws SQLException {
+        ReflectionTestUtils.setField(replica, "lagMillis", 5000L);
+
+        assertSame(oltpConnection, dataSource.getConnection());
+
+        assertEquals(1.0, reads("primary", "lagging"));
+    }
+
+    @Test
+    void userWhoJustWroteOnThisNodeReadsFromThePrimary() throws SQLException {
+        signIn(USER_ID);
+        dataSource.recordWrite(USER_ID, System.currentTimeMillis());
+
+        assertSame(oltpConnection, dataSource.getConnection());
+        assertEquals(1.0, reads("primary", "read_your_writes"));
+
+        signIn(8L);
+        assertSame(replicaConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void lastWriteCookieFromAnotherNodeKeepsReadsOnThePrimary() throws SQLException {
+        withLastWriteCookie(System.currentTimeMillis());
+
+        assertSame(oltpConnection, dataSource.getConnection());
+
+        assertEquals(1.0, reads("primary", "read_your_writes"));
+    }
+
+    @Test
+    void writeOlderThanReplicaLagReadsFromTheReplica() throws SQLException {
+        ReflectionTestUtils.setField(replica, "lagMillis", 1000L);
+        withLastWriteCookie(System.currentTimeMillis() - 2000);
+
+        assertSame(replicaConnection, dataSource.getConnection());
+    }
+
+    private void signIn(Long userId) {
+        User user = new User("Customer", "customer@example.com", "hash", UserRole.CUSTOMER);
+        user.setUserId(userId);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    private void withLastWriteCookie(long writtenAt) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(DataSourceRoutingAspect.LAST_WRITE_COOKIE, Long.toString(writtenAt)));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private double reads(String target, String fallback) {
+        return meterRegistry.counter("ticketbook.datasource.reads", "target", target, "fallback", fallback).count();
+    }
+}
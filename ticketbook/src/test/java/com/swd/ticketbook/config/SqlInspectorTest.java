@@ -0,0 +1,118 @@
+package com.swd.ticketbook.config;
+
+import com.swd.ticketbook.utils.StatementCounter;
+import com.swd.ticketbook.utils.StatementScope;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.PropertiesPropertySourceLoader;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Endpoint statement budgets and N+1 call sites, without a database
+ */
+class SqlInspectorTest {
+
+    private static final String ENDPOINT = "GET /api/orders/{orderId}";
+    private static final String SELECT_TICKETS = "select t1_0.ticket_id from tickets t1_0 where t1_0.order_id=?";
+
+    private final StatementCounter counter = new StatementCounter();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void requestOverBudgetIsAViolation() {
+        SqlInspector inspector = inspector(budgets(ENDPOINT, 2));
+
+        request(inspector, ENDPOINT, 3);
+
+        assertEquals(List.of(ENDPOINT + ": 3 statements (budget 2)"), inspector.getBudgetViolations());
+    }
+
+    @Test
+    void requestWithinBudgetOrWithoutOneIsNotAViolation() {
+        SqlInspector inspector = inspector(budgets(ENDPOINT, 2));
+
+        request(inspector, ENDPOINT, 2);
+        request(inspector, "GET /api/events", 40);
+
+        assertTrue(inspector.getBudgetViolations().isEmpty());
+    }
+
+    @Test
+    void testProfileBudgetsBindAndAreEnforced() throws IOException {
+        SqlInspectorProperties properties = testProfile();
+        SqlInspector inspector = inspector(properties);
+        assertFalse(properties.getBudgets().isEmpty());
+
+        for (SqlInspectorProperties.Budget budget : properties.getBudgets()) {
+            request(inspector, budget.getEndpoint(), budget.getMaxStatements());
+        }
+        assertTrue(inspector.getBudgetViolations().isEmpty());
+
+        for (SqlInspectorProperties.Budget budget : properties.getBudgets()) {
+            request(inspector, budget.getEndpoint(), budget.getMaxStatements() + 1);
+        }
+        assertEquals(properties.getBudgets().size(), inspector.getBudgetViolations().size());
+    }
+
+    @Test
+    void repeatedSelectIsRecordedOnceInTheOutermostScope() {
+        SqlInspector inspector = inspector(new SqlInspectorProperties());
+
+        StatementScope request = inspector.open();
+        StatementScope transaction = inspector.open();
+        for (int i = 0; i < 4; i++) {
+            counter.inspect(SELECT_TICKETS);
+        }
+        inspector.closeTransaction(transaction, "OrderService.getOrderDetails");
+        assertTrue(inspector.getWorstOffenders(10).isEmpty());
+        inspector.closeRequest(request, ENDPOINT);
+
+        List<SqlInspector.Offender> offenders = inspector.getWorstOffenders(10);
+        assertEquals(1, offenders.size());
+        assertEquals(SELECT_TICKETS, offenders.get(0).getSql());
+        assertEquals(ENDPOINT, offenders.get(0).getScope());
+        assertEquals(4, offenders.get(0).getMaxRepeats());
+        assertEquals(1.0, meterRegistry.counter("ticketbook.sql.repeated").count());
+    }
+
+    private void request(SqlInspector inspector, String endpoint, int statements) {
+        StatementScope scope = inspector.open();
+        for (int i = 0; i < statements; i++) {
+            counter.inspect("select s1_0.id from statement_" + i + " s1_0");
+        }
+        inspector.closeRequest(scope, endpoint);
+    }
+
+    private SqlInspector inspector(SqlInspectorProperties properties) {
+        SqlInspector inspector = new SqlInspector();
+        ReflectionTestUtils.setField(inspector, "properties", properties);
+        ReflectionTestUtils.setField(inspector, "meterRegistry", meterRegistry);
+        inspector.init();
+        return inspector;
+    }
+
+    private static SqlInspectorProperties budgets(String endpoint, int maxStatements) {
+        SqlInspectorProperties.Budget budget = new SqlInspectorProperties.Budget();
+        budget.setEndpoint(endpoint);
+        budget.setMaxStatements(maxStatements);
+        SqlInspectorProperties properties = new SqlInspectorProperties();
+        properties.getBudgets().add(budget);
+        return properties;
+    }
+
+    private static SqlInspectorProperties testProfile() throws IOException {
+        Binder binder = new Binder(ConfigurationPropertySources.from(new PropertiesPropertySourceLoader()
+            .load("application-test", new ClassPathResource("application-test.properties"))));
+        return binder.bind("ticketbook.sql-inspector", SqlInspectorProperties.class).get();
+    }
+}
@@ -0,0 +1,112 @@
+package com.swd.ticketbook.controllers;
+
+import com.swd.ticketbook.dto.ApiResponse;
+import com.swd.ticketbook.dto.order.OrderResponse;
+import com.swd.ticketbook.entities.User;
+import com.swd.ticketbook.enums.UserRole;
+import com.swd.ticketbook.services.OrderService;
+import com.swd.ticketbook.services.WaitingRoomService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Conditional order reads: a matching If-None-Match is answered 304 without loading the order
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderControllerTest {
+
+    private static final Long USER_ID = 7L;
+    private static final Long ORDER_ID = 11L;
+    private static final String ETAG = "W/\"11.2.1.2.4\"";
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private WaitingRoomService waitingRoomService;
+
+    @InjectMocks
+    private OrderController orderController;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User("Customer", "customer@example.com", "hash", UserRole.CUSTOMER);
+        user.setUserId(USER_ID);
+    }
+
+    @Test
+    void unchangedOrderIsNotModified() {
+        when(orderService.getOrderETag(USER_ID, ORDER_ID)).thenReturn(ETAG);
+
+        ResponseEntity<ApiResponse<OrderResponse>> response = orderController.getOrderDetails(ORDER_ID, ETAG, user);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(orderService, never()).getOrderDetails(anyLong(), anyLong());
+    }
+
+    @Test
+    void changedOrderIsSentWithItsNewTag() {
+        OrderResponse order = new OrderResponse();
+        when(orderService.getOrderETag(USER_ID, ORDER_ID)).thenReturn(ETAG);
+        when(orderService.getOrderDetails(USER_ID, ORDER_ID)).thenReturn(order);
+
+        ResponseEntity<ApiResponse<OrderResponse>> response =
+            orderController.getOrderDetails(ORDER_ID, "W/\"11.1.1.2.4\"", user);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+        assertSame(order, response.getBody().getData());
+    }
+
+    @Test
+    void unknownOrderIsLoadedSoItsErrorIsReturned() {
+        when(orderService.getOrderETag(USER_ID, ORDER_ID)).thenReturn(null);
+        when(orderService.getOrderDetails(USER_ID, ORDER_ID)).thenReturn(new OrderResponse());
+
+        orderController.getOrderDetails(ORDER_ID, "*", user);
+
+        verify(orderService).getOrderDetails(USER_ID, ORDER_ID);
+    }
+
+    @Test
+    void unchangedPendingOrderIsNotModified() {
+        when(orderService.getActivePendingOrderETag(USER_ID)).thenReturn(ETAG);
+
+        ResponseEntity<ApiResponse<OrderResponse>> response = orderController.getActivePendingOrder(ETAG, user);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("no-cache, private", response.getHeaders().getCacheControl());
+        verify(orderService, never()).getActivePendingOrder(anyLong());
+    }
+
+    @Test
+    void noPendingOrderIsNeverNotModified() {
+        when(orderService.getActivePendingOrderETag(USER_ID)).thenReturn(null);
+        when(orderService.getActivePendingOrder(USER_ID)).thenReturn(Optional.empty());
+
+        ResponseEntity<ApiResponse<OrderResponse>> response = orderController.getActivePendingOrder(ETAG, user);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getBody().getData());
+    }
+}
@@ -0,0 +1,83 @@
+package com.swd.ticketbook.controllers;
+
+import com.swd.ticketbook.config.HttpCacheProperties;
+import com.swd.ticketbook.dto.ApiResponse;
+import com.swd.ticketbook.dto.event.PublicEventResponse;
+import com.swd.ticketbook.exceptions.ResourceNotFoundException;
+import com.swd.ticketbook.services.AvailabilityBroadcaster;
+import com.swd.ticketbook.services.EventService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Conditional event details: a matching If-None-Match is answered 304 without loading the event
+ */
+@ExtendWith(MockitoExtension.class)
+class PublicEventControllerTest {
+
+    private static final Long EVENT_ID = 3L;
+    private static final String ETAG = "W/\"3.4.3.12.9.0\"";
+
+    @Mock
+    private EventService eventService;
+
+    @Mock
+    private AvailabilityBroadcaster availabilityBroadcaster;
+
+    @Spy
+    private HttpCacheProperties httpCacheProperties;
+
+    @InjectMocks
+    private PublicEventController publicEventController;
+
+    @Test
+    void unchangedEventIsNotModified() {
+        when(eventService.getPublicEventETag(EVENT_ID)).thenReturn(ETAG);
+
+        ResponseEntity<ApiResponse<PublicEventResponse>> response =
+            publicEventController.getEventById(EVENT_ID, "W/\"3.4.3.11.9.0\", " + ETAG);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+        assertEquals(httpCacheProperties.catalogCacheControl().getHeaderValue(), response.getHeaders().getCacheControl());
+        assertNull(response.getBody());
+        verify(eventService, never()).getPublicEventById(anyLong());
+    }
+
+    @Test
+    void changedEventIsSentWithItsNewTag() {
+        PublicEventResponse event = new PublicEventResponse();
+        when(eventService.getPublicEventETag(EVENT_ID)).thenReturn(ETAG);
+        when(eventService.getPublicEventById(EVENT_ID)).thenReturn(event);
+
+        ResponseEntity<ApiResponse<PublicEventResponse>> response =
+            publicEventController.getEventById(EVENT_ID, "W/\"3.4.3.11.9.0\"");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+        assertSame(event, response.getBody().getData());
+    }
+
+    @Test
+    void eventThatIsNoLongerPublicIsNotFoundEvenForAWildcard() {
+        when(eventService.getPublicEventETag(EVENT_ID)).thenReturn(null);
+        when(eventService.getPublicEventById(EVENT_ID)).thenThrow(new ResourceNotFoundException("Event not found"));
+
+        assertThrows(ResourceNotFoundException.class, () -> publicEventController.getEventById(EVENT_ID, "*"));
+    }
+}
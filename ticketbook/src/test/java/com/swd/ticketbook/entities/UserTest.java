@@ -0,0 +1,56 @@
+package com.swd.ticketbook.entities;
+
+import com.swd.ticketbook.enums.UserRole;
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The user is the security principal and is used outside any persistence context:
+ * toString/equals/hashCode must not touch its lazy associations
+ */
+class UserTest {
+
+    @Test
+    void objectMethodsDoNotLoadLazyAssociations() {
+        User user = user();
+        user.setSessions(new DetachedSet<>());
+
+        assertDoesNotThrow(user::toString);
+        assertDoesNotThrow(user::hashCode);
+        assertEquals(user, copyWithDetachedSessions(user));
+    }
+
+    private static User user() {
+        User user = new User("Customer", "customer@example.com", "hash", UserRole.CUSTOMER);
+        user.setUserId(42L);
+        return user;
+    }
+
+    private static User copyWithDetachedSessions(User source) {
+        User copy = user();
+        copy.setRegistrationDate(source.getRegistrationDate());
+        copy.setSessions(new DetachedSet<>());
+        return copy;
+    }
+
+    /**
+     * Stand-in for an uninitialized lazy collection of a detached entity
+     */
+    private static final class DetachedSet<E> extends AbstractSet<E> {
+
+        @Override
+        public Iterator<E> iterator() {
+            throw new IllegalStateException("failed to lazily initialize a collection: no session");
+        }
+
+        @Override
+        public int size() {
+            throw new IllegalStateException("failed to lazily initialize a collection: no session");
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.swd.ticketbook.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP driver for the load test
+ * Every call is timed into an HdrHistogram per endpoint label (path variables
+ * collapsed, e.g. "GET /api/orders/{id}"), together with 4xx and 5xx/IO counts.
+ */
+final class LoadTestClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    LoadTestClient(String baseUrl, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+    }
+
+    record Response(int status, JsonNode body, HttpResponse<String> raw) {
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+
+        JsonNode data() {
+            return body.path("data");
+        }
+
+        String header(String name) {
+            return raw != null ? raw.headers().firstValue(name).orElse(null) : null;
+        }
+    }
+
+    Response get(String endpoint, String pathOrUrl, String token, String... headers) {
+        return send(endpoint, request(pathOrUrl, token, headers).GET());
+    }
+
+    Response post(String endpoint, String path, String token, Object body, String... headers) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+        return send(endpoint, request(path, token, headers)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json)));
+    }
+
+    /**
+     * Record a latency that spans several calls (e.g. payment redirect to confirmed order)
+     */
+    void record(String endpoint, long elapsedNanos, boolean success) {
+        stats.computeIfAbsent(endpoint, key -> new EndpointStats()).record(elapsedNanos, success ? 200 : 500);
+    }
+
+    /**
+     * Statistics collected since the previous call, keyed by endpoint label
+     */
+    Map<String, EndpointStats> drain() {
+        Map<String, EndpointStats> snapshot = new TreeMap<>(stats);
+        stats.clear();
+        return snapshot;
+    }
+
+    private HttpRequest.Builder request(String pathOrUrl, String token, String... headers) {
+        URI uri = URI.create(pathOrUrl.startsWith("http") ? pathOrUrl : baseUrl + pathOrUrl);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        for (int i = 0; i + 1 < headers.length; i += 2) {
+            builder.header(headers[i], headers[i + 1]);
+        }
+        return builder;
+    }
+
+    private Response send(String endpoint, HttpRequest.Builder builder) {
+        long start = System.nanoTime();
+        int status = 0;
+        try {
+            HttpResponse<String> response = http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+            status = response.statusCode();
+            String body = response.body();
+            JsonNode json = body == null || body.isBlank() ? MissingNode.getInstance() : readTree(body);
+            return new Response(status, json, response);
+        } catch (IOException e) {
+            return new Response(0, MissingNode.getInstance(), null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling " + endpoint, e);
+        } finally {
+            stats.computeIfAbsent(endpoint, key -> new EndpointStats()).record(System.nanoTime() - start, status);
+        }
+    }
+
+    private JsonNode readTree(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (JsonProcessingException e) {
+            // SSE frames, redirects with HTML bodies and the like
+            return MissingNode.getInstance();
+        }
+    }
+
+    /**
+     * Latency histogram (microseconds) and outcome counts for one endpoint
+     */
+    static final class EndpointStats {
+        final Histogram latencyMicros = new ConcurrentHistogram(3);
+        final LongAdder rejected = new LongAdder();
+        final LongAdder errors = new LongAdder();
+
+        void record(long elapsedNanos, int status) {
+            latencyMicros.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(elapsedNanos)));
+            if (status == 0 || status >= 500) {
+                errors.increment();
+            } else if (status >= 400) {
+                rejected.increment();
+            }
+        }
+    }
+}
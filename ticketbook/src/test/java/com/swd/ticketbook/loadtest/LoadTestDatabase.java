@@ -0,0 +1,43 @@
+package com.swd.ticketbook.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Embedded PostgreSQL for the load test, started once per JVM
+ * The binaries come from the test classpath, so no local install or network is needed.
+ */
+final class LoadTestDatabase {
+
+    private static EmbeddedPostgres postgres;
+
+    private LoadTestDatabase() {
+    }
+
+    static synchronized String jdbcUrl(int maxConnections) {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.builder()
+                    .setServerConfig("max_connections", String.valueOf(maxConnections))
+                    // Throwaway cluster: durability only costs time here
+                    .setServerConfig("fsync", "off")
+                    .setServerConfig("synchronous_commit", "off")
+                    .start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot start embedded PostgreSQL (it refuses to run as root)", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(LoadTestDatabase::stop, "embedded-postgres-stop"));
+        }
+        return postgres.getJdbcUrl("postgres", "postgres");
+    }
+
+    private static synchronized void stop() {
+        try {
+            postgres.close();
+        } catch (IOException ignored) {
+            // JVM is exiting; the data directory is temporary anyway
+        }
+    }
+}
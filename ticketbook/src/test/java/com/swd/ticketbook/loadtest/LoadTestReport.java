@@ -0,0 +1,128 @@
+package com.swd.ticketbook.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-phase throughput, latency percentiles and statement counts of a load-test run
+ * Logged as a table after each phase and written as JSON at the end, so two
+ * runs (e.g. main and a branch) can be diffed.
+ */
+final class LoadTestReport {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestReport.class);
+
+    private final LoadTestSettings settings;
+    private final List<PhaseResult> phases = new ArrayList<>();
+    private final Map<String, Object> outcome = new LinkedHashMap<>();
+
+    LoadTestReport(LoadTestSettings settings) {
+        this.settings = settings;
+    }
+
+    record EndpointResult(String endpoint, long count, long rejected, long errors,
+                          double p50Ms, double p99Ms, double p999Ms, double maxMs) {
+    }
+
+    record PhaseResult(String phase, long durationMs, long requests, double requestsPerSecond,
+                       long statements, double statementsPerRequest, List<EndpointResult> endpoints) {
+    }
+
+    record Run(LoadTestSettings settings, List<PhaseResult> phases, Map<String, Object> outcome) {
+    }
+
+    /**
+     * Add a finished phase
+     *
+     * @param elapsedNanos Wall-clock time of the phase
+     * @param endpoints Statistics drained from the client
+     * @param statements JDBC statements the application prepared during the phase
+     */
+    void addPhase(String phase, long elapsedNanos, Map<String, LoadTestClient.EndpointStats> endpoints, long statements) {
+        List<EndpointResult> results = new ArrayList<>();
+        long requests = 0;
+        for (Map.Entry<String, LoadTestClient.EndpointStats> entry : endpoints.entrySet()) {
+            Histogram histogram = entry.getValue().latencyMicros;
+            results.add(new EndpointResult(
+                entry.getKey(),
+                histogram.getTotalCount(),
+                entry.getValue().rejected.sum(),
+                entry.getValue().errors.sum(),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue())
+            ));
+            // Spans measured across several calls are not requests of their own
+            if (entry.getKey().contains(" /")) {
+                requests += histogram.getTotalCount();
+            }
+        }
+
+        double seconds = Math.max(elapsedNanos, 1) / 1e9;
+        PhaseResult result = new PhaseResult(phase, Math.round(seconds * 1000), requests,
+            round(requests / seconds), statements, requests > 0 ? round((double) statements / requests) : 0, results);
+        phases.add(result);
+        print(result);
+    }
+
+    /**
+     * Record a business outcome (orders confirmed, sold-out rejections, oversell check, ...)
+     */
+    void put(String key, Object value) {
+        outcome.put(key, value);
+    }
+
+    /**
+     * Write the report as JSON
+     *
+     * @return Path of the written file
+     */
+    Path write(ObjectMapper objectMapper) throws IOException {
+        Files.createDirectories(settings.reportDir());
+        Path file = settings.reportDir().resolve(
+            "loadtest-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        objectMapper.copy()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .writeValue(file.toFile(), new Run(settings, phases, outcome));
+        log.info("Load test outcome: {}", outcome);
+        log.info("Load test report written to {}", file.toAbsolutePath());
+        return file;
+    }
+
+    private void print(PhaseResult result) {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%n[%s] %d ms, %d requests, %.1f req/s, %d statements (%.2f per request)%n",
+            result.phase(), result.durationMs(), result.requests(), result.requestsPerSecond(),
+            result.statements(), result.statementsPerRequest()));
+        table.append(String.format("  %-44s %8s %8s %7s %9s %9s %9s %9s%n",
+            "endpoint", "count", "4xx", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (EndpointResult endpoint : result.endpoints()) {
+            table.append(String.format("  %-44s %8d %8d %7d %9.2f %9.2f %9.2f %9.2f%n",
+                endpoint.endpoint(), endpoint.count(), endpoint.rejected(), endpoint.errors(),
+                endpoint.p50Ms(), endpoint.p99Ms(), endpoint.p999Ms(), endpoint.maxMs()));
+        }
+        log.info(table.toString());
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,62 @@
+package com.swd.ticketbook.loadtest;
+
+import java.nio.file.Path;
+
+/**
+ * Load-test knobs, read from -PloadTest.* Gradle properties (passed through as system properties)
+ *
+ * @param events Events to seed
+ * @param ticketTypesPerEvent Ticket types per event
+ * @param ticketsPerType Tickets per ticket type
+ * @param shards Inventory shards per ticket type (1 = unsharded)
+ * @param users Customers; each runs the full browse/buy flow once
+ * @param concurrency Customers running at the same time
+ * @param maxTicketsPerOrder Upper bound of the random quantity per order
+ * @param hotEventPercent Share of buyers sent to the first event, so it sells out under contention
+ * @param browseRounds Catalog and detail reads per customer before buying
+ * @param refundPercent Share of confirmed orders that request (and get) a refund
+ * @param checkInPercent Share of remaining tickets scanned at the gate
+ * @param poolSize Application connection pool size
+ * @param replicas Read replica pools for read-only service transactions (0 = primary only); they
+ *                 point at the same embedded PostgreSQL, so they exercise routing, not replication
+ * @param traceSampling Share of requests traced (spans are written under reportDir/traces)
+ * @param reportDir Where the JSON report is written
+ */
+record LoadTestSettings(
+    int events,
+    int ticketTypesPerEvent,
+    int ticketsPerType,
+    int shards,
+    int users,
+    int concurrency,
+    int maxTicketsPerOrder,
+    int hotEventPercent,
+    int browseRounds,
+    int refundPercent,
+    int checkInPercent,
+    int poolSize,
+    int replicas,
+    double traceSampling,
+    Path reportDir
+) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+            Integer.getInteger("loadTest.events", 5),
+            Integer.getInteger("loadTest.ticketTypesPerEvent", 3),
+            Integer.getInteger("loadTest.ticketsPerType", 200),
+            Integer.getInteger("loadTest.shards", 1),
+            Integer.getInteger("loadTest.users", 1000),
+            Integer.getInteger("loadTest.concurrency", 50),
+            Integer.getInteger("loadTest.maxTicketsPerOrder", 2),
+            Integer.getInteger("loadTest.hotEventPercent", 50),
+            Integer.getInteger("loadTest.browseRounds", 3),
+            Integer.getInteger("loadTest.refundPercent", 10),
+            Integer.getInteger("loadTest.checkInPercent", 80),
+            Integer.getInteger("loadTest.poolSize", 20),
+            Integer.getInteger("loadTest.replicas", 1),
+            Double.parseDouble(System.getProperty("loadTest.traceSampling", "0.05")),
+            Path.of(System.getProperty("loadTest.reportDir", "build/reports/loadtest"))
+        );
+    }
+}
@@ -0,0 +1,665 @@
+package com.swd.ticketbook.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swd.ticketbook.config.SqlInspector;
+import com.swd.ticketbook.entities.Event;
+import com.swd.ticketbook.entities.TicketType;
+import com.swd.ticketbook.entities.User;
+import com.swd.ticketbook.enums.EventStatus;
+import com.swd.ticketbook.enums.UserRole;
+import com.swd.ticketbook.repositories.EventRepository;
+import com.swd.ticketbook.repositories.TicketTypeRepository;
+import com.swd.ticketbook.repositories.UserRepository;
+import com.swd.ticketbook.services.CheckInScanService;
+import com.swd.ticketbook.services.InventoryService;
+import com.swd.ticketbook.services.PasswordHashingService;
+import com.swd.ticketbook.services.WaitingRoomService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test of an on-sale: browse, queue, order, pay, confirm, refund, check in
+ * Boots the whole application on a free port against an embedded PostgreSQL,
+ * seeds events, ticket types and customers, and drives the public HTTP API with
+ * a fixed number of concurrent customers. Payments go through the VNPAY stub,
+ * so confirmations take the real IPN and callback-worker path. Each phase
+ * reports throughput, p50/p99/p99.9 latency per endpoint and the JDBC
+ * statements it cost; the run ends with an oversell check straight on the tables
+ * and a Prometheus scrape of the server's own meters (hence @AutoConfigureObservability).
+ * The test profile turns on the SQL inspector: requests over their statement budget fail the run.
+ *
+ * Run: ./gradlew loadTest [-PloadTest.users=5000 -PloadTest.concurrency=200 -PloadTest.shards=8 ...]
+ * (see LoadTestSettings for all knobs; must not run as root)
+ */
+@Tag("loadtest")
+@AutoConfigureObservability
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT, properties = {
+    "spring.datasource.username=postgres",
+    "spring.datasource.password=",
+    "spring.jpa.show-sql=false",
+    "logging.level.com.swd.ticketbook=INFO",
+    "logging.level.org.springframework.security=WARN",
+    "logging.level.org.hibernate.SQL=WARN",
+    // The crowd comes from one address and is admitted as fast as the order path allows
+    "ticketbook.rate-limit.enabled=false",
+    "ticketbook.waiting-room.admit-per-minute=60000",
+    "ticketbook.waiting-room.admit-burst=500",
+    "ticketbook.vnpay.stub-enabled=true"
+})
+class TicketingLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketingLoadTest.class);
+
+    private static final LoadTestSettings SETTINGS = LoadTestSettings.fromSystemProperties();
+    private static final int PORT = freePort();
+    private static final int MANAGEMENT_PORT = freePort();
+    private static final String PASSWORD = "LoadTest#2024";
+    private static final long CONFIRM_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final long ADMISSION_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private SqlInspector sqlInspector;
+
+    @Autowired
+    private CheckInScanService checkInScanService;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private WaitingRoomService waitingRoomService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private LoadTestClient client;
+    private LoadTestReport report;
+    private Statistics statistics;
+
+    private final List<Long> eventIds = new ArrayList<>();
+    private final Map<Long, List<Long>> ticketTypesByEvent = new HashMap<>();
+    private final List<Customer> customers = new ArrayList<>();
+    private String organizerToken;
+    private String adminToken;
+
+    private final AtomicInteger confirmed = new AtomicInteger();
+    private final AtomicInteger soldOut = new AtomicInteger();
+    private final AtomicInteger unconfirmed = new AtomicInteger();
+    private final AtomicInteger refunded = new AtomicInteger();
+    private final AtomicInteger checkedIn = new AtomicInteger();
+    private final AtomicInteger dashboardPolls = new AtomicInteger();
+    private final AtomicInteger failedFlows = new AtomicInteger();
+
+    @DynamicPropertySource
+    static void loadTestProperties(DynamicPropertyRegistry registry) {
+        String baseUrl = "http://localhost:" + PORT;
+        registry.add("server.port", () -> PORT);
+        registry.add("management.server.port", () -> MANAGEMENT_PORT);
+        int maxConnections = SETTINGS.poolSize() * (1 + SETTINGS.replicas()) + 20;
+        registry.add("spring.datasource.url", () -> LoadTestDatabase.jdbcUrl(maxConnections));
+        registry.add("spring.datasource.hikari.maximum-pool-size", SETTINGS::poolSize);
+        registry.add("ticketbook.read-replicas.enabled", () -> SETTINGS.replicas() > 0);
+        for (int i = 0; i < SETTINGS.replicas(); i++) {
+            String instance = "ticketbook.read-replicas.instances[" + i + "].";
+            String name = "local-" + (i + 1);
+            registry.add(instance + "name", () -> name);
+            registry.add(instance + "url", () -> LoadTestDatabase.jdbcUrl(maxConnections));
+            registry.add(instance + "username", () -> "postgres");
+            registry.add(instance + "password", () -> "");
+            registry.add(instance + "maximum-pool-size", SETTINGS::poolSize);
+        }
+        registry.add("management.tracing.sampling.probability", SETTINGS::traceSampling);
+        registry.add("ticketbook.tracing.export-dir", () -> SETTINGS.reportDir().resolve("traces").toString());
+        registry.add("ticketbook.vnpay.payment-url", () -> baseUrl + "/api/payments/vnpay/stub/pay");
+        registry.add("ticketbook.vnpay.return-url", () -> baseUrl + "/api/payments/vnpay/return");
+        registry.add("ticketbook.vnpay.ipn-url", () -> baseUrl + "/api/payments/vnpay/ipn");
+    }
+
+    @Test
+    void onSale() throws IOException {
+        client = new LoadTestClient("http://localhost:" + PORT, objectMapper);
+        report = new LoadTestReport(SETTINGS);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        seed();
+        organizerToken = login("organizer@loadtest.local");
+        adminToken = login("admin@loadtest.local");
+        client.drain();
+
+        phase("login", customers, customer -> customer.token = login(customer.email));
+        phase("browse", customers, this::browse);
+        AtomicBoolean buying = new AtomicBoolean(true);
+        Thread dashboards = pollDashboards(buying);
+        try {
+            phase("purchase", customers, this::purchase);
+        } finally {
+            buying.set(false);
+            joinQuietly(dashboards);
+        }
+
+        List<Customer> refunding = customers.stream()
+            .filter(customer -> customer.orderId != null && customer.index % 100 < SETTINGS.refundPercent())
+            .toList();
+        phase("refund", refunding, this::refund);
+
+        openDoors();
+        List<String> gate = new ArrayList<>();
+        for (Customer customer : customers) {
+            if (customer.index % 100 < SETTINGS.checkInPercent()) {
+                gate.addAll(customer.qrCodes);
+            }
+        }
+        phase("check-in", gate, this::checkIn);
+        long liveCheckedIn = countLiveCheckedIn();
+        long grantedScans = countGrantedScans();
+
+        report.put("ordersConfirmed", confirmed.get());
+        report.put("ordersSoldOut", soldOut.get());
+        report.put("ordersUnconfirmed", unconfirmed.get());
+        report.put("ticketsRefunded", refunded.get());
+        report.put("ticketsCheckedIn", checkedIn.get());
+        report.put("gateScansGranted", grantedScans);
+        report.put("gateLiveCheckedIn", liveCheckedIn);
+        report.put("dashboardPolls", dashboardPolls.get());
+        report.put("failedFlows", failedFlows.get());
+
+        List<String> oversold = checkInventory();
+        report.put("oversold", oversold);
+        report.put("serverMetrics", scrapeMetrics());
+        List<String> overBudget = sqlInspector.getBudgetViolations();
+        report.put("statementBudgetViolations", overBudget);
+        report.put("nPlusOneCallSites", sqlInspector.getWorstOffenders(10).stream()
+            .map(offender -> offender.getOccurrences() + " x up to " + offender.getMaxRepeats()
+                + " repeats at " + offender.getSite() + " [" + offender.getScope() + "]")
+            .toList());
+        report.write(objectMapper);
+
+        assertThat(oversold).as("ticket types sold beyond their quantity").isEmpty();
+        assertThat(overBudget).as("requests over their statement budget (application-test.properties)").isEmpty();
+        assertThat(confirmed.get()).as("confirmed orders").isPositive();
+        assertThat(grantedScans).as("granted scans in the check-in scan store").isEqualTo(checkedIn.get());
+        assertThat(liveCheckedIn).as("check-ins on the live gate counters").isEqualTo(checkedIn.get());
+    }
+
+    // ==================== SEEDING ====================
+
+    private void seed() {
+        long start = System.nanoTime();
+        String passwordHash = passwordHashingService.encode(PASSWORD);
+        User organizer = userRepository.save(newUser("organizer@loadtest.local", "Load Test Organizer",
+            UserRole.VERIFIED_ORGANIZER, passwordHash));
+        userRepository.save(newUser("admin@loadtest.local", "Load Test Admin", UserRole.ADMIN, passwordHash));
+
+        List<User> users = new ArrayList<>(SETTINGS.users());
+        for (int i = 0; i < SETTINGS.users(); i++) {
+            users.add(newUser("customer" + i + "@loadtest.local", "Customer " + i, UserRole.CUSTOMER, passwordHash));
+        }
+        List<User> saved = userRepository.saveAll(users);
+        for (int i = 0; i < saved.size(); i++) {
+            customers.add(new Customer(i, saved.get(i).getContact()));
+        }
+
+        LocalDateTime startDate = LocalDateTime.now().plusDays(7);
+        for (int e = 0; e < SETTINGS.events(); e++) {
+            Event event = new Event();
+            event.setOrganizer(organizer);
+            event.setName("Load Test Concert " + (e + 1));
+            event.setLocation("Ho Chi Minh City");
+            event.setVenueName("Hall " + (e + 1));
+            event.setStartDate(startDate);
+            event.setEndDate(startDate.plusHours(4));
+            event.setStatus(EventStatus.ACTIVE);
+            event.setRefundAllowed(true);
+            event.setFlashSale(true);
+            event.setCreatedAt(LocalDateTime.now());
+            event = eventRepository.save(event);
+            eventIds.add(event.getEventId());
+
+            List<Long> typeIds = new ArrayList<>();
+            for (int t = 0; t < SETTINGS.ticketTypesPerEvent(); t++) {
+                TicketType ticketType = new TicketType();
+                ticketType.setEvent(event);
+                ticketType.setTypeName("Zone " + (char) ('A' + t));
+                ticketType.setPrice(BigDecimal.valueOf(500_000L + 250_000L * t));
+                ticketType.setTicketQuantity(SETTINGS.ticketsPerType());
+                ticketType.setAvailableQuantity(SETTINGS.ticketsPerType());
+                ticketType = ticketTypeRepository.save(ticketType);
+                if (SETTINGS.shards() > 1) {
+                    inventoryService.reshard(ticketType.getTicketTypeId(), SETTINGS.shards());
+                }
+                typeIds.add(ticketType.getTicketTypeId());
+            }
+            ticketTypesByEvent.put(event.getEventId(), typeIds);
+        }
+        waitingRoomService.refreshFlashSales();
+        log.info("Seeded {} customers, {} events x {} ticket types x {} tickets in {} ms",
+            SETTINGS.users(), SETTINGS.events(), SETTINGS.ticketTypesPerEvent(), SETTINGS.ticketsPerType(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static User newUser(String email, String fullName, UserRole role, String passwordHash) {
+        User user = new User();
+        user.setContact(email);
+        user.setFullName(fullName);
+        user.setPassword(passwordHash);
+        user.setRole(role);
+        user.setIsVerified(true);
+        user.setOauthProvider("EMAIL");
+        user.setRegistrationDate(LocalDateTime.now());
+        return user;
+    }
+
+    // ==================== SCENARIOS ====================
+
+    private String login(String email) {
+        for (int attempt = 0; attempt < 10; attempt++) {
+            LoadTestClient.Response response = client.post("POST /api/auth/login", "/api/auth/login", null,
+                Map.of("email", email, "password", PASSWORD));
+            if (response.ok()) {
+                return response.data().path("sessionToken").asText();
+            }
+            if (response.status() != 503) {
+                break;
+            }
+            // Hash verification pool saturated: back off like a real client
+            pause(200L * (attempt + 1));
+        }
+        throw new IllegalStateException("Login failed for " + email);
+    }
+
+    private void browse(Customer customer) {
+        for (int round = 0; round < SETTINGS.browseRounds(); round++) {
+            client.get("GET /api/events", "/api/events", null);
+            client.get("GET /api/events/{id}", "/api/events/" + pickEvent(), null);
+        }
+    }
+
+    private void purchase(Customer customer) {
+        if (customer.token == null) {
+            // Never got past the login phase
+            unconfirmed.incrementAndGet();
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long eventId = pickEvent();
+        List<Long> typeIds = ticketTypesByEvent.get(eventId);
+        Long ticketTypeId = typeIds.get(random.nextInt(typeIds.size()));
+        int quantity = 1 + random.nextInt(Math.max(1, SETTINGS.maxTicketsPerOrder()));
+
+        String queueToken = waitForAdmission(customer, eventId);
+        if (queueToken == null) {
+            unconfirmed.incrementAndGet();
+            return;
+        }
+
+        LoadTestClient.Response order = client.post("POST /api/orders", "/api/orders", customer.token,
+            Map.of(
+                "eventId", eventId,
+                "items", List.of(Map.of("ticketTypeId", ticketTypeId, "quantity", quantity)),
+                "recipientInfo", Map.of(
+                    "recipientName", "Customer " + customer.index,
+                    "recipientPhone", String.format("09%08d", customer.index),
+                    "recipientEmail", customer.email)),
+            "X-Queue-Token", queueToken);
+        if (order.status() == 400) {
+            soldOut.incrementAndGet();
+            return;
+        }
+        if (!order.ok()) {
+            unconfirmed.incrementAndGet();
+            return;
+        }
+        long orderId = order.data().path("orderId").asLong();
+
+        LoadTestClient.Response payment = client.post("POST /api/orders/payment", "/api/orders/payment",
+            customer.token, Map.of("orderId", orderId));
+        if (!payment.ok()) {
+            unconfirmed.incrementAndGet();
+            return;
+        }
+        long paidAt = System.nanoTime();
+        client.get("GET /api/payments/vnpay/stub/pay", payment.data().asText(), null);
+
+        // The IPN is stored and confirmed by the callback workers; poll like the order page does
+        while (System.nanoTime() - paidAt < CONFIRM_TIMEOUT_NANOS) {
+            LoadTestClient.Response details = client.get("GET /api/orders/{id}", "/api/orders/" + orderId, customer.token);
+            if ("CONFIRMED".equals(details.data().path("bookingStatus").asText())) {
+                client.record("order confirmed after payment", System.nanoTime() - paidAt, true);
+                customer.orderId = orderId;
+                for (JsonNode ticket : details.data().path("tickets")) {
+                    customer.ticketIds.add(ticket.path("ticketId").asLong());
+                    customer.qrCodes.add(ticket.path("qrCode").asText());
+                }
+                confirmed.incrementAndGet();
+                return;
+            }
+            pause(100);
+        }
+        client.record("order confirmed after payment", System.nanoTime() - paidAt, false);
+        unconfirmed.incrementAndGet();
+    }
+
+    private String waitForAdmission(Customer customer, Long eventId) {
+        LoadTestClient.Response status = client.post("POST /api/waiting-room/{id}/join",
+            "/api/waiting-room/" + eventId + "/join", customer.token, Map.of());
+        if (!status.ok()) {
+            return null;
+        }
+        String queueToken = status.data().path("queueToken").asText();
+        long joinedAt = System.nanoTime();
+        while (!status.data().path("admitted").asBoolean()) {
+            if (System.nanoTime() - joinedAt > ADMISSION_TIMEOUT_NANOS) {
+                return null;
+            }
+            pause(Math.min(1000, status.data().path("pollAfterSeconds").asLong(1) * 1000));
+            status = client.get("GET /api/waiting-room/{id}/status", "/api/waiting-room/" + eventId + "/status",
+                null, "X-Queue-Token", queueToken);
+            if (!status.ok()) {
+                return null;
+            }
+        }
+        return queueToken;
+    }
+
+    private void refund(Customer customer) {
+        Long ticketId = customer.ticketIds.getFirst();
+        LoadTestClient.Response request = client.post("POST /api/refunds", "/api/refunds", customer.token,
+            Map.of("ticketId", ticketId, "reason", "Cannot attend"));
+        if (!request.ok()) {
+            return;
+        }
+        long refundId = request.data().path("requestId").asLong();
+        LoadTestClient.Response approval = client.post("POST /api/admin/refunds/{id}/approval",
+            "/api/admin/refunds/" + refundId + "/approval", adminToken,
+            Map.of("approved", true, "adminNotes", "Load test refund"));
+        if (approval.ok()) {
+            customer.qrCodes.removeFirst();
+            refunded.incrementAndGet();
+        }
+    }
+
+    private void checkIn(String qrCode) {
+        LoadTestClient.Response response = client.post("POST /api/checkin", "/api/checkin", organizerToken,
+            Map.of("qrCode", qrCode, "laneId", "lane-" + Math.floorMod(qrCode.hashCode(), 4)));
+        if (response.ok() && response.data().path("success").asBoolean()) {
+            checkedIn.incrementAndGet();
+        }
+    }
+
+    /**
+     * Organizer dashboards polled back to back while customers buy, so the reporting
+     * queries (summary, balance, event statistics) run against the booking path
+     */
+    private Thread pollDashboards(AtomicBoolean running) {
+        Thread poller = new Thread(() -> {
+            while (running.get()) {
+                try {
+                    client.get("GET /api/organizer/summary", "/api/organizer/summary", organizerToken);
+                    client.get("GET /api/organizer/balance", "/api/organizer/balance", organizerToken);
+                    for (Long eventId : eventIds) {
+                        client.get("GET /api/organizer/events/{id}/statistics",
+                            "/api/organizer/events/" + eventId + "/statistics", organizerToken);
+                    }
+                    dashboardPolls.incrementAndGet();
+                } catch (RuntimeException e) {
+                    log.warn("[dashboards] poll failed: {}", e.getMessage());
+                }
+            }
+        }, "loadtest-dashboards");
+        poller.start();
+        return poller;
+    }
+
+    private static void joinQuietly(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Check-ins on the organizer's live gate dashboard, summed over every event
+     */
+    private long countLiveCheckedIn() {
+        long checkedInLive = 0;
+        for (Long eventId : eventIds) {
+            LoadTestClient.Response gate = client.get("GET /api/organizer/events/{id}/checkin/live",
+                "/api/organizer/events/" + eventId + "/checkin/live", organizerToken);
+            checkedInLive += gate.data().path("checkedIn").asLong();
+        }
+        client.drain();
+        return checkedInLive;
+    }
+
+    /**
+     * Granted scans in the scan store once queued scans are written, summed over the
+     * organizer's scans-per-minute endpoint for every event
+     */
+    private long countGrantedScans() {
+        checkInScanService.flush();
+        long granted = 0;
+        for (Long eventId : eventIds) {
+            LoadTestClient.Response rate = client.get("GET /api/organizer/events/{id}/checkin/rate",
+                "/api/organizer/events/" + eventId + "/checkin/rate?minutes=60", organizerToken);
+            granted += rate.data().path("granted").asLong();
+        }
+        client.drain();
+        return granted;
+    }
+
+    /**
+     * Move every event start into the past so the gate accepts tickets
+     * (the end date stays ahead, so the event has not "occurred")
+     */
+    private void openDoors() {
+        jdbcTemplate.update("UPDATE events SET start_date = ?, version = version + 1",
+            Timestamp.valueOf(LocalDateTime.now().minusHours(1)));
+    }
+
+    private Long pickEvent() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(100) < SETTINGS.hotEventPercent()) {
+            return eventIds.getFirst();
+        }
+        return eventIds.get(random.nextInt(eventIds.size()));
+    }
+
+    // ==================== HARNESS ====================
+
+    /**
+     * Run one unit of work per item with the configured concurrency and report the phase
+     */
+    private <T> void phase(String name, Collection<T> items, Consumer<T> work) {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, SETTINGS.concurrency()));
+        long statementsBefore = statistics.getPrepareStatementCount();
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>(items.size());
+            for (T item : items) {
+                futures.add(pool.submit(() -> {
+                    try {
+                        work.accept(item);
+                    } catch (RuntimeException e) {
+                        if (failedFlows.incrementAndGet() <= 10) {
+                            log.warn("[{}] flow failed: {}", name, e.getMessage());
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Load test interrupted in phase " + name, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        report.addPhase(name, System.nanoTime() - start, client.drain(),
+            statistics.getPrepareStatementCount() - statementsBefore);
+    }
+
+    /**
+     * Oversell check, straight on the tables once queued inventory returns are applied
+     *
+     * @return One line per ticket type that broke an inventory invariant
+     */
+    private List<String> checkInventory() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM inventory_returns", Long.class) > 0
+               && System.nanoTime() < deadline) {
+            pause(200);
+        }
+
+        List<String> violations = new ArrayList<>();
+        jdbcTemplate.query("""
+            SELECT tt.ticket_type_id, tt.ticket_quantity,
+                   CASE WHEN tt.shard_count > 1
+                        THEN (SELECT COALESCE(SUM(s.available_quantity), 0) FROM ticket_type_shards s
+                              WHERE s.ticket_type_id = tt.ticket_type_id)
+                        ELSE tt.available_quantity END AS available,
+                   (SELECT COUNT(*) FROM tickets t
+                    WHERE t.ticket_type_id = tt.ticket_type_id AND t.status <> 'REFUNDED') AS issued
+            FROM ticket_types tt
+            ORDER BY tt.ticket_type_id
+            """, row -> {
+            long id = row.getLong("ticket_type_id");
+            long quantity = row.getLong("ticket_quantity");
+            long available = row.getLong("available");
+            long issued = row.getLong("issued");
+            log.info("Ticket type {}: quantity {}, available {}, issued {}", id, quantity, available, issued);
+            if (available < 0 || available > quantity || issued > quantity - available) {
+                violations.add("ticket type " + id + ": quantity " + quantity
+                    + ", available " + available + ", issued " + issued);
+            }
+        });
+        return violations;
+    }
+
+    /**
+     * Server-side view of the run from the Prometheus scrape, to compare with the client numbers
+     *
+     * @return Sample line (name and tags) to value, for the business and hot-path meters
+     */
+    private Map<String, String> scrapeMetrics() {
+        Map<String, String> samples = new TreeMap<>();
+        LoadTestClient.Response response = client.get("GET /actuator/prometheus",
+            "http://localhost:" + MANAGEMENT_PORT + "/actuator/prometheus", null);
+        if (!response.ok()) {
+            samples.put("status", String.valueOf(response.status()));
+            return samples;
+        }
+        for (String line : response.raw().body().split("\n")) {
+            if (line.startsWith("#") || line.isBlank() || line.contains("_bucket{")) {
+                continue;
+            }
+            boolean wanted = line.startsWith("ticketbook_orders_") && line.contains("_seconds_count")
+                || line.startsWith("ticketbook_orders_pending")
+                || line.startsWith("ticketbook_checkin_")
+                || line.startsWith("ticketbook_inventory_reserve_rejected")
+                || line.startsWith("ticketbook_inventory_available")
+                || line.startsWith("ticketbook_session_validate_seconds_count")
+                || line.startsWith("ticketbook_payment_callbacks_pending")
+                || line.startsWith("ticketbook_datasource_")
+                || line.startsWith("hikaricp_connections_pending")
+                || line.startsWith("hikaricp_connections_timeout_total")
+                || line.startsWith("hibernate_statements_total");
+            int split = line.lastIndexOf(' ');
+            if (wanted && split > 0) {
+                samples.put(line.substring(0, split), line.substring(split + 1));
+            }
+        }
+        return samples;
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Customer {
+        final int index;
+        final String email;
+        volatile String token;
+        volatile Long orderId;
+        final List<Long> ticketIds = new CopyOnWriteArrayList<>();
+        final List<String> qrCodes = new CopyOnWriteArrayList<>();
+
+        Customer(int index, String email) {
+            this.index = index;
+            this.email = email;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.swd.ticketbook.security;
+
+import com.swd.ticketbook.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rate limiter key bound: new keys evict the least recently used ones instead of being refused
+ */
+class RateLimiterTest {
+
+    private RateLimitProperties.Route route;
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxKeys(10);
+        route = new RateLimitProperties.Route();
+        route.setIpCapacity(1);
+        route.setIpRefillPerMinute(1);
+        route.setContactLimit(1);
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new RateLimiter();
+        ReflectionTestUtils.setField(rateLimiter, "properties", properties);
+        ReflectionTestUtils.setField(rateLimiter, "meterRegistry", meterRegistry);
+        rateLimiter.registerMeters();
+    }
+
+    @Test
+    void throttlesARepeatedIp() {
+        assertEquals(0, rateLimiter.acquireForIp("login", route, "10.0.0.1"));
+
+        assertTrue(rateLimiter.acquireForIp("login", route, "10.0.0.1") > 0);
+        assertEquals(0, rateLimiter.acquireForIp("login", route, "10.0.0.2"));
+    }
+
+    @Test
+    void newKeysAreAdmittedWhenTheRegistryIsFull() {
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.acquireForIp("login", route, "10.0.0." + i);
+        }
+
+        assertEquals(0, rateLimiter.acquireForIp("login", route, "10.0.1.1"));
+        assertEquals(0, rateLimiter.acquireForContact("login", route, "a@example.com"));
+
+        assertTrue(rateLimiter.size() <= 10);
+        assertEquals(2.0, meterRegistry.get("ticketbook.ratelimit.evicted").counter().count());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedKeys() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.acquireForIp("login", route, "10.0.0." + i);
+            Thread.sleep(1);
+        }
+        // Touch the oldest key: the next oldest is evicted instead
+        rateLimiter.acquireForIp("login", route, "10.0.0.0");
+
+        rateLimiter.acquireForIp("login", route, "10.0.1.1");
+
+        assertTrue(rateLimiter.acquireForIp("login", route, "10.0.0.0") > 0);
+        assertEquals(0, rateLimiter.acquireForIp("login", route, "10.0.0.1"));
+    }
+}
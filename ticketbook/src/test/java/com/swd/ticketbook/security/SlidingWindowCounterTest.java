@@ -0,0 +1,64 @@
+package com.swd.ticketbook.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sliding-window counter: limit within a window, weighted carry-over of the previous
+ * window, and idleness
+ */
+class SlidingWindowCounterTest {
+
+    private static final long WINDOW = 60_000_000_000L;
+
+    @Test
+    void countsUpToTheLimitThenWaitsForTheWindowToRoll() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, 0);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, counter.tryIncrement(3, WINDOW / 2));
+        }
+
+        assertEquals(WINDOW / 2, counter.tryIncrement(3, WINDOW / 2));
+    }
+
+    @Test
+    void previousWindowCountsByItsRemainingOverlap() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, 0);
+        for (int i = 0; i < 4; i++) {
+            counter.tryIncrement(4, 0);
+        }
+
+        // A quarter into the next window, 3 of the previous 4 hits still count
+        assertEquals(0, counter.tryIncrement(4, WINDOW + WINDOW / 4));
+        assertTrue(counter.tryIncrement(4, WINDOW + WINDOW / 4) > 0);
+
+        // Three quarters in, only 1 of them does
+        assertEquals(0, counter.tryIncrement(4, WINDOW + 3 * WINDOW / 4));
+        assertEquals(0, counter.tryIncrement(4, WINDOW + 3 * WINDOW / 4));
+        assertTrue(counter.tryIncrement(4, WINDOW + 3 * WINDOW / 4) > 0);
+    }
+
+    @Test
+    void windowsOlderThanThePreviousOneAreForgotten() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, 0);
+        for (int i = 0; i < 2; i++) {
+            counter.tryIncrement(2, 0);
+        }
+
+        assertEquals(0, counter.tryIncrement(2, 2 * WINDOW));
+        assertEquals(0, counter.tryIncrement(2, 2 * WINDOW));
+    }
+
+    @Test
+    void isIdleAfterTwoWindowsWithoutHits() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW, 0);
+        counter.tryIncrement(5, 0);
+
+        assertFalse(counter.isIdle(WINDOW));
+        assertTrue(counter.isIdle(2 * WINDOW));
+    }
+}
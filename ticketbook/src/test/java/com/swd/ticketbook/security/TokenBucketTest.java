@@ -0,0 +1,66 @@
+package com.swd.ticketbook.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GCRA token bucket: burst, sustained rate, wait hints and idleness
+ */
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void allowsABurstOfCapacityThenRejects() {
+        TokenBucket bucket = new TokenBucket(3, 60, 0);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(0));
+        }
+
+        assertEquals(SECOND, bucket.tryAcquire(0));
+    }
+
+    @Test
+    void refillsOneTokenPerEmissionInterval() {
+        TokenBucket bucket = new TokenBucket(1, 60, 0);
+        assertEquals(0, bucket.tryAcquire(0));
+
+        assertEquals(SECOND / 4, bucket.tryAcquire(3 * SECOND / 4));
+        assertEquals(0, bucket.tryAcquire(SECOND));
+        assertTrue(bucket.tryAcquire(SECOND) > 0);
+    }
+
+    @Test
+    void rejectedAttemptsDoNotConsumeTokens() {
+        TokenBucket bucket = new TokenBucket(1, 60, 0);
+        bucket.tryAcquire(0);
+        for (int i = 0; i < 10; i++) {
+            bucket.tryAcquire(SECOND / 2);
+        }
+
+        assertEquals(0, bucket.tryAcquire(SECOND));
+    }
+
+    @Test
+    void isIdleOnceFullyRefilled() {
+        TokenBucket bucket = new TokenBucket(2, 60, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertFalse(bucket.isIdle(SECOND));
+        assertTrue(bucket.isIdle(2 * SECOND));
+    }
+
+    @Test
+    void tracksLastUseIncludingRejectedAttempts() {
+        TokenBucket bucket = new TokenBucket(1, 60, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(5);
+
+        assertEquals(5, bucket.lastUsedNanos());
+    }
+}
@@ -0,0 +1,82 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.dto.auth.LoginRequest;
+import com.swd.ticketbook.entities.User;
+import com.swd.ticketbook.enums.UserRole;
+import com.swd.ticketbook.repositories.UserRepository;
+import com.swd.ticketbook.utils.PasswordEncoderUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Login stores the upgraded hash of a legacy MD5 password, and only after it verified
+ */
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+    private static final String CONTACT = "customer@example.com";
+    private static final String PASSWORD = "Secret123";
+    private static final String LEGACY_HASH = PasswordEncoderUtil.encode(PASSWORD);
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SessionService sessionService;
+
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private HttpServletRequest httpRequest;
+
+    @InjectMocks
+    private AuthService authService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User("Customer", CONTACT, LEGACY_HASH, UserRole.CUSTOMER);
+        user.setUserId(42L);
+        user.setIsVerified(true);
+        when(userRepository.findByContactIgnoreCase(CONTACT)).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void successfulLoginReplacesTheLegacyHash() {
+        when(passwordHashingService.matches(PASSWORD, LEGACY_HASH)).thenReturn(true);
+        when(passwordHashingService.rehashIfNeeded(PASSWORD, LEGACY_HASH)).thenReturn("{bcrypt}upgraded");
+        when(sessionService.createSession(user, httpRequest)).thenReturn("token");
+
+        authService.login(new LoginRequest(CONTACT, PASSWORD), httpRequest);
+
+        assertEquals("{bcrypt}upgraded", user.getPassword());
+        verify(userRepository).save(user);
+    }
+
+    @Test
+    void failedLoginKeepsTheStoredHash() {
+        when(passwordHashingService.matches("Wrong1234", LEGACY_HASH)).thenReturn(false);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> authService.login(new LoginRequest(CONTACT, "Wrong1234"), httpRequest));
+
+        assertEquals(LEGACY_HASH, user.getPassword());
+        verify(passwordHashingService, never()).rehashIfNeeded(anyString(), anyString());
+    }
+}
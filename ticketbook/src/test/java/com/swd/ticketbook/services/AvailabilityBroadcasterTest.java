@@ -0,0 +1,103 @@
+package com.swd.ticketbook.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swd.ticketbook.config.AvailabilityStreamProperties;
+import com.swd.ticketbook.dto.event.EventAvailabilityResponse;
+import com.swd.ticketbook.exceptions.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Availability streams: a subscriber is registered before its snapshot is read, so no change is missed
+ */
+class AvailabilityBroadcasterTest {
+
+    private static final Long EVENT_ID = 3L;
+
+    private final EventService eventService = mock(EventService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AvailabilityBroadcaster broadcaster = new AvailabilityBroadcaster();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(broadcaster, "eventService", eventService);
+        ReflectionTestUtils.setField(broadcaster, "properties", new AvailabilityStreamProperties());
+        ReflectionTestUtils.setField(broadcaster, "senderExecutor", mock(ThreadPoolExecutor.class));
+        ReflectionTestUtils.setField(broadcaster, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(broadcaster, "meterRegistry", meterRegistry);
+        broadcaster.registerMeters();
+    }
+
+    @Test
+    void subscriberIsRegisteredBeforeTheSnapshotIsRead() {
+        when(eventService.getEventAvailability(EVENT_ID)).thenAnswer(invocation -> {
+            assertEquals(1.0, subscribers());
+            // Committed while the snapshot is read: must reach the new subscriber
+            broadcaster.onInventoryReserved(new InventoryReservedEvent(1L, EVENT_ID, 2));
+            return availability(10);
+        });
+
+        broadcaster.subscribe(EVENT_ID);
+        broadcaster.flush();
+
+        verify(eventService, times(2)).getEventAvailability(EVENT_ID);
+    }
+
+    @Test
+    void eventThatIsNotVisibleLeavesNoSubscriber() {
+        when(eventService.getEventAvailability(EVENT_ID)).thenThrow(new ResourceNotFoundException("Event not found"));
+
+        assertThrows(ResourceNotFoundException.class, () -> broadcaster.subscribe(EVENT_ID));
+
+        assertEquals(0.0, subscribers());
+        assertEquals(0.0, meterRegistry.get("ticketbook.availability.events").gauge().value());
+    }
+
+    @Test
+    void snapshotMatchingTheLastFrameNeedsNoResend() {
+        when(eventService.getEventAvailability(EVENT_ID)).thenReturn(availability(10));
+
+        broadcaster.subscribe(EVENT_ID);
+        broadcaster.subscribe(EVENT_ID);
+        broadcaster.flush();
+
+        verify(eventService, times(2)).getEventAvailability(EVENT_ID);
+    }
+
+    @Test
+    void snapshotDifferingFromTheLastFrameIsFollowedByTheCurrentState() {
+        when(eventService.getEventAvailability(EVENT_ID)).thenReturn(availability(10), availability(8), availability(8));
+
+        broadcaster.subscribe(EVENT_ID);
+        broadcaster.subscribe(EVENT_ID);
+        broadcaster.flush();
+
+        verify(eventService, times(3)).getEventAvailability(EVENT_ID);
+        assertEquals(2.0, meterRegistry.counter("ticketbook.availability.pushed").count());
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("ticketbook.availability.subscribers").gauge().value();
+    }
+
+    private static EventAvailabilityResponse availability(int available) {
+        EventAvailabilityResponse response = new EventAvailabilityResponse();
+        response.setEventId(EVENT_ID);
+        response.setAvailableTickets(available);
+        response.setSoldOut(available == 0);
+        response.setTicketTypes(List.of());
+        return response;
+    }
+}
@@ -0,0 +1,163 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.config.RefundJobProperties;
+import com.swd.ticketbook.dto.admin.RefundJobResponse;
+import com.swd.ticketbook.entities.Event;
+import com.swd.ticketbook.entities.RefundJob;
+import com.swd.ticketbook.enums.EventStatus;
+import com.swd.ticketbook.enums.RefundJobStatus;
+import com.swd.ticketbook.enums.RefundStatus;
+import com.swd.ticketbook.exceptions.BusinessRuleViolationException;
+import com.swd.ticketbook.repositories.EventRepository;
+import com.swd.ticketbook.repositories.RefundInfoRepository;
+import com.swd.ticketbook.repositories.RefundJobRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Bulk refund jobs: one running job per event, completion status, and resuming failed tickets
+ */
+@ExtendWith(MockitoExtension.class)
+class BulkRefundServiceTest {
+
+    private static final Long JOB_ID = 5L;
+    private static final Long EVENT_ID = 3L;
+
+    @Mock
+    private RefundJobRepository jobRepository;
+
+    @Mock
+    private RefundInfoRepository refundRepository;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Spy
+    private RefundJobProperties properties;
+
+    @InjectMocks
+    private BulkRefundService bulkRefundService;
+
+    @Test
+    void jobWithRetryableTicketsIsNotFinished() {
+        when(refundRepository.countByRefundJobIdAndStatusAndGatewayAttemptsLessThan(
+            JOB_ID, RefundStatus.APPROVED_PROCESSING, properties.getMaxAttempts())).thenReturn(2L);
+
+        assertFalse(bulkRefundService.finishIfDone(JOB_ID));
+
+        verify(jobRepository, never()).save(any());
+    }
+
+    @Test
+    void jobWithoutFailuresCompletes() {
+        RefundJob job = leasedJob();
+        when(jobRepository.findById(JOB_ID)).thenReturn(Optional.of(job));
+
+        assertTrue(bulkRefundService.finishIfDone(JOB_ID));
+
+        assertEquals(RefundJobStatus.COMPLETED, job.getStatus());
+        assertEquals(0, job.getFailedTickets());
+        assertNotNull(job.getCompletedAt());
+        assertNull(job.getLockedBy());
+        verify(jobRepository).save(job);
+    }
+
+    @Test
+    void jobWithTicketsPastMaxAttemptsCompletesWithErrors() {
+        RefundJob job = leasedJob();
+        when(jobRepository.findById(JOB_ID)).thenReturn(Optional.of(job));
+        when(refundRepository.countByRefundJobIdAndStatus(JOB_ID, RefundStatus.APPROVED_PROCESSING)).thenReturn(4L);
+
+        assertTrue(bulkRefundService.finishIfDone(JOB_ID));
+
+        assertEquals(RefundJobStatus.COMPLETED_WITH_ERRORS, job.getStatus());
+        assertEquals(4, job.getFailedTickets());
+        assertNull(job.getLockedUntil());
+    }
+
+    @Test
+    void resumeResetsFailedTicketsAndRunsAgain() {
+        RefundJob job = leasedJob();
+        job.setStatus(RefundJobStatus.COMPLETED_WITH_ERRORS);
+        job.setFailedTickets(4);
+        job.setCompletedAt(LocalDateTime.now());
+        when(jobRepository.findById(JOB_ID)).thenReturn(Optional.of(job));
+        when(jobRepository.save(job)).thenReturn(job);
+
+        RefundJobResponse response = bulkRefundService.resume(JOB_ID);
+
+        verify(refundRepository).resetFailed(JOB_ID);
+        assertEquals(RefundJobStatus.RUNNING, response.getStatus());
+        assertEquals(0, response.getFailedTickets());
+        assertNull(job.getCompletedAt());
+    }
+
+    @Test
+    void completedJobCannotBeResumed() {
+        RefundJob job = leasedJob();
+        job.setStatus(RefundJobStatus.COMPLETED);
+        when(jobRepository.findById(JOB_ID)).thenReturn(Optional.of(job));
+
+        assertThrows(BusinessRuleViolationException.class, () -> bulkRefundService.resume(JOB_ID));
+
+        verify(refundRepository, never()).resetFailed(anyLong());
+    }
+
+    @Test
+    void secondStartReturnsTheRunningJob() {
+        when(eventRepository.findById(EVENT_ID)).thenReturn(Optional.of(event(EventStatus.CANCELLED)));
+        when(jobRepository.findFirstByEventIdAndStatus(EVENT_ID, RefundJobStatus.RUNNING))
+            .thenReturn(Optional.of(leasedJob()));
+
+        RefundJobResponse response = bulkRefundService.startEventRefund(1L, EVENT_ID, "Cancelled");
+
+        assertEquals(JOB_ID, response.getJobId());
+        verify(jobRepository, never()).save(any());
+        verify(refundRepository, never()).insertForJob(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void eventThatIsNotCancelledIsRejected() {
+        when(eventRepository.findById(EVENT_ID)).thenReturn(Optional.of(event(EventStatus.ACTIVE)));
+
+        assertThrows(BusinessRuleViolationException.class,
+            () -> bulkRefundService.startEventRefund(1L, EVENT_ID, "Cancelled"));
+
+        verify(jobRepository, never()).save(any());
+    }
+
+    private static RefundJob leasedJob() {
+        RefundJob job = new RefundJob(EVENT_ID, 1L, "Cancelled");
+        job.setJobId(JOB_ID);
+        job.setTotalTickets(10);
+        job.setLockedBy("worker");
+        job.setLockedUntil(LocalDateTime.now().plusMinutes(1));
+        return job;
+    }
+
+    private static Event event(EventStatus status) {
+        Event event = new Event();
+        event.setEventId(EVENT_ID);
+        event.setStatus(status);
+        return event;
+    }
+}
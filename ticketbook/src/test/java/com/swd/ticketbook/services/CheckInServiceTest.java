@@ -0,0 +1,117 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.dto.checkin.CheckInRequest;
+import com.swd.ticketbook.entities.Event;
+import com.swd.ticketbook.entities.Order;
+import com.swd.ticketbook.entities.Ticket;
+import com.swd.ticketbook.entities.TicketType;
+import com.swd.ticketbook.entities.User;
+import com.swd.ticketbook.enums.CheckInOutcome;
+import com.swd.ticketbook.enums.UserRole;
+import com.swd.ticketbook.repositories.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * A granted check-in is recorded once its transaction completes, with the final outcome
+ */
+@ExtendWith(MockitoExtension.class)
+class CheckInServiceTest {
+
+    private static final String QR = "QR-1";
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private CheckInScanService scanService;
+
+    @Mock
+    private GateStatsService gateStatsService;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry;
+
+    @InjectMocks
+    private CheckInService checkInService;
+
+    private CheckInRequest request;
+
+    @BeforeEach
+    void setUp() {
+        Event event = new Event();
+        event.setEventId(3L);
+        event.setName("Concert");
+        event.setStartDate(LocalDateTime.now().minusHours(1));
+        event.setEndDate(LocalDateTime.now().plusHours(3));
+        User user = new User("Customer", "customer@example.com", "hash", UserRole.CUSTOMER);
+        TicketType ticketType = new TicketType(event, "VIP", new BigDecimal("500000"), 10);
+        ticketType.setTicketTypeId(1L);
+        Ticket ticket = new Ticket(new Order(user, event), ticketType, QR);
+        ticket.setTicketId(9L);
+        when(ticketRepository.findByQrCode(QR)).thenReturn(Optional.of(ticket));
+
+        request = new CheckInRequest();
+        request.setQrCode(QR);
+        request.setLaneId("A1");
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void committedCheckInIsRecordedAsGranted() {
+        assertTrue(checkInService.checkIn(request).isSuccess());
+        verifyNoInteractions(scanService, gateStatsService);
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        verify(scanService).record(eq(3L), eq(9L), eq(1L), eq(CheckInOutcome.GRANTED), eq("A1"), any());
+        verify(gateStatsService).record(eq(3L), eq(1L), eq(CheckInOutcome.GRANTED), any());
+        assertEquals(1.0, outcomes(CheckInOutcome.GRANTED));
+    }
+
+    @Test
+    void rolledBackCheckInIsRecordedAsErrorNotGranted() {
+        checkInService.checkIn(request);
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verify(scanService).record(eq(3L), eq(9L), eq(1L), eq(CheckInOutcome.ERROR), eq("A1"), any());
+        verify(gateStatsService).record(eq(3L), eq(1L), eq(CheckInOutcome.ERROR), any());
+        assertEquals(0.0, outcomes(CheckInOutcome.GRANTED));
+        assertEquals(1.0, outcomes(CheckInOutcome.ERROR));
+    }
+
+    private void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+    }
+
+    private double outcomes(CheckInOutcome outcome) {
+        return meterRegistry.counter("ticketbook.checkin.outcomes", "outcome", outcome.getTag()).count();
+    }
+}
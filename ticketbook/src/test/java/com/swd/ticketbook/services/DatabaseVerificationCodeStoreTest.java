@@ -0,0 +1,106 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.repositories.VerificationCodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Database verification code store: size bound kept without counting rows on each put
+ */
+@ExtendWith(MockitoExtension.class)
+class DatabaseVerificationCodeStoreTest {
+
+    private static final LocalDateTime EXPIRES = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Mock
+    private VerificationCodeRepository repository;
+
+    @InjectMocks
+    private DatabaseVerificationCodeStore store;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(store, "maxEntries", 2);
+    }
+
+    @Test
+    void putCountsInsertsButNotReplacements() {
+        when(repository.upsert("a@example.com", "111111", EXPIRES)).thenReturn(true);
+        when(repository.upsert("a@example.com", "222222", EXPIRES)).thenReturn(false);
+
+        assertEquals(0, store.put("a@example.com", "111111", EXPIRES));
+        assertEquals(0, store.put("a@example.com", "222222", EXPIRES));
+
+        assertEquals(1, store.size());
+        verify(repository, never()).count();
+    }
+
+    @Test
+    void fullStoreReplacesPendingCodesInPlace() {
+        when(repository.upsert(anyString(), anyString(), any())).thenReturn(true);
+        store.put("a@example.com", "111111", EXPIRES);
+        store.put("b@example.com", "111111", EXPIRES);
+        when(repository.replace("a@example.com", "222222", EXPIRES)).thenReturn(1);
+
+        assertEquals(0, store.put("a@example.com", "222222", EXPIRES));
+
+        verify(repository, never()).deleteOldest(anyInt());
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void fullStoreEvictsTheOldestCodeForANewIdentifier() {
+        when(repository.upsert(anyString(), anyString(), any())).thenReturn(true);
+        store.put("a@example.com", "111111", EXPIRES);
+        store.put("b@example.com", "111111", EXPIRES);
+        when(repository.deleteOldest(1)).thenReturn(1);
+
+        assertEquals(1, store.put("c@example.com", "111111", EXPIRES));
+
+        verify(repository).upsert("c@example.com", "111111", EXPIRES);
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void removeFreesRoomOnlyWhenThisCallDeleted() {
+        when(repository.upsert(anyString(), anyString(), any())).thenReturn(true);
+        store.put("a@example.com", "111111", EXPIRES);
+        when(repository.deleteByIdentifier("a@example.com")).thenReturn(1, 0);
+
+        assertTrue(store.remove("a@example.com"));
+        assertFalse(store.remove("a@example.com"));
+
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void cleanupResyncsTheCountWithOtherNodesCodes() {
+        LocalDateTime now = LocalDateTime.now();
+        when(repository.deleteExpired(now)).thenReturn(3);
+        when(repository.count()).thenReturn(2L);
+
+        assertEquals(3, store.removeExpired(now));
+
+        assertEquals(2, store.size());
+        when(repository.deleteOldest(1)).thenReturn(1);
+        when(repository.upsert("c@example.com", "111111", EXPIRES)).thenReturn(true);
+        assertEquals(1, store.put("c@example.com", "111111", EXPIRES));
+    }
+}
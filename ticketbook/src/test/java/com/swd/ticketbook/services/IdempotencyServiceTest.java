@@ -0,0 +1,151 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.config.IdempotencyProperties;
+import com.swd.ticketbook.services.IdempotencyService.Claim;
+import com.swd.ticketbook.services.IdempotencyService.StoredResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Idempotency-Key claims: execute, replay, mismatch, concurrent duplicates, and the
+ * per-user and global bounds evicting completed keys instead of refusing new ones
+ */
+class IdempotencyServiceTest {
+
+    private static final byte[] ORDER_A = "POST /api/orders {a}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ORDER_B = "POST /api/orders {b}".getBytes(StandardCharsets.UTF_8);
+    private static final StoredResponse CREATED =
+        new StoredResponse(201, "application/json", "{\"orderId\":1}".getBytes(StandardCharsets.UTF_8));
+
+    private IdempotencyProperties properties;
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new IdempotencyProperties();
+        properties.setMaxEntries(10);
+        properties.setMaxEntriesPerUser(3);
+        properties.setWaitTimeout(Duration.ofMillis(200));
+        service = new IdempotencyService();
+        ReflectionTestUtils.setField(service, "properties", properties);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        service.registerMeters();
+    }
+
+    @Test
+    void firstRequestExecutesAndRetryReplaysTheStoredResponse() {
+        Claim first = service.claim("user:1", "k1", ORDER_A);
+        assertEquals(Claim.Outcome.EXECUTE, first.getOutcome());
+        service.complete(first, CREATED);
+
+        Claim retry = service.claim("user:1", "k1", ORDER_A);
+
+        assertEquals(Claim.Outcome.REPLAY, retry.getOutcome());
+        assertEquals(201, retry.getResponse().status());
+        assertArrayEquals(CREATED.body(), retry.getResponse().body());
+    }
+
+    @Test
+    void sameKeyWithADifferentRequestIsAMismatch() {
+        service.complete(service.claim("user:1", "k1", ORDER_A), CREATED);
+
+        assertEquals(Claim.Outcome.MISMATCH, service.claim("user:1", "k1", ORDER_B).getOutcome());
+    }
+
+    @Test
+    void keysAreScopedPerUser() {
+        service.complete(service.claim("user:1", "k1", ORDER_A), CREATED);
+
+        assertEquals(Claim.Outcome.EXECUTE, service.claim("user:2", "k1", ORDER_B).getOutcome());
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForTheFirstResponse() throws Exception {
+        Claim first = service.claim("user:1", "k1", ORDER_A);
+        CountDownLatch waiting = new CountDownLatch(1);
+        properties.setWaitTimeout(Duration.ofSeconds(5));
+
+        CompletableFuture<Claim> duplicate = CompletableFuture.supplyAsync(() -> {
+            waiting.countDown();
+            return service.claim("user:1", "k1", ORDER_A);
+        });
+        waiting.await();
+        service.complete(first, CREATED);
+
+        Claim replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertEquals(Claim.Outcome.REPLAY, replayed.getOutcome());
+    }
+
+    @Test
+    void duplicateOfASlowRequestGetsInProgress() {
+        service.claim("user:1", "k1", ORDER_A);
+
+        assertEquals(Claim.Outcome.IN_PROGRESS, service.claim("user:1", "k1", ORDER_A).getOutcome());
+    }
+
+    @Test
+    void abandonedKeyRunsAgainOnRetry() {
+        service.abandon(service.claim("user:1", "k1", ORDER_A));
+
+        assertEquals(Claim.Outcome.EXECUTE, service.claim("user:1", "k1", ORDER_A).getOutcome());
+    }
+
+    @Test
+    void userAtItsBoundEvictsItsOwnOldestCompletedKey() {
+        for (int i = 1; i <= 3; i++) {
+            service.complete(service.claim("user:1", "k" + i, ORDER_A), CREATED);
+        }
+        service.complete(service.claim("user:2", "k1", ORDER_A), CREATED);
+
+        assertEquals(Claim.Outcome.EXECUTE, service.claim("user:1", "k4", ORDER_A).getOutcome());
+
+        assertEquals(4, service.size());
+        // k1 of user 1 was evicted; user 2's key of the same name was not
+        assertEquals(Claim.Outcome.EXECUTE, service.claim("user:1", "k1", ORDER_B).getOutcome());
+        assertEquals(Claim.Outcome.REPLAY, service.claim("user:2", "k1", ORDER_A).getOutcome());
+    }
+
+    @Test
+    void userWithOnlyInProgressKeysIsRefusedWithoutAffectingOthers() {
+        for (int i = 1; i <= 3; i++) {
+            service.claim("user:1", "k" + i, ORDER_A);
+        }
+
+        assertEquals(Claim.Outcome.FULL, service.claim("user:1", "k4", ORDER_A).getOutcome());
+        assertEquals(Claim.Outcome.EXECUTE, service.claim("user:2", "k1", ORDER_A).getOutcome());
+    }
+
+    @Test
+    void fullStoreEvictsTheOldestCompletedKeyInsteadOfRefusing() {
+        for (int user = 1; user <= 10; user++) {
+            service.complete(service.claim("user:" + user, "k", ORDER_A), CREATED);
+        }
+
+        assertEquals(Claim.Outcome.EXECUTE, service.claim("user:11", "k", ORDER_A).getOutcome());
+
+        assertEquals(10, service.size());
+        assertEquals(Claim.Outcome.EXECUTE, service.claim("user:1", "k", ORDER_B).getOutcome());
+    }
+
+    @Test
+    void scheduledSweepDropsExpiredKeys() throws Exception {
+        properties.setTtl(Duration.ofMillis(1));
+        service.complete(service.claim("user:1", "k1", ORDER_A), CREATED);
+        Thread.sleep(5);
+
+        service.removeExpired();
+
+        assertEquals(0, service.size());
+    }
+}
@@ -0,0 +1,86 @@
+package com.swd.ticketbook.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * In-memory verification code store: expiring LRU that evicts its oldest code instead of refusing
+ */
+class InMemoryVerificationCodeStoreTest {
+
+    private final InMemoryVerificationCodeStore store = new InMemoryVerificationCodeStore();
+    private final LocalDateTime expires = LocalDateTime.now().plusMinutes(5);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(store, "maxEntries", 2);
+    }
+
+    @Test
+    void fullStoreEvictsTheOldestCode() {
+        store.put("a@example.com", "111111", expires);
+        store.put("b@example.com", "111111", expires);
+
+        assertEquals(1, store.put("c@example.com", "111111", expires));
+
+        assertFalse(store.get("a@example.com").isPresent());
+        assertTrue(store.get("b@example.com").isPresent());
+        assertTrue(store.get("c@example.com").isPresent());
+    }
+
+    @Test
+    void expiredCodesMakeRoomBeforeLiveOnesAreEvicted() {
+        store.put("a@example.com", "111111", LocalDateTime.now().minusSeconds(1));
+        store.put("b@example.com", "111111", expires);
+
+        assertEquals(0, store.put("c@example.com", "111111", expires));
+
+        assertTrue(store.get("b@example.com").isPresent());
+    }
+
+    @Test
+    void resentCodeReplacesTheOldOneAndMovesToTheTail() {
+        store.put("a@example.com", "111111", expires);
+        store.put("b@example.com", "111111", expires);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, store.put("a@example.com", "222222", expires));
+        }
+
+        store.put("c@example.com", "111111", expires);
+
+        assertEquals(2, store.size());
+        assertEquals("222222", store.get("a@example.com").orElseThrow().code());
+        assertFalse(store.get("b@example.com").isPresent());
+    }
+
+    @Test
+    void sweepRemovesOnlyExpiredCodes() {
+        LocalDateTime now = LocalDateTime.now();
+        store.put("a@example.com", "111111", now.minusSeconds(1));
+        store.put("b@example.com", "111111", now.plusMinutes(5));
+
+        assertEquals(1, store.removeExpired(now));
+
+        assertEquals(1, store.size());
+        assertTrue(store.get("b@example.com").isPresent());
+    }
+
+    @Test
+    void resentCodeStartsWithFreshAttempts() {
+        store.put("a@example.com", "111111", expires);
+        store.incrementAttempts("a@example.com");
+        store.incrementAttempts("a@example.com");
+
+        store.put("a@example.com", "222222", expires);
+
+        assertEquals(1, store.incrementAttempts("a@example.com"));
+        assertEquals(-1, store.incrementAttempts("b@example.com"));
+    }
+}
@@ -0,0 +1,183 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.entities.Event;
+import com.swd.ticketbook.entities.TicketType;
+import com.swd.ticketbook.exceptions.BusinessRuleViolationException;
+import com.swd.ticketbook.repositories.ShardLevel;
+import com.swd.ticketbook.repositories.TicketTypeRepository;
+import com.swd.ticketbook.repositories.TicketTypeShardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Inventory reserve/release on single-row and sharded ticket types, including a
+ * reshard committed after the order transaction loaded the ticket type
+ */
+@ExtendWith(MockitoExtension.class)
+class InventoryServiceTest {
+
+    private static final Long TYPE_ID = 7L;
+    private static final Long USER_ID = 42L;
+
+    @Mock
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Mock
+    private TicketTypeShardRepository shardRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry;
+
+    @InjectMocks
+    private InventoryService inventoryService;
+
+    @BeforeEach
+    void setUp() {
+        inventoryService.registerMeters();
+    }
+
+    @Test
+    void unshardedReserveIsOneConditionalUpdate() {
+        when(ticketTypeRepository.tryReserve(TYPE_ID, 2)).thenReturn(1);
+
+        inventoryService.reserve(ticketType(1), USER_ID, 2);
+
+        verify(ticketTypeRepository, never()).findShardCount(TYPE_ID);
+    }
+
+    @Test
+    void soldOutReportsCommittedAvailabilityNotTheLoadedEntity() {
+        TicketType loaded = ticketType(1);
+        loaded.setAvailableQuantity(100);
+        when(ticketTypeRepository.findShardCount(TYPE_ID)).thenReturn(1);
+        when(ticketTypeRepository.findAvailableQuantity(TYPE_ID)).thenReturn(1);
+
+        BusinessRuleViolationException e = assertThrows(BusinessRuleViolationException.class,
+            () -> inventoryService.reserve(loaded, USER_ID, 2));
+
+        assertEquals("Only 1 tickets available for VIP", e.getMessage());
+        assertEquals(1.0, meterRegistry.get("ticketbook.inventory.reserve.rejected").tag("sharded", "false").counter().count());
+    }
+
+    @Test
+    void reserveRetriesOnShardsWhenReshardedAfterLoad() {
+        // The row update is refused (shard_count is no longer 1), the shards hold the stock
+        when(ticketTypeRepository.findShardCount(TYPE_ID)).thenReturn(4);
+        when(shardRepository.tryReserve(eq(TYPE_ID), anyInt(), eq(2))).thenReturn(1);
+
+        inventoryService.reserve(ticketType(1), USER_ID, 2);
+
+        verify(ticketTypeRepository).tryReserve(TYPE_ID, 2);
+        verify(shardRepository).tryReserve(eq(TYPE_ID), anyInt(), eq(2));
+    }
+
+    @Test
+    void reserveRetriesOnTheRowWhenMergedBackAfterLoad() {
+        // Shard rows were deleted by the merge: every shard update finds nothing
+        when(shardRepository.findLevels(TYPE_ID)).thenReturn(List.of());
+        when(ticketTypeRepository.findShardCount(TYPE_ID)).thenReturn(1);
+        when(ticketTypeRepository.tryReserve(TYPE_ID, 2)).thenReturn(1);
+
+        inventoryService.reserve(ticketType(4), USER_ID, 2);
+
+        verify(shardRepository, never()).tryReserve(eq(TYPE_ID), anyInt(), eq(1));
+    }
+
+    @Test
+    void shardedReserveSpillsAcrossShardsWhenNoneCoversTheOrder() {
+        when(shardRepository.tryReserve(eq(TYPE_ID), anyInt(), eq(3))).thenReturn(0);
+        when(shardRepository.findLevels(TYPE_ID)).thenReturn(List.of(level(0, 5, 1), level(1, 5, 2)));
+        when(shardRepository.tryReserve(eq(TYPE_ID), anyInt(), eq(1))).thenReturn(1);
+        when(shardRepository.tryReserve(eq(TYPE_ID), anyInt(), eq(2))).thenReturn(1);
+
+        inventoryService.reserve(ticketType(2), USER_ID, 3);
+
+        verify(ticketTypeRepository, never()).findShardCount(TYPE_ID);
+    }
+
+    @Test
+    void partialShardTakeRetriesOnlyTheRemainderAfterReshard() {
+        // One ticket taken from the old layout, the other two from the new one
+        when(shardRepository.tryReserve(eq(TYPE_ID), anyInt(), eq(3))).thenReturn(0);
+        when(shardRepository.findLevels(TYPE_ID)).thenReturn(List.of(level(0, 5, 1), level(1, 5, 0)));
+        when(shardRepository.tryReserve(eq(TYPE_ID), anyInt(), eq(1))).thenReturn(1);
+        when(ticketTypeRepository.findShardCount(TYPE_ID)).thenReturn(3);
+        when(shardRepository.tryReserve(eq(TYPE_ID), anyInt(), eq(2))).thenReturn(1);
+
+        inventoryService.reserve(ticketType(2), USER_ID, 3);
+
+        verify(shardRepository, times(2)).tryReserve(eq(TYPE_ID), anyInt(), eq(3));
+        verify(shardRepository, times(1)).tryReserve(eq(TYPE_ID), anyInt(), eq(2));
+    }
+
+    @Test
+    void releaseGoesToShardsWhenReshardedAfterLoad() {
+        when(ticketTypeRepository.findShardCount(TYPE_ID)).thenReturn(2);
+        when(shardRepository.findLevels(TYPE_ID)).thenReturn(List.of(level(0, 5, 4), level(1, 5, 3)));
+        when(shardRepository.tryRelease(TYPE_ID, 0, 1)).thenReturn(1);
+        when(shardRepository.tryRelease(TYPE_ID, 1, 2)).thenReturn(1);
+
+        inventoryService.release(ticketType(1), 3);
+
+        verify(ticketTypeRepository).release(TYPE_ID, 3);
+        verify(shardRepository).tryRelease(TYPE_ID, 1, 2);
+    }
+
+    @Test
+    void releaseStopsAtShardAllocation() {
+        when(shardRepository.findLevels(TYPE_ID)).thenReturn(List.of(level(0, 5, 5), level(1, 5, 5)));
+        when(ticketTypeRepository.findShardCount(TYPE_ID)).thenReturn(2);
+
+        inventoryService.release(ticketType(2), 2);
+
+        verify(shardRepository, never()).tryRelease(eq(TYPE_ID), anyInt(), anyInt());
+        verify(ticketTypeRepository, never()).release(TYPE_ID, 2);
+    }
+
+    private static TicketType ticketType(int shardCount) {
+        Event event = new Event();
+        event.setEventId(3L);
+        TicketType ticketType = new TicketType(event, "VIP", new BigDecimal("500000"), 10);
+        ticketType.setTicketTypeId(TYPE_ID);
+        ticketType.setShardCount(shardCount);
+        return ticketType;
+    }
+
+    private static ShardLevel level(int index, int allocated, int available) {
+        return new ShardLevel() {
+            public Integer getShardIndex() {
+                return index;
+            }
+
+            public Integer getAllocatedQuantity() {
+                return allocated;
+            }
+
+            public Integer getAvailableQuantity() {
+                return available;
+            }
+        };
+    }
+}
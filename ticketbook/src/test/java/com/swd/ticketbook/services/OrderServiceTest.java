@@ -0,0 +1,123 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.entities.Event;
+import com.swd.ticketbook.entities.Order;
+import com.swd.ticketbook.entities.Ticket;
+import com.swd.ticketbook.entities.TicketType;
+import com.swd.ticketbook.entities.User;
+import com.swd.ticketbook.enums.UserRole;
+import com.swd.ticketbook.repositories.OrderRepository;
+import com.swd.ticketbook.repositories.TicketRepository;
+import com.swd.ticketbook.repositories.TicketTypeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ticket issuance and seat release follow the order's items, not what sold across the event
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderServiceTest {
+
+    private static final Long ORDER_ID = 11L;
+    private static final Long USER_ID = 42L;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private EmailService emailService;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry;
+
+    @InjectMocks
+    private OrderService orderService;
+
+    private Event event;
+    private TicketType vip;
+    private TicketType standard;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        orderService.registerMeters();
+
+        event = new Event();
+        event.setEventId(3L);
+        event.setName("Concert");
+        vip = ticketType(1L, "VIP");
+        standard = ticketType(2L, "Standard");
+
+        User user = new User("Customer", "customer@example.com", "hash", UserRole.CUSTOMER);
+        user.setUserId(USER_ID);
+        order = new Order(user, event);
+        order.setOrderId(ORDER_ID);
+        order.setTotalQuantity(3);
+        order.setTotalAmount(new BigDecimal("1500000"));
+        order.addItem(vip, 2);
+        order.addItem(standard, 1);
+        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void confirmedOrderGetsTicketsOnTheTypesItReserved() {
+        when(ticketRepository.findExistingQrCodes(anyCollection())).thenReturn(Set.of());
+        when(ticketRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        orderService.confirmPayment(ORDER_ID, "TX-1");
+
+        ArgumentCaptor<List<Ticket>> saved = ArgumentCaptor.forClass(List.class);
+        verify(ticketRepository).saveAll(saved.capture());
+        Map<String, Long> perType = saved.getValue().stream()
+            .collect(Collectors.groupingBy(ticket -> ticket.getTicketType().getTypeName(), Collectors.counting()));
+        assertEquals(Map.of("VIP", 2L, "Standard", 1L), perType);
+        verify(ticketTypeRepository, never()).findByEvent_EventId(anyLong());
+    }
+
+    @Test
+    void cancelledOrderReleasesEachItemToItsOwnType() {
+        orderService.cancelOrder(USER_ID, ORDER_ID);
+
+        verify(inventoryService).release(vip, 2);
+        verify(inventoryService).release(standard, 1);
+        verify(ticketTypeRepository, never()).findByEvent_EventId(anyLong());
+    }
+
+    private TicketType ticketType(Long id, String name) {
+        TicketType ticketType = new TicketType(event, name, new BigDecimal("500000"), 10);
+        ticketType.setTicketTypeId(id);
+        return ticketType;
+    }
+}
@@ -0,0 +1,97 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.config.PasswordHashingConfig;
+import com.swd.ticketbook.utils.PasswordEncoderUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Password hashing with the production encoder setup: legacy MD5 hashes verify and are
+ * upgraded to the configured algorithm, current hashes are left alone
+ */
+class PasswordHashingServiceTest {
+
+    private static final String PASSWORD = "Secret123";
+
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolExecutor executor;
+    private PasswordHashingService service;
+
+    @BeforeEach
+    void setUp() {
+        PasswordHashingConfig config = new PasswordHashingConfig();
+        ReflectionTestUtils.setField(config, "algorithm", "bcrypt");
+        ReflectionTestUtils.setField(config, "bcryptStrength", 5);
+        ReflectionTestUtils.setField(config, "verifyThreads", 1);
+        ReflectionTestUtils.setField(config, "verifyQueueCapacity", 4);
+
+        meterRegistry = new SimpleMeterRegistry();
+        executor = config.passwordHashExecutor(meterRegistry);
+        service = new PasswordHashingService();
+        ReflectionTestUtils.setField(service, "passwordEncoder", config.passwordEncoder());
+        ReflectionTestUtils.setField(service, "executor", executor);
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(service, "timeoutMillis", 5000L);
+        service.registerMeters();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void legacyMd5HashVerifiesAndIsUpgradedOnLogin() {
+        String md5 = PasswordEncoderUtil.encode(PASSWORD);
+
+        assertTrue(service.matches(PASSWORD, md5));
+        String upgraded = service.rehashIfNeeded(PASSWORD, md5);
+
+        assertTrue(upgraded.startsWith("{bcrypt}"));
+        assertTrue(service.matches(PASSWORD, upgraded));
+        assertFalse(service.needsRehash(upgraded));
+        assertEquals(1.0, meterRegistry.get("ticketbook.password.rehash").counter().count());
+    }
+
+    @Test
+    void uppercaseLegacyHashStillVerifies() {
+        assertTrue(service.matches(PASSWORD, PasswordEncoderUtil.encode(PASSWORD).toUpperCase()));
+    }
+
+    @Test
+    void wrongPasswordDoesNotMatchALegacyHash() {
+        assertFalse(service.matches("Wrong1234", PasswordEncoderUtil.encode(PASSWORD)));
+    }
+
+    @Test
+    void currentHashIsNotRehashed() {
+        String hash = service.encode(PASSWORD);
+
+        assertNull(service.rehashIfNeeded(PASSWORD, hash));
+    }
+
+    @Test
+    void hashWithALowerCostIsUpgraded() {
+        String weaker = "{bcrypt}" + new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+        assertTrue(service.matches(PASSWORD, weaker));
+        assertTrue(service.needsRehash(weaker));
+    }
+
+    @Test
+    void missingHashNeverMatches() {
+        assertFalse(service.matches(PASSWORD, null));
+        assertFalse(service.matches(PASSWORD, ""));
+    }
+}
@@ -0,0 +1,151 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.config.RefundJobProperties;
+import com.swd.ticketbook.repositories.OrderRefundRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Bulk refund runner: gateway results are split into refunded and failed orders, one commit per batch
+ */
+class RefundJobRunnerTest {
+
+    private static final Long JOB_ID = 5L;
+
+    private final BulkRefundService bulkRefundService = mock(BulkRefundService.class);
+    private final VNPayService vnPayService = mock(VNPayService.class);
+    private final RefundJobProperties properties = new RefundJobProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+    private final RefundJobRunner runner = new RefundJobRunner();
+
+    @BeforeEach
+    void setUp() {
+        properties.setCallRetries(2);
+        properties.setCallRetryDelay(Duration.ofMillis(1));
+        ReflectionTestUtils.setField(runner, "bulkRefundService", bulkRefundService);
+        ReflectionTestUtils.setField(runner, "vnPayService", vnPayService);
+        ReflectionTestUtils.setField(runner, "properties", properties);
+        ReflectionTestUtils.setField(runner, "executor", executor);
+        ReflectionTestUtils.setField(runner, "meterRegistry", meterRegistry);
+        runner.registerMeters();
+        when(bulkRefundService.findRunningJobIds()).thenReturn(List.of(JOB_ID));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void gatewayResultsAreSplitIntoRefundedAndFailedOrders() {
+        Row refunded = row(1L);
+        Row declined = row(2L);
+        Row erroring = row(3L);
+        when(bulkRefundService.lease(eq(JOB_ID), anyString())).thenReturn(true, false);
+        when(bulkRefundService.nextBatch(JOB_ID)).thenReturn(List.of(refunded, declined, erroring));
+        when(vnPayService.processRefund(eq("1"), any(), anyString())).thenReturn(true);
+        when(vnPayService.processRefund(eq("2"), any(), anyString())).thenReturn(false);
+        when(vnPayService.processRefund(eq("3"), any(), anyString())).thenThrow(new IllegalStateException("timeout"));
+
+        runner.run();
+
+        verify(bulkRefundService).applyBatch(eq(JOB_ID), eq(List.of(refunded)), eq(List.of(2L, 3L)), eq("Order 3: timeout"));
+        // Immediate retries per call, with a request ID that is stable per job and order
+        verify(vnPayService, times(2)).processRefund("2", BigDecimal.TEN, "bulk-5-2");
+        assertEquals(1.0, meterRegistry.counter("ticketbook.refund.jobs.orders", "result", "refunded").count());
+        assertEquals(2.0, meterRegistry.counter("ticketbook.refund.jobs.orders", "result", "failed").count());
+    }
+
+    @Test
+    void eachBatchIsAppliedOnceAndTheJobClosesWhenNothingIsDue() {
+        when(bulkRefundService.lease(eq(JOB_ID), anyString())).thenReturn(true);
+        when(bulkRefundService.nextBatch(JOB_ID))
+            .thenReturn(List.of(row(1L)))
+            .thenReturn(List.of(row(2L)))
+            .thenReturn(List.of());
+        when(vnPayService.processRefund(anyString(), any(), anyString())).thenReturn(true);
+
+        runner.run();
+
+        verify(bulkRefundService, times(2)).applyBatch(eq(JOB_ID), any(), eq(List.of()), eq(null));
+        verify(bulkRefundService).finishIfDone(JOB_ID);
+    }
+
+    @Test
+    void jobLeasedByAnotherNodeIsLeftAlone() {
+        when(bulkRefundService.lease(eq(JOB_ID), anyString())).thenReturn(false);
+
+        runner.run();
+
+        verify(bulkRefundService, never()).nextBatch(anyLong());
+        verify(bulkRefundService, never()).finishIfDone(anyLong());
+    }
+
+    @Test
+    void failingJobDoesNotStopTheOthers() {
+        when(bulkRefundService.findRunningJobIds()).thenReturn(List.of(JOB_ID, 6L));
+        when(bulkRefundService.lease(eq(JOB_ID), anyString())).thenThrow(new IllegalStateException("database down"));
+        when(bulkRefundService.lease(eq(6L), anyString())).thenReturn(true);
+        when(bulkRefundService.nextBatch(6L)).thenReturn(List.of());
+
+        runner.run();
+
+        verify(bulkRefundService).finishIfDone(6L);
+    }
+
+    private static Row row(Long orderId) {
+        return new Row(orderId, BigDecimal.TEN, 1L, orderId * 10, "customer@example.com");
+    }
+
+    private record Row(Long orderId, BigDecimal amount, Long tickets, Long requestId, String contact)
+            implements OrderRefundRow {
+
+        @Override
+        public Long getOrderId() {
+            return orderId;
+        }
+
+        @Override
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        @Override
+        public Long getTickets() {
+            return tickets;
+        }
+
+        @Override
+        public Long getRequestId() {
+            return requestId;
+        }
+
+        @Override
+        public String getContact() {
+            return contact;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.config.VNPayProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * VNPAY hash secret checks at startup and callback signature verification
+ */
+class VNPayServiceTest {
+
+    @Test
+    void refusesToStartWithoutASecret() {
+        assertThrows(IllegalStateException.class, () -> service(null, false));
+        assertThrows(IllegalStateException.class, () -> service(" ", false));
+    }
+
+    @Test
+    void refusesTheDevelopmentSecretOutsideTheStub() {
+        assertThrows(IllegalStateException.class, () -> service("dev-secret-change-me", false));
+    }
+
+    @Test
+    void stubGatewayFallsBackToTheDevelopmentSecret() {
+        VNPayService stub = service(null, true);
+
+        assertTrue(stub.verifySignature(stub.sign(Map.of("vnp_TxnRef", "5_1", "vnp_ResponseCode", "00"))));
+    }
+
+    @Test
+    void rejectsCallbacksSignedWithAnotherSecret() {
+        VNPayService merchant = service("merchant-secret", false);
+        Map<String, String> forged = service(null, true).sign(Map.of("vnp_TxnRef", "5_1", "vnp_ResponseCode", "00"));
+
+        assertFalse(merchant.verifySignature(forged));
+        assertTrue(merchant.verifySignature(merchant.sign(Map.of("vnp_TxnRef", "5_1", "vnp_ResponseCode", "00"))));
+    }
+
+    private static VNPayService service(String hashSecret, boolean stubEnabled) {
+        VNPayProperties properties = new VNPayProperties();
+        properties.setHashSecret(hashSecret);
+        properties.setStubEnabled(stubEnabled);
+        VNPayService service = new VNPayService();
+        ReflectionTestUtils.setField(service, "properties", properties);
+        service.initSigner();
+        return service;
+    }
+}
@@ -0,0 +1,194 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.config.WaitingRoomProperties;
+import com.swd.ticketbook.dto.order.QueueStatusResponse;
+import com.swd.ticketbook.exceptions.AdmissionRequiredException;
+import com.swd.ticketbook.exceptions.ResourceNotFoundException;
+import com.swd.ticketbook.repositories.EventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Waiting room: FIFO admission at the configured rate, skipping users who stopped
+ * polling, and the admission gate in front of order creation for flash-sale events
+ */
+class WaitingRoomServiceTest {
+
+    private static final Long EVENT_ID = 3L;
+    private static final Long OTHER_FLASH_SALE_ID = 4L;
+    private static final Long REGULAR_EVENT_ID = 5L;
+
+    private final EventRepository eventRepository = mock(EventRepository.class);
+    private WaitingRoomProperties properties;
+    private WaitingRoomService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WaitingRoomProperties();
+        // One admission per 100 ms, no burst beyond a single user
+        properties.setAdmitPerMinute(600);
+        properties.setAdmitBurst(1);
+        properties.setAbandonAfter(Duration.ofSeconds(1));
+        properties.setMaxOrderAttempts(2);
+        service = new WaitingRoomService();
+        ReflectionTestUtils.setField(service, "properties", properties);
+        ReflectionTestUtils.setField(service, "eventRepository", eventRepository);
+        when(eventRepository.findFlashSaleEventIds(any())).thenReturn(List.of(EVENT_ID, OTHER_FLASH_SALE_ID));
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        service.registerMeters();
+    }
+
+    @Test
+    void usersAreAdmittedInJoinOrder() throws Exception {
+        List<String> tokens = new ArrayList<>();
+        for (long user = 1; user <= 4; user++) {
+            tokens.add(service.join(EVENT_ID, user).getQueueToken());
+        }
+
+        int admitted = admittedPrefix(tokens);
+        while (admitted < tokens.size()) {
+            Thread.sleep(110);
+            service.admitNext();
+            int next = admittedPrefix(tokens);
+            // At most one admission per interval, always the longest-waiting user
+            assertTrue(next == admitted || next == admitted + 1, "admitted " + next + " after " + admitted);
+            admitted = next;
+        }
+    }
+
+    @Test
+    void waitingUsersSeeTheirPositionBehindTheAdmittedOnes() {
+        QueueStatusResponse first = service.join(EVENT_ID, 1L);
+        QueueStatusResponse second = service.join(EVENT_ID, 2L);
+        QueueStatusResponse third = service.join(EVENT_ID, 3L);
+
+        assertTrue(first.isAdmitted());
+        if (!second.isAdmitted()) {
+            assertEquals(1, second.getPosition());
+            assertEquals(2, third.getPosition());
+        }
+    }
+
+    @Test
+    void joiningAgainKeepsTheSamePlace() {
+        service.join(EVENT_ID, 1L);
+        String token = service.join(EVENT_ID, 2L).getQueueToken();
+
+        assertEquals(token, service.join(EVENT_ID, 2L).getQueueToken());
+    }
+
+    @Test
+    void userWhoStoppedPollingIsSkippedWithoutSpendingAnAdmission() throws Exception {
+        service.join(EVENT_ID, 1L);
+        String gone = service.join(EVENT_ID, 2L).getQueueToken();
+        String polling = service.join(EVENT_ID, 3L).getQueueToken();
+        if (service.getStatus(EVENT_ID, gone).isAdmitted()) {
+            return;
+        }
+
+        Thread.sleep(700);
+        service.getStatus(EVENT_ID, polling);
+        Thread.sleep(400);
+        service.admitNext();
+
+        assertTrue(service.getStatus(EVENT_ID, polling).isAdmitted());
+        assertThrows(ResourceNotFoundException.class, () -> service.getStatus(EVENT_ID, gone));
+    }
+
+    @Test
+    void onlyAdmittedUsersMayOrderWithinTheirAttemptBudget() {
+        String admitted = service.join(EVENT_ID, 1L).getQueueToken();
+        String waiting = service.join(EVENT_ID, 2L).getQueueToken();
+        boolean secondWaiting = !service.getStatus(EVENT_ID, waiting).isAdmitted();
+
+        if (secondWaiting) {
+            assertThrows(AdmissionRequiredException.class, () -> service.checkAdmitted(EVENT_ID, 2L, waiting));
+        }
+        assertThrows(AdmissionRequiredException.class, () -> service.checkAdmitted(EVENT_ID, 2L, admitted));
+        assertThrows(AdmissionRequiredException.class, () -> service.checkAdmitted(EVENT_ID, 1L, null));
+
+        assertDoesNotThrow(() -> service.checkAdmitted(EVENT_ID, 1L, admitted));
+        assertDoesNotThrow(() -> service.checkAdmitted(EVENT_ID, 1L, admitted));
+        assertThrows(AdmissionRequiredException.class, () -> service.checkAdmitted(EVENT_ID, 1L, admitted));
+    }
+
+    @Test
+    void admissionIsSingleUse() {
+        String token = service.join(EVENT_ID, 1L).getQueueToken();
+        service.checkAdmitted(EVENT_ID, 1L, token);
+
+        service.complete(token);
+
+        assertThrows(AdmissionRequiredException.class, () -> service.checkAdmitted(EVENT_ID, 1L, token));
+    }
+
+    @Test
+    void regularEventsHaveNoWaitingRoom() {
+        assertThrows(ResourceNotFoundException.class, () -> service.join(REGULAR_EVENT_ID, 1L));
+        assertThrows(ResourceNotFoundException.class, () -> service.join(99L, 1L));
+
+        assertDoesNotThrow(() -> service.checkAdmitted(REGULAR_EVENT_ID, 1L, null));
+    }
+
+    @Test
+    void fullRoomEvictsTheIdlestQueueInsteadOfRefusing() {
+        properties.setMaxEvents(1);
+        String stale = service.join(EVENT_ID, 1L).getQueueToken();
+
+        assertDoesNotThrow(() -> service.join(OTHER_FLASH_SALE_ID, 2L));
+
+        assertThrows(ResourceNotFoundException.class, () -> service.getStatus(EVENT_ID, stale));
+    }
+
+    @Test
+    void queuesCloseWhenTheFlashSaleEnds() {
+        String token = service.join(EVENT_ID, 1L).getQueueToken();
+        when(eventRepository.findFlashSaleEventIds(any())).thenReturn(List.of(OTHER_FLASH_SALE_ID));
+
+        service.refreshFlashSales();
+
+        assertThrows(ResourceNotFoundException.class, () -> service.getStatus(EVENT_ID, token));
+        assertThrows(ResourceNotFoundException.class, () -> service.join(EVENT_ID, 1L));
+        assertDoesNotThrow(() -> service.checkAdmitted(EVENT_ID, 1L, null));
+    }
+
+    @Test
+    void disabledWaitingRoomLetsEveryoneOrder() {
+        properties.setEnabled(false);
+
+        assertDoesNotThrow(() -> service.checkAdmitted(EVENT_ID, 1L, null));
+    }
+
+    /**
+     * Number of leading tokens admitted; fails if a later user got in before an earlier one
+     */
+    private int admittedPrefix(List<String> tokens) {
+        int prefix = 0;
+        boolean gap = false;
+        for (String token : tokens) {
+            boolean admitted = service.getStatus(EVENT_ID, token).isAdmitted();
+            assertFalse(gap && admitted, "a later user was admitted before an earlier one");
+            if (admitted && !gap) {
+                prefix++;
+            } else {
+                gap = true;
+            }
+        }
+        return prefix;
+    }
+}
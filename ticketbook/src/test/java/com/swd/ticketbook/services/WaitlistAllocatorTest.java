@@ -0,0 +1,107 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.config.WaitlistProperties;
+import com.swd.ticketbook.exceptions.BusinessRuleViolationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Released ticket types are offered to their waiters in FIFO order until sold out, once per release
+ */
+class WaitlistAllocatorTest {
+
+    private final WaitlistService waitlistService = mock(WaitlistService.class);
+    private final WaitlistProperties properties = new WaitlistProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final WaitlistAllocator allocator = new WaitlistAllocator();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(allocator, "waitlistService", waitlistService);
+        ReflectionTestUtils.setField(allocator, "properties", properties);
+        ReflectionTestUtils.setField(allocator, "meterRegistry", meterRegistry);
+        allocator.registerMeters();
+    }
+
+    @Test
+    void nothingIsAllocatedWithoutARelease() {
+        allocator.allocate();
+
+        verifyNoInteractions(waitlistService);
+    }
+
+    @Test
+    void waitersAreOfferedInOrderUntilSoldOut() {
+        when(waitlistService.nextWaiting(1L)).thenReturn(List.of(10L, 11L, 12L, 13L));
+        when(waitlistService.offer(10L)).thenReturn(WaitlistService.OfferResult.OFFERED);
+        when(waitlistService.offer(11L)).thenReturn(WaitlistService.OfferResult.SKIPPED);
+        when(waitlistService.offer(12L)).thenReturn(WaitlistService.OfferResult.SOLD_OUT);
+
+        allocator.onInventoryReleased(new InventoryReleasedEvent(1L, 3L, 2));
+        allocator.allocate();
+
+        verify(waitlistService, never()).offer(13L);
+        assertEquals(1.0, meterRegistry.counter("ticketbook.waitlist.offered").count());
+    }
+
+    @Test
+    void directBuyerWinningTheRaceEndsThePass() {
+        when(waitlistService.nextWaiting(1L)).thenReturn(List.of(10L, 11L));
+        when(waitlistService.offer(10L)).thenThrow(new BusinessRuleViolationException("Not enough tickets available"));
+
+        allocator.onInventoryReleased(new InventoryReleasedEvent(1L, 3L, 2));
+        allocator.allocate();
+
+        verify(waitlistService, never()).offer(11L);
+        assertEquals(0.0, meterRegistry.counter("ticketbook.waitlist.offered").count());
+    }
+
+    @Test
+    void eachReleaseIsAllocatedOnce() {
+        when(waitlistService.nextWaiting(1L)).thenReturn(List.of());
+
+        allocator.onInventoryReleased(new InventoryReleasedEvent(1L, 3L, 2));
+        allocator.onInventoryReleased(new InventoryReleasedEvent(1L, 3L, 1));
+        allocator.allocate();
+        allocator.allocate();
+
+        verify(waitlistService, times(1)).nextWaiting(1L);
+    }
+
+    @Test
+    void failingTypeDoesNotBlockOthers() {
+        when(waitlistService.nextWaiting(1L)).thenThrow(new IllegalStateException("database down"));
+        when(waitlistService.nextWaiting(2L)).thenReturn(List.of(20L));
+        when(waitlistService.offer(20L)).thenReturn(WaitlistService.OfferResult.OFFERED);
+
+        allocator.onInventoryReleased(new InventoryReleasedEvent(1L, 3L, 1));
+        allocator.onInventoryReleased(new InventoryReleasedEvent(2L, 3L, 1));
+        allocator.allocate();
+
+        verify(waitlistService).offer(20L);
+    }
+
+    @Test
+    void releasesAreIgnoredWhileDisabled() {
+        properties.setEnabled(false);
+
+        allocator.onInventoryReleased(new InventoryReleasedEvent(1L, 3L, 2));
+        properties.setEnabled(true);
+        allocator.allocate();
+
+        verify(waitlistService, never()).nextWaiting(anyLong());
+    }
+}
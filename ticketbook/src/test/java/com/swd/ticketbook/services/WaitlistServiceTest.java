@@ -0,0 +1,199 @@
+package com.swd.ticketbook.services;
+
+import com.swd.ticketbook.config.WaitlistProperties;
+import com.swd.ticketbook.entities.Event;
+import com.swd.ticketbook.entities.Order;
+import com.swd.ticketbook.entities.OrderItem;
+import com.swd.ticketbook.entities.TicketType;
+import com.swd.ticketbook.entities.User;
+import com.swd.ticketbook.entities.WaitlistEntry;
+import com.swd.ticketbook.enums.EventStatus;
+import com.swd.ticketbook.enums.UserRole;
+import com.swd.ticketbook.enums.WaitlistStatus;
+import com.swd.ticketbook.repositories.OrderRepository;
+import com.swd.ticketbook.repositories.TicketTypeRepository;
+import com.swd.ticketbook.repositories.UserRepository;
+import com.swd.ticketbook.repositories.WaitlistEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * A waitlist offer claims the locked entry and turns it into a pending order on the waited-for ticket type
+ */
+@ExtendWith(MockitoExtension.class)
+class WaitlistServiceTest {
+
+    private static final Long ENTRY_ID = 7L;
+    private static final Long USER_ID = 42L;
+
+    @Mock
+    private WaitlistEntryRepository waitlistRepository;
+
+    @Mock
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private NotificationDispatcher notificationDispatcher;
+
+    @Spy
+    private WaitlistProperties properties = new WaitlistProperties();
+
+    @InjectMocks
+    private WaitlistService waitlistService;
+
+    private Event event;
+    private TicketType ticketType;
+    private WaitlistEntry entry;
+
+    @BeforeEach
+    void setUp() {
+        event = new Event();
+        event.setEventId(3L);
+        event.setName("Concert");
+        event.setStatus(EventStatus.ACTIVE);
+        event.setEndDate(LocalDateTime.now().plusDays(30));
+        ticketType = new TicketType(event, "VIP", new BigDecimal("500000"), 10);
+        ticketType.setTicketTypeId(1L);
+
+        entry = new WaitlistEntry(1L, 3L, USER_ID, 2);
+        entry.setEntryId(ENTRY_ID);
+    }
+
+    @Test
+    void offerReservesAndCreatesPendingOrderForTheWaitedType() {
+        User user = new User("Customer", "customer@example.com", "hash", UserRole.CUSTOMER);
+        user.setUserId(USER_ID);
+        whenLockedAndOnSale(5);
+        when(orderRepository.findActivePendingOrderByUserId(eq(USER_ID), any())).thenReturn(Optional.empty());
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setOrderId(99L);
+            return order;
+        });
+
+        assertEquals(WaitlistService.OfferResult.OFFERED, waitlistService.offer(ENTRY_ID));
+
+        verify(inventoryService).reserve(ticketType, USER_ID, 2);
+        verify(waitlistRepository).save(entry);
+        assertEquals(WaitlistStatus.OFFERED, entry.getStatus());
+        assertEquals(99L, entry.getOrderId());
+        verify(notificationDispatcher).dispatch(eq("waitlist offer #99"), any());
+    }
+
+    @Test
+    void offeredOrderRecordsAnItemForTheWaitedType() {
+        User user = new User("Customer", "customer@example.com", "hash", UserRole.CUSTOMER);
+        user.setUserId(USER_ID);
+        whenLockedAndOnSale(5);
+        when(orderRepository.findActivePendingOrderByUserId(eq(USER_ID), any())).thenReturn(Optional.empty());
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        waitlistService.offer(ENTRY_ID);
+
+        verify(orderRepository).save(argThat((Order order) -> {
+            assertEquals(1, order.getItems().size());
+            OrderItem item = order.getItems().get(0);
+            assertSame(ticketType, item.getTicketType());
+            assertEquals(2, item.getQuantity());
+            assertEquals(2, order.getTotalQuantity());
+            assertEquals(0, new BigDecimal("1000000").compareTo(order.getTotalAmount()));
+            return true;
+        }));
+    }
+
+    @Test
+    void entryLockedElsewhereOrNoLongerWaitingIsSkipped() {
+        when(waitlistRepository.lockWaiting(ENTRY_ID)).thenReturn(Optional.empty());
+
+        assertEquals(WaitlistService.OfferResult.SKIPPED, waitlistService.offer(ENTRY_ID));
+
+        verify(waitlistRepository, never()).findById(anyLong());
+        verifyNoInteractions(ticketTypeRepository, inventoryService, orderRepository);
+    }
+
+    @Test
+    void soldOutEndsThePass() {
+        whenLockedAndOnSale(0);
+
+        assertEquals(WaitlistService.OfferResult.SOLD_OUT, waitlistService.offer(ENTRY_ID));
+
+        verify(inventoryService, never()).reserve(any(), anyLong(), anyInt());
+        assertEquals(WaitlistStatus.WAITING, entry.getStatus());
+    }
+
+    @Test
+    void requestLargerThanWhatIsLeftIsSkipped() {
+        whenLockedAndOnSale(1);
+
+        assertEquals(WaitlistService.OfferResult.SKIPPED, waitlistService.offer(ENTRY_ID));
+
+        verify(inventoryService, never()).reserve(any(), anyLong(), anyInt());
+        assertEquals(WaitlistStatus.WAITING, entry.getStatus());
+    }
+
+    @Test
+    void customerWithPendingOrderStaysWaiting() {
+        whenLockedAndOnSale(5);
+        when(orderRepository.findActivePendingOrderByUserId(eq(USER_ID), any()))
+            .thenReturn(Optional.of(new Order()));
+
+        assertEquals(WaitlistService.OfferResult.SKIPPED, waitlistService.offer(ENTRY_ID));
+
+        verify(inventoryService, never()).reserve(any(), anyLong(), anyInt());
+        verify(orderRepository, never()).save(any());
+        assertEquals(WaitlistStatus.WAITING, entry.getStatus());
+    }
+
+    @Test
+    void entryForEventNoLongerOnSaleIsCancelled() {
+        event.setStatus(EventStatus.CANCELLED);
+        when(waitlistRepository.lockWaiting(ENTRY_ID)).thenReturn(Optional.of(entry));
+        when(ticketTypeRepository.findById(1L)).thenReturn(Optional.of(ticketType));
+
+        assertEquals(WaitlistService.OfferResult.SKIPPED, waitlistService.offer(ENTRY_ID));
+
+        assertEquals(WaitlistStatus.CANCELLED, entry.getStatus());
+        verifyNoInteractions(inventoryService);
+    }
+
+    private void whenLockedAndOnSale(int available) {
+        when(waitlistRepository.lockWaiting(ENTRY_ID)).thenReturn(Optional.of(entry));
+        when(ticketTypeRepository.findById(1L)).thenReturn(Optional.of(ticketType));
+        when(inventoryService.getAvailable(ticketType)).thenReturn(available);
+    }
+}
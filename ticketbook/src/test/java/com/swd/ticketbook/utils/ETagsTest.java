@@ -0,0 +1,46 @@
+package com.swd.ticketbook.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Weak ETags from version stamps and If-None-Match evaluation
+ */
+class ETagsTest {
+
+    private static final String ETAG = ETags.weak("7.3.2.5");
+
+    @Test
+    void stampBecomesAWeakTag() {
+        assertEquals("W/\"7.3.2.5\"", ETAG);
+        assertNull(ETags.weak(null));
+    }
+
+    @Test
+    void weakComparisonIgnoresTheWeakPrefix() {
+        assertTrue(ETags.matches("W/\"7.3.2.5\"", ETAG));
+        assertTrue(ETags.matches("\"7.3.2.5\"", ETAG));
+    }
+
+    @Test
+    void anyTagInTheListMatches() {
+        assertTrue(ETags.matches("W/\"7.3.1.5\", W/\"7.3.2.5\"", ETAG));
+        assertTrue(ETags.matches("*", ETAG));
+    }
+
+    @Test
+    void changedStampDoesNotMatch() {
+        assertFalse(ETags.matches("W/\"7.3.1.5\"", ETAG));
+        assertFalse(ETags.matches("W/\"7.3.2.5", ETAG));
+    }
+
+    @Test
+    void missingHeaderOrResourceNeverMatches() {
+        assertFalse(ETags.matches(null, ETAG));
+        assertFalse(ETags.matches("*", null));
+    }
+}
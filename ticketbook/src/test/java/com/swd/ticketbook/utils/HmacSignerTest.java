@@ -0,0 +1,53 @@
+package com.swd.ticketbook.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * HMAC signatures: known vectors, verification and per-thread Mac reuse
+ */
+class HmacSignerTest {
+
+    private final HmacSigner signer = new HmacSigner("HmacSHA256", "key");
+
+    @Test
+    void signsKnownVector() {
+        // Widely published HMAC-SHA256 example value
+        assertEquals("f7bc83f430538424b13298e6aa6fb143ef4d59a14946175997479dbc2d1a3cd8",
+            signer.sign("The quick brown fox jumps over the lazy dog"));
+    }
+
+    @Test
+    void verifiesIgnoringHexCase() {
+        String signature = signer.sign("vnp_Amount=100&vnp_TxnRef=1_1");
+
+        assertTrue(signer.verify("vnp_Amount=100&vnp_TxnRef=1_1", signature));
+        assertTrue(signer.verify("vnp_Amount=100&vnp_TxnRef=1_1", signature.toUpperCase()));
+    }
+
+    @Test
+    void rejectsTamperedDataWrongKeyAndMissingSignature() {
+        String signature = signer.sign("vnp_Amount=100&vnp_TxnRef=1_1");
+
+        assertFalse(signer.verify("vnp_Amount=999&vnp_TxnRef=1_1", signature));
+        assertFalse(new HmacSigner("HmacSHA256", "other").verify("vnp_Amount=100&vnp_TxnRef=1_1", signature));
+        assertFalse(signer.verify("vnp_Amount=100&vnp_TxnRef=1_1", null));
+        assertFalse(signer.verify("vnp_Amount=100&vnp_TxnRef=1_1", signature.substring(2)));
+    }
+
+    @Test
+    void signsTheSameOnEveryThread() throws Exception {
+        String expected = signer.sign("data");
+
+        String other = CompletableFuture.supplyAsync(() -> signer.sign("data")).get();
+
+        assertEquals(expected, other);
+        // doFinal resets the Mac: a second call on this thread is not polluted by the first
+        assertEquals(expected, signer.sign("data"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.swd.ticketbook.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Settlement file format, external sort and sorted merge against the checked-in fixture
+ */
+class SettlementFileReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsFixtureAndReportsMalformedRows() throws Exception {
+        List<Long> malformed = new ArrayList<>();
+        List<SettlementFileReader.Row> rows = new ArrayList<>();
+        try (SettlementFileReader reader = new SettlementFileReader(fixture(), (line, raw) -> malformed.add(line))) {
+            reader.forEachRemaining(rows::add);
+        }
+
+        assertEquals(8, rows.size());
+        assertEquals(List.of(9L, 10L), malformed);
+        SettlementFileReader.Row first = rows.get(0);
+        assertEquals("14230517", first.transactionNo());
+        assertEquals("105_1760753400000", first.txnRef());
+        assertEquals(0, new BigDecimal("450000").compareTo(first.amount()));
+        assertEquals("00", first.responseCode());
+    }
+
+    @Test
+    void externalSortOrdersRowsAcrossRuns() throws Exception {
+        Path sorted = tempDir.resolve("sorted.csv");
+        try (SettlementFileReader reader = new SettlementFileReader(fixture(), null)) {
+            // Three lines per run forces a multi-way merge
+            ExternalLineSorter.sort(fixture(), sorted, SettlementFileReader.lineOrder(reader.getHeader()), 3, tempDir);
+        }
+
+        List<String> keys = new ArrayList<>();
+        try (SettlementFileReader reader = new SettlementFileReader(sorted, null)) {
+            reader.forEachRemaining(row -> keys.add(row.transactionNo()));
+        }
+        assertEquals(List.of("14230502", "14230509", "14230517", "14230517",
+                             "14230526", "14230533", "14230541", "14230550"), keys);
+    }
+
+    @Test
+    void mergePairsKeysAndReportsBothSidesOnly() {
+        List<String> matched = new ArrayList<>();
+        List<String> leftOnly = new ArrayList<>();
+        List<String> rightOnly = new ArrayList<>();
+
+        SortedMerge.merge(
+            List.of("14230502", "14230509", "14230533").iterator(), key -> key,
+            List.of("14230490", "14230509", "14230533", "14230600").iterator(), key -> key,
+            new SortedMerge.Handler<String, String>() {
+                public void matched(String left, String right) { matched.add(left); }
+                public void leftOnly(String left) { leftOnly.add(left); }
+                public void rightOnly(String right) { rightOnly.add(right); }
+            });
+
+        assertEquals(List.of("14230509", "14230533"), matched);
+        assertEquals(List.of("14230502"), leftOnly);
+        assertEquals(List.of("14230490", "14230600"), rightOnly);
+    }
+
+    @Test
+    void mergeRejectsUnsortedInput() {
+        assertThrows(IllegalStateException.class, () -> SortedMerge.merge(
+            List.of("2", "1").iterator(), key -> key,
+            List.<String>of().iterator(), key -> key,
+            new SortedMerge.Handler<String, String>() {
+                public void matched(String left, String right) { }
+                public void leftOnly(String left) { }
+                public void rightOnly(String right) { }
+            }));
+    }
+
+    private static Path fixture() throws URISyntaxException {
+        return Paths.get(SettlementFileReaderTest.class
+            .getResource("/fixtures/settlement/vnpay_settlement_20261018.csv").toURI());
+    }
+}
@@ -0,0 +1,95 @@
+package com.swd.ticketbook.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Statement scopes: counts per nested scope and N+1 detection on repeated SELECTs
+ */
+class StatementScopeTest {
+
+    private static final String SELECT_TICKET_TYPES = "select tt1_0.ticket_type_id from ticket_types tt1_0 where tt1_0.event_id=?";
+    private static final String INSERT_TICKET = "insert into tickets (order_id,qr_code) values (?,?)";
+
+    private final StatementCounter counter = new StatementCounter();
+    private StatementScope outer;
+    private StatementScope inner;
+
+    @AfterEach
+    void tearDown() {
+        if (inner != null) {
+            inner.close();
+        }
+        if (outer != null) {
+            outer.close();
+        }
+    }
+
+    @Test
+    void selectRepeatedUpToTheThresholdIsReportedWithItsStack() {
+        outer = StatementScope.open(3);
+        for (int i = 0; i < 4; i++) {
+            counter.inspect(SELECT_TICKET_TYPES);
+        }
+        counter.inspect("select e1_0.event_id from events e1_0 where e1_0.event_id=?");
+
+        List<StatementScope.Repeat> repeated = outer.getRepeated();
+        assertEquals(1, repeated.size());
+        assertEquals(SELECT_TICKET_TYPES, repeated.get(0).getSql());
+        assertEquals(4, repeated.get(0).getCount());
+        assertNotNull(repeated.get(0).getStack());
+        assertEquals(5, outer.getStatements());
+    }
+
+    @Test
+    void selectBelowTheThresholdIsNotReported() {
+        outer = StatementScope.open(3);
+        counter.inspect(SELECT_TICKET_TYPES);
+        counter.inspect(SELECT_TICKET_TYPES);
+
+        assertTrue(outer.getRepeated().isEmpty());
+    }
+
+    @Test
+    void repeatedWritesAreCountedButNotReported() {
+        outer = StatementScope.open(3);
+        for (int i = 0; i < 5; i++) {
+            counter.inspect(INSERT_TICKET);
+        }
+
+        assertEquals(5, outer.getStatements());
+        assertTrue(outer.getRepeated().isEmpty());
+    }
+
+    @Test
+    void everyOpenScopeSeesEveryStatement() {
+        outer = StatementScope.open(3);
+        counter.inspect(SELECT_TICKET_TYPES);
+        inner = StatementScope.open(3);
+        counter.inspect(SELECT_TICKET_TYPES);
+        counter.inspect(SELECT_TICKET_TYPES);
+        inner.close();
+
+        assertEquals(2, inner.getStatements());
+        assertEquals(3, outer.getStatements());
+        assertTrue(inner.getRepeated().isEmpty());
+        assertEquals(1, outer.getRepeated().size());
+    }
+
+    @Test
+    void statementsOutsideAnyScopeAreOnlyCounted() {
+        long before = StatementCounter.current();
+
+        counter.inspect(SELECT_TICKET_TYPES);
+
+        assertFalse(StatementScope.isOpen());
+        assertEquals(before + 1, StatementCounter.current());
+    }
+}